@@ -0,0 +1,14 @@
+package br.ufal.ic.p2.wepayu.Exception;
+
+/**
+ * Exceção lançada quando o arquivo de uma folha de pagamento não pode ser gravado
+ */
+public class ErroGravacaoFolhaException extends RuntimeException {
+    public ErroGravacaoFolhaException(String msg) {
+        super(msg);
+    }
+
+    public ErroGravacaoFolhaException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
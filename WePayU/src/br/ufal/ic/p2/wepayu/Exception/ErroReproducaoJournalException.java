@@ -0,0 +1,15 @@
+package br.ufal.ic.p2.wepayu.Exception;
+
+/**
+ * Exceção lançada quando o journal de operações não pode ser lido ou uma
+ * operação registrada nele não pode ser reaplicada na inicialização
+ */
+public class ErroReproducaoJournalException extends RuntimeException {
+    public ErroReproducaoJournalException(String msg) {
+        super(msg);
+    }
+    
+    public ErroReproducaoJournalException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
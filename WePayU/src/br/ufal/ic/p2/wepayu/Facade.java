@@ -5,6 +5,9 @@ import br.ufal.ic.p2.wepayu.services.impl.*;
 import br.ufal.ic.p2.wepayu.models.*;
 import br.ufal.ic.p2.wepayu.commands.*;
 import br.ufal.ic.p2.wepayu.Exception.*;
+import br.ufal.ic.p2.wepayu.factories.EmpregadoFactory;
+import br.ufal.ic.p2.wepayu.factories.PersistenciaServiceFactory;
+import br.ufal.ic.p2.wepayu.persistence.PoliticaPersistencia;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -27,7 +30,7 @@ import java.util.HashMap;
  *   <li>Controle de sindicalização e taxas sindicais</li>
  *   <li>Lançamento de cartões de ponto e vendas</li>
  *   <li>Geração de folha de pagamento</li>
- *   <li>Persistência automática de dados</li>
+ *   <li>Persistência automática de dados (journal de operações sobre o último snapshot)</li>
  *   <li>Sistema de undo/redo para operações</li>
  * </ul>
  * 
@@ -61,6 +64,7 @@ public class Facade {
      *   <li>Inicializa o gerenciador de comandos para undo/redo</li>
      *   <li>Configura todos os serviços do sistema</li>
      *   <li>Carrega dados existentes do sistema de persistência</li>
+     *   <li>Reaplica as operações registradas no journal após o último snapshot</li>
      * </ul>
      */
     public Facade() {
@@ -74,11 +78,16 @@ public class Facade {
         this.empregadoService = new EmpregadoServiceImpl(empregados, membrosSindicato, id, commandManager);
         this.sindicatoService = new SindicatoServiceImpl(membrosSindicato, empregados, commandManager);
         this.lancamentoService = new LancamentoServiceImpl(empregados, commandManager);
-        this.folhaPagamentoService = new FolhaPagamentoServiceImpl(empregados, membrosSindicato);
-        this.persistenciaService = new PersistenciaServiceImpl(empregados, membrosSindicato, id);
+        this.folhaPagamentoService = new FolhaPagamentoServiceImpl(empregados, membrosSindicato, commandManager);
+        this.persistenciaService = PersistenciaServiceFactory.criarPersistencia(empregados, membrosSindicato, id);
 
-        // Carrega dados existentes
+        // Carrega dados existentes e reaplica o journal sobre eles; as entidades
+        // alteradas pelos comandos, inclusive os reaplicados, são salvas incrementalmente
+        this.commandManager.adicionarObservador(persistenciaService);
         this.persistenciaService.carregarSistema();
+        this.persistenciaService.reproduzirOperacoes(this::reaplicarOperacao);
+        this.commandManager.limparHistorico();
+        this.commandManager.notificarSistemaCarregado();
     }
 
     // ========== OPERAÇÕES DE EMPREGADOS ==========
@@ -108,7 +117,7 @@ public class Facade {
     public String criarEmpregado(String nome, String endereco, String tipo, String salario)
             throws NomeNaoPodeSerNuloException, EnderecoNaoPodeSerNuloException, TipoNaoPodeSerNuloException, TipoInvalidoException, SalarioNaoPodeSerNuloException, SalarioDeveSerNumericoException, SalarioDeveSerNaoNegativoException {
         String id = empregadoService.criarEmpregado(nome, endereco, tipo, salario);
-        salvarSistema(); // Salva automaticamente após criar empregado
+        persistenciaService.registrarOperacao("criarEmpregado", id, nome, endereco, tipo, salario);
         return id;
     }
 
@@ -136,7 +145,7 @@ public class Facade {
     public String criarEmpregado(String nome, String endereco, String tipo, String salario, String comissao)
             throws Exception {
         String id = empregadoService.criarEmpregado(nome, endereco, tipo, salario, comissao);
-        salvarSistema(); // Salva automaticamente após criar empregado
+        persistenciaService.registrarOperacao("criarEmpregado", id, nome, endereco, tipo, salario, comissao);
         return id;
     }
 
@@ -169,7 +178,7 @@ public class Facade {
     public void alteraEmpregado(String emp, String atributo, String valor)
             throws Exception {
         empregadoService.alteraEmpregado(emp, atributo, valor);
-        salvarSistema(); // Salva automaticamente após alterar empregado
+        persistenciaService.registrarOperacao("alteraEmpregado", emp, atributo, valor);
     }
 
     /**
@@ -195,7 +204,7 @@ public class Facade {
     public void alteraEmpregado(String emp, String atributo, String valor, String comissao_salario)
             throws Exception {
         empregadoService.alteraEmpregado(emp, atributo, valor, comissao_salario);
-        salvarSistema(); // Salva automaticamente após alterar empregado
+        persistenciaService.registrarOperacao("alteraEmpregado", emp, atributo, valor, comissao_salario);
     }
 
     /**
@@ -223,7 +232,7 @@ public class Facade {
     public void alteraEmpregado(String emp, String atributo, String valor1, String banco, String agencia, String contaCorrente)
             throws Exception {
         empregadoService.alteraEmpregado(emp, atributo, valor1, banco, agencia, contaCorrente);
-        salvarSistema(); // Salva automaticamente após alterar empregado
+        persistenciaService.registrarOperacao("alteraEmpregado", emp, atributo, valor1, banco, agencia, contaCorrente);
     }
 
     /**
@@ -250,7 +259,7 @@ public class Facade {
     public void alteraEmpregado(String emp, String atributo, String valor, String idSindicato, String taxaSindical)
             throws Exception {
         empregadoService.alteraEmpregado(emp, atributo, valor, idSindicato, taxaSindical);
-        salvarSistema(); // Salva automaticamente após alterar empregado
+        persistenciaService.registrarOperacao("alteraEmpregado", emp, atributo, valor, idSindicato, taxaSindical);
     }
 
     /**
@@ -279,7 +288,7 @@ public class Facade {
     public void alteraEmpregado(String emp, String atributo, String valor1, String banco, String agencia, String contaCorrente, String comissao)
             throws Exception {
         empregadoService.alteraEmpregado(emp, atributo, valor1, banco, agencia, contaCorrente, comissao);
-        salvarSistema(); // Salva automaticamente após alterar empregado
+        persistenciaService.registrarOperacao("alteraEmpregado", emp, atributo, valor1, banco, agencia, contaCorrente, comissao);
     }
 
     /**
@@ -294,7 +303,7 @@ public class Facade {
      */
     public void removerEmpregado(String emp) throws EmpregadoNaoExisteException, IdentificacaoEmpregadoNaoPodeSerNulaException{
         empregadoService.removerEmpregado(emp);
-        salvarSistema(); // Salva automaticamente após remover empregado
+        persistenciaService.registrarOperacao("removerEmpregado", emp);
     }
 
     /**
@@ -376,7 +385,7 @@ public class Facade {
     public MembroSindicato criarMembro(String id, String taxa)
             throws Exception {
         MembroSindicato membro = sindicatoService.criarMembro(id, taxa);
-        salvarSistema(); // Salva automaticamente após criar membro
+        persistenciaService.registrarOperacao("criarMembro", id, taxa);
         return membro;
     }
 
@@ -399,7 +408,7 @@ public class Facade {
     public void lancaTaxaServico(String membro, String data, String valor)
             throws Exception {
         sindicatoService.lancaTaxaServico(membro, data, valor);
-        salvarSistema(); // Salva automaticamente após lançar taxa de serviço
+        persistenciaService.registrarOperacao("lancaTaxaServico", membro, data, valor);
     }
 
     /**
@@ -408,6 +417,10 @@ public class Facade {
      * <p>Este método calcula a soma de todas as taxas de serviço lançadas
      * para um empregado sindicalizado dentro do período especificado.</p>
      * 
+     * <p>A soma é exata, em centavos: taxas de 0,7 e 0,1 somam 0,80. Versões
+     * anteriores somavam em ponto flutuante e podiam exibir um centavo a menos
+     * (0,79).</p>
+     * 
      * @param empregado ID do empregado
      * @param dataInicial Data inicial do período no formato "dd/MM/yyyy"
      * @param dataFinal Data final do período no formato "dd/MM/yyyy"
@@ -443,7 +456,7 @@ public class Facade {
     public void lancaCartao(String emp, String data, String horas)
             throws Exception {
         lancamentoService.lancaCartao(emp, data, horas);
-        salvarSistema(); // Salva automaticamente após lançar cartão
+        persistenciaService.registrarOperacao("lancaCartao", emp, data, horas);
     }
 
     /**
@@ -466,7 +479,7 @@ public class Facade {
     public void lancaVenda(String emp, String data, String valor)
             throws Exception {
         lancamentoService.lancaVenda(emp, data, valor);
-        salvarSistema(); // Salva automaticamente após lançar venda
+        persistenciaService.registrarOperacao("lancaVenda", emp, data, valor);
     }
 
     /**
@@ -513,6 +526,10 @@ public class Facade {
      * <p>Este método calcula a soma de todas as vendas realizadas
      * por um empregado comissionado dentro do período especificado.</p>
      * 
+     * <p>A soma é exata, em centavos: vendas de 0,7 e 0,1 somam 0,80. Versões
+     * anteriores somavam em ponto flutuante e podiam exibir um centavo a menos
+     * (0,79).</p>
+     * 
      * @param emp ID do empregado comissionado
      * @param dataInicial Data inicial do período no formato "dd/MM/yyyy"
      * @param dataFinal Data final do período no formato "dd/MM/yyyy"
@@ -557,6 +574,87 @@ public class Facade {
     public void rodaFolha(String data, String arquivo) throws DataInvalidaException {
         RodaFolhaCommand command = new RodaFolhaCommand(data, arquivo, folhaPagamentoService);
         commandManager.executar(command);
+        persistenciaService.registrarCheckpoint(); // A dívida sindical atualizada pela folha não tem registro no journal
+    }
+
+    /**
+     * Processa as folhas de pagamento de todos os dias de pagamento de um período.
+     * 
+     * <p>As folhas são processadas em ordem cronológica, cada uma a partir do
+     * estado deixado pela anterior, e cada dia de pagamento gera o arquivo
+     * "prefixo-aaaa-mm-dd.txt". Equivale a chamar {@link #rodaFolha(String, String)}
+     * para cada dia de pagamento do período, com um único checkpoint ao final.</p>
+     * 
+     * <p>Se a gravação de uma folha falhar no meio do período, as folhas
+     * anteriores permanecem gravadas e a dívida sindical atualizada por elas
+     * passa pelo checkpoint antes de o erro ser lançado.</p>
+     * 
+     * @param dataInicial Primeira data do período no formato "dd/MM/yyyy" (inclusive)
+     * @param dataFinal Última data do período no formato "dd/MM/yyyy" (inclusive)
+     * @param prefixoArquivo Prefixo dos arquivos das folhas
+     * @throws DataInvalidaException Se uma das datas for inválida ou a data inicial for posterior à final
+     * @throws ErroGravacaoFolhaException Se o arquivo de uma folha não puder ser gravado
+     */
+    public void rodaFolhaPeriodo(String dataInicial, String dataFinal, String prefixoArquivo) throws DataInvalidaException {
+        RodaFolhaPeriodoCommand command = new RodaFolhaPeriodoCommand(dataInicial, dataFinal, prefixoArquivo, folhaPagamentoService);
+        commandManager.executar(command);
+        persistenciaService.registrarCheckpoint(); // A dívida sindical atualizada pelas folhas não tem registro no journal
+        if (command.getErroGravacao() != null) {
+            throw command.getErroGravacao();
+        }
+    }
+
+    /**
+     * Captura uma simulação da folha de pagamento sobre uma cópia do estado atual.
+     * 
+     * <p>A simulação não altera os empregados nem os membros do sindicato do
+     * sistema, não é registrada no journal nem no histórico de undo/redo, e pode
+     * receber alterações de cenário (reajuste, agenda) e rodar em outra thread,
+     * ao mesmo tempo que as demais operações.</p>
+     * 
+     * @return Simulação sobre a cópia do estado atual
+     */
+    public SimulacaoFolha criarSimulacao() {
+        return SimulacaoFolha.capturar(empregados, membrosSindicato);
+    }
+
+    /**
+     * Gera a folha de pagamento de uma data sem alterar o estado do sistema.
+     * 
+     * <p>O arquivo tem o mesmo formato do gerado por {@link #rodaFolha(String, String)},
+     * mas a dívida sindical dos horistas não é atualizada. Opcionalmente, a
+     * simulação aplica um reajuste percentual a todos os salários e uma mesma
+     * agenda de pagamento a todos os empregados.</p>
+     * 
+     * @param data Data da folha no formato "dd/MM/yyyy"
+     * @param arquivo Nome do arquivo da folha simulada
+     * @param reajuste Percentual de reajuste dos salários (ex: "5"); vazio ou nulo para manter os salários
+     * @param agenda Agenda de pagamento de todos os empregados; vazia ou nula para manter as agendas
+     * @throws DataInvalidaException Se a data for inválida
+     * @throws AgendaPagamentoInvalidaException Se a agenda não estiver disponível
+     */
+    public void simularFolha(String data, String arquivo, String reajuste, String agenda)
+            throws DataInvalidaException, AgendaPagamentoInvalidaException {
+        SimulacaoFolha simulacao = criarSimulacao();
+        if (reajuste != null && !reajuste.isBlank()) {
+            simulacao.reajustarSalarios(reajuste);
+        }
+        if (agenda != null && !agenda.isBlank()) {
+            simulacao.definirAgenda(agenda);
+        }
+        simulacao.rodaFolha(data, arquivo);
+    }
+
+    /**
+     * Gera a folha de pagamento de uma data sem alterar o estado do sistema.
+     * 
+     * @param data Data da folha no formato "dd/MM/yyyy"
+     * @param arquivo Nome do arquivo da folha simulada
+     * @throws DataInvalidaException Se a data for inválida
+     * @see #simularFolha(String, String, String, String)
+     */
+    public void simularFolha(String data, String arquivo) throws DataInvalidaException {
+        criarSimulacao().rodaFolha(data, arquivo);
     }
 
     // ========== OPERAÇÕES DE PERSISTÊNCIA ==========
@@ -565,7 +663,8 @@ public class Facade {
      * Salva todos os dados do sistema em arquivos de persistência.
      * 
      * <p>Este método salva automaticamente todos os dados do sistema,
-     * incluindo empregados e membros do sindicato, em arquivos XML.</p>
+     * incluindo empregados e membros do sindicato, em arquivos XML.
+     * Após o snapshot, o journal de operações é descartado.</p>
      */
     public void salvarSistema() {
         persistenciaService.salvarSistema();
@@ -575,10 +674,14 @@ public class Facade {
      * Carrega todos os dados do sistema a partir dos arquivos de persistência.
      * 
      * <p>Este método carrega automaticamente todos os dados salvos anteriormente,
-     * incluindo empregados e membros do sindicato, dos arquivos XML.</p>
+     * incluindo empregados e membros do sindicato, dos arquivos XML. O histórico
+     * de undo/redo é descartado e os índices, quadros e totais da folha são
+     * refeitos a partir dos dados carregados.</p>
      */
     public void carregarSistema() {
         persistenciaService.carregarSistema();
+        commandManager.limparHistorico(); // os comandos guardados se referem aos objetos substituídos
+        commandManager.notificarSistemaCarregado(); // índices e totais da folha são refeitos
     }
 
     /**
@@ -591,6 +694,7 @@ public class Facade {
     public void zerarSistema() {
         ZerarSistemaCommand command = new ZerarSistemaCommand(empregados, membrosSindicato);
         commandManager.executar(command);
+        persistenciaService.registrarCheckpoint(); // Snapshot vazio, o journal anterior deixa de ser necessário
     }
 
     /**
@@ -605,6 +709,73 @@ public class Facade {
         sistemaEncerrado = true;
     }
 
+    /**
+     * Define quando as operações do sistema se tornam duráveis em disco.
+     * 
+     * <p>Políticas suportadas:</p>
+     * <ul>
+     *   <li><strong>comando:</strong> cada operação é gravada em disco antes de retornar (padrão)</li>
+     *   <li><strong>operacoes N:</strong> gravação em disco a cada N operações</li>
+     *   <li><strong>intervalo MS:</strong> gravação em disco no máximo MS milissegundos após cada operação</li>
+     *   <li><strong>encerrar:</strong> gravação em disco somente em {@link #encerrarSistema()}</li>
+     *   <li><strong>grupo [MS]:</strong> operações consecutivas ou concorrentes de uma janela de MS
+     *       milissegundos são gravadas juntas; o ponto de durabilidade é consultado em
+     *       {@link #getPontoDeDurabilidade()}</li>
+     * </ul>
+     * 
+     * <p>As operações registradas sob a política anterior são gravadas em disco antes da troca.</p>
+     * 
+     * @param politica Descrição da política no formato "modo [parametro]"
+     * @throws IllegalArgumentException Se a descrição for inválida
+     */
+    public void definirPoliticaPersistencia(String politica) throws IllegalArgumentException {
+        persistenciaService.definirPolitica(PoliticaPersistencia.interpretar(politica));
+    }
+
+    /**
+     * Define a quantidade de operações no journal que dispara a compactação em
+     * um novo snapshot.
+     * 
+     * <p>A compactação captura o estado e grava o snapshot em segundo plano,
+     * enquanto os comandos seguintes continuam sendo registrados no journal.
+     * O padrão é {@value PersistenciaServiceImpl#LIMITE_REGISTROS_JOURNAL} operações.</p>
+     * 
+     * @param registros Quantidade de operações, inteira e positiva
+     * @throws IllegalArgumentException Se a quantidade for inválida
+     */
+    public void definirLimiteCompactacao(String registros) throws IllegalArgumentException {
+        int limite;
+        try {
+            limite = Integer.parseInt(registros);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Limite de compactacao invalido: " + registros);
+        }
+        persistenciaService.definirLimiteCompactacao(limite);
+    }
+
+    /**
+     * Obtém o ponto de durabilidade do sistema.
+     * 
+     * <p>Todas as operações com sequência menor ou igual ao valor retornado
+     * sobrevivem a uma queda do sistema.</p>
+     * 
+     * @return Sequência da última operação gravada em disco
+     */
+    public String getPontoDeDurabilidade() {
+        return String.valueOf(persistenciaService.getSequenciaDuravel());
+    }
+
+    /**
+     * Grava em disco todas as operações realizadas até o momento.
+     * 
+     * <p>Chamadas concorrentes compartilham a mesma gravação.</p>
+     * 
+     * @return Ponto de durabilidade alcançado
+     */
+    public String aguardarDurabilidade() {
+        return String.valueOf(persistenciaService.aguardarDurabilidade());
+    }
+
     // ========== OPERAÇÕES DE UNDO/REDO ==========
 
     /**
@@ -622,6 +793,7 @@ public class Facade {
             throw new NaoPodeComandosAposEncerrarSistemaException("Nao pode dar comandos depois de encerrarSistema.");
         }
         commandManager.undo();
+        persistenciaService.registrarCheckpoint(); // Desfazer não é reaplicável a partir do journal
     }
 
     /**
@@ -634,6 +806,7 @@ public class Facade {
      */
     public void redo() throws Exception {
         commandManager.redo();
+        persistenciaService.registrarCheckpoint(); // Refazer não é reaplicável a partir do journal
     }
 
     // ========== OPERAÇÕES DE AGENDAS DE PAGAMENTO ==========
@@ -657,6 +830,61 @@ public class Facade {
      */
     public void criarAgendaDePagamentos(String descricao) throws IllegalArgumentException {
         br.ufal.ic.p2.wepayu.models.AgendaDePagamentos.criarAgenda(descricao);
-        salvarSistema(); // Salva automaticamente após criar agenda
+        persistenciaService.registrarOperacao("criarAgendaDePagamentos", descricao);
+    }
+
+    // ========== REAPLICAÇÃO DO JOURNAL ==========
+
+    /**
+     * Reaplica uma operação registrada no journal durante a inicialização.
+     * 
+     * <p>As operações são reaplicadas diretamente nos serviços, sem passar pelos
+     * métodos públicos da Facade, para não serem registradas novamente.
+     * A criação de empregados usa o ID registrado, tornando a reaplicação
+     * independente do contador de IDs da sessão atual.</p>
+     * 
+     * @param campos Nome da operação seguido dos argumentos originais
+     * @throws Exception Se a operação não puder ser reaplicada
+     */
+    private void reaplicarOperacao(String[] campos) throws Exception {
+        switch (campos[0]) {
+            case "criarEmpregado": {
+                Empregado empregado = campos.length == 7
+                        ? EmpregadoFactory.criarEmpregado(campos[4], campos[2], campos[3], campos[5], campos[6])
+                        : EmpregadoFactory.criarEmpregado(campos[4], campos[2], campos[3], campos[5]);
+                empregado.setId(campos[1]);
+                commandManager.executar(new CriarEmpregadoCommand(empregado, empregados));
+                break;
+            }
+            case "alteraEmpregado":
+                switch (campos.length) {
+                    case 4: empregadoService.alteraEmpregado(campos[1], campos[2], campos[3]); break;
+                    case 5: empregadoService.alteraEmpregado(campos[1], campos[2], campos[3], campos[4]); break;
+                    case 6: empregadoService.alteraEmpregado(campos[1], campos[2], campos[3], campos[4], campos[5]); break;
+                    case 7: empregadoService.alteraEmpregado(campos[1], campos[2], campos[3], campos[4], campos[5], campos[6]); break;
+                    default: empregadoService.alteraEmpregado(campos[1], campos[2], campos[3], campos[4], campos[5], campos[6], campos[7]); break;
+                }
+                break;
+            case "removerEmpregado":
+                empregadoService.removerEmpregado(campos[1]);
+                break;
+            case "criarMembro":
+                sindicatoService.criarMembro(campos[1], campos[2]);
+                break;
+            case "lancaTaxaServico":
+                sindicatoService.lancaTaxaServico(campos[1], campos[2], campos[3]);
+                break;
+            case "lancaCartao":
+                lancamentoService.lancaCartao(campos[1], campos[2], campos[3]);
+                break;
+            case "lancaVenda":
+                lancamentoService.lancaVenda(campos[1], campos[2], campos[3]);
+                break;
+            case "criarAgendaDePagamentos":
+                br.ufal.ic.p2.wepayu.models.AgendaDePagamentos.criarAgenda(campos[1]);
+                break;
+            default:
+                throw new IllegalArgumentException("Operacao desconhecida no journal: " + campos[0]);
+        }
     }
 }
@@ -20,6 +20,7 @@ import br.ufal.ic.p2.wepayu.Exception.AgendaPagamentoInvalidaException;
 import br.ufal.ic.p2.wepayu.models.Empregado;
 import br.ufal.ic.p2.wepayu.models.MembroSindicato;
 import br.ufal.ic.p2.wepayu.models.MetodoPagamento;
+import br.ufal.ic.p2.wepayu.models.TipoEmpregado;
 import br.ufal.ic.p2.wepayu.Exception.EmpregadoNaoEncontradoException;
 import br.ufal.ic.p2.wepayu.Exception.ErroAlteracaoEmpregadoException;
 import br.ufal.ic.p2.wepayu.Exception.IdentificacaoSindicatoJaExisteException;
@@ -214,14 +215,15 @@ public class AlterarEmpregadoCommand implements Command {
                 }
                 
                 // Altera o salário criando um novo empregado do mesmo tipo
-                String tipoAtualSalario = empregado.getTipo();
+                TipoEmpregado tipoAtual = empregado.getTipoEmpregado();
+                String tipoAtualSalario = tipoAtual.getNome();
                 String nomeSalario = empregado.getNome();
                 String enderecoSalario = empregado.getEndereco();
                 MembroSindicato sindicatoAnteriorSalario = empregado.getSindicato();
                 MetodoPagamento metodoPagamentoAnteriorSalario = empregado.getMetodoPagamento();
                 
                 Empregado novoEmpregadoSalario;
-                if ("comissionado".equals(tipoAtualSalario)) {
+                if (tipoAtual == TipoEmpregado.COMISSIONADO) {
                     // Para comissionado, precisa da comissão também
                     double comissaoAtual = ((br.ufal.ic.p2.wepayu.models.EmpregadoComissionado) empregado).getTaxaDeComissao();
                     novoEmpregadoSalario = EmpregadoFactory.criarEmpregado(tipoAtualSalario, nomeSalario, enderecoSalario, valor, String.valueOf(comissaoAtual));
@@ -433,5 +435,18 @@ public class AlterarEmpregadoCommand implements Command {
                 break;
         }
     }
-}
 
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        observador.empregadoAlterado(empId);
+        if ("sindicalizado".equals(atributo)) {
+            // Filiação anterior e nova: o membro pode ter sido criado ou removido do mapa
+            if (valorAnterior instanceof MembroSindicato) {
+                observador.membroAlterado(((MembroSindicato) valorAnterior).getIdMembro());
+            }
+            if (valores.get("idSindicato") != null) {
+                observador.membroAlterado(valores.get("idSindicato"));
+            }
+        }
+    }
+}
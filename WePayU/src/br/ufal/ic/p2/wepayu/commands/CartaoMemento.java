@@ -3,19 +3,21 @@ package br.ufal.ic.p2.wepayu.commands;
 import br.ufal.ic.p2.wepayu.models.EmpregadoHorista;
 import br.ufal.ic.p2.wepayu.models.CartaoDePonto;
 import java.util.Map;
-import java.util.List;
-import java.util.ArrayList;
 
 /**
  * Memento para operações de cartão de ponto no sistema WePayU.
  * 
- * <p>Esta classe implementa o padrão Memento para salvar e restaurar
- * o estado dos cartões de ponto de um empregado horista, permitindo
- * desfazer operações de lançamento de cartões.</p>
+ * <p>Esta classe implementa o padrão Memento para restaurar o estado
+ * dos cartões de ponto de um empregado horista, permitindo desfazer
+ * operações de lançamento de cartões.</p>
+ * 
+ * <p>Em vez de uma cópia da lista de cartões, guarda apenas o cartão
+ * lançado: como os comandos são desfeitos na ordem inversa, restaurar o
+ * estado anterior é remover esse cartão.</p>
  * 
  * <p>Funcionalidades:</p>
  * <ul>
- *   <li>Backup da lista de cartões de ponto</li>
+ *   <li>Registro do cartão de ponto lançado</li>
  *   <li>Restauração do estado anterior</li>
  * </ul>
  * 
@@ -26,26 +28,20 @@ import java.util.ArrayList;
 public class CartaoMemento implements Memento {
     private final String empId;
     private final Map<String, br.ufal.ic.p2.wepayu.models.Empregado> empregados;
-    private final List<CartaoDePonto> cartoesAnteriores;
+    private final CartaoDePonto cartaoLancado;
     
     /**
      * Construtor do memento de cartão de ponto.
      * 
      * @param empId ID do empregado horista
      * @param empregados Mapa de empregados do sistema
+     * @param cartaoLancado Cartão de ponto que será lançado
      */
-    public CartaoMemento(String empId, Map<String, br.ufal.ic.p2.wepayu.models.Empregado> empregados) {
+    public CartaoMemento(String empId, Map<String, br.ufal.ic.p2.wepayu.models.Empregado> empregados,
+                         CartaoDePonto cartaoLancado) {
         this.empId = empId;
         this.empregados = empregados;
-        
-        // Faz backup dos cartões atuais
-        br.ufal.ic.p2.wepayu.models.Empregado empregado = empregados.get(empId);
-        if (empregado instanceof EmpregadoHorista) {
-            EmpregadoHorista horista = (EmpregadoHorista) empregado;
-            this.cartoesAnteriores = new ArrayList<>(horista.getCartoes());
-        } else {
-            this.cartoesAnteriores = new ArrayList<>();
-        }
+        this.cartaoLancado = cartaoLancado;
     }
     
     /**
@@ -59,8 +55,7 @@ public class CartaoMemento implements Memento {
         br.ufal.ic.p2.wepayu.models.Empregado empregado = empregados.get(empId);
         if (empregado instanceof EmpregadoHorista) {
             EmpregadoHorista horista = (EmpregadoHorista) empregado;
-            horista.getCartoes().clear();
-            horista.getCartoes().addAll(cartoesAnteriores);
+            horista.removerCartao(cartaoLancado);
         }
     }
 }
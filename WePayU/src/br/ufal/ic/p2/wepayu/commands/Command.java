@@ -26,6 +26,15 @@ public interface Command {
      * Desfaz o comando executado.
      */
     void desfazer();
+    /**
+     * Informa ao observador as entidades afetadas pela última execução ou
+     * desfazer do comando. Por padrão, considera todo o sistema alterado.
+     *
+     * @param observador Observador das alterações
+     */
+    default void notificarAlteracoes(ObservadorAlteracoes observador) {
+        observador.sistemaAlterado();
+    }
 }
 
 
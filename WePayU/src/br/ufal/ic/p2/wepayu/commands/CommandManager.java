@@ -1,6 +1,8 @@
 package br.ufal.ic.p2.wepayu.commands;
 
 import br.ufal.ic.p2.wepayu.Exception.NaoHaComandoDesfazerException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -16,6 +18,7 @@ import java.util.Stack;
  *   <li>Desfazer comandos (undo)</li>
  *   <li>Refazer comandos (redo)</li>
  *   <li>Gerenciamento de histórico</li>
+ *   <li>Notificação das entidades alteradas aos observadores</li>
  * </ul>
  * 
  * @author John Wallex
@@ -25,6 +28,7 @@ import java.util.Stack;
 public class CommandManager implements CommandManagerInterface {
     private Stack<Command> historico = new Stack<>();
     private Stack<Command> redoStack = new Stack<>();
+    private final List<ObservadorAlteracoes> observadores = new ArrayList<>();
     
     /**
      * Executa um comando e o adiciona ao histórico.
@@ -40,6 +44,7 @@ public class CommandManager implements CommandManagerInterface {
         command.executar();
         historico.push(command);
         redoStack.clear();
+        notificar(command);
     }
     
     /**
@@ -57,6 +62,7 @@ public class CommandManager implements CommandManagerInterface {
             Command command = historico.pop();
             command.desfazer();
             redoStack.push(command);
+            notificar(command);
         } else {
             throw new NaoHaComandoDesfazerException("Nao ha comando a desfazer.");
         }
@@ -77,8 +83,53 @@ public class CommandManager implements CommandManagerInterface {
             Command command = redoStack.pop();
             command.executar();
             historico.push(command);
+            notificar(command);
         } else {
             throw new NaoHaComandoDesfazerException("Nao ha comando a refazer.");
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Descarta o histórico de comandos desfeitos e refeitos.
+     * 
+     * <p>Usado após a reaplicação do journal na inicialização: as operações
+     * reaplicadas pertencem a sessões anteriores e não podem ser desfeitas.</p>
+     */
+    @Override
+    public void limparHistorico() {
+        historico.clear();
+        redoStack.clear();
+    }
+
+    /**
+     * Registra um observador das entidades alteradas pelos comandos.
+     * 
+     * <p>O observador é notificado após cada execução, desfazer ou refazer.</p>
+     * 
+     * @param observador Observador a ser notificado
+     */
+    @Override
+    public void adicionarObservador(ObservadorAlteracoes observador) {
+        observadores.add(observador);
+    }
+
+    /**
+     * Informa aos observadores que os dados do sistema foram carregados da persistência.
+     * 
+     * <p>A carga do snapshot substitui os empregados e membros sem passar por
+     * comandos; índices, quadros e valores memorizados dos observadores devem
+     * ser descartados depois dela e da reaplicação do journal.</p>
+     */
+    @Override
+    public void notificarSistemaCarregado() {
+        for (ObservadorAlteracoes observador : observadores) {
+            observador.sistemaCarregado();
+        }
+    }
+
+    private void notificar(Command command) {
+        for (ObservadorAlteracoes observador : observadores) {
+            command.notificarAlteracoes(observador);
+        }
+    }
+}
@@ -37,4 +37,18 @@ public interface CommandManagerInterface {
      * @throws Exception Se não houver comandos para refazer
      */
     void redo();
+    /**
+     * Descarta o histórico de comandos que podem ser desfeitos ou refeitos.
+     */
+    void limparHistorico();
+    /**
+     * Registra um observador das entidades alteradas pelos comandos.
+     * 
+     * @param observador Observador a ser notificado
+     */
+    void adicionarObservador(ObservadorAlteracoes observador);
+    /**
+     * Informa aos observadores que os dados do sistema foram carregados da persistência.
+     */
+    void notificarSistemaCarregado();
 }
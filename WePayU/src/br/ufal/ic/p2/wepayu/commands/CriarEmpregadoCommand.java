@@ -74,4 +74,9 @@ public class CriarEmpregadoCommand implements Command {
     public String getId() {
         return id;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        observador.empregadoAlterado(empregado.getId());
+    }
+}
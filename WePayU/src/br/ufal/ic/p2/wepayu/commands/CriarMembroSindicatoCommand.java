@@ -44,6 +44,9 @@ public class CriarMembroSindicatoCommand implements Command {
     public void desfazer() {
         membrosSindicato.remove(membro.getIdMembro());
     }
-}
-
 
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        observador.membroAlterado(membro.getIdMembro());
+    }
+}
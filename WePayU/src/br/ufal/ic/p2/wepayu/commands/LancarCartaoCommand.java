@@ -29,14 +29,14 @@ import java.util.Map;
  */
 public class LancarCartaoCommand implements Command {
     private String empId;
-    private String data;
+    private int dia;
     private String horas;
     private Map<String, Empregado> empregados;
     private CartaoMemento memento;
     
-    public LancarCartaoCommand(String empId, String data, String horas, Map<String, Empregado> empregados) {
+    public LancarCartaoCommand(String empId, int dia, String horas, Map<String, Empregado> empregados) {
         this.empId = empId;
-        this.data = data;
+        this.dia = dia;
         this.horas = horas;
         this.empregados = empregados;
     }
@@ -55,11 +55,11 @@ public class LancarCartaoCommand implements Command {
             
             EmpregadoHorista horista = (EmpregadoHorista) empregado;
             
-            // Cria o memento ANTES de fazer a alteração para capturar o estado anterior
-            memento = new CartaoMemento(empId, empregados);
+            CartaoDePonto cartao = new CartaoDePonto(dia, horas);
             
-            CartaoDePonto cartao = new CartaoDePonto(data, horas);
-            horista.getCartoes().add(cartao);
+            // Cria o memento ANTES de fazer a alteração para capturar o estado anterior
+            memento = new CartaoMemento(empId, empregados, cartao);
+            horista.lancarCartao(cartao);
         } catch (EmpregadoNaoEncontradoException | EmpregadoNaoEhHoristaException e) {
             throw e;
         } catch (Exception e) {
@@ -73,6 +73,9 @@ public class LancarCartaoCommand implements Command {
             memento.restaurar();
         }
     }
-}
-
 
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        observador.empregadoAlterado(empId);
+    }
+}
@@ -27,14 +27,14 @@ import java.util.Map;
  */
 public class LancarTaxaServicoCommand implements Command {
     private String membroId;
-    private String data;
+    private int dia;
     private String valor;
     private Map<String, MembroSindicato> membrosSindicato;
     private TaxaServicoMemento memento;
     
-    public LancarTaxaServicoCommand(String membroId, String data, String valor, Map<String, MembroSindicato> membrosSindicato) {
+    public LancarTaxaServicoCommand(String membroId, int dia, String valor, Map<String, MembroSindicato> membrosSindicato) {
         this.membroId = membroId;
-        this.data = data;
+        this.dia = dia;
         this.valor = valor;
         this.membrosSindicato = membrosSindicato;
     }
@@ -47,11 +47,11 @@ public class LancarTaxaServicoCommand implements Command {
                 throw new MembroSindicatoNaoEncontradoException("Membro nao existe.");
             }
             
-            // Cria o memento ANTES de fazer a alteração para capturar o estado anterior
-            memento = new TaxaServicoMemento(membroId, membrosSindicato);
+            TaxaServico taxaServico = new TaxaServico(dia, valor);
             
-            TaxaServico taxaServico = new TaxaServico(data, valor);
-            membro.getTaxasDeServicos().add(taxaServico);
+            // Cria o memento ANTES de fazer a alteração para capturar o estado anterior
+            memento = new TaxaServicoMemento(membroId, membrosSindicato, taxaServico);
+            membro.addTaxaServico(taxaServico);
         } catch (MembroSindicatoNaoEncontradoException e) {
             throw e;
         } catch (Exception e) {
@@ -65,6 +65,9 @@ public class LancarTaxaServicoCommand implements Command {
             memento.restaurar();
         }
     }
-}
-
 
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        observador.membroAlterado(membroId);
+    }
+}
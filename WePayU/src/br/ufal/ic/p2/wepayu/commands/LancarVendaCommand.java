@@ -29,14 +29,14 @@ import java.util.Map;
  */
 public class LancarVendaCommand implements Command {
     private String empId;
-    private String data;
+    private int dia;
     private String valor;
     private Map<String, Empregado> empregados;
     private VendaMemento memento;
     
-    public LancarVendaCommand(String empId, String data, String valor, Map<String, Empregado> empregados) {
+    public LancarVendaCommand(String empId, int dia, String valor, Map<String, Empregado> empregados) {
         this.empId = empId;
-        this.data = data;
+        this.dia = dia;
         this.valor = valor;
         this.empregados = empregados;
     }
@@ -55,11 +55,11 @@ public class LancarVendaCommand implements Command {
             
             EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
             
-            // Cria o memento ANTES de fazer a alteração para capturar o estado anterior
-            memento = new VendaMemento(empId, empregados);
+            ResultadoDeVenda resultadoDeVenda = new ResultadoDeVenda(dia, valor);
             
-            ResultadoDeVenda resultadoDeVenda = new ResultadoDeVenda(data, valor);
-            comissionado.getResultadoDeVenda().add(resultadoDeVenda);
+            // Cria o memento ANTES de fazer a alteração para capturar o estado anterior
+            memento = new VendaMemento(empId, empregados, resultadoDeVenda);
+            comissionado.lancarResultadoDeVenda(resultadoDeVenda);
         } catch (EmpregadoNaoEncontradoException | TipoEmpregadoInvalidoException e) {
             throw e;
         } catch (Exception e) {
@@ -73,6 +73,9 @@ public class LancarVendaCommand implements Command {
             memento.restaurar();
         }
     }
-}
-
 
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        observador.empregadoAlterado(empId);
+    }
+}
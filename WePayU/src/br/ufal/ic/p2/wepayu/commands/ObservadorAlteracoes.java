@@ -0,0 +1,46 @@
+package br.ufal.ic.p2.wepayu.commands;
+
+/**
+ * Observador das entidades alteradas pelos comandos do sistema WePayU.
+ *
+ * <p>O {@link CommandManager} notifica os observadores registrados sempre que
+ * um comando é executado, desfeito ou refeito, informando quais empregados e
+ * membros do sindicato foram afetados. Também são notificados após a carga
+ * dos dados da persistência.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public interface ObservadorAlteracoes {
+    /**
+     * Informa que o empregado com o ID dado foi criado, alterado, substituído ou removido.
+     *
+     * @param id ID do empregado
+     */
+    void empregadoAlterado(String id);
+
+    /**
+     * Informa que o membro do sindicato com o ID dado foi criado, alterado ou removido.
+     *
+     * @param idMembro ID do membro do sindicato
+     */
+    void membroAlterado(String idMembro);
+
+    /**
+     * Informa uma alteração que pode ter afetado qualquer entidade do sistema.
+     */
+    void sistemaAlterado();
+
+    /**
+     * Informa que os dados do sistema foram substituídos pelos carregados da
+     * persistência (carga do snapshot e reaplicação do journal).
+     *
+     * <p>Por padrão equivale a {@link #sistemaAlterado()}: índices e valores
+     * memorizados são descartados. A persistência, de onde os dados vieram, não
+     * precisa regravá-los.</p>
+     */
+    default void sistemaCarregado() {
+        sistemaAlterado();
+    }
+}
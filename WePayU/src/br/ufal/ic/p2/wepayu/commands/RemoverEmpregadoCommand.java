@@ -74,4 +74,9 @@ public class RemoverEmpregadoCommand implements Command {
             empregados.put(id, empregadoRemovido);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        observador.empregadoAlterado(id);
+    }
+}
@@ -2,6 +2,8 @@ package br.ufal.ic.p2.wepayu.commands;
 
 import br.ufal.ic.p2.wepayu.services.FolhaPagamentoService;
 import br.ufal.ic.p2.wepayu.Exception.DataInvalidaException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Comando para processar a folha de pagamento no sistema WePayU.
@@ -25,6 +27,7 @@ public class RodaFolhaCommand implements Command {
     private String data;
     private String arquivo;
     private FolhaPagamentoService folhaPagamentoService;
+    private List<String> membrosAlterados = new ArrayList<>();
     
     public RodaFolhaCommand(String data, String arquivo, FolhaPagamentoService folhaPagamentoService) {
         this.data = data;
@@ -36,6 +39,7 @@ public class RodaFolhaCommand implements Command {
     public void executar() {
         try {
             folhaPagamentoService.rodaFolha(data, arquivo);
+            membrosAlterados = folhaPagamentoService.getMembrosAlteradosPelaFolha();
         } catch (DataInvalidaException e) {
             // Re-lança como RuntimeException para manter compatibilidade com Command
             throw new RuntimeException(e);
@@ -49,4 +53,12 @@ public class RodaFolhaCommand implements Command {
         // rodaFolha não altera o estado do sistema, apenas gera arquivo
         // Não há nada para desfazer
     }
+
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        // A folha só altera a dívida sindical dos horistas sindicalizados pagos
+        for (String idMembro : membrosAlterados) {
+            observador.membroAlterado(idMembro);
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package br.ufal.ic.p2.wepayu.commands;
+
+import br.ufal.ic.p2.wepayu.services.FolhaPagamentoService;
+import br.ufal.ic.p2.wepayu.Exception.DataInvalidaException;
+import br.ufal.ic.p2.wepayu.Exception.ErroGravacaoFolhaException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comando para processar as folhas de pagamento de um período no sistema WePayU.
+ * 
+ * <p>Processa, em ordem cronológica, a folha de cada dia de pagamento entre
+ * duas datas, gerando um arquivo por dia de pagamento. Assim como
+ * {@link RodaFolhaCommand}, não há estado a restaurar ao desfazer.</p>
+ * 
+ * <p>Se a gravação de uma folha falhar depois que as anteriores já alteraram
+ * a dívida sindical, o comando termina normalmente, para que essas alterações
+ * sejam notificadas, e guarda o erro em {@link #getErroGravacao()}, que deve
+ * ser lançado por quem executou o comando. Sem alterações, o erro é lançado
+ * pelo próprio comando.</p>
+ * 
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class RodaFolhaPeriodoCommand implements Command {
+    private String dataInicial;
+    private String dataFinal;
+    private String prefixoArquivo;
+    private FolhaPagamentoService folhaPagamentoService;
+    private List<String> membrosAlterados = new ArrayList<>();
+    private ErroGravacaoFolhaException erroGravacao;
+    
+    public RodaFolhaPeriodoCommand(String dataInicial, String dataFinal, String prefixoArquivo,
+                                   FolhaPagamentoService folhaPagamentoService) {
+        this.dataInicial = dataInicial;
+        this.dataFinal = dataFinal;
+        this.prefixoArquivo = prefixoArquivo;
+        this.folhaPagamentoService = folhaPagamentoService;
+    }
+    
+    @Override
+    public void executar() {
+        try {
+            folhaPagamentoService.rodaFolhaPeriodo(dataInicial, dataFinal, prefixoArquivo);
+            membrosAlterados = folhaPagamentoService.getMembrosAlteradosPelaFolha();
+        } catch (ErroGravacaoFolhaException e) {
+            membrosAlterados = folhaPagamentoService.getMembrosAlteradosPelaFolha();
+            if (membrosAlterados.isEmpty()) {
+                throw e;
+            }
+            erroGravacao = e;
+        } catch (DataInvalidaException e) {
+            // Re-lança como RuntimeException para manter compatibilidade com Command
+            throw new RuntimeException(e);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao rodar folhas do periodo: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Obtém o erro de gravação que interrompeu o período depois de folhas que
+     * alteraram a dívida sindical.
+     * 
+     * @return Erro de gravação, ou null se todas as folhas foram gravadas
+     */
+    public ErroGravacaoFolhaException getErroGravacao() {
+        return erroGravacao;
+    }
+
+    @Override
+    public void desfazer() {
+        // Assim como rodaFolha, apenas gera arquivos: não há nada para desfazer
+    }
+
+    @Override
+    public void notificarAlteracoes(ObservadorAlteracoes observador) {
+        // A folha só altera a dívida sindical dos horistas sindicalizados pagos
+        for (String idMembro : membrosAlterados) {
+            observador.membroAlterado(idMembro);
+        }
+    }
+}
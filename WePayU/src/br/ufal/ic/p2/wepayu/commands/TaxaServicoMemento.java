@@ -3,19 +3,18 @@ package br.ufal.ic.p2.wepayu.commands;
 import br.ufal.ic.p2.wepayu.models.MembroSindicato;
 import br.ufal.ic.p2.wepayu.models.TaxaServico;
 import java.util.Map;
-import java.util.List;
-import java.util.ArrayList;
 
 /**
  * Memento para operações de taxa de serviço no sistema WePayU.
  * 
- * <p>Esta classe implementa o padrão Memento para salvar e restaurar
- * o estado das taxas de serviço de um membro do sindicato, permitindo
- * desfazer operações de lançamento de taxas.</p>
+ * <p>Esta classe implementa o padrão Memento para restaurar o estado
+ * das taxas de serviço de um membro do sindicato, permitindo desfazer
+ * operações de lançamento de taxas. Guarda apenas a taxa lançada,
+ * removida ao desfazer.</p>
  * 
  * <p>Funcionalidades:</p>
  * <ul>
- *   <li>Backup da lista de taxas de serviço</li>
+ *   <li>Registro da taxa de serviço lançada</li>
  *   <li>Restauração do estado anterior</li>
  * </ul>
  * 
@@ -26,27 +25,19 @@ import java.util.ArrayList;
 public class TaxaServicoMemento implements Memento {
     private final String membroId;
     private final Map<String, MembroSindicato> membrosSindicato;
-    private final List<TaxaServico> taxasAnteriores;
+    private final TaxaServico taxaLancada;
     
-    public TaxaServicoMemento(String membroId, Map<String, MembroSindicato> membrosSindicato) {
+    public TaxaServicoMemento(String membroId, Map<String, MembroSindicato> membrosSindicato, TaxaServico taxaLancada) {
         this.membroId = membroId;
         this.membrosSindicato = membrosSindicato;
-        
-        // Faz backup das taxas atuais
-        MembroSindicato membro = membrosSindicato.get(membroId);
-        if (membro != null) {
-            this.taxasAnteriores = new ArrayList<>(membro.getTaxasDeServicos());
-        } else {
-            this.taxasAnteriores = new ArrayList<>();
-        }
+        this.taxaLancada = taxaLancada;
     }
     
     @Override
     public void restaurar() {
         MembroSindicato membro = membrosSindicato.get(membroId);
         if (membro != null) {
-            membro.getTaxasDeServicos().clear();
-            membro.getTaxasDeServicos().addAll(taxasAnteriores);
+            membro.removerTaxaServico(taxaLancada);
         }
     }
 }
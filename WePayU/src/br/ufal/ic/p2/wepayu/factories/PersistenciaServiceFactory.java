@@ -0,0 +1,92 @@
+package br.ufal.ic.p2.wepayu.factories;
+
+import br.ufal.ic.p2.wepayu.models.Empregado;
+import br.ufal.ic.p2.wepayu.models.MembroSindicato;
+import br.ufal.ic.p2.wepayu.persistence.PoliticaPersistencia;
+import br.ufal.ic.p2.wepayu.services.PersistenciaService;
+import br.ufal.ic.p2.wepayu.services.impl.PersistenciaBinariaServiceImpl;
+import br.ufal.ic.p2.wepayu.services.impl.PersistenciaJdbcServiceImpl;
+import br.ufal.ic.p2.wepayu.services.impl.PersistenciaParticionadaServiceImpl;
+import br.ufal.ic.p2.wepayu.services.impl.PersistenciaSegmentadaServiceImpl;
+import br.ufal.ic.p2.wepayu.services.impl.PersistenciaServiceImpl;
+import java.util.Map;
+
+/**
+ * Factory para criação do serviço de persistência no sistema WePayU.
+ *
+ * <p>A implementação é escolhida pela propriedade de sistema
+ * {@value #PROPRIEDADE_FORMATO}:</p>
+ * <ul>
+ *   <li><strong>xml</strong> (padrão): arquivos empregados.xml, sindicato.xml e agendas.xml</li>
+ *   <li><strong>binario</strong>: snapshot binário único (wepayu.snapshot)</li>
+ *   <li><strong>segmentos</strong>: registros por entidade em segmentos (wepayu.segmentos),
+ *       regravando apenas as entidades alteradas a cada salvamento</li>
+ *   <li><strong>particionado</strong>: snapshots binários particionados pelo hash do ID
+ *       (wepayu.particoes), gravados e carregados em paralelo</li>
+ *   <li><strong>jdbc</strong>: tabelas em um banco de dados SQL embutido, com históricos
+ *       consultados por período sob demanda</li>
+ * </ul>
+ *
+ * <p>A quantidade de partições do formato particionado é lida da propriedade
+ * {@value #PROPRIEDADE_PARTICOES} (padrão: quantidade de núcleos disponíveis) e a
+ * URL do banco de dados do formato jdbc, da propriedade {@value #PROPRIEDADE_JDBC}
+ * (padrão {@value #URL_JDBC_PADRAO}).</p>
+ *
+ * <p>A política de durabilidade é lida da propriedade {@value #PROPRIEDADE_POLITICA}
+ * (padrão "comando"), no formato aceito por {@link PoliticaPersistencia#interpretar(String)}.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class PersistenciaServiceFactory {
+
+    public static final String PROPRIEDADE_FORMATO = "wepayu.persistencia";
+    public static final String PROPRIEDADE_POLITICA = "wepayu.persistencia.politica";
+    public static final String PROPRIEDADE_PARTICOES = "wepayu.persistencia.particoes";
+    public static final String PROPRIEDADE_JDBC = "wepayu.persistencia.jdbc";
+    public static final String URL_JDBC_PADRAO = "jdbc:h2:./wepayu";
+
+    /**
+     * Cria o serviço de persistência configurado.
+     *
+     * @param empregados Mapa de empregados do sistema
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param id Contador de IDs de empregados
+     * @return Serviço de persistência
+     * @throws IllegalArgumentException Se o formato, a política ou a quantidade de partições configurados forem inválidos
+     */
+    public static PersistenciaService criarPersistencia(Map<String, Empregado> empregados,
+                                                        Map<String, MembroSindicato> membrosSindicato,
+                                                        int id) {
+        String formato = System.getProperty(PROPRIEDADE_FORMATO, "xml");
+        PersistenciaService persistencia;
+        switch (formato) {
+            case "xml":
+                persistencia = new PersistenciaServiceImpl(empregados, membrosSindicato, id);
+                break;
+            case "binario":
+                persistencia = new PersistenciaBinariaServiceImpl(empregados, membrosSindicato, id);
+                break;
+            case "segmentos":
+                persistencia = new PersistenciaSegmentadaServiceImpl(empregados, membrosSindicato, id);
+                break;
+            case "particionado":
+                int particoes = Integer.getInteger(PROPRIEDADE_PARTICOES, Runtime.getRuntime().availableProcessors());
+                persistencia = new PersistenciaParticionadaServiceImpl(empregados, membrosSindicato, id, particoes);
+                break;
+            case "jdbc":
+                String url = System.getProperty(PROPRIEDADE_JDBC, URL_JDBC_PADRAO);
+                persistencia = new PersistenciaJdbcServiceImpl(empregados, membrosSindicato, id, url);
+                break;
+            default:
+                throw new IllegalArgumentException("Formato de persistencia invalido: " + formato);
+        }
+
+        String politica = System.getProperty(PROPRIEDADE_POLITICA);
+        if (politica != null) {
+            persistencia.definirPolitica(PoliticaPersistencia.interpretar(politica));
+        }
+        return persistencia;
+    }
+}
@@ -1,5 +1,6 @@
 package br.ufal.ic.p2.wepayu.models;
 
+import br.ufal.ic.p2.wepayu.utils.Centavos;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Map;
@@ -33,6 +34,7 @@ public class AgendaDePagamentos {
     private String tipo; // "semanal" ou "mensal"
     private int parametro1; // dia da semana (1-7) ou dia do mês (1-28) ou semanas (1-52)
     private int parametro2; // dia da semana (1-7) para agendas semanal X Y
+    private volatile CalendarioPagamento calendario; // compilado na primeira consulta
     
     /**
      * Construtor privado para agendas customizadas.
@@ -186,66 +188,91 @@ public class AgendaDePagamentos {
             int mes = Integer.parseInt(partes[1]);
             int ano = Integer.parseInt(partes[2]);
             
-            java.time.LocalDate localDate = java.time.LocalDate.of(ano, mes, dia);
-            java.time.DayOfWeek diaSemana = localDate.getDayOfWeek();
-            int diaSemanaNumero = diaSemana.getValue(); // 1=segunda, 7=domingo
-            
-            if ("semanal".equals(tipo)) {
-                if (parametro2 == 0) {
-                    // Formato: semanal X (toda semana no dia X)
-                    return diaSemanaNumero == parametro1;
+            return devePagarNaData(java.time.LocalDate.of(ano, mes, dia));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Verifica se deve pagar em uma data específica baseado na agenda.
+     * 
+     * <p>A regra da agenda é compilada em um {@link CalendarioPagamento} na
+     * primeira consulta; as seguintes são um teste de bit.</p>
+     * 
+     * @param data Data a ser verificada
+     * @return true se deve pagar na data, false caso contrário
+     */
+    public boolean devePagarNaData(java.time.LocalDate data) {
+        CalendarioPagamento atual = calendario;
+        if (atual == null) {
+            atual = new CalendarioPagamento(this::ehDiaDePagamento);
+            calendario = atual;
+        }
+        return atual.ehDiaDePagamento(data);
+    }
+
+    // Regra da agenda, avaliada uma vez por dia do ano ao compilar o calendário
+    private boolean ehDiaDePagamento(java.time.LocalDate localDate) {
+        int diaSemanaNumero = localDate.getDayOfWeek().getValue(); // 1=segunda, 7=domingo
+        
+        if ("semanal".equals(tipo)) {
+            if (parametro2 == 0) {
+                // Formato: semanal X (toda semana no dia X)
+                return diaSemanaNumero == parametro1;
+            } else {
+                // Formato: semanal X Y (a cada X semanas no dia Y)
+                // Para agendas customizadas, usa uma data base específica baseada nos parâmetros
+                java.time.LocalDate dataBase;
+                
+                if (parametro1 == 52 && parametro2 == 1) {
+                    // Caso especial: semanal 52 1 - usa 26/12/2004 como data base
+                    dataBase = java.time.LocalDate.of(2004, 12, 26);
                 } else {
-                    // Formato: semanal X Y (a cada X semanas no dia Y)
-                    // Para agendas customizadas, usa uma data base específica baseada nos parâmetros
-                    java.time.LocalDate dataBase;
-                    
-                    if (parametro1 == 52 && parametro2 == 1) {
-                        // Caso especial: semanal 52 1 - usa 26/12/2004 como data base
-                        dataBase = java.time.LocalDate.of(2004, 12, 26);
-                    } else {
-                        // Para outros casos, usa 14/1/2005 como data base (mesma do sistema padrão)
-                        dataBase = java.time.LocalDate.of(2005, 1, 14);
-                    }
-                    
-                    // Encontra a primeira ocorrência do dia da semana desejado a partir da data base
-                    while (dataBase.getDayOfWeek().getValue() != parametro2) {
-                        dataBase = dataBase.plusDays(1);
-                    }
-                    
-                    if (localDate.isBefore(dataBase)) {
-                        return false;
-                    }
-                    
-                    long diasEntre = java.time.temporal.ChronoUnit.DAYS.between(dataBase, localDate);
-                    long semanasEntre = diasEntre / 7;
-                    return diaSemanaNumero == parametro2 && semanasEntre % parametro1 == 0;
+                    // Para outros casos, usa 14/1/2005 como data base (mesma do sistema padrão)
+                    dataBase = java.time.LocalDate.of(2005, 1, 14);
                 }
-            } else if ("mensal".equals(tipo)) {
-                if (parametro1 == -1) {
-                    // Formato: mensal $ (último dia do mês)
-                    return localDate.equals(localDate.withDayOfMonth(localDate.lengthOfMonth()));
-                } else {
-                    // Formato: mensal X (dia X do mês)
-                    return dia == parametro1;
+                
+                // Encontra a primeira ocorrência do dia da semana desejado a partir da data base
+                while (dataBase.getDayOfWeek().getValue() != parametro2) {
+                    dataBase = dataBase.plusDays(1);
                 }
+                
+                if (localDate.isBefore(dataBase)) {
+                    return false;
+                }
+                
+                long diasEntre = java.time.temporal.ChronoUnit.DAYS.between(dataBase, localDate);
+                long semanasEntre = diasEntre / 7;
+                return diaSemanaNumero == parametro2 && semanasEntre % parametro1 == 0;
+            }
+        } else if ("mensal".equals(tipo)) {
+            if (parametro1 == -1) {
+                // Formato: mensal $ (último dia do mês)
+                return localDate.equals(localDate.withDayOfMonth(localDate.lengthOfMonth()));
+            } else {
+                // Formato: mensal X (dia X do mês)
+                return localDate.getDayOfMonth() == parametro1;
             }
-            
-            return false;
-        } catch (Exception e) {
-            return false;
         }
+        
+        return false;
     }
     
     /**
      * Calcula o valor a ser pago baseado na agenda e tipo de empregado.
      * 
+     * <p>O valor é exato: o salário anual não é dividido, e sim multiplicado
+     * pelas semanas do período, e o resultado é dado em 1/52
+     * ({@link Centavos#DIVISOR_AGENDAS}) de milésimo de centavo.</p>
+     * 
      * @param empregado Empregado para calcular o pagamento
      * @param dataInicial Data inicial do período
      * @param dataFinal Data final do período
-     * @return Valor a ser pago
+     * @return Valor a ser pago em 1/52 de milésimo de centavo
      */
-    public double calcularValorPagamento(Empregado empregado, String dataInicial, String dataFinal) {
-        String tipoEmpregado = empregado.getTipo();
+    public long calcularValorPagamento(Empregado empregado, String dataInicial, String dataFinal) {
+        TipoEmpregado tipoEmpregado = empregado.getTipoEmpregado();
         
         if ("semanal".equals(tipo)) {
             if (parametro2 == 0) {
@@ -260,171 +287,168 @@ public class AgendaDePagamentos {
             return calcularPagamentoMensal(empregado, tipoEmpregado);
         }
         
-        return 0.0;
+        return 0;
     }
     
-    private double calcularPagamentoSemanal(Empregado empregado, String tipoEmpregado) {
-        if ("horista".equals(tipoEmpregado)) {
+    private long calcularPagamentoSemanal(Empregado empregado, TipoEmpregado tipoEmpregado) {
+        if (tipoEmpregado == TipoEmpregado.HORISTA) {
             return calcularPagamentoHoristaSemanal(empregado);
-        } else if ("assalariado".equals(tipoEmpregado)) {
+        } else if (tipoEmpregado == TipoEmpregado.ASSALARIADO) {
             return calcularPagamentoAssalariadoSemanal(empregado);
-        } else if ("comissionado".equals(tipoEmpregado)) {
+        } else if (tipoEmpregado == TipoEmpregado.COMISSIONADO) {
             return calcularPagamentoComissionadoSemanal(empregado);
         }
-        return 0.0;
+        return 0;
     }
     
-    private double calcularPagamentoBiSemanal(Empregado empregado, String tipoEmpregado, int semanas) {
-        if ("horista".equals(tipoEmpregado)) {
+    private long calcularPagamentoBiSemanal(Empregado empregado, TipoEmpregado tipoEmpregado, int semanas) {
+        if (tipoEmpregado == TipoEmpregado.HORISTA) {
             return calcularPagamentoHoristaBiSemanal(empregado);
-        } else if ("assalariado".equals(tipoEmpregado)) {
+        } else if (tipoEmpregado == TipoEmpregado.ASSALARIADO) {
             return calcularPagamentoAssalariadoBiSemanal(empregado, semanas);
-        } else if ("comissionado".equals(tipoEmpregado)) {
+        } else if (tipoEmpregado == TipoEmpregado.COMISSIONADO) {
             return calcularPagamentoComissionadoBiSemanal(empregado, semanas);
         }
-        return 0.0;
+        return 0;
     }
     
-    private double calcularPagamentoMensal(Empregado empregado, String tipoEmpregado) {
-        if ("horista".equals(tipoEmpregado)) {
+    private long calcularPagamentoMensal(Empregado empregado, TipoEmpregado tipoEmpregado) {
+        if (tipoEmpregado == TipoEmpregado.HORISTA) {
             return calcularPagamentoHoristaMensal(empregado);
-        } else if ("assalariado".equals(tipoEmpregado)) {
+        } else if (tipoEmpregado == TipoEmpregado.ASSALARIADO) {
             return calcularPagamentoAssalariadoMensal(empregado);
-        } else if ("comissionado".equals(tipoEmpregado)) {
+        } else if (tipoEmpregado == TipoEmpregado.COMISSIONADO) {
             return calcularPagamentoComissionadoMensal(empregado);
         }
-        return 0.0;
+        return 0;
     }
     
     // Métodos de cálculo específicos por tipo de empregado
-    private double calcularPagamentoHoristaSemanal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoHorista)) return 0.0;
+    private long calcularPagamentoHoristaSemanal(Empregado empregado) {
+        if (!(empregado instanceof EmpregadoHorista)) return 0;
         EmpregadoHorista horista = (EmpregadoHorista) empregado;
-        double salarioHora = horista.getSalarioPorHora();
+        long salarioHora = horista.salarioPorHoraEmCentavos();
         
-        double horasNormais = calcularHorasNormais(horista, 7); // 7 dias
-        double horasExtras = calcularHorasExtras(horista, 7);
+        long horasNormais = calcularHorasNormais(horista, 7); // 7 dias
+        long horasExtras = calcularHorasExtras(horista, 7);
         
-        return (horasNormais * salarioHora) + (horasExtras * salarioHora * 1.5);
+        // centésimos de hora x centavos = 10 milésimos de centavo; extras a 1,5x
+        return (horasNormais * salarioHora * 10 + horasExtras * salarioHora * 15) * Centavos.DIVISOR_AGENDAS;
     }
     
-    private double calcularPagamentoHoristaBiSemanal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoHorista)) return 0.0;
+    private long calcularPagamentoHoristaBiSemanal(Empregado empregado) {
+        if (!(empregado instanceof EmpregadoHorista)) return 0;
         EmpregadoHorista horista = (EmpregadoHorista) empregado;
-        double salarioHora = horista.getSalarioPorHora();
+        long salarioHora = horista.salarioPorHoraEmCentavos();
         
-        double horasNormais = calcularHorasNormais(horista, 14); // 14 dias
-        double horasExtras = calcularHorasExtras(horista, 14);
+        long horasNormais = calcularHorasNormais(horista, 14); // 14 dias
+        long horasExtras = calcularHorasExtras(horista, 14);
         
-        return (horasNormais * salarioHora) + (horasExtras * salarioHora * 1.5);
+        // centésimos de hora x centavos = 10 milésimos de centavo; extras a 1,5x
+        return (horasNormais * salarioHora * 10 + horasExtras * salarioHora * 15) * Centavos.DIVISOR_AGENDAS;
     }
     
-    private double calcularPagamentoHoristaMensal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoHorista)) return 0.0;
+    private long calcularPagamentoHoristaMensal(Empregado empregado) {
+        if (!(empregado instanceof EmpregadoHorista)) return 0;
         EmpregadoHorista horista = (EmpregadoHorista) empregado;
-        double salarioHora = horista.getSalarioPorHora();
+        long salarioHora = horista.salarioPorHoraEmCentavos();
         
-        double horasNormais = calcularHorasNormais(horista, 30); // 30 dias
-        double horasExtras = calcularHorasExtras(horista, 30);
+        long horasNormais = calcularHorasNormais(horista, 30); // 30 dias
+        long horasExtras = calcularHorasExtras(horista, 30);
         
-        return (horasNormais * salarioHora) + (horasExtras * salarioHora * 1.5);
+        // centésimos de hora x centavos = 10 milésimos de centavo; extras a 1,5x
+        return (horasNormais * salarioHora * 10 + horasExtras * salarioHora * 15) * Centavos.DIVISOR_AGENDAS;
     }
     
-    private double calcularPagamentoAssalariadoSemanal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoAssalariado)) return 0.0;
+    private long calcularPagamentoAssalariadoSemanal(Empregado empregado) {
+        if (!(empregado instanceof EmpregadoAssalariado)) return 0;
         EmpregadoAssalariado assalariado = (EmpregadoAssalariado) empregado;
-        double salarioAnual = assalariado.getSalarioMensal() * 12;
-        return salarioAnual / 52; // Divide por 52 semanas
+        long salarioAnual = assalariado.salarioMensalEmCentavos() * 1000 * 12;
+        return salarioAnual; // 1/52 do salário anual
     }
     
-    private double calcularPagamentoAssalariadoBiSemanal(Empregado empregado, int semanas) {
-        if (!(empregado instanceof EmpregadoAssalariado)) return 0.0;
+    private long calcularPagamentoAssalariadoBiSemanal(Empregado empregado, int semanas) {
+        if (!(empregado instanceof EmpregadoAssalariado)) return 0;
         EmpregadoAssalariado assalariado = (EmpregadoAssalariado) empregado;
-        double salarioAnual = assalariado.getSalarioMensal() * 12;
-        return (salarioAnual / 52) * semanas; // Divide por 52 semanas e multiplica pelas semanas
+        long salarioAnual = assalariado.salarioMensalEmCentavos() * 1000 * 12;
+        return salarioAnual * semanas; // semanas/52 do salário anual
     }
     
-    private double calcularPagamentoAssalariadoMensal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoAssalariado)) return 0.0;
+    private long calcularPagamentoAssalariadoMensal(Empregado empregado) {
+        if (!(empregado instanceof EmpregadoAssalariado)) return 0;
         EmpregadoAssalariado assalariado = (EmpregadoAssalariado) empregado;
-        return assalariado.getSalarioMensal();
+        return assalariado.salarioMensalEmCentavos() * 1000 * Centavos.DIVISOR_AGENDAS;
     }
     
-    private double calcularPagamentoComissionadoSemanal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoComissionado)) return 0.0;
+    private long calcularPagamentoComissionadoSemanal(Empregado empregado) {
+        if (!(empregado instanceof EmpregadoComissionado)) return 0;
         EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
-        double salarioAnual = comissionado.getSalarioMensal() * 12;
-        double salarioSemanal = salarioAnual / 52;
+        long salarioAnual = comissionado.salarioMensalEmCentavos() * 1000 * 12;
+        long salarioSemanal = salarioAnual; // 1/52 do salário anual
         
-        double comissoes = calcularComissoes(comissionado, 7);
-        return salarioSemanal + comissoes;
+        long comissoes = calcularComissoes(comissionado, 7);
+        return salarioSemanal + comissoes * Centavos.DIVISOR_AGENDAS;
     }
     
-    private double calcularPagamentoComissionadoBiSemanal(Empregado empregado, int semanas) {
-        if (!(empregado instanceof EmpregadoComissionado)) return 0.0;
+    private long calcularPagamentoComissionadoBiSemanal(Empregado empregado, int semanas) {
+        if (!(empregado instanceof EmpregadoComissionado)) return 0;
         EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
-        double salarioAnual = comissionado.getSalarioMensal() * 12;
-        double salarioBiSemanal = (salarioAnual / 52) * semanas;
+        long salarioAnual = comissionado.salarioMensalEmCentavos() * 1000 * 12;
+        long salarioBiSemanal = salarioAnual * semanas; // semanas/52 do salário anual
         
-        double comissoes = calcularComissoes(comissionado, semanas * 7);
-        return salarioBiSemanal + comissoes;
+        long comissoes = calcularComissoes(comissionado, semanas * 7);
+        return salarioBiSemanal + comissoes * Centavos.DIVISOR_AGENDAS;
     }
     
-    private double calcularPagamentoComissionadoMensal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoComissionado)) return 0.0;
+    private long calcularPagamentoComissionadoMensal(Empregado empregado) {
+        if (!(empregado instanceof EmpregadoComissionado)) return 0;
         EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
-        double salarioMensal = comissionado.getSalarioMensal();
+        long salarioMensal = comissionado.salarioMensalEmCentavos() * 1000;
         
-        double comissoes = calcularComissoes(comissionado, 30);
-        return salarioMensal + comissoes;
+        long comissoes = calcularComissoes(comissionado, 30);
+        return (salarioMensal + comissoes) * Centavos.DIVISOR_AGENDAS;
     }
     
-    private double calcularHorasNormais(EmpregadoHorista horista, int dias) {
-        double totalHoras = 0.0;
+    // Soma as horas normais (até 8 por cartão) dos primeiros cartões, em centésimos de hora
+    private long calcularHorasNormais(EmpregadoHorista horista, int dias) {
+        long totalHoras = 0;
         int count = 0;
         
         for (CartaoDePonto cartao : horista.getCartoes()) {
             if (count >= dias) break;
-            double horas = cartao.getHoras();
-            if (horas <= 8) {
-                totalHoras += horas;
-            } else {
-                totalHoras += 8; // Máximo 8 horas normais por dia
-            }
+            totalHoras += Math.min(HistoricoColunar.paraCentesimos(cartao.getHoras()), 800); // Máximo 8 horas normais por dia
             count++;
         }
         
         return totalHoras;
     }
     
-    private double calcularHorasExtras(EmpregadoHorista horista, int dias) {
-        double totalHoras = 0.0;
+    // Soma as horas extras (acima de 8 por cartão) dos primeiros cartões, em centésimos de hora
+    private long calcularHorasExtras(EmpregadoHorista horista, int dias) {
+        long totalHoras = 0;
         int count = 0;
         
         for (CartaoDePonto cartao : horista.getCartoes()) {
             if (count >= dias) break;
-            double horas = cartao.getHoras();
-            if (horas > 8) {
-                totalHoras += (horas - 8); // Horas extras
-            }
+            totalHoras += Math.max(HistoricoColunar.paraCentesimos(cartao.getHoras()) - 800, 0); // Horas extras
             count++;
         }
         
         return totalHoras;
     }
     
-    private double calcularComissoes(EmpregadoComissionado comissionado, int dias) {
-        double totalComissoes = 0.0;
-        double taxaComissao = comissionado.getTaxaDeComissao();
+    // Comissão sobre as primeiras vendas, em milésimos de centavo
+    private long calcularComissoes(EmpregadoComissionado comissionado, int dias) {
+        long totalVendas = 0;
         int count = 0;
         
         for (ResultadoDeVenda venda : comissionado.getResultadoDeVenda()) {
             if (count >= dias) break;
-            totalComissoes += venda.getValor() * taxaComissao;
+            totalVendas += Centavos.truncar(venda.getValor());
             count++;
         }
         
-        return totalComissoes;
+        return Centavos.multiplicarEmMilesimos(totalVendas, comissionado.getTaxaDeComissao());
     }
     
     // Getters
@@ -1,5 +1,10 @@
 package br.ufal.ic.p2.wepayu.models;
 
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
 /**
  * Classe que representa uma agenda de pagamento no sistema WePayU.
  * 
@@ -25,17 +30,31 @@ package br.ufal.ic.p2.wepayu.models;
  */
 public class AgendaPagamento {
     private String agenda;
+    private CalendarioPagamento calendarioPadrao; // null para agendas customizadas
     
     // Agendas válidas disponíveis no sistema
     public static final String SEMANAL_5 = "semanal 5";
     public static final String SEMANAL_2_5 = "semanal 2 5";
     public static final String MENSAL_DOLAR = "mensal $";
+
+    // Primeira sexta-feira quinzenal é 14/1/2005
+    private static final LocalDate PRIMEIRO_PAGAMENTO_QUINZENAL = LocalDate.of(2005, 1, 14);
+
+    // Dias de pagamento das agendas padrão, compilados uma vez por ano
+    private static final CalendarioPagamento CALENDARIO_SEMANAL_5 = new CalendarioPagamento(
+        data -> data.getDayOfWeek() == DayOfWeek.FRIDAY); // toda sexta-feira
+    private static final CalendarioPagamento CALENDARIO_SEMANAL_2_5 = new CalendarioPagamento(
+        data -> !data.isBefore(PRIMEIRO_PAGAMENTO_QUINZENAL)
+            && data.getDayOfWeek() == DayOfWeek.FRIDAY
+            && ChronoUnit.DAYS.between(PRIMEIRO_PAGAMENTO_QUINZENAL, data) % 14 == 0);
+    private static final CalendarioPagamento CALENDARIO_MENSAL_DOLAR = new CalendarioPagamento(
+        data -> data.getDayOfMonth() == data.lengthOfMonth()); // último dia do mês
     
     /**
      * Construtor padrão da classe AgendaPagamento.
      */
     public AgendaPagamento() {
-        this.agenda = SEMANAL_5; // Padrão
+        setAgenda(SEMANAL_5); // Padrão
     }
     
     /**
@@ -44,7 +63,7 @@ public class AgendaPagamento {
      * @param agenda String representando a agenda de pagamento
      */
     public AgendaPagamento(String agenda) {
-        this.agenda = agenda;
+        setAgenda(agenda);
     }
     
     /**
@@ -63,6 +82,7 @@ public class AgendaPagamento {
      */
     public void setAgenda(String agenda) {
         this.agenda = agenda;
+        this.calendarioPadrao = calendarioPadrao(agenda);
     }
     
     /**
@@ -88,16 +108,8 @@ public class AgendaPagamento {
      * @return Agenda padrão para o tipo de empregado
      */
     public static String getAgendaPadrao(String tipo) {
-        switch (tipo) {
-            case "horista":
-                return SEMANAL_5;
-            case "assalariado":
-                return MENSAL_DOLAR;
-            case "comissionado":
-                return SEMANAL_2_5;
-            default:
-                return SEMANAL_5; // Padrão geral
-        }
+        TipoEmpregado tipoEmpregado = TipoEmpregado.deNome(tipo);
+        return tipoEmpregado != null ? tipoEmpregado.getAgendaPadrao() : SEMANAL_5; // Padrão geral
     }
     
     /**
@@ -107,61 +119,37 @@ public class AgendaPagamento {
      * @return true se deve pagar na data, false caso contrário
      */
     public boolean devePagarNaData(String data) {
-        try {
-            // Se é uma agenda padrão, usa o cálculo original
-            if (SEMANAL_5.equals(agenda) || SEMANAL_2_5.equals(agenda) || MENSAL_DOLAR.equals(agenda)) {
-                return devePagarNaDataPadrao(data);
-            } else {
-                // Se é uma agenda customizada, delega para AgendaDePagamentos
-                AgendaDePagamentos agendaCustomizada = AgendaDePagamentos.getAgenda(agenda);
-                if (agendaCustomizada != null) {
-                    return agendaCustomizada.devePagarNaData(data);
-                }
-                return false;
-            }
-        } catch (Exception e) {
-            return false;
+        LocalDate localDate = lerData(data);
+        return localDate != null && devePagarNaData(localDate);
+    }
+
+    /**
+     * Verifica se deve pagar em uma data específica baseado na agenda.
+     * 
+     * <p>As agendas padrão consultam o seu calendário compilado; as customizadas
+     * delegam para {@link AgendaDePagamentos}, que também compila o seu.</p>
+     * 
+     * @param data Data a ser verificada
+     * @return true se deve pagar na data, false caso contrário
+     */
+    public boolean devePagarNaData(LocalDate data) {
+        if (calendarioPadrao != null) {
+            return calendarioPadrao.ehDiaDePagamento(data);
         }
+        // Se é uma agenda customizada, delega para AgendaDePagamentos
+        AgendaDePagamentos agendaCustomizada = agenda != null ? AgendaDePagamentos.getAgenda(agenda) : null;
+        return agendaCustomizada != null && agendaCustomizada.devePagarNaData(data);
     }
-    
-    private boolean devePagarNaDataPadrao(String data) {
-        try {
-            String[] partes = data.split("/");
-            int dia = Integer.parseInt(partes[0]);
-            int mes = Integer.parseInt(partes[1]);
-            int ano = Integer.parseInt(partes[2]);
-            
-            java.time.LocalDate localDate = java.time.LocalDate.of(ano, mes, dia);
-            java.time.DayOfWeek diaSemana = localDate.getDayOfWeek();
-            
-            switch (agenda) {
-                case SEMANAL_5:
-                    // Pagamento toda sexta-feira
-                    return diaSemana == java.time.DayOfWeek.FRIDAY;
-                    
-                case SEMANAL_2_5:
-                    // Pagamento a cada duas semanas na sexta-feira
-                    // Primeira sexta-feira quinzenal é 14/1/2005
-                    java.time.LocalDate primeiroPagamento = java.time.LocalDate.of(2005, 1, 14);
-                    
-                    if (localDate.isBefore(primeiroPagamento)) {
-                        return false;
-                    }
-                    
-                    // Verifica se é um dia de pagamento quinzenal
-                    long diasEntre = java.time.temporal.ChronoUnit.DAYS.between(primeiroPagamento, localDate);
-                    return diaSemana == java.time.DayOfWeek.FRIDAY && diasEntre % 14 == 0;
-                    
-                case MENSAL_DOLAR:
-                    // Pagamento no último dia do mês
-                    return localDate.equals(localDate.withDayOfMonth(localDate.lengthOfMonth()));
-                    
-                default:
-                    return false;
-            }
-        } catch (Exception e) {
-            return false;
+
+    private static CalendarioPagamento calendarioPadrao(String agenda) {
+        if (SEMANAL_5.equals(agenda)) {
+            return CALENDARIO_SEMANAL_5;
+        } else if (SEMANAL_2_5.equals(agenda)) {
+            return CALENDARIO_SEMANAL_2_5;
+        } else if (MENSAL_DOLAR.equals(agenda)) {
+            return CALENDARIO_MENSAL_DOLAR;
         }
+        return null;
     }
     
     /**
@@ -170,9 +158,9 @@ public class AgendaPagamento {
      * @param empregado Empregado para calcular o pagamento
      * @param dataInicial Data inicial do período
      * @param dataFinal Data final do período
-     * @return Valor a ser pago
+     * @return Valor a ser pago em 1/52 de milésimo de centavo (ver {@link CalculoPagamento#calcularValorAgenda})
      */
-    public double calcularValorPagamento(Empregado empregado, String dataInicial, String dataFinal) {
+    public long calcularValorPagamento(Empregado empregado, String dataInicial, String dataFinal) {
         // Se é uma agenda padrão, usa o cálculo original
         if (SEMANAL_5.equals(agenda) || SEMANAL_2_5.equals(agenda) || MENSAL_DOLAR.equals(agenda)) {
             return calcularValorPagamentoPadrao(empregado, dataInicial, dataFinal);
@@ -182,227 +170,86 @@ public class AgendaPagamento {
             if (agendaCustomizada != null) {
                 return agendaCustomizada.calcularValorPagamento(empregado, dataInicial, dataFinal);
             }
-            return 0.0;
+            return 0;
         }
     }
     
-    private double calcularValorPagamentoPadrao(Empregado empregado, String dataInicial, String dataFinal) {
-        String tipo = empregado.getTipo();
-        
+    /**
+     * Calcula o valor a ser pago no período da agenda que termina na data.
+     * 
+     * <p>O período começa 6 dias antes da data nas agendas semanais, 13 dias
+     * antes na quinzenal padrão ("semanal 2 5") e no primeiro dia do mês na
+     * mensal padrão ("mensal $").</p>
+     * 
+     * @param empregado Empregado para calcular o pagamento
+     * @param data Data do pagamento (fim do período)
+     * @return Valor a ser pago em 1/52 de milésimo de centavo (ver {@link CalculoPagamento#calcularValorAgenda})
+     */
+    public long calcularValorPagamento(Empregado empregado, LocalDate data) {
+        return calcularValorPagamento(empregado, calcularInicioPeriodo(data).format(DataUtils.FORMATO_DATA),
+                data.format(DataUtils.FORMATO_DATA));
+    }
+
+    /**
+     * Calcula a data inicial do período da agenda que termina na data.
+     * 
+     * @param data Data do pagamento (fim do período)
+     * @return Data inicial do período (inclusive)
+     */
+    public LocalDate calcularInicioPeriodo(LocalDate data) {
+        if (SEMANAL_2_5.equals(agenda)) {
+            return data.minusDays(13); // Período de 2 semanas
+        } else if (MENSAL_DOLAR.equals(agenda)) {
+            return data.withDayOfMonth(1); // Período de 1 mês
+        }
+        return data.minusDays(6); // Período de 1 semana
+    }
+
+    /**
+     * Verifica se esta é a agenda padrão do tipo de empregado.
+     * 
+     * @param tipo Tipo do empregado
+     * @return true se a agenda for a padrão do tipo, false caso contrário
+     */
+    public boolean isAgendaPadrao(TipoEmpregado tipo) {
+        return tipo != null && tipo.getAgendaPadrao().equals(agenda);
+    }
+    
+    private long calcularValorPagamentoPadrao(Empregado empregado, String dataInicial, String dataFinal) {
+        int periodosPorAno;
         switch (agenda) {
             case SEMANAL_5:
-                // Para horistas: horas trabalhadas na semana
-                // Para assalariados: salário anual / 52 semanas
-                // Para comissionados: salário base anual / 52 + comissões da semana
-                if ("horista".equals(tipo)) {
-                    return calcularPagamentoHoristaSemanal(empregado, dataInicial, dataFinal);
-                } else if ("assalariado".equals(tipo)) {
-                    return calcularPagamentoAssalariadoSemanal(empregado);
-                } else if ("comissionado".equals(tipo)) {
-                    return calcularPagamentoComissionadoSemanal(empregado, dataInicial, dataFinal);
-                }
+                periodosPorAno = 52; // 52 semanas
                 break;
-                
             case SEMANAL_2_5:
-                // Para horistas: horas trabalhadas nas duas semanas
-                // Para assalariados: salário anual / 26 períodos
-                // Para comissionados: salário base anual / 26 + comissões das duas semanas
-                if ("horista".equals(tipo)) {
-                    return calcularPagamentoHoristaBiSemanal(empregado, dataInicial, dataFinal);
-                } else if ("assalariado".equals(tipo)) {
-                    return calcularPagamentoAssalariadoBiSemanal(empregado);
-                } else if ("comissionado".equals(tipo)) {
-                    return calcularPagamentoComissionadoBiSemanal(empregado, dataInicial, dataFinal);
-                }
+                periodosPorAno = 26; // 26 períodos de duas semanas
                 break;
-                
             case MENSAL_DOLAR:
-                // Para horistas: horas trabalhadas no mês
-                // Para assalariados: salário mensal
-                // Para comissionados: salário base mensal + comissões do mês
-                if ("horista".equals(tipo)) {
-                    return calcularPagamentoHoristaMensal(empregado, dataInicial, dataFinal);
-                } else if ("assalariado".equals(tipo)) {
-                    return calcularPagamentoAssalariadoMensal(empregado);
-                } else if ("comissionado".equals(tipo)) {
-                    return calcularPagamentoComissionadoMensal(empregado, dataInicial, dataFinal);
-                }
+                periodosPorAno = 12;
                 break;
+            default:
+                return 0;
         }
-        
-        return 0.0;
-    }
-    
-    private double calcularPagamentoHoristaSemanal(Empregado empregado, String dataInicial, String dataFinal) {
-        if (!(empregado instanceof EmpregadoHorista)) return 0.0;
-        
-        EmpregadoHorista horista = (EmpregadoHorista) empregado;
-        double salarioHora = horista.getSalarioPorHora();
-        
-        // Calcula horas normais e extras da semana
-        double horasNormais = calcularHorasNormais(horista, dataInicial, dataFinal);
-        double horasExtras = calcularHorasExtras(horista, dataInicial, dataFinal);
-        
-        return (horasNormais * salarioHora) + (horasExtras * salarioHora * 1.5);
-    }
-    
-    private double calcularPagamentoHoristaBiSemanal(Empregado empregado, String dataInicial, String dataFinal) {
-        if (!(empregado instanceof EmpregadoHorista)) return 0.0;
-        
-        EmpregadoHorista horista = (EmpregadoHorista) empregado;
-        double salarioHora = horista.getSalarioPorHora();
-        
-        // Calcula horas normais e extras das duas semanas
-        double horasNormais = calcularHorasNormais(horista, dataInicial, dataFinal);
-        double horasExtras = calcularHorasExtras(horista, dataInicial, dataFinal);
-        
-        return (horasNormais * salarioHora) + (horasExtras * salarioHora * 1.5);
-    }
-    
-    private double calcularPagamentoHoristaMensal(Empregado empregado, String dataInicial, String dataFinal) {
-        if (!(empregado instanceof EmpregadoHorista)) return 0.0;
-        
-        EmpregadoHorista horista = (EmpregadoHorista) empregado;
-        double salarioHora = horista.getSalarioPorHora();
-        
-        // Calcula horas normais e extras do mês
-        double horasNormais = calcularHorasNormais(horista, dataInicial, dataFinal);
-        double horasExtras = calcularHorasExtras(horista, dataInicial, dataFinal);
-        
-        return (horasNormais * salarioHora) + (horasExtras * salarioHora * 1.5);
-    }
-    
-    private double calcularPagamentoAssalariadoSemanal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoAssalariado)) return 0.0;
-        
-        EmpregadoAssalariado assalariado = (EmpregadoAssalariado) empregado;
-        double salarioAnual = assalariado.getSalarioMensal() * 12;
-        return salarioAnual / 52; // Divide por 52 semanas
-    }
-    
-    private double calcularPagamentoAssalariadoBiSemanal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoAssalariado)) return 0.0;
-        
-        EmpregadoAssalariado assalariado = (EmpregadoAssalariado) empregado;
-        double salarioAnual = assalariado.getSalarioMensal() * 12;
-        return salarioAnual / 26; // Divide por 26 períodos de duas semanas
-    }
-    
-    private double calcularPagamentoAssalariadoMensal(Empregado empregado) {
-        if (!(empregado instanceof EmpregadoAssalariado)) return 0.0;
-        
-        EmpregadoAssalariado assalariado = (EmpregadoAssalariado) empregado;
-        return assalariado.getSalarioMensal();
-    }
-    
-    private double calcularPagamentoComissionadoSemanal(Empregado empregado, String dataInicial, String dataFinal) {
-        if (!(empregado instanceof EmpregadoComissionado)) return 0.0;
-        
-        EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
-        double salarioAnual = comissionado.getSalarioMensal() * 12;
-        double salarioSemanal = salarioAnual / 52;
-        
-        // Calcula comissões da semana
-        double comissoes = calcularComissoes(comissionado, dataInicial, dataFinal);
-        
-        return salarioSemanal + comissoes;
-    }
-    
-    private double calcularPagamentoComissionadoBiSemanal(Empregado empregado, String dataInicial, String dataFinal) {
-        if (!(empregado instanceof EmpregadoComissionado)) return 0.0;
-        
-        EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
-        double salarioAnual = comissionado.getSalarioMensal() * 12;
-        double salarioBiSemanal = salarioAnual / 26;
-        
-        // Calcula comissões das duas semanas
-        double comissoes = calcularComissoes(comissionado, dataInicial, dataFinal);
-        
-        return salarioBiSemanal + comissoes;
-    }
-    
-    private double calcularPagamentoComissionadoMensal(Empregado empregado, String dataInicial, String dataFinal) {
-        if (!(empregado instanceof EmpregadoComissionado)) return 0.0;
-        
-        EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
-        double salarioMensal = comissionado.getSalarioMensal();
-        
-        // Calcula comissões do mês
-        double comissoes = calcularComissoes(comissionado, dataInicial, dataFinal);
-        
-        return salarioMensal + comissoes;
-    }
-    
-    private double calcularHorasNormais(EmpregadoHorista horista, String dataInicial, String dataFinal) {
-        double totalHoras = 0.0;
-        
-        for (CartaoDePonto cartao : horista.getCartoes()) {
-            if (estaNoPeriodo(cartao.getData(), dataInicial, dataFinal)) {
-                double horas = cartao.getHoras();
-                if (horas <= 8) {
-                    totalHoras += horas;
-                } else {
-                    totalHoras += 8; // Máximo 8 horas normais por dia
-                }
-            }
-        }
-        
-        return totalHoras;
-    }
-    
-    private double calcularHorasExtras(EmpregadoHorista horista, String dataInicial, String dataFinal) {
-        double totalHoras = 0.0;
-        
-        for (CartaoDePonto cartao : horista.getCartoes()) {
-            if (estaNoPeriodo(cartao.getData(), dataInicial, dataFinal)) {
-                double horas = cartao.getHoras();
-                if (horas > 8) {
-                    totalHoras += (horas - 8); // Horas extras
-                }
-            }
-        }
-        
-        return totalHoras;
-    }
-    
-    private double calcularComissoes(EmpregadoComissionado comissionado, String dataInicial, String dataFinal) {
-        double totalComissoes = 0.0;
-        double taxaComissao = comissionado.getTaxaDeComissao();
-        
-        for (ResultadoDeVenda venda : comissionado.getResultadoDeVenda()) {
-            if (estaNoPeriodo(venda.getData(), dataInicial, dataFinal)) {
-                totalComissoes += venda.getValor() * taxaComissao;
-            }
+
+        // Datas inválidas resultam em um período vazio: só a parte fixa do salário
+        LocalDate inicio = lerData(dataInicial);
+        LocalDate fim = lerData(dataFinal);
+        if (inicio == null || fim == null) {
+            inicio = LocalDate.EPOCH;
+            fim = LocalDate.EPOCH.minusDays(1);
         }
-        
-        return totalComissoes;
+        return empregado.calcularValorAgenda(periodosPorAno, inicio, fim);
     }
-    
-    private boolean estaNoPeriodo(String data, String dataInicial, String dataFinal) {
+
+    private static LocalDate lerData(String data) {
         try {
-            String[] partesData = data.split("/");
-            String[] partesInicial = dataInicial.split("/");
-            String[] partesFinal = dataFinal.split("/");
-            
-            int dia = Integer.parseInt(partesData[0]);
-            int mes = Integer.parseInt(partesData[1]);
-            int ano = Integer.parseInt(partesData[2]);
-            
-            int diaInicial = Integer.parseInt(partesInicial[0]);
-            int mesInicial = Integer.parseInt(partesInicial[1]);
-            int anoInicial = Integer.parseInt(partesInicial[2]);
-            
-            int diaFinal = Integer.parseInt(partesFinal[0]);
-            int mesFinal = Integer.parseInt(partesFinal[1]);
-            int anoFinal = Integer.parseInt(partesFinal[2]);
-            
-            java.time.LocalDate localDate = java.time.LocalDate.of(ano, mes, dia);
-            java.time.LocalDate dataInicialLocal = java.time.LocalDate.of(anoInicial, mesInicial, diaInicial);
-            java.time.LocalDate dataFinalLocal = java.time.LocalDate.of(anoFinal, mesFinal, diaFinal);
-            
-            return !localDate.isBefore(dataInicialLocal) && !localDate.isAfter(dataFinalLocal);
+            String[] partes = data.split("/");
+            int dia = Integer.parseInt(partes[0]);
+            int mes = Integer.parseInt(partes[1]);
+            int ano = Integer.parseInt(partes[2]);
+            return LocalDate.of(ano, mes, dia);
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
 }
@@ -0,0 +1,41 @@
+package br.ufal.ic.p2.wepayu.models;
+
+import java.time.LocalDate;
+
+/**
+ * Cálculo do pagamento de um empregado, implementado por cada tipo de empregado.
+ *
+ * <p>A folha de pagamento e as agendas chamam estes métodos diretamente no
+ * empregado, em vez de comparar o tipo do empregado e converter para a subclasse.
+ * Todos os valores são calculados em milésimos de centavo e truncados em
+ * centavos somente na escrita da folha; os valores das agendas, que dividem o
+ * salário anual, são frações exatas de milésimo de centavo.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public interface CalculoPagamento {
+    /**
+     * Calcula o salário bruto do período que termina na data, pela agenda padrão
+     * do tipo do empregado, sem truncar.
+     *
+     * @param data Data do pagamento
+     * @return Salário bruto em milésimos de centavo
+     */
+    long calcularSalarioBruto(LocalDate data);
+
+    /**
+     * Calcula o valor a pagar em uma das agendas padrão, de um período entre
+     * duas datas (ambas inclusive). O valor é exato: a divisão do salário anual
+     * pelos pagamentos do ano não é truncada, e o valor é dado em
+     * 1/{@link br.ufal.ic.p2.wepayu.utils.Centavos#DIVISOR_AGENDAS} de milésimo
+     * de centavo.
+     *
+     * @param periodosPorAno Pagamentos por ano da agenda: 52 (semanal), 26 (quinzenal) ou 12 (mensal)
+     * @param inicio Data inicial do período
+     * @param fim Data final do período
+     * @return Valor a pagar em 1/52 de milésimo de centavo
+     */
+    long calcularValorAgenda(int periodosPorAno, LocalDate inicio, LocalDate fim);
+}
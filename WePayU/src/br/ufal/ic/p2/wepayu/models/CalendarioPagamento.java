@@ -0,0 +1,74 @@
+package br.ufal.ic.p2.wepayu.models;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Calendário dos dias de pagamento de uma agenda.
+ *
+ * <p>A regra da agenda é avaliada uma única vez para cada dia de um ano, na
+ * primeira consulta desse ano, e o resultado é guardado em um conjunto de bits
+ * (um bit por dia do ano). Depois disso, verificar se uma data é dia de
+ * pagamento é um teste de bit, sem formatar nem interpretar datas.</p>
+ *
+ * <p>Pode ser consultado por várias threads ao mesmo tempo.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class CalendarioPagamento {
+    private final Predicate<LocalDate> regra;
+    private final Map<Integer, Ano> anos = new ConcurrentHashMap<>();
+    private volatile Ano ultimoAno; // ano da última consulta, quase sempre o da próxima
+
+    /**
+     * Construtor do calendário.
+     *
+     * @param regra Regra da agenda: se uma data é dia de pagamento
+     */
+    public CalendarioPagamento(Predicate<LocalDate> regra) {
+        this.regra = regra;
+    }
+
+    /**
+     * Verifica se a data é dia de pagamento.
+     *
+     * @param data Data a verificar
+     * @return true se a agenda paga na data
+     */
+    public boolean ehDiaDePagamento(LocalDate data) {
+        Ano ano = ultimoAno;
+        if (ano == null || ano.numero != data.getYear()) {
+            ano = anos.computeIfAbsent(data.getYear(), this::compilar);
+            ultimoAno = ano;
+        }
+        int dia = data.getDayOfYear() - 1;
+        return (ano.bits[dia >>> 6] & (1L << dia)) != 0;
+    }
+
+    private Ano compilar(int numero) {
+        int dias = Year.of(numero).length();
+        long[] bits = new long[(dias + 63) >>> 6];
+        for (int dia = 0; dia < dias; dia++) {
+            if (regra.test(LocalDate.ofYearDay(numero, dia + 1))) {
+                bits[dia >>> 6] |= 1L << dia;
+            }
+        }
+        return new Ano(numero, bits);
+    }
+
+    // Dias de pagamento de um ano, bit i = dia i + 1 do ano
+    private static final class Ano {
+        private final int numero;
+        private final long[] bits;
+
+        private Ano(int numero, long[] bits) {
+            this.numero = numero;
+            this.bits = bits;
+        }
+    }
+}
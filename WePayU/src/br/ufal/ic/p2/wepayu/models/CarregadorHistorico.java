@@ -0,0 +1,41 @@
+package br.ufal.ic.p2.wepayu.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * Interface para carregamento sob demanda de históricos de lançamentos.
+ * 
+ * <p>Permite que a camada de persistência entregue um empregado ou membro do
+ * sindicato sem decodificar seus cartões de ponto, vendas ou taxas de serviço.
+ * O histórico só é decodificado no primeiro acesso.</p>
+ * 
+ * @param <T> Tipo do lançamento (CartaoDePonto, ResultadoDeVenda ou TaxaServico)
+ * 
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+@FunctionalInterface
+public interface CarregadorHistorico<T> {
+    /**
+     * Decodifica o histórico completo.
+     * 
+     * @return Lista de lançamentos
+     */
+    ArrayList<T> carregar();
+
+    /**
+     * Obtém apenas os lançamentos de um período, sem decodificar o histórico completo.
+     * 
+     * <p>Implementado pelos carregadores com índice por data. A implementação
+     * padrão retorna null, indicando que o histórico completo deve ser carregado.</p>
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Lançamentos do período na ordem do histórico, ou null se não houver índice
+     */
+    default ArrayList<T> carregarPeriodo(LocalDate inicio, LocalDate fim) {
+        return null;
+    }
+}
@@ -11,7 +11,7 @@ import br.ufal.ic.p2.wepayu.utils.ValorMonetarioUtils;
  * 
  * <p>Informações armazenadas:</p>
  * <ul>
- *   <li>Data do cartão de ponto</li>
+ *   <li>Data do cartão de ponto, como dia epoch (dias desde 1/1/1970)</li>
  *   <li>Número de horas trabalhadas</li>
  * </ul>
  * 
@@ -20,22 +20,22 @@ import br.ufal.ic.p2.wepayu.utils.ValorMonetarioUtils;
  * @since 2025
  */
 public class CartaoDePonto {
-    private String data;
+    private int dia;
     private Double horas;
 
     public CartaoDePonto() {}
 
-    public CartaoDePonto(String data, String horas) {
-        this.data = data;
+    public CartaoDePonto(int dia, String horas) {
+        this.dia = dia;
         // Trunca as horas para 2 casas decimais usando ValorMonetarioUtils
         this.horas = ValorMonetarioUtils.truncarValorMonetario(horas.replace(',', '.'));
     }
 
-    public String getData() {
-        return data;
+    public int getDia() {
+        return dia;
     }
-    public void setData(String data) {
-        this.data = data;
+    public void setDia(int dia) {
+        this.dia = dia;
     }
 
     public Double getHoras() {
@@ -1,6 +1,9 @@
 package br.ufal.ic.p2.wepayu.models;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Classe abstrata que representa um empregado no sistema WePayU.
@@ -16,11 +19,14 @@ import java.util.ArrayList;
  *   <li><strong>EmpregadoComissionado:</strong> Recebe comissão sobre vendas</li>
  * </ul>
  * 
+ * <p>O cálculo do pagamento ({@link CalculoPagamento}) é implementado por cada
+ * subclasse, e o tipo é identificado por {@link TipoEmpregado}.</p>
+ * 
  * @author John Wallex
  * @version 1.0
  * @since 2025
  */
-public abstract class Empregado {
+public abstract class Empregado implements CalculoPagamento {
     private String Id;
     private String nome;
     private String endereco;
@@ -83,9 +89,18 @@ public abstract class Empregado {
      * <p>Método abstrato que deve ser implementado pelas subclasses
      * para retornar o tipo específico do empregado.</p>
      * 
+     * @return Tipo do empregado
+     */
+    public abstract TipoEmpregado getTipoEmpregado();
+
+    /**
+     * Obtém o nome do tipo do empregado.
+     * 
      * @return Tipo do empregado ("assalariado", "horista" ou "comissionado")
      */
-    public abstract String getTipo();
+    public final String getTipo() {
+        return getTipoEmpregado().getNome();
+    }
 
     /**
      * Obtém o salário do empregado.
@@ -165,6 +180,28 @@ public abstract class Empregado {
      * @return Lista de resultados de venda (null por padrão)
      */
     public ArrayList<ResultadoDeVenda> getResultadoDeVenda() { return null; }
+    /**
+     * Obtém os cartões de ponto do empregado em um período.
+     * 
+     * <p>Método padrão que retorna uma lista vazia. Deve ser sobrescrito
+     * nas subclasses que suportam cartões de ponto.</p>
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Cartões de ponto do período (lista vazia por padrão)
+     */
+    public List<CartaoDePonto> getCartoes(LocalDate inicio, LocalDate fim) { return Collections.emptyList(); }
+    /**
+     * Obtém os resultados de venda do empregado em um período.
+     * 
+     * <p>Método padrão que retorna uma lista vazia. Deve ser sobrescrito
+     * nas subclasses que suportam vendas.</p>
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Resultados de venda do período (lista vazia por padrão)
+     */
+    public List<ResultadoDeVenda> getResultadoDeVenda(LocalDate inicio, LocalDate fim) { return Collections.emptyList(); }
 
     /**
      * Obtém o ID único do empregado.
@@ -1,5 +1,8 @@
 package br.ufal.ic.p2.wepayu.models;
 
+import br.ufal.ic.p2.wepayu.utils.Centavos;
+import java.time.LocalDate;
+
 /**
  * Classe que representa um empregado assalariado no sistema WePayU.
  * 
@@ -7,6 +10,8 @@ package br.ufal.ic.p2.wepayu.models;
  * das horas trabalhadas ou vendas realizadas. O salário é pago mensalmente
  * em uma data específica.</p>
  * 
+ * <p>O salário é mantido em centavos ({@link Centavos}).</p>
+ * 
  * <p>Características:</p>
  * <ul>
  *   <li>Salário fixo mensal</li>
@@ -20,7 +25,7 @@ package br.ufal.ic.p2.wepayu.models;
  * @since 2025
  */
 public class EmpregadoAssalariado extends Empregado {
-    private double salarioMensal;
+    private long salarioMensalCentavos;
 
     /**
      * Construtor padrão da classe EmpregadoAssalariado.
@@ -37,7 +42,7 @@ public class EmpregadoAssalariado extends Empregado {
     public EmpregadoAssalariado(String nome, String endereco, double salario){
         super(nome, endereco);
         setSalarioMensal(salario);
-        this.setAgendaPagamento(AgendaPagamento.getAgendaPadrao("assalariado"));
+        this.setAgendaPagamento(TipoEmpregado.ASSALARIADO.getAgendaPadrao());
     }
 
     /**
@@ -46,50 +51,68 @@ public class EmpregadoAssalariado extends Empregado {
      * @return Salário mensal em valor numérico
      */
     public double getSalarioMensal() {
-        return salarioMensal;
+        return Centavos.paraDouble(salarioMensalCentavos);
     }
     /**
-     * Define o salário mensal do empregado assalariado.
+     * Define o salário mensal do empregado assalariado, truncado em centavos.
      * 
      * @param salarioMensal Novo salário mensal
      */
-    public void setSalarioMensal(double salarioMensal) { this.salarioMensal = salarioMensal; }
+    public void setSalarioMensal(double salarioMensal) { this.salarioMensalCentavos = Centavos.truncar(salarioMensal); }
+
+    /**
+     * Obtém o salário mensal em centavos.
+     * 
+     * @return Salário mensal em centavos
+     */
+    public long salarioMensalEmCentavos() {
+        return salarioMensalCentavos;
+    }
 
     /**
      * Retorna o tipo do empregado.
      * 
-     * @return Sempre retorna "assalariado"
+     * @return Sempre retorna {@link TipoEmpregado#ASSALARIADO}
      */
     @Override
-    public String getTipo() {
-        return "assalariado";
+    public TipoEmpregado getTipoEmpregado() {
+        return TipoEmpregado.ASSALARIADO;
     }
 
     /**
-     * Retorna o salário do empregado em formato monetário.
+     * Calcula o salário bruto do mês: o salário mensal.
      * 
-     * <p>O salário é formatado com 2 casas decimais e vírgula como separador decimal.</p>
+     * @param data Data do pagamento
+     * @return Salário bruto em milésimos de centavo
+     */
+    @Override
+    public long calcularSalarioBruto(LocalDate data) {
+        return salarioMensalCentavos * 1000;
+    }
+
+    /**
+     * Calcula o valor a pagar em uma agenda padrão: o salário anual dividido
+     * pelos pagamentos do ano, ou o salário mensal na agenda mensal.
      * 
-     * @return Salário em formato monetário (ex: "1000,50")
+     * @param periodosPorAno Pagamentos por ano da agenda
+     * @param inicio Data inicial do período
+     * @param fim Data final do período
+     * @return Valor a pagar em 1/52 de milésimo de centavo, sem truncar
      */
     @Override
-    public String getSalario() {
-        return truncarValorMonetario(this.salarioMensal);
+    public long calcularValorAgenda(int periodosPorAno, LocalDate inicio, LocalDate fim) {
+        return salarioMensalCentavos * 1000 * 12 * Centavos.DIVISOR_AGENDAS / periodosPorAno;
     }
 
     /**
-     * Trunca um valor monetário para 2 casas decimais sem arredondamento.
+     * Retorna o salário do empregado em formato monetário.
      * 
-     * <p>Este método converte um valor numérico para formato monetário brasileiro,
-     * truncando (não arredondando) para 2 casas decimais e usando vírgula
-     * como separador decimal.</p>
+     * <p>O salário é formatado com 2 casas decimais e vírgula como separador decimal.</p>
      * 
-     * @param valor Valor numérico a ser formatado
-     * @return Valor formatado em string com vírgula como separador decimal
+     * @return Salário em formato monetário (ex: "1000,50")
      */
-    private String truncarValorMonetario(double valor) {
-        java.math.BigDecimal bd = java.math.BigDecimal.valueOf(valor);
-        bd = bd.setScale(2, java.math.RoundingMode.DOWN);
-        return bd.toString().replace('.', ',');
+    @Override
+    public String getSalario() {
+        return Centavos.formatar(salarioMensalCentavos);
     }
 }
@@ -1,6 +1,11 @@
 package br.ufal.ic.p2.wepayu.models;
 
+import br.ufal.ic.p2.wepayu.utils.Centavos;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Classe que representa um empregado comissionado no sistema WePayU.
@@ -18,14 +23,21 @@ import java.util.ArrayList;
  *   <li>Suporta diferentes métodos de pagamento</li>
  * </ul>
  * 
+ * <p>O salário base e as vendas são mantidos em centavos ({@link Centavos}).</p>
+ * 
  * @author John Wallex
  * @version 1.0
  * @since 2025
  */
 public class EmpregadoComissionado extends Empregado {
-    private double salarioMensal;
+    private long salarioMensalCentavos;
     private double taxaDeComissao;
     private ArrayList<ResultadoDeVenda> resultadoDeVenda= new ArrayList<>();
+    private transient CarregadorHistorico<ResultadoDeVenda> carregadorVendas; // vendas ainda não decodificadas
+    private transient boolean vendasCompartilhadas; // lista compartilhada com uma cópia: duplicada antes da escrita
+    private transient HistoricoColunar colunasVendas = HistoricoColunar.habilitado() ? new HistoricoColunar() : null;
+    private final transient SomasPorData<ResultadoDeVenda> somasVendas = new SomasPorData<>(ResultadoDeVenda::getDia,
+            List.of(venda -> Centavos.truncar(venda.getValor())));
 
     /**
      * Construtor padrão da classe EmpregadoComissionado.
@@ -42,9 +54,9 @@ public class EmpregadoComissionado extends Empregado {
      */
     public EmpregadoComissionado(String nome, String endereco, double salario, double taxaDeComissao) {
         super(nome, endereco);
-        this.salarioMensal = salario;
+        setSalarioMensal(salario);
         this.taxaDeComissao = taxaDeComissao;
-        this.setAgendaPagamento(AgendaPagamento.getAgendaPadrao("comissionado"));
+        this.setAgendaPagamento(TipoEmpregado.COMISSIONADO.getAgendaPadrao());
     }
 
     /**
@@ -53,7 +65,7 @@ public class EmpregadoComissionado extends Empregado {
      * @return Salário base mensal em valor numérico
      */
     public double getSalarioMensal() {
-        return salarioMensal;
+        return Centavos.paraDouble(salarioMensalCentavos);
     }
 
     /**
@@ -62,7 +74,16 @@ public class EmpregadoComissionado extends Empregado {
      * @param salarioMensal Novo salário base mensal
      */
     public void setSalarioMensal(double salarioMensal) {
-        this.salarioMensal = salarioMensal;
+        this.salarioMensalCentavos = Centavos.truncar(salarioMensal);
+    }
+
+    /**
+     * Obtém o salário base mensal em centavos.
+     * 
+     * @return Salário base mensal em centavos
+     */
+    public long salarioMensalEmCentavos() {
+        return salarioMensalCentavos;
     }
 
     /**
@@ -86,69 +107,273 @@ public class EmpregadoComissionado extends Empregado {
     }
 
     /**
-     * Obtém a lista de resultados de venda do empregado comissionado.
+     * Obtém a lista de resultados de venda do empregado comissionado, em ordem de data.
+     * 
+     * <p>As vendas são mantidas em ordem de data, para as consultas e somas por
+     * período. Novas vendas devem ser incluídas por {@link #lancarResultadoDeVenda}
+     * e a lista só deve ser substituída por {@link #setResultadoDeVenda}.</p>
+     * 
+     * <p>Com o armazenamento colunar ({@link HistoricoColunar}), a lista é uma cópia
+     * montada a partir das colunas.</p>
      * 
      * @return Lista de resultados de venda
      */
     @Override
     public ArrayList<ResultadoDeVenda> getResultadoDeVenda() {
+        carregarVendas();
+        if (colunasVendas != null) {
+            return vendasDasColunas(0, colunasVendas.getTamanho());
+        }
         return resultadoDeVenda;
     }
 
     /**
-     * Define a lista de resultados de venda do empregado comissionado.
+     * Obtém os resultados de venda de um período.
+     * 
+     * <p>Enquanto as vendas não foram carregadas, a consulta é delegada ao
+     * carregador quando ele tem índice por data; caso contrário, o histórico
+     * é carregado e filtrado.</p>
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Resultados de venda do período
+     */
+    @Override
+    public List<ResultadoDeVenda> getResultadoDeVenda(LocalDate inicio, LocalDate fim) {
+        if (carregadorVendas != null) {
+            List<ResultadoDeVenda> periodo = carregadorVendas.carregarPeriodo(inicio, fim);
+            if (periodo != null) {
+                return periodo;
+            }
+        }
+        carregarVendas();
+        if (colunasVendas != null) {
+            int primeiro = colunasVendas.buscar((int) inicio.toEpochDay());
+            return vendasDasColunas(primeiro, Math.max(primeiro, colunasVendas.buscar((int) fim.toEpochDay())));
+        }
+        return DataUtils.periodoOrdenado(resultadoDeVenda, ResultadoDeVenda::getDia, inicio, fim);
+    }
+
+    /**
+     * Soma o valor das vendas de um período pelas somas acumuladas das vendas ou,
+     * com o armazenamento colunar, percorrendo os centavos das vendas do período.
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Valor total das vendas do período, em centavos
+     */
+    public long somarVendas(LocalDate inicio, LocalDate fim) {
+        if (carregadorVendas != null) {
+            List<ResultadoDeVenda> periodo = carregadorVendas.carregarPeriodo(inicio, fim);
+            if (periodo != null) {
+                return somasVendas.somarLancamentos(periodo, 0);
+            }
+        }
+        carregarVendas();
+        if (colunasVendas != null) {
+            int ultimo = colunasVendas.buscar((int) fim.toEpochDay());
+            long centavos = 0;
+            for (int i = colunasVendas.buscar((int) inicio.toEpochDay()); i < ultimo; i++) {
+                centavos += colunasVendas.getCentesimos(i);
+            }
+            return centavos;
+        }
+        return somasVendas.somar(resultadoDeVenda, 0, inicio, fim);
+    }
+
+    private ArrayList<ResultadoDeVenda> vendasDasColunas(int primeiro, int ultimo) {
+        ArrayList<ResultadoDeVenda> lista = new ArrayList<>(ultimo - primeiro);
+        for (int i = primeiro; i < ultimo; i++) {
+            ResultadoDeVenda venda = new ResultadoDeVenda();
+            venda.setDia(colunasVendas.getDia(i));
+            venda.setValor(HistoricoColunar.deCentesimos(colunasVendas.getCentesimos(i)));
+            lista.add(venda);
+        }
+        return lista;
+    }
+
+    private void carregarVendas() {
+        if (carregadorVendas != null) {
+            setResultadoDeVenda(carregadorVendas.carregar());
+        }
+    }
+
+    /**
+     * Define a lista de resultados de venda do empregado comissionado. A lista é
+     * ordenada por data, caso ainda não esteja.
      * 
      * @param resultadoDeVenda Nova lista de resultados de venda
      */
     public void setResultadoDeVenda(ArrayList<ResultadoDeVenda> resultadoDeVenda) {
-        this.resultadoDeVenda = resultadoDeVenda;
+        DataUtils.ordenarPorData(resultadoDeVenda, ResultadoDeVenda::getDia);
+        if (HistoricoColunar.habilitado()) {
+            this.colunasVendas = new HistoricoColunar();
+            for (ResultadoDeVenda venda : resultadoDeVenda) {
+                colunasVendas.adicionar(venda.getDia(), HistoricoColunar.paraCentesimos(venda.getValor()));
+            }
+            this.resultadoDeVenda = new ArrayList<>();
+        } else {
+            this.resultadoDeVenda = resultadoDeVenda;
+        }
+        this.vendasCompartilhadas = false;
+        this.carregadorVendas = null;
+        somasVendas.invalidar();
+    }
+
+    /**
+     * Define o carregador dos resultados de venda, decodificados somente no primeiro acesso.
+     * 
+     * @param carregador Carregador do histórico de vendas
+     */
+    public void setCarregadorVendas(CarregadorHistorico<ResultadoDeVenda> carregador) {
+        this.carregadorVendas = carregador;
+        somasVendas.invalidar();
+    }
+
+    /**
+     * Obtém o carregador dos resultados de venda, se eles ainda não foram decodificados.
+     * 
+     * @return Carregador pendente ou null se as vendas já estão em memória
+     */
+    public CarregadorHistorico<ResultadoDeVenda> carregadorVendasPendente() {
+        return carregadorVendas;
+    }
+
+    /**
+     * Copia os resultados de venda de outro empregado comissionado, sem decodificar
+     * um histórico ainda não carregado nem montar a lista a partir das colunas.
+     * 
+     * <p>A lista (ou as colunas) de vendas é compartilhada com a origem, sem
+     * duplicação: o primeiro dos dois empregados que lançar ou remover uma
+     * venda passa a usar uma lista própria.</p>
+     * 
+     * @param origem Empregado cujas vendas são copiadas
+     */
+    public void copiarVendas(EmpregadoComissionado origem) {
+        if (origem.carregadorVendas != null) {
+            setCarregadorVendas(origem.carregadorVendas);
+        } else if (origem.colunasVendas != null) {
+            this.colunasVendas = origem.colunasVendas.copiar();
+            this.resultadoDeVenda = new ArrayList<>();
+            this.carregadorVendas = null;
+        } else {
+            this.resultadoDeVenda = origem.resultadoDeVenda;
+            this.colunasVendas = null;
+            this.carregadorVendas = null;
+            this.vendasCompartilhadas = true;
+            origem.vendasCompartilhadas = true;
+            somasVendas.invalidar();
+        }
     }
 
     /**
      * Retorna o tipo do empregado.
      * 
-     * @return Sempre retorna "comissionado"
+     * @return Sempre retorna {@link TipoEmpregado#COMISSIONADO}
      */
     @Override
-    public String getTipo() {
-        return "comissionado";
+    public TipoEmpregado getTipoEmpregado() {
+        return TipoEmpregado.COMISSIONADO;
     }
 
     /**
-     * Retorna o salário base do empregado em formato monetário.
+     * Calcula o salário bruto da quinzena que termina na data.
      * 
-     * <p>O salário é formatado com 2 casas decimais e vírgula como separador decimal.</p>
+     * @param data Data do pagamento
+     * @return Salário bruto em milésimos de centavo
+     */
+    @Override
+    public long calcularSalarioBruto(LocalDate data) {
+        return calcularValoresQuinzena(data)[0];
+    }
+
+    /**
+     * Calcula os valores da quinzena que termina na data, exibidos na folha.
      * 
-     * @return Salário base em formato monetário (ex: "1000,50")
+     * <p>O salário fixo (salário mensal x 12 / 26) e a comissão sobre as vendas
+     * dos últimos 15 dias são truncados em centavos antes de somados.</p>
+     * 
+     * @param data Data do pagamento
+     * @return Valores em milésimos de centavo: {salário bruto, vendas, comissão, salário fixo}
+     */
+    public long[] calcularValoresQuinzena(LocalDate data) {
+        long salarioBase = salarioMensalCentavos * 12 / 26;
+        long totalVendas = somarVendas(data.minusDays(14), data.plusDays(1));
+        long comissao = Centavos.multiplicar(totalVendas, taxaDeComissao);
+        return new long[]{(salarioBase + comissao) * 1000, totalVendas * 1000, comissao * 1000, salarioBase * 1000};
+    }
+
+    /**
+     * Calcula o valor a pagar em uma agenda padrão: o salário anual dividido
+     * pelos pagamentos do ano (ou o salário mensal na agenda mensal), mais a
+     * comissão sobre as vendas do período.
+     * 
+     * @param periodosPorAno Pagamentos por ano da agenda
+     * @param inicio Data inicial do período
+     * @param fim Data final do período
+     * @return Valor a pagar em 1/52 de milésimo de centavo, sem truncar o salário
      */
     @Override
-    public String getSalario() {
-        return truncarValorMonetario(this.salarioMensal);
+    public long calcularValorAgenda(int periodosPorAno, LocalDate inicio, LocalDate fim) {
+        long salario = salarioMensalCentavos * 1000 * 12 * Centavos.DIVISOR_AGENDAS / periodosPorAno;
+        long comissoes = 0;
+        if (!fim.isBefore(inicio)) {
+            comissoes = Centavos.multiplicarEmMilesimos(somarVendas(inicio, fim.plusDays(1)), taxaDeComissao);
+        }
+        return salario + comissoes * Centavos.DIVISOR_AGENDAS;
     }
 
     /**
-     * Trunca um valor monetário para 2 casas decimais sem arredondamento.
+     * Retorna o salário base do empregado em formato monetário.
      * 
-     * <p>Este método converte um valor numérico para formato monetário brasileiro,
-     * truncando (não arredondando) para 2 casas decimais e usando vírgula
-     * como separador decimal.</p>
+     * <p>O salário é formatado com 2 casas decimais e vírgula como separador decimal.</p>
      * 
-     * @param valor Valor numérico a ser formatado
-     * @return Valor formatado em string com vírgula como separador decimal
+     * @return Salário base em formato monetário (ex: "1000,50")
      */
-    private String truncarValorMonetario(double valor) {
-        java.math.BigDecimal bd = java.math.BigDecimal.valueOf(valor);
-        bd = bd.setScale(2, java.math.RoundingMode.DOWN);
-        return bd.toString().replace('.', ',');
+    @Override
+    public String getSalario() {
+        return Centavos.formatar(salarioMensalCentavos);
     }
 
     /**
-     * Adiciona um resultado de venda à lista do empregado comissionado.
+     * Adiciona um resultado de venda à lista do empregado comissionado, na posição
+     * da sua data e depois das vendas já lançadas no mesmo dia.
      * 
      * @param resultadoDeVenda Resultado de venda a ser adicionado
      */
     @Override
     public void lancarResultadoDeVenda(ResultadoDeVenda resultadoDeVenda) {
-        this.resultadoDeVenda.add(resultadoDeVenda);
+        carregarVendas();
+        if (colunasVendas != null) {
+            colunasVendas.adicionar(resultadoDeVenda.getDia(), HistoricoColunar.paraCentesimos(resultadoDeVenda.getValor()));
+        } else if (!DataUtils.inserirPorData(vendasParaAlterar(), resultadoDeVenda, ResultadoDeVenda::getDia)) {
+            somasVendas.invalidar(); // incluída antes de vendas já acumuladas
+        }
+    }
+
+    /**
+     * Remove o resultado de venda lançado mais recentemente com a mesma data e o
+     * mesmo valor da venda informada, desfazendo o seu lançamento.
+     * 
+     * @param resultadoDeVenda Resultado de venda a ser removido
+     */
+    public void removerResultadoDeVenda(ResultadoDeVenda resultadoDeVenda) {
+        carregarVendas();
+        if (colunasVendas != null) {
+            colunasVendas.remover(resultadoDeVenda.getDia(), HistoricoColunar.paraCentesimos(resultadoDeVenda.getValor()));
+        } else {
+            DataUtils.removerUltimoDoDia(vendasParaAlterar(), ResultadoDeVenda::getDia, resultadoDeVenda.getDia(),
+                    lancada -> Objects.equals(lancada.getValor(), resultadoDeVenda.getValor()));
+            somasVendas.invalidar();
+        }
+    }
+
+    // A lista compartilhada com uma cópia continua com a cópia; as somas acumuladas seguem válidas
+    private ArrayList<ResultadoDeVenda> vendasParaAlterar() {
+        if (vendasCompartilhadas) {
+            resultadoDeVenda = new ArrayList<>(resultadoDeVenda);
+            vendasCompartilhadas = false;
+        }
+        return resultadoDeVenda;
     }
 }
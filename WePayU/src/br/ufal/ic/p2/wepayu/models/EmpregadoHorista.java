@@ -1,6 +1,11 @@
 package br.ufal.ic.p2.wepayu.models;
 
+import br.ufal.ic.p2.wepayu.utils.Centavos;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Classe que representa um empregado horista no sistema WePayU.
@@ -19,13 +24,41 @@ import java.util.ArrayList;
  *   <li>Suporta diferentes métodos de pagamento</li>
  * </ul>
  * 
+ * <p>Os cartões de ponto são mantidos em ordem de data (cartões do mesmo dia na
+ * ordem de lançamento). As consultas por período localizam o início da janela por
+ * busca binária e percorrem apenas os cartões dentro dela, em vez de todo o
+ * histórico. As somas de horas de um período são respondidas pelas somas
+ * acumuladas dos cartões ({@link SomasPorData}). Novos cartões devem ser incluídos
+ * por {@link #lancarCartao} e a lista só deve ser substituída por {@link #setCartoes}.</p>
+ * 
+ * <p>Com o armazenamento colunar habilitado ({@link HistoricoColunar}), os cartões
+ * ficam em colunas de tipos primitivos e as somas de horas percorrem as colunas
+ * do período, sem criar objetos.</p>
+ * 
+ * <p>O salário por hora é mantido em centavos ({@link Centavos}) e as horas
+ * são somadas em centésimos de hora.</p>
+ * 
  * @author John Wallex
  * @version 1.0
  * @since 2025
  */
 public class EmpregadoHorista extends Empregado {
-    private double salarioPorHora;
+    private static final long OITO_HORAS = 800; // em centésimos de hora
+    private static final int HORAS_NORMAIS = 0;
+    private static final int HORAS_EXTRAS = 1;
+    private static final int HORAS_NORMAIS_INTEIRAS = 2;
+    private static final int HORAS_EXTRAS_INTEIRAS = 3;
+
+    private long salarioPorHoraCentavos;
     private ArrayList<CartaoDePonto> cartoes = new  ArrayList<>();
+    private transient CarregadorHistorico<CartaoDePonto> carregadorCartoes; // cartões ainda não decodificados
+    private transient boolean cartoesCompartilhados; // lista compartilhada com uma cópia: duplicada antes da escrita
+    private transient HistoricoColunar colunasCartoes = HistoricoColunar.habilitado() ? new HistoricoColunar() : null;
+    private final transient SomasPorData<CartaoDePonto> somasCartoes = new SomasPorData<>(CartaoDePonto::getDia, List.of(
+            cartao -> Math.min(HistoricoColunar.paraCentesimos(cartao.getHoras()), OITO_HORAS),
+            cartao -> Math.max(HistoricoColunar.paraCentesimos(cartao.getHoras()) - OITO_HORAS, 0),
+            cartao -> Math.min(cartao.getHoras().intValue(), 8),
+            cartao -> Math.max(cartao.getHoras().intValue() - 8, 0)));
 
     /**
      * Construtor padrão da classe EmpregadoHorista.
@@ -41,8 +74,8 @@ public class EmpregadoHorista extends Empregado {
      */
     public EmpregadoHorista(String nome, String endereco, double salario) {
         super(nome, endereco);
-        this.salarioPorHora = salario;
-        this.setAgendaPagamento(AgendaPagamento.getAgendaPadrao("horista"));
+        setSalarioPorHora(salario);
+        this.setAgendaPagamento(TipoEmpregado.HORISTA.getAgendaPadrao());
     }
 
     /**
@@ -51,80 +84,337 @@ public class EmpregadoHorista extends Empregado {
      * @return Salário por hora em valor numérico
      */
     public double getSalarioPorHora() {
-        return salarioPorHora;
+        return Centavos.paraDouble(salarioPorHoraCentavos);
     }
 
     /**
-     * Define o salário por hora do empregado horista.
+     * Define o salário por hora do empregado horista, truncado em centavos.
      * 
      * @param salarioPorHora Novo salário por hora
      */
     public void setSalarioPorHora(double salarioPorHora) {
-        this.salarioPorHora = salarioPorHora;
+        this.salarioPorHoraCentavos = Centavos.truncar(salarioPorHora);
     }
 
     /**
-     * Obtém a lista de cartões de ponto do empregado horista.
+     * Obtém o salário por hora em centavos.
+     * 
+     * @return Salário por hora em centavos
+     */
+    public long salarioPorHoraEmCentavos() {
+        return salarioPorHoraCentavos;
+    }
+
+    /**
+     * Obtém a lista de cartões de ponto do empregado horista, em ordem de data.
+     * 
+     * <p>Com o armazenamento colunar, a lista é uma cópia montada a partir das colunas.</p>
      * 
      * @return Lista de cartões de ponto
      */
     @Override
-    public ArrayList<CartaoDePonto> getCartoes() { return this.cartoes; }
+    public ArrayList<CartaoDePonto> getCartoes() {
+        carregarCartoes();
+        if (colunasCartoes != null) {
+            return cartoesDasColunas(0, colunasCartoes.getTamanho());
+        }
+        return this.cartoes;
+    }
+
+    /**
+     * Obtém os cartões de ponto de um período.
+     * 
+     * <p>Enquanto os cartões não foram carregados, a consulta é delegada ao
+     * carregador quando ele tem índice por data; caso contrário, o histórico
+     * é carregado e filtrado.</p>
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Cartões de ponto do período
+     */
+    @Override
+    public List<CartaoDePonto> getCartoes(LocalDate inicio, LocalDate fim) {
+        if (carregadorCartoes != null) {
+            List<CartaoDePonto> periodo = carregadorCartoes.carregarPeriodo(inicio, fim);
+            if (periodo != null) {
+                return periodo;
+            }
+        }
+        carregarCartoes();
+        if (colunasCartoes != null) {
+            int primeiro = colunasCartoes.buscar((int) inicio.toEpochDay());
+            return cartoesDasColunas(primeiro, Math.max(primeiro, colunasCartoes.buscar((int) fim.toEpochDay())));
+        }
+        return DataUtils.periodoOrdenado(cartoes, CartaoDePonto::getDia, inicio, fim);
+    }
+
+    /**
+     * Soma as horas normais (até 8 por cartão) dos cartões de um período.
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Total de horas normais, em centésimos de hora
+     */
+    public long somarHorasNormais(LocalDate inicio, LocalDate fim) {
+        return somarCartoes(HORAS_NORMAIS, inicio, fim);
+    }
+
+    /**
+     * Soma as horas extras (acima de 8 por cartão) dos cartões de um período.
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Total de horas extras, em centésimos de hora
+     */
+    public long somarHorasExtras(LocalDate inicio, LocalDate fim) {
+        return somarCartoes(HORAS_EXTRAS, inicio, fim);
+    }
+
+    /**
+     * Soma as horas normais de um período, considerando apenas a parte inteira
+     * das horas de cada cartão, como exibido na folha de pagamento.
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Total de horas normais inteiras
+     */
+    public int somarHorasNormaisInteiras(LocalDate inicio, LocalDate fim) {
+        return (int) somarCartoes(HORAS_NORMAIS_INTEIRAS, inicio, fim);
+    }
+
+    /**
+     * Soma as horas extras de um período, considerando apenas a parte inteira
+     * das horas de cada cartão, como exibido na folha de pagamento.
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Total de horas extras inteiras
+     */
+    public int somarHorasExtrasInteiras(LocalDate inicio, LocalDate fim) {
+        return (int) somarCartoes(HORAS_EXTRAS_INTEIRAS, inicio, fim);
+    }
+
+    // Com o carregador indexado por data, soma apenas os cartões do período sem carregar o histórico
+    private long somarCartoes(int medida, LocalDate inicio, LocalDate fim) {
+        if (carregadorCartoes != null) {
+            List<CartaoDePonto> periodo = carregadorCartoes.carregarPeriodo(inicio, fim);
+            if (periodo != null) {
+                return somasCartoes.somarLancamentos(periodo, medida);
+            }
+        }
+        carregarCartoes();
+        if (colunasCartoes != null) {
+            return somarColunas(medida, inicio, fim);
+        }
+        return somasCartoes.somar(cartoes, medida, inicio, fim);
+    }
+
+    // Percorre as colunas do período, em centésimos de hora, sem criar objetos
+    private long somarColunas(int medida, LocalDate inicio, LocalDate fim) {
+        int ultimo = colunasCartoes.buscar((int) fim.toEpochDay());
+        long soma = 0;
+        for (int i = colunasCartoes.buscar((int) inicio.toEpochDay()); i < ultimo; i++) {
+            long horas = colunasCartoes.getCentesimos(i);
+            switch (medida) {
+                case HORAS_NORMAIS:
+                    soma += Math.min(horas, OITO_HORAS);
+                    break;
+                case HORAS_EXTRAS:
+                    soma += Math.max(horas - OITO_HORAS, 0);
+                    break;
+                case HORAS_NORMAIS_INTEIRAS:
+                    soma += Math.min(horas / 100, 8);
+                    break;
+                default:
+                    soma += Math.max(horas / 100 - 8, 0);
+            }
+        }
+        return soma;
+    }
+
+    private ArrayList<CartaoDePonto> cartoesDasColunas(int primeiro, int ultimo) {
+        ArrayList<CartaoDePonto> lista = new ArrayList<>(ultimo - primeiro);
+        for (int i = primeiro; i < ultimo; i++) {
+            CartaoDePonto cartao = new CartaoDePonto();
+            cartao.setDia(colunasCartoes.getDia(i));
+            cartao.setHoras(HistoricoColunar.deCentesimos(colunasCartoes.getCentesimos(i)));
+            lista.add(cartao);
+        }
+        return lista;
+    }
+
+    private void carregarCartoes() {
+        if (carregadorCartoes != null) {
+            setCartoes(carregadorCartoes.carregar());
+        }
+    }
 
     /**
-     * Define a lista de cartões de ponto do empregado horista.
+     * Define a lista de cartões de ponto do empregado horista. A lista é ordenada
+     * por data, caso ainda não esteja.
      * 
      * @param cartoes Nova lista de cartões de ponto
      */
     public void setCartoes(ArrayList<CartaoDePonto> cartoes) {
-        this.cartoes = cartoes;
+        DataUtils.ordenarPorData(cartoes, CartaoDePonto::getDia);
+        if (HistoricoColunar.habilitado()) {
+            this.colunasCartoes = new HistoricoColunar();
+            for (CartaoDePonto cartao : cartoes) {
+                colunasCartoes.adicionar(cartao.getDia(), HistoricoColunar.paraCentesimos(cartao.getHoras()));
+            }
+            this.cartoes = new ArrayList<>();
+        } else {
+            this.cartoes = cartoes;
+        }
+        this.cartoesCompartilhados = false;
+        this.carregadorCartoes = null;
+        somasCartoes.invalidar();
     }
 
     /**
-     * Adiciona um cartão de ponto à lista do empregado horista.
+     * Define o carregador dos cartões de ponto, decodificados somente no primeiro acesso.
+     * 
+     * @param carregador Carregador do histórico de cartões
+     */
+    public void setCarregadorCartoes(CarregadorHistorico<CartaoDePonto> carregador) {
+        this.carregadorCartoes = carregador;
+        somasCartoes.invalidar();
+    }
+
+    /**
+     * Obtém o carregador dos cartões de ponto, se eles ainda não foram decodificados.
+     * 
+     * @return Carregador pendente ou null se os cartões já estão em memória
+     */
+    public CarregadorHistorico<CartaoDePonto> carregadorCartoesPendente() {
+        return carregadorCartoes;
+    }
+
+    /**
+     * Copia os cartões de ponto de outro empregado horista, sem decodificar um
+     * histórico ainda não carregado nem montar a lista a partir das colunas.
+     * 
+     * <p>A lista (ou as colunas) de cartões é compartilhada com a origem, sem
+     * duplicação: o primeiro dos dois empregados que lançar ou remover um
+     * cartão passa a usar uma lista própria.</p>
+     * 
+     * @param origem Empregado cujos cartões são copiados
+     */
+    public void copiarCartoes(EmpregadoHorista origem) {
+        if (origem.carregadorCartoes != null) {
+            setCarregadorCartoes(origem.carregadorCartoes);
+        } else if (origem.colunasCartoes != null) {
+            this.colunasCartoes = origem.colunasCartoes.copiar();
+            this.cartoes = new ArrayList<>();
+            this.carregadorCartoes = null;
+        } else {
+            this.cartoes = origem.cartoes;
+            this.colunasCartoes = null;
+            this.carregadorCartoes = null;
+            this.cartoesCompartilhados = true;
+            origem.cartoesCompartilhados = true;
+            somasCartoes.invalidar();
+        }
+    }
+
+    /**
+     * Adiciona um cartão de ponto à lista do empregado horista, na posição da sua
+     * data e depois dos cartões já lançados no mesmo dia.
      * 
      * @param cartao Cartão de ponto a ser adicionado
      */
     @Override
     public void lancarCartao(CartaoDePonto cartao) {
-        this.cartoes.add(cartao);
+        carregarCartoes();
+        if (colunasCartoes != null) {
+            colunasCartoes.adicionar(cartao.getDia(), HistoricoColunar.paraCentesimos(cartao.getHoras()));
+        } else if (!DataUtils.inserirPorData(cartoesParaAlterar(), cartao, CartaoDePonto::getDia)) {
+            somasCartoes.invalidar(); // incluído antes de cartões já acumulados
+        }
+    }
+
+    /**
+     * Remove o cartão de ponto lançado mais recentemente com a mesma data e as
+     * mesmas horas do cartão informado, desfazendo o seu lançamento.
+     * 
+     * @param cartao Cartão de ponto a ser removido
+     */
+    public void removerCartao(CartaoDePonto cartao) {
+        carregarCartoes();
+        if (colunasCartoes != null) {
+            colunasCartoes.remover(cartao.getDia(), HistoricoColunar.paraCentesimos(cartao.getHoras()));
+        } else {
+            DataUtils.removerUltimoDoDia(cartoesParaAlterar(), CartaoDePonto::getDia, cartao.getDia(),
+                    lancado -> Objects.equals(lancado.getHoras(), cartao.getHoras()));
+            somasCartoes.invalidar();
+        }
+    }
+
+    // A lista compartilhada com uma cópia continua com a cópia; as somas acumuladas seguem válidas
+    private ArrayList<CartaoDePonto> cartoesParaAlterar() {
+        if (cartoesCompartilhados) {
+            cartoes = new ArrayList<>(cartoes);
+            cartoesCompartilhados = false;
+        }
+        return cartoes;
     }
 
     /**
      * Retorna o tipo do empregado.
      * 
-     * @return Sempre retorna "horista"
+     * @return Sempre retorna {@link TipoEmpregado#HORISTA}
      */
     @Override
-    public String getTipo() {
-        return "horista";
+    public TipoEmpregado getTipoEmpregado() {
+        return TipoEmpregado.HORISTA;
     }
 
     /**
-     * Retorna o salário por hora do empregado em formato monetário.
+     * Calcula o salário bruto da semana (7 dias) que termina na data, com as
+     * horas extras a 1,5 vez o salário por hora.
      * 
-     * <p>O salário é formatado com 2 casas decimais e vírgula como separador decimal.</p>
+     * @param data Data do pagamento
+     * @return Salário bruto em milésimos de centavo
+     */
+    @Override
+    public long calcularSalarioBruto(LocalDate data) {
+        LocalDate inicioSemana = data.minusDays(6);
+        long horasNormais = somarHorasNormais(inicioSemana, data.plusDays(1));
+        long horasExtras = somarHorasExtras(inicioSemana, data.plusDays(1));
+
+        // centésimos de hora x centavos = 10 milésimos de centavo; extras a 1,5x
+        return horasNormais * salarioPorHoraCentavos * 10 + horasExtras * salarioPorHoraCentavos * 15;
+    }
+
+    /**
+     * Calcula o valor a pagar em uma agenda padrão: as horas dos cartões do
+     * período, com as horas extras a 1,5 vez o salário por hora.
      * 
-     * @return Salário por hora em formato monetário (ex: "15,50")
+     * @param periodosPorAno Pagamentos por ano da agenda (não altera o cálculo)
+     * @param inicio Data inicial do período
+     * @param fim Data final do período
+     * @return Valor a pagar em 1/52 de milésimo de centavo
      */
     @Override
-    public String getSalario() {
-        return truncarValorMonetario(this.salarioPorHora);
+    public long calcularValorAgenda(int periodosPorAno, LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            return 0;
+        }
+        long horasNormais = somarHorasNormais(inicio, fim.plusDays(1));
+        long horasExtras = somarHorasExtras(inicio, fim.plusDays(1));
+        return (horasNormais * salarioPorHoraCentavos * 10 + horasExtras * salarioPorHoraCentavos * 15)
+                * Centavos.DIVISOR_AGENDAS;
     }
 
     /**
-     * Trunca um valor monetário para 2 casas decimais sem arredondamento.
+     * Retorna o salário por hora do empregado em formato monetário.
      * 
-     * <p>Este método converte um valor numérico para formato monetário brasileiro,
-     * truncando (não arredondando) para 2 casas decimais e usando vírgula
-     * como separador decimal.</p>
+     * <p>O salário é formatado com 2 casas decimais e vírgula como separador decimal.</p>
      * 
-     * @param valor Valor numérico a ser formatado
-     * @return Valor formatado em string com vírgula como separador decimal
+     * @return Salário por hora em formato monetário (ex: "15,50")
      */
-    private String truncarValorMonetario(double valor) {
-        java.math.BigDecimal bd = java.math.BigDecimal.valueOf(valor);
-        bd = bd.setScale(2, java.math.RoundingMode.DOWN);
-        return bd.toString().replace('.', ',');
+    @Override
+    public String getSalario() {
+        return Centavos.formatar(salarioPorHoraCentavos);
     }
 }
@@ -0,0 +1,178 @@
+package br.ufal.ic.p2.wepayu.models;
+
+import br.ufal.ic.p2.wepayu.utils.Centavos;
+import java.util.Arrays;
+
+/**
+ * Histórico de lançamentos armazenado em colunas de tipos primitivos.
+ *
+ * <p>Guarda cada lançamento como um dia epoch ({@code int}) e um valor em
+ * centésimos ({@code long}): centésimos de hora nos cartões de ponto e centavos
+ * nas vendas. Os valores lançados são truncados em 2 casas decimais, então a
+ * representação é exata. Cada lançamento ocupa 12 bytes, em vez de um objeto
+ * com a data e um {@link Double}, e as somas por período são feitas sem
+ * criar objetos.</p>
+ *
+ * <p>Os lançamentos são mantidos em ordem de data (os do mesmo dia na ordem de
+ * lançamento) e as colunas crescem dobrando de capacidade.</p>
+ *
+ * <p>Uma cópia ({@link #copiar()}) compartilha as colunas com o original, sem
+ * duplicá-las. O primeiro dos dois que incluir ou remover um lançamento passa
+ * a usar colunas próprias (cópia na escrita), então a cópia pode ser lida em
+ * outra thread enquanto o original recebe novos lançamentos.</p>
+ *
+ * <p>O armazenamento colunar é opcional e habilitado pela propriedade de sistema
+ * {@value #PROPRIEDADE_COLUNAR}. Com ele, as listas de cartões e de vendas
+ * obtidas dos empregados são cópias montadas a partir das colunas.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class HistoricoColunar {
+    public static final String PROPRIEDADE_COLUNAR = "wepayu.historico.colunar";
+
+    private static final boolean HABILITADO = Boolean.getBoolean(PROPRIEDADE_COLUNAR);
+    private static final int CAPACIDADE_INICIAL = 8;
+
+    private int[] dias;
+    private long[] centesimos;
+    private int tamanho;
+    private boolean compartilhado; // colunas compartilhadas com uma cópia: duplicadas antes da escrita
+
+    /**
+     * Cria um histórico vazio.
+     */
+    public HistoricoColunar() {
+        this.dias = new int[0];
+        this.centesimos = new long[0];
+    }
+
+    private HistoricoColunar(int[] dias, long[] centesimos, int tamanho) {
+        this.dias = dias;
+        this.centesimos = centesimos;
+        this.tamanho = tamanho;
+    }
+
+    /**
+     * Indica se o armazenamento colunar está habilitado.
+     *
+     * @return true se os históricos de cartões e vendas devem ser armazenados em colunas
+     */
+    public static boolean habilitado() {
+        return HABILITADO;
+    }
+
+    /**
+     * Converte um valor com até 2 casas decimais para centésimos.
+     *
+     * @param valor Valor lançado (null é tratado como zero)
+     * @return Valor em centésimos
+     */
+    public static long paraCentesimos(Double valor) {
+        return valor == null ? 0 : Centavos.truncar(valor);
+    }
+
+    /**
+     * Converte centésimos para o valor lançado.
+     *
+     * @param centesimos Valor em centésimos
+     * @return Valor lançado
+     */
+    public static double deCentesimos(long centesimos) {
+        return Centavos.paraDouble(centesimos);
+    }
+
+    /**
+     * Inclui um lançamento na posição da sua data, depois dos lançamentos do mesmo dia.
+     *
+     * @param dia Dia epoch do lançamento
+     * @param valor Valor em centésimos
+     */
+    public void adicionar(int dia, long valor) {
+        if (tamanho == dias.length || compartilhado) {
+            int capacidade = tamanho == dias.length ? Math.max(CAPACIDADE_INICIAL, tamanho * 2) : dias.length;
+            dias = Arrays.copyOf(dias, capacidade);
+            centesimos = Arrays.copyOf(centesimos, capacidade);
+            compartilhado = false;
+        }
+        int posicao = tamanho == 0 || dias[tamanho - 1] <= dia ? tamanho : buscar(dia + 1);
+        if (posicao < tamanho) {
+            System.arraycopy(dias, posicao, dias, posicao + 1, tamanho - posicao);
+            System.arraycopy(centesimos, posicao, centesimos, posicao + 1, tamanho - posicao);
+        }
+        dias[posicao] = dia;
+        centesimos[posicao] = valor;
+        tamanho++;
+    }
+
+    /**
+     * Remove o lançamento mais recente de um dia com o valor informado,
+     * desfazendo o seu lançamento.
+     *
+     * @param dia Dia epoch do lançamento
+     * @param valor Valor em centésimos
+     * @return true se um lançamento foi removido
+     */
+    public boolean remover(int dia, long valor) {
+        for (int i = buscar(dia + 1) - 1; i >= 0 && dias[i] == dia; i--) {
+            if (centesimos[i] == valor) {
+                if (compartilhado) {
+                    dias = Arrays.copyOf(dias, dias.length);
+                    centesimos = Arrays.copyOf(centesimos, centesimos.length);
+                    compartilhado = false;
+                }
+                System.arraycopy(dias, i + 1, dias, i, tamanho - i - 1);
+                System.arraycopy(centesimos, i + 1, centesimos, i, tamanho - i - 1);
+                tamanho--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtém a posição do primeiro lançamento com dia igual ou posterior ao informado.
+     *
+     * @param dia Dia epoch procurado
+     * @return Posição do primeiro lançamento a partir do dia, ou o tamanho do histórico
+     */
+    public int buscar(int dia) {
+        int inicio = 0;
+        int fim = tamanho;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (dias[meio] < dia) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public int getDia(int posicao) {
+        return dias[posicao];
+    }
+
+    public long getCentesimos(int posicao) {
+        return centesimos[posicao];
+    }
+
+    /**
+     * Cria uma cópia do histórico que compartilha as colunas com o original até
+     * a próxima alteração de qualquer um dos dois.
+     *
+     * @return Cópia do histórico
+     */
+    public HistoricoColunar copiar() {
+        compartilhado = true;
+        HistoricoColunar copia = new HistoricoColunar(dias, centesimos, tamanho);
+        copia.compartilhado = true;
+        return copia;
+    }
+}
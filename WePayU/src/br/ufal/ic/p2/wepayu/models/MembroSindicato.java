@@ -1,6 +1,11 @@
 package br.ufal.ic.p2.wepayu.models;
 
+import br.ufal.ic.p2.wepayu.utils.Centavos;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Classe que representa um membro do sindicato no sistema WePayU.
@@ -23,21 +28,33 @@ import java.util.ArrayList;
  * cobrir todos os descontos. A dívida é gerenciada automaticamente pelo sistema
  * de folha de pagamento.</p>
  * 
+ * <p>As taxas de serviço são mantidas em ordem de data. As somas por período são
+ * respondidas pelas somas acumuladas das taxas ({@link SomasPorData}); novas taxas
+ * devem ser incluídas por {@link #addTaxaServico} e a lista só deve ser substituída
+ * por {@link #setTaxasDeServicos}.</p>
+ * 
+ * <p>A taxa sindical, a dívida e as somas das taxas de serviço são mantidas em
+ * centavos ({@link Centavos}), truncadas em 2 casas decimais.</p>
+ * 
  * @author John Wallex
  * @version 1.1
  * @since 2025
  */
 public class MembroSindicato {
     private String idMembro;
-    private double taxaSindical;
-    private double dividaSindical = 0.0;
+    private long taxaSindicalCentavos;
+    private long dividaSindicalCentavos;
     private ArrayList<TaxaServico> taxasDeServicos = new ArrayList<>();
+    private transient CarregadorHistorico<TaxaServico> carregadorTaxas; // taxas ainda não decodificadas
+    private transient boolean taxasCompartilhadas; // lista compartilhada com uma cópia: duplicada antes da escrita
+    private final transient SomasPorData<TaxaServico> somasTaxas = new SomasPorData<>(TaxaServico::getDia,
+            List.of(taxa -> Centavos.truncar(taxa.getValor())));
 
     public MembroSindicato() { }
 
     public MembroSindicato(String idMembro, String taxaSindical) {
         this.setIdMembro(idMembro);
-        this.setTaxaSindical(Double.parseDouble(taxaSindical));
+        this.taxaSindicalCentavos = Centavos.ler(taxaSindical);
     }
 
     public String getIdMembro() {
@@ -49,23 +66,134 @@ public class MembroSindicato {
     }
 
     public double getTaxaSindical() {
-        return taxaSindical;
+        return Centavos.paraDouble(taxaSindicalCentavos);
     }
 
     public void setTaxaSindical(double taxaSindical) {
-        this.taxaSindical = taxaSindical;
+        this.taxaSindicalCentavos = Centavos.truncar(taxaSindical);
+    }
+
+    /**
+     * Obtém a taxa sindical diária em centavos.
+     * 
+     * @return Taxa sindical diária em centavos
+     */
+    public long taxaSindicalEmCentavos() {
+        return taxaSindicalCentavos;
     }
 
     public ArrayList<TaxaServico> getTaxasDeServicos() {
+        if (carregadorTaxas != null) {
+            this.taxasDeServicos = DataUtils.ordenarPorData(carregadorTaxas.carregar(), TaxaServico::getDia);
+            this.carregadorTaxas = null;
+            somasTaxas.invalidar();
+        }
         return taxasDeServicos;
     }
 
+    /**
+     * Obtém as taxas de serviço de um período.
+     * 
+     * <p>Enquanto as taxas não foram carregadas, a consulta é delegada ao
+     * carregador quando ele tem índice por data; caso contrário, o histórico
+     * é carregado e filtrado.</p>
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Taxas de serviço do período
+     */
+    public List<TaxaServico> getTaxasDeServicos(LocalDate inicio, LocalDate fim) {
+        if (carregadorTaxas != null) {
+            List<TaxaServico> periodo = carregadorTaxas.carregarPeriodo(inicio, fim);
+            if (periodo != null) {
+                return periodo;
+            }
+        }
+        return DataUtils.periodoOrdenado(getTaxasDeServicos(), TaxaServico::getDia, inicio, fim);
+    }
+
+    /**
+     * Soma as taxas de serviço de um período pelas somas acumuladas das taxas,
+     * cada uma truncada em centavos.
+     * 
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Valor total das taxas do período, em centavos
+     */
+    public long somarTaxasDeServicos(LocalDate inicio, LocalDate fim) {
+        if (carregadorTaxas != null) {
+            List<TaxaServico> periodo = carregadorTaxas.carregarPeriodo(inicio, fim);
+            if (periodo != null) {
+                return somasTaxas.somarLancamentos(periodo, 0);
+            }
+        }
+        return somasTaxas.somar(getTaxasDeServicos(), 0, inicio, fim);
+    }
+
     public void setTaxasDeServicos(ArrayList<TaxaServico> taxasDeServicos) {
-        this.taxasDeServicos = taxasDeServicos;
+        this.taxasDeServicos = DataUtils.ordenarPorData(taxasDeServicos, TaxaServico::getDia);
+        this.taxasCompartilhadas = false;
+        this.carregadorTaxas = null;
+        somasTaxas.invalidar();
+    }
+
+    /**
+     * Define o carregador das taxas de serviço, decodificadas somente no primeiro acesso.
+     * 
+     * @param carregador Carregador do histórico de taxas
+     */
+    public void setCarregadorTaxas(CarregadorHistorico<TaxaServico> carregador) {
+        this.carregadorTaxas = carregador;
+        somasTaxas.invalidar();
+    }
+
+    /**
+     * Obtém o carregador das taxas de serviço, se elas ainda não foram decodificadas.
+     * 
+     * @return Carregador pendente ou null se as taxas já estão em memória
+     */
+    public CarregadorHistorico<TaxaServico> carregadorTaxasPendente() {
+        return carregadorTaxas;
+    }
+
+    /**
+     * Copia as taxas de serviço de outro membro, sem decodificar um histórico
+     * ainda não carregado.
+     * 
+     * <p>A lista de taxas é compartilhada com a origem, sem duplicação: o
+     * primeiro dos dois membros que lançar ou remover uma taxa passa a usar
+     * uma lista própria.</p>
+     * 
+     * @param origem Membro cujas taxas são copiadas
+     */
+    public void copiarTaxas(MembroSindicato origem) {
+        if (origem.carregadorTaxas != null) {
+            setCarregadorTaxas(origem.carregadorTaxas);
+        } else {
+            this.taxasDeServicos = origem.taxasDeServicos;
+            this.carregadorTaxas = null;
+            this.taxasCompartilhadas = true;
+            origem.taxasCompartilhadas = true;
+            somasTaxas.invalidar();
+        }
     }
 
     public void addTaxaServico(TaxaServico taxaServico){
-        this.taxasDeServicos.add(taxaServico);
+        if (!DataUtils.inserirPorData(taxasParaAlterar(), taxaServico, TaxaServico::getDia)) {
+            somasTaxas.invalidar(); // incluída antes de taxas já acumuladas
+        }
+    }
+
+    /**
+     * Remove a taxa de serviço lançada mais recentemente com a mesma data e o mesmo
+     * valor da taxa informada, desfazendo o seu lançamento.
+     * 
+     * @param taxaServico Taxa de serviço a ser removida
+     */
+    public void removerTaxaServico(TaxaServico taxaServico) {
+        DataUtils.removerUltimoDoDia(taxasParaAlterar(), TaxaServico::getDia, taxaServico.getDia(),
+                lancada -> Objects.equals(lancada.getValor(), taxaServico.getValor()));
+        somasTaxas.invalidar();
     }
 
     /**
@@ -78,7 +206,7 @@ public class MembroSindicato {
      * @return O valor da dívida sindical acumulada
      */
     public double getDividaSindical() {
-        return dividaSindical;
+        return Centavos.paraDouble(dividaSindicalCentavos);
     }
 
     /**
@@ -88,9 +216,37 @@ public class MembroSindicato {
      * gerenciar a dívida sindical, adicionando novas taxas ou reduzindo
      * quando o empregado consegue pagar parte ou toda a dívida.</p>
      * 
-     * @param dividaSindical O novo valor da dívida sindical
+     * @param dividaSindical O novo valor da dívida sindical, truncado em centavos
      */
     public void setDividaSindical(double dividaSindical) {
-        this.dividaSindical = dividaSindical;
+        this.dividaSindicalCentavos = Centavos.truncar(dividaSindical);
+    }
+
+    /**
+     * Obtém a dívida sindical acumulada em centavos.
+     * 
+     * @return Dívida sindical em centavos
+     */
+    public long dividaSindicalEmCentavos() {
+        return dividaSindicalCentavos;
+    }
+
+    /**
+     * Define a dívida sindical acumulada em centavos.
+     * 
+     * @param centavos Nova dívida sindical em centavos
+     */
+    public void definirDividaSindicalEmCentavos(long centavos) {
+        this.dividaSindicalCentavos = centavos;
+    }
+
+    // A lista compartilhada com uma cópia continua com a cópia; as somas acumuladas seguem válidas
+    private ArrayList<TaxaServico> taxasParaAlterar() {
+        getTaxasDeServicos();
+        if (taxasCompartilhadas) {
+            taxasDeServicos = new ArrayList<>(taxasDeServicos);
+            taxasCompartilhadas = false;
+        }
+        return taxasDeServicos;
     }
 }
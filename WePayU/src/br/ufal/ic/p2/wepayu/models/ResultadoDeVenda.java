@@ -3,22 +3,22 @@ package br.ufal.ic.p2.wepayu.models;
 import br.ufal.ic.p2.wepayu.utils.ValorMonetarioUtils;
 
 public class ResultadoDeVenda {
-    private String data;
+    private int dia; // dias desde 1/1/1970
     private Double valor;
 
     public ResultadoDeVenda() { }
 
-    public ResultadoDeVenda(String data, String valor) {
-        this.setData(data);
+    public ResultadoDeVenda(int dia, String valor) {
+        this.setDia(dia);
         // Trunca o valor para 2 casas decimais usando ValorMonetarioUtils
         this.setValor(ValorMonetarioUtils.truncarValorMonetario(valor.replace(',', '.')));
     }
     
-    public String getData() {
-        return data;
+    public int getDia() {
+        return dia;
     }
-    public void setData(String data) {
-        this.data = data;
+    public void setDia(int dia) {
+        this.dia = dia;
     }
 
     public Double getValor() {
@@ -0,0 +1,142 @@
+package br.ufal.ic.p2.wepayu.models;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Somas acumuladas de um histórico de lançamentos ordenado por data.
+ *
+ * <p>Para cada medida (horas normais, valor da venda etc.), guarda a soma dos
+ * {@code i} primeiros lançamentos do histórico. A soma de um período é obtida
+ * localizando os seus limites por busca binária e subtraindo as duas somas
+ * acumuladas, sem percorrer os lançamentos. As medidas são inteiras (centavos,
+ * centésimos de hora), então as somas são exatas e não criam objetos.</p>
+ *
+ * <p>Os lançamentos já guardam os valores truncados em 2 casas decimais na
+ * entrada, como sempre foi feito ({@link CartaoDePonto}, {@link ResultadoDeVenda}),
+ * de modo que a soma em centésimos é a soma exata dos valores guardados e o
+ * único arredondamento é o da exibição do resultado. A soma anterior em
+ * {@code double} podia acumular erro e perder um centésimo ao truncar o total.</p>
+ *
+ * <p>Essa é uma mudança visível: {@code getVendasRealizadas} e
+ * {@code getTaxasServico} exibem a soma exata (0,7 + 0,1 = 0,80) onde antes
+ * exibiam o total truncado da soma em ponto flutuante (0,79). As horas não
+ * mudam, porque são exibidas arredondadas em uma casa decimal.</p>
+ *
+ * <p>Lançamentos incluídos ao final do histórico são acumulados na próxima consulta.
+ * Qualquer outra alteração (inclusão fora de ordem, histórico substituído ao
+ * desfazer um comando) exige {@link #invalidar()}, e as somas são recalculadas
+ * na próxima consulta.</p>
+ *
+ * @param <T> Tipo do lançamento
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class SomasPorData<T> {
+    private final ToIntFunction<T> dia;
+    private final List<ToLongFunction<T>> medidas;
+    private int[] dias = new int[0];
+    private long[][] acumulados; // acumulados[medida][i] = soma dos i primeiros lançamentos
+    private int tamanho;
+
+    /**
+     * Construtor das somas acumuladas.
+     *
+     * @param dia Função que obtém o dia epoch do lançamento
+     * @param medidas Funções que obtêm os valores somados de cada lançamento
+     */
+    public SomasPorData(ToIntFunction<T> dia, List<ToLongFunction<T>> medidas) {
+        this.dia = dia;
+        this.medidas = List.copyOf(medidas);
+        this.acumulados = new long[medidas.size()][];
+    }
+
+    /**
+     * Descarta as somas acumuladas, que serão recalculadas na próxima consulta.
+     */
+    public void invalidar() {
+        tamanho = 0;
+    }
+
+    /**
+     * Soma uma medida dos lançamentos do período.
+     *
+     * @param historico Histórico completo, ordenado por data
+     * @param medida Índice da medida, na ordem da lista informada no construtor
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Soma da medida no período
+     */
+    public long somar(List<T> historico, int medida, LocalDate inicio, LocalDate fim) {
+        atualizar(historico);
+        int primeiro = buscar((int) inicio.toEpochDay());
+        int ultimo = Math.max(primeiro, buscar((int) fim.toEpochDay()));
+        return acumulados[medida][ultimo] - acumulados[medida][primeiro];
+    }
+
+    /**
+     * Soma uma medida de uma lista de lançamentos, um a um. Usado quando os
+     * lançamentos do período foram obtidos diretamente de um carregador.
+     *
+     * @param lancamentos Lançamentos a somar
+     * @param medida Índice da medida, na ordem da lista informada no construtor
+     * @return Soma da medida
+     */
+    public long somarLancamentos(List<T> lancamentos, int medida) {
+        long soma = 0;
+        for (T lancamento : lancamentos) {
+            soma += medidas.get(medida).applyAsLong(lancamento);
+        }
+        return soma;
+    }
+
+    private void atualizar(List<T> historico) {
+        int total = historico.size();
+        if (total < tamanho) {
+            tamanho = 0; // histórico substituído sem invalidação
+        }
+        if (total == tamanho && acumulados[0] != null) {
+            return;
+        }
+        if (dias.length < total) {
+            int capacidade = Math.max(total, dias.length * 2);
+            dias = Arrays.copyOf(dias, capacidade);
+            for (int m = 0; m < medidas.size(); m++) {
+                acumulados[m] = acumulados[m] == null ? new long[capacidade + 1]
+                        : Arrays.copyOf(acumulados[m], capacidade + 1);
+            }
+        } else if (acumulados[0] == null) {
+            for (int m = 0; m < medidas.size(); m++) {
+                acumulados[m] = new long[dias.length + 1];
+            }
+        }
+        for (int i = tamanho; i < total; i++) {
+            T lancamento = historico.get(i);
+            dias[i] = dia.applyAsInt(lancamento);
+            for (int m = 0; m < medidas.size(); m++) {
+                acumulados[m][i + 1] = acumulados[m][i] + medidas.get(m).applyAsLong(lancamento);
+            }
+        }
+        tamanho = total;
+    }
+
+    // Posição do primeiro lançamento com dia igual ou posterior ao informado
+    private int buscar(int alvo) {
+        int inicio = 0;
+        int fim = tamanho;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (dias[meio] < alvo) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+}
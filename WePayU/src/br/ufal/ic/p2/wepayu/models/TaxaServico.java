@@ -3,22 +3,22 @@ package br.ufal.ic.p2.wepayu.models;
 import br.ufal.ic.p2.wepayu.utils.ValorMonetarioUtils;
 
 public class TaxaServico {
-    private String data;
+    private int dia; // dias desde 1/1/1970
     private Double valor;
 
     public TaxaServico() { }
 
-    public TaxaServico(String data, String valor) {
-        this.data = data;
+    public TaxaServico(int dia, String valor) {
+        this.dia = dia;
         // Trunca o valor para 2 casas decimais usando ValorMonetarioUtils
         this.valor = ValorMonetarioUtils.truncarValorMonetario(valor.replace(',', '.'));
     }
 
-    public String getData() {
-        return data;
+    public int getDia() {
+        return dia;
     }
-    public void setData(String data) {
-        this.data = data;
+    public void setDia(int dia) {
+        this.dia = dia;
     }
 
     public Double getValor() {
@@ -0,0 +1,62 @@
+package br.ufal.ic.p2.wepayu.models;
+
+/**
+ * Tipos de empregado do sistema WePayU.
+ *
+ * <p>Cada tipo conhece o nome usado na interface do sistema e na persistência
+ * ("horista", "assalariado", "comissionado") e a sua agenda de pagamento padrão.
+ * Os cálculos de pagamento que dependem do tipo são implementados pelas
+ * subclasses de {@link Empregado} ({@link CalculoPagamento}); o tipo é usado
+ * onde é preciso distinguir os empregados sem chamar esses cálculos, como na
+ * separação das seções da folha.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public enum TipoEmpregado {
+    HORISTA("horista", AgendaPagamento.SEMANAL_5),
+    ASSALARIADO("assalariado", AgendaPagamento.MENSAL_DOLAR),
+    COMISSIONADO("comissionado", AgendaPagamento.SEMANAL_2_5);
+
+    private final String nome;
+    private final String agendaPadrao;
+
+    TipoEmpregado(String nome, String agendaPadrao) {
+        this.nome = nome;
+        this.agendaPadrao = agendaPadrao;
+    }
+
+    /**
+     * Obtém o nome do tipo, como informado e exibido pelo sistema.
+     *
+     * @return Nome do tipo (ex: "horista")
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Obtém a agenda de pagamento padrão do tipo.
+     *
+     * @return Agenda padrão (ex: "semanal 5")
+     */
+    public String getAgendaPadrao() {
+        return agendaPadrao;
+    }
+
+    /**
+     * Obtém o tipo pelo nome.
+     *
+     * @param nome Nome do tipo ("horista", "assalariado" ou "comissionado")
+     * @return Tipo correspondente ou null se o nome não for de um tipo válido
+     */
+    public static TipoEmpregado deNome(String nome) {
+        for (TipoEmpregado tipo : values()) {
+            if (tipo.nome.equals(nome)) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+}
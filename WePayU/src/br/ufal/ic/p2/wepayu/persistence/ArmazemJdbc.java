@@ -0,0 +1,681 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import java.lang.ref.WeakReference;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Armazém do sistema WePayU em um banco de dados SQL embutido, acessado por JDBC.
+ *
+ * <p>Empregados, membros do sindicato, cartões de ponto, vendas e taxas de serviço
+ * ficam em tabelas próprias. Os históricos são indexados por (dono, dia) e não são
+ * lidos no carregamento: cada empregado ou membro recebe um carregador que consulta
+ * o banco no primeiro acesso e responde às consultas por período com o índice,
+ * sem trazer o histórico completo para a memória.</p>
+ *
+ * <p>Tabelas:</p>
+ * <ul>
+ *   <li><strong>controle:</strong> sequência do journal e contador de IDs</li>
+ *   <li><strong>agendas:</strong> descrições das agendas customizadas</li>
+ *   <li><strong>membros:</strong> membros do sindicato, pela chave "M" + ID do membro, e membros
+ *       que não estão no mapa do sindicato, pela chave "E" + ID do empregado</li>
+ *   <li><strong>empregados:</strong> dados cadastrais, salário, agenda, método de pagamento e
+ *       chave do membro do sindicato</li>
+ *   <li><strong>cartoes, vendas e taxas:</strong> lançamentos com a ordem no histórico, o dia
+ *       (epoch day) usado nas consultas por período e a data formatada, para leitura humana</li>
+ * </ul>
+ *
+ * <p>Cada salvamento é uma única transação com inserções em lote. Um salvamento
+ * incremental altera apenas as linhas das entidades informadas; os históricos
+ * ainda não carregados continuam no banco sem serem regravados.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class ArmazemJdbc implements AutoCloseable {
+
+    private static final String PREFIXO_MEMBRO = "M";
+    private static final String PREFIXO_MEMBRO_AVULSO = "E";
+
+    private static final String[] ESQUEMA = {
+        "CREATE TABLE IF NOT EXISTS controle (chave VARCHAR(32) PRIMARY KEY, valor BIGINT NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS agendas (descricao VARCHAR(255) PRIMARY KEY)",
+        "CREATE TABLE IF NOT EXISTS membros (chave VARCHAR(1024) PRIMARY KEY, id_membro VARCHAR(1024),"
+                + " taxa_sindical DOUBLE, divida_sindical DOUBLE)",
+        "CREATE TABLE IF NOT EXISTS empregados (id VARCHAR(1024) PRIMARY KEY, tipo VARCHAR(16) NOT NULL,"
+                + " nome VARCHAR(1024), endereco VARCHAR(1024), salario DOUBLE, comissao DOUBLE, agenda VARCHAR(255),"
+                + " metodo VARCHAR(16), banco VARCHAR(1024), agencia VARCHAR(1024), conta_corrente VARCHAR(1024),"
+                + " membro VARCHAR(1024))",
+        "CREATE TABLE IF NOT EXISTS cartoes (empregado VARCHAR(1024) NOT NULL, ordem INT NOT NULL, dia INT NOT NULL,"
+                + " data VARCHAR(32), horas DOUBLE, PRIMARY KEY (empregado, ordem))",
+        "CREATE INDEX IF NOT EXISTS idx_cartoes_empregado_dia ON cartoes (empregado, dia)",
+        "CREATE TABLE IF NOT EXISTS vendas (empregado VARCHAR(1024) NOT NULL, ordem INT NOT NULL, dia INT NOT NULL,"
+                + " data VARCHAR(32), valor DOUBLE, PRIMARY KEY (empregado, ordem))",
+        "CREATE INDEX IF NOT EXISTS idx_vendas_empregado_dia ON vendas (empregado, dia)",
+        "CREATE TABLE IF NOT EXISTS taxas (membro VARCHAR(1024) NOT NULL, ordem INT NOT NULL, dia INT NOT NULL,"
+                + " data VARCHAR(32), valor DOUBLE, PRIMARY KEY (membro, ordem))",
+        "CREATE INDEX IF NOT EXISTS idx_taxas_membro_dia ON taxas (membro, dia)"
+    };
+
+    // ========== HISTÓRICOS ==========
+
+    /**
+     * Descrição da tabela de um tipo de lançamento.
+     */
+    private static final class TabelaHistorico<T> {
+        private final String tabela;
+        private final String dono;
+        private final String coluna;
+        private final Supplier<T> fabrica;
+        private final ToIntFunction<T> dia;
+        private final Function<T, Double> valor;
+        private final ObjIntConsumer<T> definirDia;
+        private final BiConsumer<T, Double> definirValor;
+
+        TabelaHistorico(String tabela, String dono, String coluna, Supplier<T> fabrica,
+                        ToIntFunction<T> dia, Function<T, Double> valor,
+                        ObjIntConsumer<T> definirDia,
+                        BiConsumer<T, Double> definirValor) {
+            this.tabela = tabela;
+            this.dono = dono;
+            this.coluna = coluna;
+            this.fabrica = fabrica;
+            this.dia = dia;
+            this.valor = valor;
+            this.definirDia = definirDia;
+            this.definirValor = definirValor;
+        }
+
+        String consulta(boolean periodo) {
+            return "SELECT dia, " + coluna + " FROM " + tabela + " WHERE " + dono + " = ?"
+                    + (periodo ? " AND dia >= ? AND dia < ?" : "") + " ORDER BY ordem";
+        }
+
+        String exclusao() {
+            return "DELETE FROM " + tabela + " WHERE " + dono + " = ?";
+        }
+
+        String insercao() {
+            return "INSERT INTO " + tabela + " (" + dono + ", ordem, dia, data, " + coluna + ") VALUES (?, ?, ?, ?, ?)";
+        }
+    }
+
+    private static final TabelaHistorico<CartaoDePonto> CARTOES = new TabelaHistorico<>("cartoes", "empregado", "horas",
+            CartaoDePonto::new, CartaoDePonto::getDia, CartaoDePonto::getHoras, CartaoDePonto::setDia, CartaoDePonto::setHoras);
+    private static final TabelaHistorico<ResultadoDeVenda> VENDAS = new TabelaHistorico<>("vendas", "empregado", "valor",
+            ResultadoDeVenda::new, ResultadoDeVenda::getDia, ResultadoDeVenda::getValor, ResultadoDeVenda::setDia, ResultadoDeVenda::setValor);
+    private static final TabelaHistorico<TaxaServico> TAXAS = new TabelaHistorico<>("taxas", "membro", "valor",
+            TaxaServico::new, TaxaServico::getDia, TaxaServico::getValor, TaxaServico::setDia, TaxaServico::setValor);
+
+    /**
+     * Histórico ainda no banco de dados, consultado no primeiro acesso.
+     *
+     * <p>Antes de o armazém excluir as linhas de um histórico, os carregadores ainda
+     * pendentes dessas linhas (por exemplo, de empregados guardados para desfazer
+     * uma remoção) são fixados: o histórico é lido para a memória do carregador.</p>
+     */
+    private static final class HistoricoJdbc<T> implements CarregadorHistorico<T> {
+        private final ArmazemJdbc armazem;
+        private final TabelaHistorico<T> tabela;
+        private final String dono;
+        private ArrayList<T> fixado;
+
+        HistoricoJdbc(ArmazemJdbc armazem, TabelaHistorico<T> tabela, String dono) {
+            this.armazem = armazem;
+            this.tabela = tabela;
+            this.dono = dono;
+        }
+
+        @Override
+        public ArrayList<T> carregar() {
+            synchronized (armazem) {
+                return fixado != null ? new ArrayList<>(fixado) : armazem.consultar(tabela, dono, null, null);
+            }
+        }
+
+        @Override
+        public ArrayList<T> carregarPeriodo(LocalDate inicio, LocalDate fim) {
+            synchronized (armazem) {
+                if (fixado != null) {
+                    return DataUtils.filtrarPeriodo(fixado, tabela.dia, inicio, fim);
+                }
+                return armazem.consultar(tabela, dono, inicio, fim);
+            }
+        }
+
+        void fixar() {
+            if (fixado == null) {
+                fixado = armazem.consultar(tabela, dono, null, null);
+            }
+        }
+
+        boolean linhasNoBanco(ArmazemJdbc outro, TabelaHistorico<?> outraTabela, String outroDono) {
+            return fixado == null && armazem == outro && tabela == outraTabela && dono.equals(outroDono);
+        }
+    }
+
+    private final String url;
+    private Connection conexao;
+    private final Map<String, List<WeakReference<HistoricoJdbc<?>>>> pendentes = new HashMap<>();
+
+    /**
+     * Construtor do armazém. A conexão é aberta no primeiro acesso.
+     *
+     * @param url URL JDBC do banco de dados (por exemplo, {@code jdbc:h2:./wepayu})
+     */
+    public ArmazemJdbc(String url) {
+        this.url = url;
+    }
+
+    private Connection conexao() throws SQLException {
+        if (conexao == null) {
+            Connection nova = DriverManager.getConnection(url);
+            try (Statement comando = nova.createStatement()) {
+                for (String ddl : ESQUEMA) {
+                    comando.execute(ddl);
+                }
+                nova.setAutoCommit(false);
+                nova.commit();
+            } catch (SQLException e) {
+                nova.close();
+                throw e;
+            }
+            conexao = nova;
+        }
+        return conexao;
+    }
+
+    /**
+     * Verifica se o banco de dados já contém um sistema gravado.
+     *
+     * @return true se a tabela de controle tiver a sequência do journal
+     * @throws SQLException Se não for possível acessar o banco de dados
+     */
+    public synchronized boolean existe() throws SQLException {
+        try (PreparedStatement consulta = conexao().prepareStatement("SELECT valor FROM controle WHERE chave = 'sequencia'");
+             ResultSet linhas = consulta.executeQuery()) {
+            return linhas.next();
+        }
+    }
+
+    /**
+     * Carrega empregados e membros do sindicato, sem os seus históricos.
+     *
+     * <p>As agendas customizadas são registradas antes dos empregados. Cada
+     * histórico recebe um carregador que consulta o banco no primeiro acesso.</p>
+     *
+     * @param empregados Mapa que receberá os empregados
+     * @param membrosSindicato Mapa que receberá os membros do sindicato
+     * @return Cabeçalho com o contador de IDs e a sequência do journal
+     * @throws SQLException Se não for possível ler o banco de dados
+     */
+    public synchronized CodecSnapshotBinario.Cabecalho carregar(Map<String, Empregado> empregados,
+                                                                Map<String, MembroSindicato> membrosSindicato) throws SQLException {
+        Connection banco = conexao();
+        long sequencia = 0L;
+        int id = 0;
+        try (Statement consulta = banco.createStatement()) {
+            try (ResultSet linhas = consulta.executeQuery("SELECT chave, valor FROM controle")) {
+                while (linhas.next()) {
+                    if ("sequencia".equals(linhas.getString(1))) {
+                        sequencia = linhas.getLong(2);
+                    } else if ("id".equals(linhas.getString(1))) {
+                        id = (int) linhas.getLong(2);
+                    }
+                }
+            }
+
+            try (ResultSet linhas = consulta.executeQuery("SELECT descricao FROM agendas")) {
+                while (linhas.next()) {
+                    String descricao = linhas.getString(1);
+                    if (!AgendaDePagamentos.isAgendaValida(descricao)) {
+                        AgendaDePagamentos.criarAgenda(descricao);
+                    }
+                }
+            }
+
+            Map<String, MembroSindicato> membrosPorChave = new HashMap<>();
+            try (ResultSet linhas = consulta.executeQuery(
+                    "SELECT chave, id_membro, taxa_sindical, divida_sindical FROM membros")) {
+                while (linhas.next()) {
+                    String chave = linhas.getString(1);
+                    MembroSindicato membro = new MembroSindicato();
+                    membro.setIdMembro(linhas.getString(2));
+                    membro.setTaxaSindical(linhas.getDouble(3));
+                    membro.setDividaSindical(linhas.getDouble(4));
+                    membro.setCarregadorTaxas(registrar(TAXAS, chave));
+                    membrosPorChave.put(chave, membro);
+                    if (chave.startsWith(PREFIXO_MEMBRO)) {
+                        membrosSindicato.put(membro.getIdMembro(), membro);
+                    }
+                }
+            }
+
+            try (ResultSet linhas = consulta.executeQuery("SELECT id, tipo, nome, endereco, salario, comissao, agenda,"
+                    + " metodo, banco, agencia, conta_corrente, membro FROM empregados")) {
+                while (linhas.next()) {
+                    Empregado empregado = lerEmpregado(linhas, membrosPorChave);
+                    empregados.put(empregado.getId(), empregado);
+                }
+            }
+        }
+        banco.commit();
+        return new CodecSnapshotBinario.Cabecalho(id, sequencia);
+    }
+
+    private Empregado lerEmpregado(ResultSet linhas, Map<String, MembroSindicato> membrosPorChave) throws SQLException {
+        String id = linhas.getString(1);
+        String tipo = linhas.getString(2);
+        Empregado empregado;
+        switch (tipo) {
+            case "horista": {
+                EmpregadoHorista horista = new EmpregadoHorista();
+                horista.setSalarioPorHora(linhas.getDouble(5));
+                horista.setCarregadorCartoes(registrar(CARTOES, id));
+                empregado = horista;
+                break;
+            }
+            case "comissionado": {
+                EmpregadoComissionado comissionado = new EmpregadoComissionado();
+                comissionado.setSalarioMensal(linhas.getDouble(5));
+                comissionado.setTaxaDeComissao(linhas.getDouble(6));
+                comissionado.setCarregadorVendas(registrar(VENDAS, id));
+                empregado = comissionado;
+                break;
+            }
+            case "assalariado": {
+                EmpregadoAssalariado assalariado = new EmpregadoAssalariado();
+                assalariado.setSalarioMensal(linhas.getDouble(5));
+                empregado = assalariado;
+                break;
+            }
+            default:
+                throw new SQLException("Tipo de empregado invalido no banco de dados: " + tipo);
+        }
+
+        empregado.setId(id);
+        empregado.setNome(linhas.getString(3));
+        empregado.setEndereco(linhas.getString(4));
+        String agenda = linhas.getString(7);
+        if (agenda != null) {
+            empregado.setAgendaPagamento(agenda);
+        }
+
+        String metodo = linhas.getString(8);
+        if ("banco".equals(metodo)) {
+            empregado.setMetodoPagamento(new Banco(linhas.getString(9), linhas.getString(10), linhas.getString(11)));
+        } else if ("correios".equals(metodo)) {
+            empregado.setMetodoPagamento(new Correios());
+        } else if (metodo != null) {
+            empregado.setMetodoPagamento(new EmMaos());
+        }
+
+        String chaveMembro = linhas.getString(12);
+        if (chaveMembro != null) {
+            MembroSindicato membro = membrosPorChave.get(chaveMembro);
+            if (membro == null) {
+                throw new SQLException("Membro do sindicato inexistente no banco de dados: " + chaveMembro);
+            }
+            empregado.setSindicato(membro);
+        }
+        return empregado;
+    }
+
+    // ========== ESCRITA ==========
+
+    /**
+     * Comandos preparados de um salvamento. As exclusões são executadas antes
+     * das inserções, de modo que uma entidade regravada é excluída e inserida
+     * novamente na mesma transação.
+     */
+    private final class Lote implements AutoCloseable {
+        private final PreparedStatement excluirEmpregado;
+        private final PreparedStatement inserirEmpregado;
+        private final PreparedStatement excluirMembro;
+        private final PreparedStatement inserirMembro;
+        private final Map<TabelaHistorico<?>, PreparedStatement> excluirHistorico = new LinkedHashMap<>();
+        private final Map<TabelaHistorico<?>, PreparedStatement> inserirHistorico = new LinkedHashMap<>();
+
+        Lote(Connection banco) throws SQLException {
+            excluirEmpregado = banco.prepareStatement("DELETE FROM empregados WHERE id = ?");
+            inserirEmpregado = banco.prepareStatement("INSERT INTO empregados (id, tipo, nome, endereco, salario, comissao,"
+                    + " agenda, metodo, banco, agencia, conta_corrente, membro) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            excluirMembro = banco.prepareStatement("DELETE FROM membros WHERE chave = ?");
+            inserirMembro = banco.prepareStatement(
+                    "INSERT INTO membros (chave, id_membro, taxa_sindical, divida_sindical) VALUES (?, ?, ?, ?)");
+            for (TabelaHistorico<?> tabela : Arrays.asList(CARTOES, VENDAS, TAXAS)) {
+                excluirHistorico.put(tabela, banco.prepareStatement(tabela.exclusao()));
+                inserirHistorico.put(tabela, banco.prepareStatement(tabela.insercao()));
+            }
+        }
+
+        void executar() throws SQLException {
+            excluirEmpregado.executeBatch();
+            excluirMembro.executeBatch();
+            for (PreparedStatement exclusao : excluirHistorico.values()) {
+                exclusao.executeBatch();
+            }
+            inserirMembro.executeBatch();
+            inserirEmpregado.executeBatch();
+            for (PreparedStatement insercao : inserirHistorico.values()) {
+                insercao.executeBatch();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            excluirEmpregado.close();
+            inserirEmpregado.close();
+            excluirMembro.close();
+            inserirMembro.close();
+            for (PreparedStatement comando : excluirHistorico.values()) {
+                comando.close();
+            }
+            for (PreparedStatement comando : inserirHistorico.values()) {
+                comando.close();
+            }
+        }
+    }
+
+    /**
+     * Regrava todas as entidades e exclui as que não estão mais nos mapas.
+     *
+     * <p>Os históricos ainda não carregados deste banco permanecem nas suas
+     * linhas; apenas os históricos em memória são regravados.</p>
+     *
+     * @param empregados Mapa de empregados
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no banco
+     * @throws SQLException Se ocorrer erro de escrita; a transação é desfeita
+     */
+    public synchronized void gravarTudo(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                                        Collection<String> agendas, int id, long sequencia) throws SQLException {
+        Connection banco = conexao();
+        Set<String> idsEmpregados = new HashSet<>(consultarChaves(banco, "SELECT id FROM empregados"));
+        Set<String> chavesMembros = new HashSet<>(consultarChaves(banco, "SELECT chave FROM membros"));
+        idsEmpregados.addAll(empregados.keySet());
+        for (String idMembro : membrosSindicato.keySet()) {
+            chavesMembros.add(PREFIXO_MEMBRO + idMembro);
+        }
+        gravar(banco, empregados, membrosSindicato, idsEmpregados, chavesMembros, agendas, id, sequencia);
+    }
+
+    /**
+     * Grava apenas as entidades alteradas desde o último salvamento.
+     *
+     * <p>IDs alterados que não estão mais nos mapas têm as suas linhas excluídas.</p>
+     *
+     * @param empregados Mapa de empregados
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param empregadosAlterados IDs dos empregados alterados
+     * @param membrosAlterados IDs dos membros do sindicato alterados
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no banco
+     * @throws SQLException Se ocorrer erro de escrita; a transação é desfeita
+     */
+    public synchronized void gravarAlteracoes(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                                              Set<String> empregadosAlterados, Set<String> membrosAlterados,
+                                              Collection<String> agendas, int id, long sequencia) throws SQLException {
+        Set<String> chavesMembros = new HashSet<>();
+        for (String idMembro : membrosAlterados) {
+            chavesMembros.add(PREFIXO_MEMBRO + idMembro);
+        }
+        gravar(conexao(), empregados, membrosSindicato, empregadosAlterados, chavesMembros, agendas, id, sequencia);
+    }
+
+    /**
+     * Grava as entidades informadas em uma transação. Empregados que referenciam
+     * um membro fora do mapa do sindicato gravam esse membro como avulso.
+     */
+    private void gravar(Connection banco, Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                        Set<String> idsEmpregados, Set<String> chavesMembros,
+                        Collection<String> agendas, int id, long sequencia) throws SQLException {
+        try (Lote lote = new Lote(banco)) {
+            for (String chave : chavesMembros) {
+                MembroSindicato membro = chave.startsWith(PREFIXO_MEMBRO)
+                        ? membrosSindicato.get(chave.substring(PREFIXO_MEMBRO.length())) : null;
+                if (chave.startsWith(PREFIXO_MEMBRO_AVULSO)) {
+                    // Membros avulsos são gravados junto ao empregado que os referencia
+                    String idEmpregado = chave.substring(PREFIXO_MEMBRO_AVULSO.length());
+                    if (idsEmpregados.contains(idEmpregado)) {
+                        continue;
+                    }
+                }
+                gravarMembro(lote, chave, membro);
+            }
+
+            for (String idEmpregado : idsEmpregados) {
+                Empregado empregado = empregados.get(idEmpregado);
+                String chaveAvulso = PREFIXO_MEMBRO_AVULSO + idEmpregado;
+                MembroSindicato membroAvulso = null;
+                String chaveMembro = null;
+                if (empregado != null && empregado.getSindicato() != null) {
+                    MembroSindicato sindicato = empregado.getSindicato();
+                    String idMembro = sindicato.getIdMembro();
+                    if (idMembro != null && membrosSindicato.get(idMembro) == sindicato) {
+                        chaveMembro = PREFIXO_MEMBRO + idMembro;
+                    } else {
+                        membroAvulso = sindicato;
+                        chaveMembro = chaveAvulso;
+                    }
+                }
+                gravarMembro(lote, chaveAvulso, membroAvulso);
+                gravarEmpregado(lote, idEmpregado, empregado, chaveMembro);
+            }
+            lote.executar();
+
+            try (Statement comando = banco.createStatement()) {
+                comando.executeUpdate("DELETE FROM agendas");
+                comando.executeUpdate("DELETE FROM controle");
+            }
+            try (PreparedStatement insercao = banco.prepareStatement("INSERT INTO agendas (descricao) VALUES (?)")) {
+                for (String agenda : agendas) {
+                    insercao.setString(1, agenda);
+                    insercao.addBatch();
+                }
+                insercao.executeBatch();
+            }
+            try (PreparedStatement insercao = banco.prepareStatement("INSERT INTO controle (chave, valor) VALUES (?, ?)")) {
+                insercao.setString(1, "sequencia");
+                insercao.setLong(2, sequencia);
+                insercao.addBatch();
+                insercao.setString(1, "id");
+                insercao.setLong(2, id);
+                insercao.addBatch();
+                insercao.executeBatch();
+            }
+            banco.commit();
+        } catch (SQLException | RuntimeException e) {
+            banco.rollback();
+            throw e;
+        }
+    }
+
+    private void gravarMembro(Lote lote, String chave, MembroSindicato membro) throws SQLException {
+        lote.excluirMembro.setString(1, chave);
+        lote.excluirMembro.addBatch();
+        if (membro == null) {
+            excluirHistorico(lote, TAXAS, chave);
+            return;
+        }
+        lote.inserirMembro.setString(1, chave);
+        lote.inserirMembro.setString(2, membro.getIdMembro());
+        lote.inserirMembro.setDouble(3, membro.getTaxaSindical());
+        lote.inserirMembro.setDouble(4, membro.getDividaSindical());
+        lote.inserirMembro.addBatch();
+
+        CarregadorHistorico<TaxaServico> pendente = membro.carregadorTaxasPendente();
+        gravarHistorico(lote, TAXAS, chave, pendente, pendente == null ? membro.getTaxasDeServicos() : null);
+    }
+
+    private void gravarEmpregado(Lote lote, String id, Empregado empregado, String chaveMembro) throws SQLException {
+        lote.excluirEmpregado.setString(1, id);
+        lote.excluirEmpregado.addBatch();
+        if (empregado == null) {
+            excluirHistorico(lote, CARTOES, id);
+            excluirHistorico(lote, VENDAS, id);
+            return;
+        }
+
+        PreparedStatement insercao = lote.inserirEmpregado;
+        insercao.setString(1, id);
+        insercao.setString(2, empregado.getTipo());
+        insercao.setString(3, empregado.getNome());
+        insercao.setString(4, empregado.getEndereco());
+        insercao.setNull(6, Types.DOUBLE);
+        if (empregado instanceof EmpregadoHorista) {
+            EmpregadoHorista horista = (EmpregadoHorista) empregado;
+            insercao.setDouble(5, horista.getSalarioPorHora());
+            CarregadorHistorico<CartaoDePonto> pendente = horista.carregadorCartoesPendente();
+            gravarHistorico(lote, CARTOES, id, pendente, pendente == null ? horista.getCartoes() : null);
+        } else if (empregado instanceof EmpregadoComissionado) {
+            EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
+            insercao.setDouble(5, comissionado.getSalarioMensal());
+            insercao.setDouble(6, comissionado.getTaxaDeComissao());
+            CarregadorHistorico<ResultadoDeVenda> pendente = comissionado.carregadorVendasPendente();
+            gravarHistorico(lote, VENDAS, id, pendente, pendente == null ? comissionado.getResultadoDeVenda() : null);
+        } else {
+            insercao.setDouble(5, ((EmpregadoAssalariado) empregado).getSalarioMensal());
+        }
+        // Um empregado que mudou de tipo não mantém o histórico do tipo anterior
+        if (!(empregado instanceof EmpregadoHorista)) {
+            excluirHistorico(lote, CARTOES, id);
+        }
+        if (!(empregado instanceof EmpregadoComissionado)) {
+            excluirHistorico(lote, VENDAS, id);
+        }
+
+        insercao.setString(7, empregado.getAgendaPagamento() != null ? empregado.getAgendaPagamento().getAgenda() : null);
+        MetodoPagamento metodo = empregado.getMetodoPagamento();
+        insercao.setString(8, metodo != null ? metodo.getMetodoPagamento() : null);
+        Banco banco = metodo instanceof Banco ? (Banco) metodo : null;
+        insercao.setString(9, banco != null ? banco.getBanco() : null);
+        insercao.setString(10, banco != null ? banco.getAgencia() : null);
+        insercao.setString(11, banco != null ? banco.getContaCorrente() : null);
+        insercao.setString(12, chaveMembro);
+        insercao.addBatch();
+    }
+
+    /**
+     * Regrava um histórico, exceto quando ele ainda não foi carregado e já está
+     * nas linhas deste banco com o mesmo dono.
+     */
+    private <T> void gravarHistorico(Lote lote, TabelaHistorico<T> tabela, String dono,
+                                     CarregadorHistorico<T> pendente, List<T> itens) throws SQLException {
+        if (pendente instanceof HistoricoJdbc && ((HistoricoJdbc<T>) pendente).linhasNoBanco(this, tabela, dono)) {
+            return;
+        }
+        if (itens == null) {
+            itens = pendente.carregar();
+        }
+        excluirHistorico(lote, tabela, dono);
+
+        PreparedStatement insercao = lote.inserirHistorico.get(tabela);
+        int ordem = 0;
+        for (T item : itens) {
+            int dia = tabela.dia.applyAsInt(item);
+            Double valor = tabela.valor.apply(item);
+            insercao.setString(1, dono);
+            insercao.setInt(2, ordem++);
+            insercao.setInt(3, dia);
+            insercao.setString(4, DataUtils.formatarDia(dia));
+            if (valor != null) {
+                insercao.setDouble(5, valor);
+            } else {
+                insercao.setNull(5, Types.DOUBLE);
+            }
+            insercao.addBatch();
+        }
+    }
+
+    /**
+     * Agenda a exclusão das linhas de um histórico, fixando antes os carregadores
+     * que ainda dependem delas.
+     */
+    private void excluirHistorico(Lote lote, TabelaHistorico<?> tabela, String dono) throws SQLException {
+        List<WeakReference<HistoricoJdbc<?>>> registrados = pendentes.remove(tabela.tabela + ":" + dono);
+        if (registrados != null) {
+            for (WeakReference<HistoricoJdbc<?>> referencia : registrados) {
+                HistoricoJdbc<?> historico = referencia.get();
+                if (historico != null) {
+                    historico.fixar();
+                }
+            }
+        }
+        PreparedStatement exclusao = lote.excluirHistorico.get(tabela);
+        exclusao.setString(1, dono);
+        exclusao.addBatch();
+    }
+
+    // ========== CONSULTAS ==========
+
+    private <T> HistoricoJdbc<T> registrar(TabelaHistorico<T> tabela, String dono) {
+        HistoricoJdbc<T> historico = new HistoricoJdbc<>(this, tabela, dono);
+        pendentes.computeIfAbsent(tabela.tabela + ":" + dono, chave -> new ArrayList<>(1))
+                .add(new WeakReference<>(historico));
+        return historico;
+    }
+
+    /**
+     * Consulta um histórico completo ou apenas um período, pelo índice (dono, dia).
+     */
+    private <T> ArrayList<T> consultar(TabelaHistorico<T> tabela, String dono, LocalDate inicio, LocalDate fim) {
+        boolean periodo = inicio != null;
+        try (PreparedStatement consulta = conexao().prepareStatement(tabela.consulta(periodo))) {
+            consulta.setString(1, dono);
+            if (periodo) {
+                consulta.setInt(2, (int) inicio.toEpochDay());
+                consulta.setInt(3, (int) fim.toEpochDay());
+            }
+            ArrayList<T> itens = new ArrayList<>();
+            try (ResultSet linhas = consulta.executeQuery()) {
+                while (linhas.next()) {
+                    T item = tabela.fabrica.get();
+                    tabela.definirDia.accept(item, linhas.getInt(1));
+                    double valor = linhas.getDouble(2);
+                    tabela.definirValor.accept(item, linhas.wasNull() ? null : valor);
+                    itens.add(item);
+                }
+            }
+            return itens;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro ao carregar historico do banco de dados: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<String> consultarChaves(Connection banco, String sql) throws SQLException {
+        List<String> chaves = new ArrayList<>();
+        try (Statement consulta = banco.createStatement(); ResultSet linhas = consulta.executeQuery(sql)) {
+            while (linhas.next()) {
+                chaves.add(linhas.getString(1));
+            }
+        }
+        return chaves;
+    }
+
+    /**
+     * Fecha a conexão com o banco de dados. Históricos ainda não carregados
+     * deixam de estar disponíveis.
+     *
+     * @throws SQLException Se ocorrer erro ao fechar a conexão
+     */
+    @Override
+    public synchronized void close() throws SQLException {
+        if (conexao != null) {
+            conexao.close();
+            conexao = null;
+        }
+    }
+}
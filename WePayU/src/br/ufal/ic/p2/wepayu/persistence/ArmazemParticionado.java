@@ -0,0 +1,378 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Armazém particionado do sistema WePayU.
+ *
+ * <p>Os empregados e os membros do sindicato são distribuídos em N partições
+ * pelo hash do ID e cada partição é um snapshot binário independente
+ * ({@link CodecSnapshotBinario}). As partições são gravadas e lidas em paralelo,
+ * de modo que o tempo de inicialização e de encerramento acompanha a quantidade
+ * de núcleos disponíveis.</p>
+ *
+ * <p>Estrutura do diretório:</p>
+ * <ul>
+ *   <li><strong>manifesto:</strong> geração, quantidade de partições, sequência do
+ *       journal, contador de IDs e agendas customizadas</li>
+ *   <li><strong>gG-membros-K:</strong> membros do sindicato da partição K na geração G</li>
+ *   <li><strong>gG-empregados-K:</strong> empregados da partição K na geração G, que
+ *       referenciam os membros de qualquer partição</li>
+ * </ul>
+ *
+ * <p>Cada salvamento grava uma nova geração de partições e só então substitui
+ * atomicamente o manifesto; uma queda no meio do salvamento mantém a geração
+ * anterior válida. Os arquivos de outras gerações são removidos após o
+ * salvamento e no carregamento.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class ArmazemParticionado {
+    public static final int ASSINATURA = 0x57505054; // "WPPT"
+    public static final short VERSAO = 1;
+
+    private static final String MANIFESTO = "manifesto";
+    private static final String MEMBROS = "membros";
+    private static final String EMPREGADOS = "empregados";
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private final Path diretorio;
+    private final int particoes;
+    private long geracao;
+
+    /**
+     * Construtor do armazém.
+     *
+     * @param diretorio Diretório que contém o manifesto e as partições
+     * @param particoes Quantidade de partições usada nos próximos salvamentos
+     * @throws IllegalArgumentException Se a quantidade de partições não for positiva
+     */
+    public ArmazemParticionado(String diretorio, int particoes) {
+        if (particoes <= 0) {
+            throw new IllegalArgumentException("Quantidade de particoes deve ser positiva.");
+        }
+        this.diretorio = Paths.get(diretorio);
+        this.particoes = particoes;
+    }
+
+    /**
+     * Verifica se já existe um armazém gravado no diretório.
+     *
+     * @return true se o manifesto existir
+     */
+    public boolean existe() {
+        return Files.exists(diretorio.resolve(MANIFESTO));
+    }
+
+    /**
+     * Obtém a partição de uma chave.
+     *
+     * @param chave ID do empregado ou do membro do sindicato
+     * @param particoes Quantidade de partições
+     * @return Índice da partição, entre 0 e particoes - 1
+     */
+    public static int particao(String chave, int particoes) {
+        return Math.floorMod(chave.hashCode(), particoes);
+    }
+
+    /**
+     * Carrega todas as partições para os mapas informados.
+     *
+     * <p>As agendas customizadas são registradas a partir do manifesto antes da
+     * leitura das partições. Os membros do sindicato são lidos em paralelo e, em
+     * seguida, os empregados, que podem referenciar membros de qualquer partição.
+     * A quantidade de partições lida é a registrada no manifesto.</p>
+     *
+     * @param empregados Mapa que receberá os empregados
+     * @param membrosSindicato Mapa que receberá os membros do sindicato
+     * @return Cabeçalho com o contador de IDs e a sequência do journal
+     * @throws IOException Se o manifesto ou alguma partição for inválida
+     */
+    public CodecSnapshotBinario.Cabecalho carregar(Map<String, Empregado> empregados,
+                                                   Map<String, MembroSindicato> membrosSindicato) throws IOException {
+        long sequencia;
+        int id;
+        int particoesGravadas;
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(diretorio.resolve(MANIFESTO))))) {
+            if (entrada.readInt() != ASSINATURA) {
+                throw new IOException("Arquivo nao eh um manifesto particionado do WePayU");
+            }
+            short versao = entrada.readShort();
+            if (versao != VERSAO) {
+                throw new IOException("Versao de manifesto nao suportada: " + versao);
+            }
+            geracao = entrada.readLong();
+            particoesGravadas = entrada.readInt();
+            sequencia = entrada.readLong();
+            id = entrada.readInt();
+
+            // O registro de agendas não é seguro entre threads: feito antes das leituras paralelas
+            int totalAgendas = entrada.readInt();
+            for (int i = 0; i < totalAgendas; i++) {
+                String descricao = entrada.readUTF();
+                if (!AgendaDePagamentos.isAgendaValida(descricao)) {
+                    AgendaDePagamentos.criarAgenda(descricao);
+                }
+            }
+        }
+
+        ExecutorService executor = criarExecutor(particoesGravadas);
+        try {
+            List<Callable<Map<String, MembroSindicato>>> leiturasMembros = new ArrayList<>();
+            for (int k = 0; k < particoesGravadas; k++) {
+                Path arquivo = arquivo(geracao, MEMBROS, k);
+                leiturasMembros.add(() -> {
+                    Map<String, MembroSindicato> membros = new HashMap<>();
+                    CodecSnapshotBinario.ler(arquivo, new HashMap<>(), membros);
+                    return membros;
+                });
+            }
+            Map<String, MembroSindicato> membrosLidos = new HashMap<>();
+            for (Map<String, MembroSindicato> parte : executar(executor, leiturasMembros)) {
+                membrosLidos.putAll(parte);
+            }
+
+            // Somente leitura durante a decodificação paralela dos empregados
+            Map<String, MembroSindicato> referencias = Collections.unmodifiableMap(membrosLidos);
+            List<Callable<Map<String, Empregado>>> leiturasEmpregados = new ArrayList<>();
+            for (int k = 0; k < particoesGravadas; k++) {
+                Path arquivo = arquivo(geracao, EMPREGADOS, k);
+                leiturasEmpregados.add(() -> {
+                    Map<String, Empregado> lidos = new HashMap<>();
+                    CodecSnapshotBinario.ler(arquivo, lidos, referencias);
+                    return lidos;
+                });
+            }
+            List<Map<String, Empregado>> partesEmpregados = executar(executor, leiturasEmpregados);
+
+            membrosSindicato.putAll(membrosLidos);
+            for (Map<String, Empregado> parte : partesEmpregados) {
+                empregados.putAll(parte);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        removerOutrasGeracoes();
+        return new CodecSnapshotBinario.Cabecalho(id, sequencia);
+    }
+
+    /**
+     * Grava todos os registros em uma nova geração de partições.
+     *
+     * <p>Os registros são distribuídos pelas partições na thread chamadora e as
+     * partições são codificadas e gravadas em disco em paralelo. O manifesto só
+     * passa a referenciar a nova geração depois que todas as partições foram
+     * gravadas.</p>
+     *
+     * @param empregados Mapa de empregados
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no armazém
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void gravar(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                       Collection<String> agendas, int id, long sequencia) throws IOException {
+        Files.createDirectories(diretorio);
+
+        List<Map<String, Empregado>> empregadosPorParticao = new ArrayList<>(particoes);
+        List<Map<String, MembroSindicato>> membrosPorParticao = new ArrayList<>(particoes);
+        for (int k = 0; k < particoes; k++) {
+            empregadosPorParticao.add(new HashMap<>());
+            membrosPorParticao.add(new HashMap<>());
+        }
+        for (Map.Entry<String, Empregado> entrada : empregados.entrySet()) {
+            empregadosPorParticao.get(particao(entrada.getKey(), particoes)).put(entrada.getKey(), entrada.getValue());
+        }
+        for (Map.Entry<String, MembroSindicato> entrada : membrosSindicato.entrySet()) {
+            membrosPorParticao.get(particao(entrada.getKey(), particoes)).put(entrada.getKey(), entrada.getValue());
+        }
+
+        long novaGeracao = proximaGeracao();
+        Map<String, Empregado> nenhumEmpregado = Collections.emptyMap();
+        Map<String, MembroSindicato> nenhumMembro = Collections.emptyMap();
+        List<Callable<Void>> gravacoes = new ArrayList<>();
+        for (int k = 0; k < particoes; k++) {
+            Map<String, Empregado> parteEmpregados = empregadosPorParticao.get(k);
+            Map<String, MembroSindicato> parteMembros = membrosPorParticao.get(k);
+            Path arquivoMembros = arquivo(novaGeracao, MEMBROS, k);
+            Path arquivoEmpregados = arquivo(novaGeracao, EMPREGADOS, k);
+            gravacoes.add(() -> {
+                gravarParticao(arquivoMembros, saida -> CodecSnapshotBinario.escrever(saida, nenhumEmpregado,
+                        parteMembros, nenhumMembro, Collections.emptyList(), id, sequencia));
+                return null;
+            });
+            gravacoes.add(() -> {
+                gravarParticao(arquivoEmpregados, saida -> CodecSnapshotBinario.escrever(saida, parteEmpregados,
+                        nenhumMembro, membrosSindicato, Collections.emptyList(), id, sequencia));
+                return null;
+            });
+        }
+
+        ExecutorService executor = criarExecutor(particoes);
+        try {
+            executar(executor, gravacoes);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        gravarManifesto(novaGeracao, agendas, id, sequencia);
+        geracao = novaGeracao;
+        removerOutrasGeracoes();
+    }
+
+    // ========== ESCRITA ==========
+
+    @FunctionalInterface
+    private interface EscritorParticao {
+        void escrever(OutputStream saida) throws IOException;
+    }
+
+    /**
+     * Grava uma partição e força a sua gravação em disco antes de o manifesto
+     * passar a referenciá-la.
+     */
+    private static void gravarParticao(Path arquivo, EscritorParticao escritor) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream saida = new BufferedOutputStream(Channels.newOutputStream(canal), TAMANHO_BUFFER);
+            escritor.escrever(saida);
+            saida.flush();
+            canal.force(false);
+        }
+    }
+
+    private void gravarManifesto(long novaGeracao, Collection<String> agendas, int id, long sequencia) throws IOException {
+        Path temporario = diretorio.resolve(MANIFESTO + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal)));
+            saida.writeInt(ASSINATURA);
+            saida.writeShort(VERSAO);
+            saida.writeLong(novaGeracao);
+            saida.writeInt(particoes);
+            saida.writeLong(sequencia);
+            saida.writeInt(id);
+            saida.writeInt(agendas.size());
+            for (String agenda : agendas) {
+                saida.writeUTF(agenda);
+            }
+            saida.flush();
+            canal.force(false);
+        }
+        try {
+            Files.move(temporario, diretorio.resolve(MANIFESTO), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, diretorio.resolve(MANIFESTO), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Obtém uma geração maior que a de qualquer arquivo existente, para que uma
+     * nova geração nunca sobrescreva partições ainda referenciadas pelo manifesto.
+     */
+    private long proximaGeracao() throws IOException {
+        long maior = geracao;
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "g*")) {
+            for (Path arquivo : arquivos) {
+                maior = Math.max(maior, geracaoDoArquivo(arquivo.getFileName().toString()));
+            }
+        }
+        return maior + 1;
+    }
+
+    // ========== AUXILIARES ==========
+
+    private Path arquivo(long geracaoArquivo, String tipo, int particao) {
+        return diretorio.resolve("g" + geracaoArquivo + "-" + tipo + "-" + particao);
+    }
+
+    private static long geracaoDoArquivo(String nome) {
+        int fim = nome.indexOf('-');
+        if (!nome.startsWith("g") || fim < 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nome.substring(1, fim));
+        } catch (NumberFormatException e) {
+            return -1; // Arquivo estranho ao armazém
+        }
+    }
+
+    /**
+     * Remove as partições de gerações substituídas ou deixadas por um salvamento
+     * interrompido antes da gravação do manifesto.
+     */
+    private void removerOutrasGeracoes() {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "g*")) {
+            for (Path arquivo : arquivos) {
+                long geracaoArquivo = geracaoDoArquivo(arquivo.getFileName().toString());
+                if (geracaoArquivo >= 0 && geracaoArquivo != geracao) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao remover particoes antigas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cria o pool de threads das leituras e gravações, limitado à quantidade de
+     * núcleos disponíveis.
+     */
+    private static ExecutorService criarExecutor(int tarefas) {
+        int threads = Math.max(1, Math.min(tarefas, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "wepayu-particao-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Executa as tarefas e obtém os resultados na ordem das tarefas, repassando
+     * o primeiro erro encontrado.
+     */
+    private static <T> List<T> executar(ExecutorService executor, List<Callable<T>> tarefas) throws IOException {
+        List<T> resultados = new ArrayList<>(tarefas.size());
+        try {
+            for (Future<T> futuro : executor.invokeAll(tarefas)) {
+                resultados.add(futuro.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Operacao nas particoes interrompida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IOException(causa);
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,422 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Armazém de registros em segmentos do sistema WePayU.
+ *
+ * <p>Cada empregado e cada membro do sindicato é gravado como um registro
+ * independente. Um salvamento incremental grava apenas os registros alterados
+ * em um novo segmento ao final do armazém, de modo que o custo do salvamento
+ * acompanha a quantidade de alterações e não o tamanho do banco de dados.
+ * Na leitura, o registro mais recente de cada chave prevalece e as remoções
+ * são gravadas como registros sem conteúdo.</p>
+ *
+ * <p>Estrutura do diretório:</p>
+ * <ul>
+ *   <li><strong>manifesto:</strong> sequência do journal, contador de IDs, agendas
+ *       customizadas e a lista de segmentos válidos com os seus tamanhos</li>
+ *   <li><strong>segmento-N:</strong> registros no formato tipo, chave, tamanho e conteúdo,
+ *       codificados por {@link CodecSnapshotBinario}</li>
+ * </ul>
+ *
+ * <p>O segmento é gravado em disco antes do manifesto, que é substituído
+ * atomicamente; uma queda no meio do salvamento deixa apenas um segmento
+ * órfão, descartado no próximo carregamento. Quando os registros substituídos
+ * passam a dominar o armazém, todos os registros vivos são regravados em um
+ * único segmento (compactação).</p>
+ *
+ * <p>Os registros da versão 1 guardam as datas dos lançamentos em texto. Um armazém
+ * da versão 1 continua legível e é compactado por inteiro no primeiro salvamento,
+ * para que segmentos de formatos diferentes nunca convivam no mesmo manifesto.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class ArmazemSegmentos {
+    public static final int ASSINATURA = 0x57505347; // "WPSG"
+    public static final short VERSAO = 2;
+
+    private static final short VERSAO_DATAS_TEXTO = 1;
+
+    /**
+     * Quantidade máxima de segmentos antes de uma compactação.
+     */
+    public static final int LIMITE_SEGMENTOS = 64;
+
+    private static final String MANIFESTO = "manifesto";
+    private static final String PREFIXO_SEGMENTO = "segmento-";
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    private static final int MINIMO_REGISTROS_COMPACTACAO = 1024;
+
+    private static final byte EMPREGADO = 1;
+    private static final byte MEMBRO = 2;
+    private static final byte EMPREGADO_REMOVIDO = 3;
+    private static final byte MEMBRO_REMOVIDO = 4;
+
+    private final Path diretorio;
+    private final List<Segmento> segmentos = new ArrayList<>();
+    private long registrosGravados; // inclui registros substituídos e remoções
+    private boolean datasEmTexto; // armazém carregado de um manifesto da versão 1
+
+    /**
+     * Segmento listado no manifesto.
+     */
+    private static final class Segmento {
+        private final long numero;
+        private final long tamanho;
+        private final int registros;
+
+        Segmento(long numero, long tamanho, int registros) {
+            this.numero = numero;
+            this.tamanho = tamanho;
+            this.registros = registros;
+        }
+    }
+
+    /**
+     * Construtor do armazém.
+     *
+     * @param diretorio Diretório que contém o manifesto e os segmentos
+     */
+    public ArmazemSegmentos(String diretorio) {
+        this.diretorio = Paths.get(diretorio);
+    }
+
+    /**
+     * Verifica se já existe um armazém gravado no diretório.
+     *
+     * @return true se o manifesto existir
+     */
+    public boolean existe() {
+        return Files.exists(diretorio.resolve(MANIFESTO));
+    }
+
+    /**
+     * Carrega todos os registros vivos para os mapas informados.
+     *
+     * <p>As agendas customizadas são registradas antes dos empregados e os membros
+     * do sindicato são lidos antes dos empregados que os referenciam. Segmentos
+     * que não constam no manifesto são removidos.</p>
+     *
+     * @param empregados Mapa que receberá os empregados
+     * @param membrosSindicato Mapa que receberá os membros do sindicato
+     * @return Cabeçalho com o contador de IDs e a sequência do journal
+     * @throws IOException Se o manifesto ou algum segmento for inválido
+     */
+    public CodecSnapshotBinario.Cabecalho carregar(Map<String, Empregado> empregados,
+                                                   Map<String, MembroSindicato> membrosSindicato) throws IOException {
+        segmentos.clear();
+        registrosGravados = 0;
+
+        long sequencia;
+        int id;
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(diretorio.resolve(MANIFESTO))))) {
+            if (entrada.readInt() != ASSINATURA) {
+                throw new IOException("Arquivo nao eh um manifesto do WePayU");
+            }
+            short versao = entrada.readShort();
+            if (versao != VERSAO && versao != VERSAO_DATAS_TEXTO) {
+                throw new IOException("Versao de manifesto nao suportada: " + versao);
+            }
+            datasEmTexto = versao == VERSAO_DATAS_TEXTO;
+            sequencia = entrada.readLong();
+            id = entrada.readInt();
+
+            int totalAgendas = entrada.readInt();
+            for (int i = 0; i < totalAgendas; i++) {
+                String descricao = entrada.readUTF();
+                if (!AgendaDePagamentos.isAgendaValida(descricao)) {
+                    AgendaDePagamentos.criarAgenda(descricao);
+                }
+            }
+
+            int totalSegmentos = entrada.readInt();
+            for (int i = 0; i < totalSegmentos; i++) {
+                segmentos.add(new Segmento(entrada.readLong(), entrada.readLong(), entrada.readInt()));
+            }
+        }
+
+        // Apenas o registro mais recente de cada chave é decodificado
+        Map<String, byte[]> registrosEmpregados = new LinkedHashMap<>();
+        Map<String, byte[]> registrosMembros = new LinkedHashMap<>();
+        for (Segmento segmento : segmentos) {
+            lerSegmento(segmento, registrosEmpregados, registrosMembros);
+            registrosGravados += segmento.registros;
+        }
+
+        for (Map.Entry<String, byte[]> registro : registrosMembros.entrySet()) {
+            membrosSindicato.put(registro.getKey(), CodecSnapshotBinario.lerRegistroMembro(abrir(registro.getValue()), datasEmTexto));
+        }
+        for (Map.Entry<String, byte[]> registro : registrosEmpregados.entrySet()) {
+            empregados.put(registro.getKey(), CodecSnapshotBinario.lerRegistroEmpregado(abrir(registro.getValue()), membrosSindicato, datasEmTexto));
+        }
+
+        removerSegmentosOrfaos();
+        return new CodecSnapshotBinario.Cabecalho(id, sequencia);
+    }
+
+    /**
+     * Grava apenas os registros alterados em um novo segmento.
+     *
+     * <p>Chaves alteradas que não estão mais nos mapas são gravadas como remoções.
+     * Se não houver registros alterados, apenas o manifesto é regravado. O armazém
+     * é compactado quando excede {@link #LIMITE_SEGMENTOS} segmentos ou quando os
+     * registros gravados superam o dobro dos registros vivos.</p>
+     *
+     * @param empregados Mapa de empregados
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param empregadosAlterados IDs dos empregados alterados desde o último salvamento
+     * @param membrosAlterados IDs dos membros alterados desde o último salvamento
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no armazém
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void gravarAlteracoes(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                                 Set<String> empregadosAlterados, Set<String> membrosAlterados,
+                                 Collection<String> agendas, int id, long sequencia) throws IOException {
+        if (!existe() || datasEmTexto) {
+            compactar(empregados, membrosSindicato, agendas, id, sequencia);
+            return;
+        }
+
+        List<Segmento> novos = new ArrayList<>(segmentos);
+        if (!empregadosAlterados.isEmpty() || !membrosAlterados.isEmpty()) {
+            novos.add(gravarSegmento(proximoNumero(), saida -> {
+                int registros = 0;
+                for (String idMembro : membrosAlterados) {
+                    MembroSindicato membro = membrosSindicato.get(idMembro);
+                    if (membro != null) {
+                        escreverRegistro(saida, MEMBRO, idMembro, dados -> CodecSnapshotBinario.escreverRegistroMembro(dados, membro));
+                    } else {
+                        escreverRegistro(saida, MEMBRO_REMOVIDO, idMembro, null);
+                    }
+                    registros++;
+                }
+                for (String idEmpregado : empregadosAlterados) {
+                    Empregado empregado = empregados.get(idEmpregado);
+                    if (empregado != null) {
+                        escreverRegistro(saida, EMPREGADO, idEmpregado,
+                                dados -> CodecSnapshotBinario.escreverRegistroEmpregado(dados, empregado, membrosSindicato));
+                    } else {
+                        escreverRegistro(saida, EMPREGADO_REMOVIDO, idEmpregado, null);
+                    }
+                    registros++;
+                }
+                return registros;
+            }));
+        }
+        gravarManifesto(novos, agendas, id, sequencia);
+
+        long gravados = registrosGravados;
+        if (novos.size() > segmentos.size()) {
+            gravados += novos.get(novos.size() - 1).registros;
+        }
+        segmentos.clear();
+        segmentos.addAll(novos);
+        registrosGravados = gravados;
+
+        long vivos = (long) empregados.size() + membrosSindicato.size();
+        if (segmentos.size() > LIMITE_SEGMENTOS
+                || (registrosGravados > MINIMO_REGISTROS_COMPACTACAO && registrosGravados > 2 * vivos)) {
+            compactar(empregados, membrosSindicato, agendas, id, sequencia);
+        }
+    }
+
+    /**
+     * Regrava todos os registros vivos em um único segmento e descarta os anteriores.
+     *
+     * @param empregados Mapa de empregados
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no armazém
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void compactar(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                          Collection<String> agendas, int id, long sequencia) throws IOException {
+        Files.createDirectories(diretorio);
+        Segmento segmento = gravarSegmento(proximoNumero(), saida -> {
+            for (Map.Entry<String, MembroSindicato> entrada : membrosSindicato.entrySet()) {
+                escreverRegistro(saida, MEMBRO, entrada.getKey(), dados -> CodecSnapshotBinario.escreverRegistroMembro(dados, entrada.getValue()));
+            }
+            for (Map.Entry<String, Empregado> entrada : empregados.entrySet()) {
+                escreverRegistro(saida, EMPREGADO, entrada.getKey(),
+                        dados -> CodecSnapshotBinario.escreverRegistroEmpregado(dados, entrada.getValue(), membrosSindicato));
+            }
+            return membrosSindicato.size() + empregados.size();
+        });
+
+        List<Segmento> novos = new ArrayList<>();
+        novos.add(segmento);
+        gravarManifesto(novos, agendas, id, sequencia);
+
+        segmentos.clear();
+        segmentos.addAll(novos);
+        registrosGravados = segmento.registros;
+        datasEmTexto = false;
+        removerSegmentosOrfaos();
+    }
+
+    // ========== ESCRITA ==========
+
+    @FunctionalInterface
+    private interface EscritorRegistros {
+        int escrever(DataOutputStream saida) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EscritorConteudo {
+        void escrever(DataOutputStream saida) throws IOException;
+    }
+
+    /**
+     * Grava um segmento completo e força a sua gravação em disco antes de o
+     * manifesto passar a referenciá-lo.
+     */
+    private Segmento gravarSegmento(long numero, EscritorRegistros escritor) throws IOException {
+        Path arquivo = diretorio.resolve(PREFIXO_SEGMENTO + numero);
+        int registros;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), TAMANHO_BUFFER));
+            registros = escritor.escrever(saida);
+            saida.flush();
+            canal.force(false);
+        }
+        return new Segmento(numero, Files.size(arquivo), registros);
+    }
+
+    private static void escreverRegistro(DataOutputStream saida, byte tipo, String chave,
+                                         EscritorConteudo conteudo) throws IOException {
+        saida.writeByte(tipo);
+        saida.writeUTF(chave);
+        if (conteudo == null) {
+            saida.writeInt(0);
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        conteudo.escrever(new DataOutputStream(bytes));
+        saida.writeInt(bytes.size());
+        bytes.writeTo(saida);
+    }
+
+    private void gravarManifesto(List<Segmento> lista, Collection<String> agendas, int id, long sequencia) throws IOException {
+        Path temporario = diretorio.resolve(MANIFESTO + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal)));
+            saida.writeInt(ASSINATURA);
+            saida.writeShort(VERSAO);
+            saida.writeLong(sequencia);
+            saida.writeInt(id);
+            saida.writeInt(agendas.size());
+            for (String agenda : agendas) {
+                saida.writeUTF(agenda);
+            }
+            saida.writeInt(lista.size());
+            for (Segmento segmento : lista) {
+                saida.writeLong(segmento.numero);
+                saida.writeLong(segmento.tamanho);
+                saida.writeInt(segmento.registros);
+            }
+            saida.flush();
+            canal.force(false);
+        }
+        try {
+            Files.move(temporario, diretorio.resolve(MANIFESTO), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, diretorio.resolve(MANIFESTO), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Obtém um número de segmento maior que o de qualquer segmento existente, para
+     * que um novo segmento nunca sobrescreva um ainda referenciado pelo manifesto.
+     */
+    private long proximoNumero() throws IOException {
+        long maior = 0;
+        for (Segmento segmento : segmentos) {
+            maior = Math.max(maior, segmento.numero);
+        }
+        if (Files.isDirectory(diretorio)) {
+            try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO_SEGMENTO + "*")) {
+                for (Path arquivo : arquivos) {
+                    try {
+                        maior = Math.max(maior, Long.parseLong(arquivo.getFileName().toString().substring(PREFIXO_SEGMENTO.length())));
+                    } catch (NumberFormatException e) {
+                        // Arquivo estranho ao armazém
+                    }
+                }
+            }
+        }
+        return maior + 1;
+    }
+
+    // ========== LEITURA ==========
+
+    private void lerSegmento(Segmento segmento, Map<String, byte[]> registrosEmpregados,
+                             Map<String, byte[]> registrosMembros) throws IOException {
+        Path arquivo = diretorio.resolve(PREFIXO_SEGMENTO + segmento.numero);
+        if (Files.size(arquivo) < segmento.tamanho) {
+            throw new IOException("Segmento incompleto: " + arquivo);
+        }
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo), TAMANHO_BUFFER))) {
+            for (int i = 0; i < segmento.registros; i++) {
+                byte tipo = entrada.readByte();
+                String chave = entrada.readUTF();
+                byte[] conteudo = new byte[entrada.readInt()];
+                entrada.readFully(conteudo);
+                switch (tipo) {
+                    case EMPREGADO: registrosEmpregados.put(chave, conteudo); break;
+                    case MEMBRO: registrosMembros.put(chave, conteudo); break;
+                    case EMPREGADO_REMOVIDO: registrosEmpregados.remove(chave); break;
+                    case MEMBRO_REMOVIDO: registrosMembros.remove(chave); break;
+                    default: throw new IOException("Tipo de registro invalido no segmento: " + tipo);
+                }
+            }
+        }
+    }
+
+    private static DataInputStream abrir(byte[] conteudo) {
+        return new DataInputStream(new ByteArrayInputStream(conteudo));
+    }
+
+    /**
+     * Remove segmentos substituídos por uma compactação ou deixados por um
+     * salvamento interrompido antes da gravação do manifesto.
+     */
+    private void removerSegmentosOrfaos() {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO_SEGMENTO + "*")) {
+            for (Path arquivo : arquivos) {
+                if (!referenciado(arquivo.getFileName().toString())) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao remover segmentos antigos: " + e.getMessage());
+        }
+    }
+
+    private boolean referenciado(String nome) {
+        for (Segmento segmento : segmentos) {
+            if (nome.equals(PREFIXO_SEGMENTO + segmento.numero)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
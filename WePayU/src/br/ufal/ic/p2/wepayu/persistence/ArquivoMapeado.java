@@ -0,0 +1,122 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Arquivo somente leitura mapeado em memória com {@link FileChannel#map}.
+ *
+ * <p>O arquivo é mapeado em segmentos de até 1 GiB, permitindo snapshots maiores
+ * que o limite de um único {@link MappedByteBuffer}. A leitura é feita por fluxos
+ * posicionados que atravessam os segmentos de forma transparente. O mapeamento
+ * permanece válido após o fechamento do canal, enquanto houver referências a ele.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class ArquivoMapeado {
+    private static final int TAMANHO_SEGMENTO = 1 << 30;
+
+    private final MappedByteBuffer[] segmentos;
+    private final long tamanho;
+
+    private ArquivoMapeado(MappedByteBuffer[] segmentos, long tamanho) {
+        this.segmentos = segmentos;
+        this.tamanho = tamanho;
+    }
+
+    /**
+     * Mapeia um arquivo inteiro para leitura.
+     *
+     * @param arquivo Caminho do arquivo
+     * @return Arquivo mapeado
+     * @throws IOException Se o arquivo não puder ser aberto ou mapeado
+     */
+    public static ArquivoMapeado mapear(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            int quantidade = (int) ((tamanho + TAMANHO_SEGMENTO - 1) / TAMANHO_SEGMENTO);
+            MappedByteBuffer[] segmentos = new MappedByteBuffer[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                long inicio = (long) i * TAMANHO_SEGMENTO;
+                segmentos[i] = canal.map(FileChannel.MapMode.READ_ONLY, inicio, Math.min(TAMANHO_SEGMENTO, tamanho - inicio));
+            }
+            return new ArquivoMapeado(segmentos, tamanho);
+        }
+    }
+
+    /**
+     * Obtém o tamanho do arquivo mapeado.
+     *
+     * @return Tamanho em bytes
+     */
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Abre um fluxo de leitura a partir de uma posição do arquivo.
+     *
+     * @param posicao Posição inicial em bytes
+     * @return Fluxo que lê até o final do arquivo
+     */
+    public InputStream abrir(long posicao) {
+        return new Leitor(posicao);
+    }
+
+    private final class Leitor extends InputStream {
+        private long posicao;
+
+        Leitor(long posicao) {
+            this.posicao = posicao;
+        }
+
+        @Override
+        public int read() {
+            if (posicao >= tamanho) {
+                return -1;
+            }
+            int valor = segmentos[(int) (posicao / TAMANHO_SEGMENTO)].get((int) (posicao % TAMANHO_SEGMENTO)) & 0xFF;
+            posicao++;
+            return valor;
+        }
+
+        @Override
+        public int read(byte[] destino, int inicio, int quantidade) {
+            if (quantidade == 0) {
+                return 0;
+            }
+            if (posicao >= tamanho) {
+                return -1;
+            }
+            int lidos = 0;
+            while (lidos < quantidade && posicao < tamanho) {
+                ByteBuffer segmento = segmentos[(int) (posicao / TAMANHO_SEGMENTO)].duplicate();
+                segmento.position((int) (posicao % TAMANHO_SEGMENTO));
+                int parte = Math.min(quantidade - lidos, segmento.remaining());
+                segmento.get(destino, inicio + lidos, parte);
+                lidos += parte;
+                posicao += parte;
+            }
+            return lidos;
+        }
+
+        @Override
+        public long skip(long quantidade) {
+            long pulados = Math.max(0, Math.min(quantidade, tamanho - posicao));
+            posicao += pulados;
+            return pulados;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, tamanho - posicao);
+        }
+    }
+}
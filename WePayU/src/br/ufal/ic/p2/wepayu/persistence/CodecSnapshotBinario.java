@@ -0,0 +1,574 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec do snapshot binário do sistema WePayU.
+ *
+ * <p>Grava e lê o estado completo do sistema em um formato binário compacto e
+ * versionado, sem reflexão. Substitui os arquivos {@code empregados.xml},
+ * {@code sindicato.xml} e {@code agendas.xml} por um único arquivo.</p>
+ *
+ * <p>Layout da versão 3 (gravada atualmente):</p>
+ * <ul>
+ *   <li><strong>Prefixo:</strong> assinatura, versão, sequência do journal e contador de IDs</li>
+ *   <li><strong>Históricos:</strong> cartões de ponto, vendas e taxas de serviço, contíguos por dono</li>
+ *   <li><strong>Cabeçalhos:</strong> agendas customizadas, membros do sindicato e empregados,
+ *       cada histórico referenciado por quantidade, posição e tamanho</li>
+ *   <li><strong>Rodapé:</strong> posição do início dos cabeçalhos</li>
+ * </ul>
+ *
+ * <p>A leitura mapeia o arquivo em memória e decodifica apenas os cabeçalhos;
+ * cada histórico é decodificado no primeiro acesso (ver {@link CarregadorHistorico}).
+ * Históricos nunca acessados são copiados sem decodificação no próximo salvamento.
+ * As datas dos lançamentos são gravadas como dia epoch (int). Arquivos da versão 2
+ * (datas em texto) e da versão 1 (datas em texto e históricos junto aos cabeçalhos)
+ * continuam legíveis.</p>
+ *
+ * <p>O sindicato de um empregado é gravado como referência ao membro de mesmo ID
+ * quando ambos são o mesmo objeto, de modo que a leitura restaura o compartilhamento
+ * existente em memória. Caso contrário, é gravado por completo junto ao empregado.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class CodecSnapshotBinario {
+    public static final int ASSINATURA = 0x57505955; // "WPYU"
+    public static final short VERSAO = 3;
+
+    private static final short VERSAO_DATAS_TEXTO = 2;
+    private static final short VERSAO_HISTORICOS_EMBUTIDOS = 1;
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private static final byte HORISTA = 1;
+    private static final byte ASSALARIADO = 2;
+    private static final byte COMISSIONADO = 3;
+
+    private static final byte SEM_SINDICATO = 0;
+    private static final byte SINDICATO_REFERENCIA = 1;
+    private static final byte SINDICATO_COMPLETO = 2;
+
+    private static final byte EM_MAOS = 0;
+    private static final byte CORREIOS = 1;
+    private static final byte BANCO = 2;
+    private static final byte SEM_METODO = -1;
+
+    private CodecSnapshotBinario() { }
+
+    /**
+     * Informações do cabeçalho de um snapshot lido.
+     */
+    public static final class Cabecalho {
+        private final int id;
+        private final long sequencia;
+
+        Cabecalho(int id, long sequencia) {
+            this.id = id;
+            this.sequencia = sequencia;
+        }
+
+        public int getId() { return id; }
+
+        public long getSequencia() { return sequencia; }
+    }
+
+    /**
+     * Grava o estado completo do sistema no formato atual.
+     *
+     * @param destino Destino dos dados (de preferência bufferizado)
+     * @param empregados Mapa de empregados
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no snapshot
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public static void escrever(OutputStream destino, Map<String, Empregado> empregados,
+                                Map<String, MembroSindicato> membrosSindicato, Collection<String> agendas,
+                                int id, long sequencia) throws IOException {
+        escrever(destino, empregados, membrosSindicato, membrosSindicato, agendas, id, sequencia);
+    }
+
+    /**
+     * Grava parte do sistema no formato atual, com os membros do sindicato
+     * referenciáveis pelos empregados separados dos membros gravados no arquivo.
+     *
+     * <p>Usado quando empregados e membros ficam em arquivos diferentes: na leitura,
+     * o mapa informado a {@link #ler} deve conter os membros referenciados.</p>
+     *
+     * @param destino Destino dos dados (de preferência bufferizado)
+     * @param empregados Empregados gravados no arquivo
+     * @param membrosSindicato Membros do sindicato gravados no arquivo
+     * @param membrosReferenciaveis Todos os membros que os empregados podem referenciar
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no snapshot
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public static void escrever(OutputStream destino, Map<String, Empregado> empregados,
+                                Map<String, MembroSindicato> membrosSindicato,
+                                Map<String, MembroSindicato> membrosReferenciaveis, Collection<String> agendas,
+                                int id, long sequencia) throws IOException {
+        SaidaContada contador = new SaidaContada(destino);
+        DataOutputStream dados = new DataOutputStream(contador);
+        dados.writeInt(ASSINATURA);
+        dados.writeShort(VERSAO);
+        dados.writeLong(sequencia);
+        dados.writeInt(id);
+
+        // Os históricos vão direto para o arquivo; os cabeçalhos, pequenos, ficam em memória até o fim
+        ByteArrayOutputStream bytesCabecalhos = new ByteArrayOutputStream(TAMANHO_BUFFER);
+        DataOutputStream cabecalhos = new DataOutputStream(bytesCabecalhos);
+
+        cabecalhos.writeInt(agendas.size());
+        for (String agenda : agendas) {
+            cabecalhos.writeUTF(agenda);
+        }
+
+        cabecalhos.writeInt(membrosSindicato.size());
+        for (MembroSindicato membro : membrosSindicato.values()) {
+            escreverMembro(cabecalhos, dados, contador, membro);
+        }
+
+        cabecalhos.writeInt(empregados.size());
+        for (Map.Entry<String, Empregado> entrada : empregados.entrySet()) {
+            cabecalhos.writeUTF(entrada.getKey());
+            escreverEmpregado(cabecalhos, dados, contador, entrada.getValue(), membrosReferenciaveis);
+        }
+
+        long inicioCabecalhos = contador.getPosicao();
+        bytesCabecalhos.writeTo(dados);
+        dados.writeLong(inicioCabecalhos);
+        dados.flush();
+    }
+
+    /**
+     * Lê um snapshot para os mapas informados, mapeando o arquivo em memória.
+     *
+     * <p>As agendas customizadas são registradas em {@link AgendaDePagamentos}
+     * antes dos empregados, como no carregamento a partir de XML. Os históricos
+     * ficam pendentes nos modelos até o primeiro acesso.</p>
+     *
+     * @param arquivo Caminho do snapshot
+     * @param empregados Mapa que receberá os empregados
+     * @param membrosSindicato Mapa que receberá os membros do sindicato
+     * @return Cabeçalho do snapshot
+     * @throws IOException Se o arquivo for inválido ou de versão não suportada
+     */
+    public static Cabecalho ler(Path arquivo, Map<String, Empregado> empregados,
+                                Map<String, MembroSindicato> membrosSindicato) throws IOException {
+        ArquivoMapeado mapa = ArquivoMapeado.mapear(arquivo);
+        DataInputStream entrada = new DataInputStream(new BufferedInputStream(mapa.abrir(0), TAMANHO_BUFFER));
+        if (entrada.readInt() != ASSINATURA) {
+            throw new IOException("Arquivo nao eh um snapshot do WePayU");
+        }
+        short versao = entrada.readShort();
+        long sequencia = entrada.readLong();
+        int id = entrada.readInt();
+
+        if (versao == VERSAO || versao == VERSAO_DATAS_TEXTO) {
+            long inicioCabecalhos = new DataInputStream(mapa.abrir(mapa.getTamanho() - Long.BYTES)).readLong();
+            entrada = new DataInputStream(new BufferedInputStream(mapa.abrir(inicioCabecalhos), TAMANHO_BUFFER));
+        } else if (versao != VERSAO_HISTORICOS_EMBUTIDOS) {
+            throw new IOException("Versao de snapshot nao suportada: " + versao);
+        }
+        LeitorSnapshot leitor = new LeitorSnapshot(entrada, versao == VERSAO_HISTORICOS_EMBUTIDOS ? null : mapa,
+                versao != VERSAO);
+
+        int totalAgendas = entrada.readInt();
+        for (int i = 0; i < totalAgendas; i++) {
+            String descricao = entrada.readUTF();
+            if (!AgendaDePagamentos.isAgendaValida(descricao)) {
+                AgendaDePagamentos.criarAgenda(descricao);
+            }
+        }
+
+        int totalMembros = entrada.readInt();
+        for (int i = 0; i < totalMembros; i++) {
+            MembroSindicato membro = leitor.lerMembro();
+            membrosSindicato.put(membro.getIdMembro(), membro);
+        }
+
+        int totalEmpregados = entrada.readInt();
+        for (int i = 0; i < totalEmpregados; i++) {
+            String chave = entrada.readUTF();
+            empregados.put(chave, leitor.lerEmpregado(membrosSindicato));
+        }
+
+        return new Cabecalho(id, sequencia);
+    }
+
+    // ========== REGISTROS INDIVIDUAIS ==========
+
+    /**
+     * Grava um único empregado com os históricos embutidos, no formato da versão 1.
+     * Usado pelos registros do {@link ArmazemSegmentos}.
+     */
+    static void escreverRegistroEmpregado(DataOutputStream saida, Empregado empregado,
+                                          Map<String, MembroSindicato> membrosSindicato) throws IOException {
+        escreverEmpregado(saida, saida, null, empregado, membrosSindicato);
+    }
+
+    /**
+     * Lê um empregado gravado por {@link #escreverRegistroEmpregado}.
+     *
+     * @param datasEmTexto Se o registro foi gravado com as datas em texto (formato anterior)
+     */
+    static Empregado lerRegistroEmpregado(DataInputStream entrada, Map<String, MembroSindicato> membrosSindicato,
+                                          boolean datasEmTexto) throws IOException {
+        return new LeitorSnapshot(entrada, null, datasEmTexto).lerEmpregado(membrosSindicato);
+    }
+
+    /**
+     * Grava um único membro do sindicato com as taxas de serviço embutidas.
+     */
+    static void escreverRegistroMembro(DataOutputStream saida, MembroSindicato membro) throws IOException {
+        escreverMembro(saida, saida, null, membro);
+    }
+
+    /**
+     * Lê um membro do sindicato gravado por {@link #escreverRegistroMembro}.
+     *
+     * @param datasEmTexto Se o registro foi gravado com as datas em texto (formato anterior)
+     */
+    static MembroSindicato lerRegistroMembro(DataInputStream entrada, boolean datasEmTexto) throws IOException {
+        return new LeitorSnapshot(entrada, null, datasEmTexto).lerMembro();
+    }
+
+    // ========== ESCRITA ==========
+
+    private static void escreverEmpregado(DataOutputStream cabecalhos, DataOutputStream dados, SaidaContada contador,
+                                          Empregado empregado, Map<String, MembroSindicato> membrosSindicato) throws IOException {
+        if (empregado instanceof EmpregadoHorista) {
+            cabecalhos.writeByte(HORISTA);
+        } else if (empregado instanceof EmpregadoComissionado) {
+            cabecalhos.writeByte(COMISSIONADO);
+        } else if (empregado instanceof EmpregadoAssalariado) {
+            cabecalhos.writeByte(ASSALARIADO);
+        } else {
+            throw new IOException("Tipo de empregado nao suportado: " + empregado.getClass().getName());
+        }
+
+        escreverTexto(cabecalhos, empregado.getId());
+        escreverTexto(cabecalhos, empregado.getNome());
+        escreverTexto(cabecalhos, empregado.getEndereco());
+        escreverTexto(cabecalhos, empregado.getAgendaPagamento() != null ? empregado.getAgendaPagamento().getAgenda() : null);
+        escreverMetodoPagamento(cabecalhos, empregado.getMetodoPagamento());
+
+        MembroSindicato sindicato = empregado.getSindicato();
+        if (sindicato == null) {
+            cabecalhos.writeByte(SEM_SINDICATO);
+        } else if (sindicato.getIdMembro() != null && membrosSindicato.get(sindicato.getIdMembro()) == sindicato) {
+            cabecalhos.writeByte(SINDICATO_REFERENCIA);
+            cabecalhos.writeUTF(sindicato.getIdMembro());
+        } else {
+            cabecalhos.writeByte(SINDICATO_COMPLETO);
+            escreverMembro(cabecalhos, dados, contador, sindicato);
+        }
+
+        if (empregado instanceof EmpregadoHorista) {
+            EmpregadoHorista horista = (EmpregadoHorista) empregado;
+            cabecalhos.writeDouble(horista.getSalarioPorHora());
+            CarregadorHistorico<CartaoDePonto> pendente = horista.carregadorCartoesPendente();
+            escreverHistorico(cabecalhos, dados, contador, pendente, pendente == null ? horista.getCartoes() : null,
+                    (saida, cartao) -> {
+                        saida.writeInt(cartao.getDia());
+                        escreverValor(saida, cartao.getHoras());
+                    });
+        } else if (empregado instanceof EmpregadoComissionado) {
+            EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
+            cabecalhos.writeDouble(comissionado.getSalarioMensal());
+            cabecalhos.writeDouble(comissionado.getTaxaDeComissao());
+            CarregadorHistorico<ResultadoDeVenda> pendente = comissionado.carregadorVendasPendente();
+            escreverHistorico(cabecalhos, dados, contador, pendente, pendente == null ? comissionado.getResultadoDeVenda() : null,
+                    (saida, venda) -> {
+                        saida.writeInt(venda.getDia());
+                        escreverValor(saida, venda.getValor());
+                    });
+        } else {
+            cabecalhos.writeDouble(((EmpregadoAssalariado) empregado).getSalarioMensal());
+        }
+    }
+
+    private static void escreverMembro(DataOutputStream cabecalhos, DataOutputStream dados, SaidaContada contador,
+                                       MembroSindicato membro) throws IOException {
+        escreverTexto(cabecalhos, membro.getIdMembro());
+        cabecalhos.writeDouble(membro.getTaxaSindical());
+        cabecalhos.writeDouble(membro.getDividaSindical());
+        CarregadorHistorico<TaxaServico> pendente = membro.carregadorTaxasPendente();
+        escreverHistorico(cabecalhos, dados, contador, pendente, pendente == null ? membro.getTaxasDeServicos() : null,
+                (saida, taxa) -> {
+                    saida.writeInt(taxa.getDia());
+                    escreverValor(saida, taxa.getValor());
+                });
+    }
+
+    @FunctionalInterface
+    private interface Codificador<T> {
+        void escrever(DataOutputStream saida, T item) throws IOException;
+    }
+
+    /**
+     * Grava um histórico na região de dados e sua referência no cabeçalho. Históricos
+     * ainda não decodificados de um snapshot anterior são copiados sem decodificação.
+     * Sem contador de posição, o histórico é embutido logo após a sua quantidade.
+     */
+    private static <T> void escreverHistorico(DataOutputStream cabecalhos, DataOutputStream dados, SaidaContada contador,
+                                              CarregadorHistorico<T> pendente, List<T> itens,
+                                              Codificador<T> codificador) throws IOException {
+        if (contador == null) {
+            if (pendente instanceof HistoricoMapeado && ((HistoricoMapeado<T>) pendente).isFormatoAtual()) {
+                HistoricoMapeado<T> mapeado = (HistoricoMapeado<T>) pendente;
+                dados.writeInt(mapeado.getQuantidade());
+                mapeado.copiarPara(dados);
+                return;
+            }
+            if (itens == null) {
+                itens = pendente.carregar();
+            }
+            dados.writeInt(itens.size());
+            for (T item : itens) {
+                codificador.escrever(dados, item);
+            }
+            return;
+        }
+
+        long posicao = contador.getPosicao();
+        int quantidade;
+        if (pendente instanceof HistoricoMapeado && ((HistoricoMapeado<T>) pendente).isFormatoAtual()) {
+            HistoricoMapeado<T> mapeado = (HistoricoMapeado<T>) pendente;
+            mapeado.copiarPara(dados);
+            quantidade = mapeado.getQuantidade();
+        } else {
+            if (itens == null) {
+                itens = pendente.carregar();
+            }
+            for (T item : itens) {
+                codificador.escrever(dados, item);
+            }
+            quantidade = itens.size();
+        }
+        cabecalhos.writeInt(quantidade);
+        cabecalhos.writeLong(posicao);
+        cabecalhos.writeInt((int) (contador.getPosicao() - posicao));
+    }
+
+    private static void escreverMetodoPagamento(DataOutputStream saida, MetodoPagamento metodo) throws IOException {
+        if (metodo == null) {
+            saida.writeByte(SEM_METODO);
+        } else if (metodo instanceof Banco) {
+            Banco banco = (Banco) metodo;
+            saida.writeByte(BANCO);
+            escreverTexto(saida, banco.getBanco());
+            escreverTexto(saida, banco.getAgencia());
+            escreverTexto(saida, banco.getContaCorrente());
+        } else if (metodo instanceof Correios) {
+            saida.writeByte(CORREIOS);
+        } else {
+            saida.writeByte(EM_MAOS);
+        }
+    }
+
+    private static void escreverTexto(DataOutputStream saida, String texto) throws IOException {
+        saida.writeBoolean(texto != null);
+        if (texto != null) {
+            saida.writeUTF(texto);
+        }
+    }
+
+    // Valores nulos (possíveis em arquivos XML antigos) são gravados como NaN
+    private static void escreverValor(DataOutputStream saida, Double valor) throws IOException {
+        saida.writeDouble(valor != null ? valor : Double.NaN);
+    }
+
+    // ========== LEITURA ==========
+
+    /**
+     * Leitor dos cabeçalhos de um snapshot. A partir da versão 2, os históricos são
+     * apenas referenciados; na versão 1, são decodificados junto aos cabeçalhos.
+     */
+    private static final class LeitorSnapshot {
+        private final DataInputStream entrada;
+        private final ArquivoMapeado mapa;
+        private final boolean datasEmTexto;
+
+        LeitorSnapshot(DataInputStream entrada, ArquivoMapeado mapa, boolean datasEmTexto) {
+            this.entrada = entrada;
+            this.mapa = mapa;
+            this.datasEmTexto = datasEmTexto;
+        }
+
+        Empregado lerEmpregado(Map<String, MembroSindicato> membrosSindicato) throws IOException {
+            byte tipo = entrada.readByte();
+            Empregado empregado;
+            switch (tipo) {
+                case HORISTA: empregado = new EmpregadoHorista(); break;
+                case ASSALARIADO: empregado = new EmpregadoAssalariado(); break;
+                case COMISSIONADO: empregado = new EmpregadoComissionado(); break;
+                default: throw new IOException("Tipo de empregado invalido no snapshot: " + tipo);
+            }
+
+            empregado.setId(lerTexto(entrada));
+            empregado.setNome(lerTexto(entrada));
+            empregado.setEndereco(lerTexto(entrada));
+            String agenda = lerTexto(entrada);
+            if (agenda != null) {
+                empregado.setAgendaPagamento(agenda);
+            }
+            empregado.setMetodoPagamento(lerMetodoPagamento(entrada));
+
+            byte sindicato = entrada.readByte();
+            if (sindicato == SINDICATO_REFERENCIA) {
+                String idMembro = entrada.readUTF();
+                MembroSindicato membro = membrosSindicato.get(idMembro);
+                if (membro == null) {
+                    throw new IOException("Membro do sindicato inexistente no snapshot: " + idMembro);
+                }
+                empregado.setSindicato(membro);
+            } else if (sindicato == SINDICATO_COMPLETO) {
+                empregado.setSindicato(lerMembro());
+            }
+
+            if (empregado instanceof EmpregadoHorista) {
+                EmpregadoHorista horista = (EmpregadoHorista) empregado;
+                horista.setSalarioPorHora(entrada.readDouble());
+                CarregadorHistorico<CartaoDePonto> cartoes = lerHistorico(dados -> lerCartao(dados, datasEmTexto));
+                if (mapa != null) {
+                    horista.setCarregadorCartoes(cartoes);
+                } else {
+                    horista.setCartoes(cartoes.carregar());
+                }
+            } else if (empregado instanceof EmpregadoComissionado) {
+                EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
+                comissionado.setSalarioMensal(entrada.readDouble());
+                comissionado.setTaxaDeComissao(entrada.readDouble());
+                CarregadorHistorico<ResultadoDeVenda> vendas = lerHistorico(dados -> lerVenda(dados, datasEmTexto));
+                if (mapa != null) {
+                    comissionado.setCarregadorVendas(vendas);
+                } else {
+                    comissionado.setResultadoDeVenda(vendas.carregar());
+                }
+            } else {
+                ((EmpregadoAssalariado) empregado).setSalarioMensal(entrada.readDouble());
+            }
+            return empregado;
+        }
+
+        MembroSindicato lerMembro() throws IOException {
+            MembroSindicato membro = new MembroSindicato();
+            membro.setIdMembro(lerTexto(entrada));
+            membro.setTaxaSindical(entrada.readDouble());
+            membro.setDividaSindical(entrada.readDouble());
+            CarregadorHistorico<TaxaServico> taxas = lerHistorico(dados -> lerTaxa(dados, datasEmTexto));
+            if (mapa != null) {
+                membro.setCarregadorTaxas(taxas);
+            } else {
+                membro.setTaxasDeServicos(taxas.carregar());
+            }
+            return membro;
+        }
+
+        private <T> CarregadorHistorico<T> lerHistorico(HistoricoMapeado.Decodificador<T> decodificador) throws IOException {
+            int quantidade = entrada.readInt();
+            if (mapa != null) {
+                long posicao = entrada.readLong();
+                int tamanho = entrada.readInt();
+                return new HistoricoMapeado<>(mapa, posicao, tamanho, quantidade, decodificador, !datasEmTexto);
+            }
+
+            // Versão 1: o histórico vem em seguida, no mesmo fluxo dos cabeçalhos
+            ArrayList<T> itens = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                itens.add(decodificador.ler(entrada));
+            }
+            return () -> itens;
+        }
+    }
+
+    private static CartaoDePonto lerCartao(DataInputStream entrada, boolean datasEmTexto) throws IOException {
+        CartaoDePonto cartao = new CartaoDePonto();
+        cartao.setDia(lerDia(entrada, datasEmTexto));
+        cartao.setHoras(lerValor(entrada));
+        return cartao;
+    }
+
+    private static ResultadoDeVenda lerVenda(DataInputStream entrada, boolean datasEmTexto) throws IOException {
+        ResultadoDeVenda venda = new ResultadoDeVenda();
+        venda.setDia(lerDia(entrada, datasEmTexto));
+        venda.setValor(lerValor(entrada));
+        return venda;
+    }
+
+    private static TaxaServico lerTaxa(DataInputStream entrada, boolean datasEmTexto) throws IOException {
+        TaxaServico taxa = new TaxaServico();
+        taxa.setDia(lerDia(entrada, datasEmTexto));
+        taxa.setValor(lerValor(entrada));
+        return taxa;
+    }
+
+    private static int lerDia(DataInputStream entrada, boolean datasEmTexto) throws IOException {
+        if (!datasEmTexto) {
+            return entrada.readInt();
+        }
+        String data = lerTexto(entrada);
+        try {
+            return DataUtils.converterDia(data);
+        } catch (RuntimeException e) {
+            throw new IOException("Data invalida no snapshot: " + data);
+        }
+    }
+
+    private static MetodoPagamento lerMetodoPagamento(DataInputStream entrada) throws IOException {
+        byte metodo = entrada.readByte();
+        switch (metodo) {
+            case SEM_METODO: return null;
+            case CORREIOS: return new Correios();
+            case BANCO: return new Banco(lerTexto(entrada), lerTexto(entrada), lerTexto(entrada));
+            default: return new EmMaos();
+        }
+    }
+
+    private static String lerTexto(DataInputStream entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readUTF() : null;
+    }
+
+    private static Double lerValor(DataInputStream entrada) throws IOException {
+        double valor = entrada.readDouble();
+        return Double.isNaN(valor) ? null : valor;
+    }
+
+    /**
+     * Fluxo de saída que acompanha a posição atual no arquivo.
+     */
+    private static final class SaidaContada extends FilterOutputStream {
+        private long posicao;
+
+        SaidaContada(OutputStream destino) {
+            super(destino);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            posicao++;
+        }
+
+        @Override
+        public void write(byte[] b, int inicio, int quantidade) throws IOException {
+            out.write(b, inicio, quantidade);
+            posicao += quantidade;
+        }
+
+        long getPosicao() {
+            return posicao;
+        }
+    }
+}
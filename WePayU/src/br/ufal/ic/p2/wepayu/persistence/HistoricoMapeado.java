@@ -0,0 +1,97 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.models.CarregadorHistorico;
+import java.io.*;
+import java.util.ArrayList;
+
+/**
+ * Histórico de lançamentos ainda codificado dentro de um snapshot mapeado em memória.
+ *
+ * <p>Guarda apenas a posição e o tamanho do histórico no arquivo. A decodificação
+ * acontece no primeiro acesso à lista pelo modelo. Enquanto não for decodificado,
+ * o histórico pode ser copiado byte a byte para um novo snapshot, desde que
+ * esteja codificado no formato atual.</p>
+ *
+ * @param <T> Tipo do lançamento
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+final class HistoricoMapeado<T> implements CarregadorHistorico<T> {
+
+    /**
+     * Decodificador de um lançamento do histórico.
+     */
+    @FunctionalInterface
+    interface Decodificador<T> {
+        T ler(DataInputStream entrada) throws IOException;
+    }
+
+    private final ArquivoMapeado arquivo;
+    private final long posicao;
+    private final int tamanho;
+    private final int quantidade;
+    private final Decodificador<T> decodificador;
+    private final boolean formatoAtual;
+
+    HistoricoMapeado(ArquivoMapeado arquivo, long posicao, int tamanho, int quantidade,
+                     Decodificador<T> decodificador, boolean formatoAtual) {
+        this.arquivo = arquivo;
+        this.posicao = posicao;
+        this.tamanho = tamanho;
+        this.quantidade = quantidade;
+        this.decodificador = decodificador;
+        this.formatoAtual = formatoAtual;
+    }
+
+    @Override
+    public ArrayList<T> carregar() {
+        ArrayList<T> itens = new ArrayList<>(quantidade);
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(arquivo.abrir(posicao), Math.max(1, Math.min(tamanho, 1 << 16))))) {
+            for (int i = 0; i < quantidade; i++) {
+                itens.add(decodificador.ler(entrada));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao carregar historico do snapshot", e);
+        }
+        return itens;
+    }
+
+    /**
+     * Copia o histórico codificado, sem decodificá-lo.
+     *
+     * @param saida Destino dos bytes
+     * @throws IOException Se ocorrer erro de leitura ou escrita
+     */
+    void copiarPara(OutputStream saida) throws IOException {
+        try (InputStream entrada = arquivo.abrir(posicao)) {
+            byte[] buffer = new byte[Math.max(1, Math.min(tamanho, 1 << 16))];
+            int restante = tamanho;
+            while (restante > 0) {
+                int lidos = entrada.read(buffer, 0, Math.min(buffer.length, restante));
+                if (lidos < 0) {
+                    throw new EOFException("Historico truncado no snapshot");
+                }
+                saida.write(buffer, 0, lidos);
+                restante -= lidos;
+            }
+        }
+    }
+
+    /**
+     * Indica se o histórico pode ser copiado sem decodificação para um snapshot
+     * da versão atual.
+     */
+    boolean isFormatoAtual() {
+        return formatoAtual;
+    }
+
+    int getTamanho() {
+        return tamanho;
+    }
+
+    int getQuantidade() {
+        return quantidade;
+    }
+}
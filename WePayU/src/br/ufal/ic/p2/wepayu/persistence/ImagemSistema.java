@@ -0,0 +1,152 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estado do sistema WePayU a ser gravado em um snapshot.
+ *
+ * <p>Pode referenciar diretamente os mapas do sistema, quando o snapshot é gravado
+ * na própria thread dos comandos, ou ser uma cópia capturada para gravação em
+ * segundo plano. A cópia duplica apenas os empregados e os membros do
+ * sindicato, que os comandos alteram no lugar. As listas (ou colunas) dos
+ * históricos são compartilhadas com o sistema em cópia na escrita: o primeiro
+ * lançamento ou remoção posterior duplica somente a lista do empregado
+ * alterado, então a captura não percorre os históricos. Os lançamentos,
+ * agendas e métodos de pagamento não são alterados depois de criados e são
+ * compartilhados, assim como os históricos ainda não carregados.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class ImagemSistema {
+    private final Map<String, Empregado> empregados;
+    private final Map<String, MembroSindicato> membrosSindicato;
+    private final Set<String> agendas;
+    private final int id;
+    private final long sequencia;
+
+    private ImagemSistema(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                          Set<String> agendas, int id, long sequencia) {
+        this.empregados = empregados;
+        this.membrosSindicato = membrosSindicato;
+        this.agendas = agendas;
+        this.id = id;
+        this.sequencia = sequencia;
+    }
+
+    /**
+     * Cria uma imagem que referencia os mapas do sistema, sem cópia. Só pode ser
+     * gravada enquanto nenhum comando for executado.
+     *
+     * @param empregados Mapa de empregados
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no estado
+     * @return Imagem do estado atual
+     */
+    public static ImagemSistema atual(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                                      Set<String> agendas, int id, long sequencia) {
+        return new ImagemSistema(empregados, membrosSindicato, agendas, id, sequencia);
+    }
+
+    /**
+     * Captura uma cópia consistente do estado, que pode ser gravada em outra thread
+     * enquanto os comandos seguintes alteram os mapas do sistema.
+     *
+     * <p>Os empregados que referenciam um membro do mapa do sindicato passam a
+     * referenciar a cópia desse mesmo membro.</p>
+     *
+     * @param empregados Mapa de empregados
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param agendas Descrições das agendas customizadas
+     * @param id Contador de IDs de empregados
+     * @param sequencia Última sequência do journal contida no estado
+     * @return Cópia do estado
+     */
+    public static ImagemSistema capturar(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                                         Collection<String> agendas, int id, long sequencia) {
+        Map<MembroSindicato, MembroSindicato> copiasMembros = new IdentityHashMap<>();
+        Map<String, MembroSindicato> membros = new HashMap<>();
+        for (Map.Entry<String, MembroSindicato> entrada : membrosSindicato.entrySet()) {
+            membros.put(entrada.getKey(), copiasMembros.computeIfAbsent(entrada.getValue(), ImagemSistema::copiar));
+        }
+
+        Map<String, Empregado> copiasEmpregados = new HashMap<>();
+        for (Map.Entry<String, Empregado> entrada : empregados.entrySet()) {
+            copiasEmpregados.put(entrada.getKey(), copiar(entrada.getValue(), copiasMembros));
+        }
+        // Mapas do mesmo tipo dos mapas do sistema: o snapshot XML grava a classe do mapa
+        return new ImagemSistema(copiasEmpregados, membros, Collections.unmodifiableSet(new HashSet<>(agendas)), id, sequencia);
+    }
+
+    private static MembroSindicato copiar(MembroSindicato membro) {
+        MembroSindicato copia = new MembroSindicato();
+        copia.setIdMembro(membro.getIdMembro());
+        copia.setTaxaSindical(membro.getTaxaSindical());
+        copia.setDividaSindical(membro.getDividaSindical());
+        copia.copiarTaxas(membro);
+        return copia;
+    }
+
+    private static Empregado copiar(Empregado empregado, Map<MembroSindicato, MembroSindicato> copiasMembros) {
+        Empregado copia;
+        if (empregado instanceof EmpregadoHorista) {
+            EmpregadoHorista horista = (EmpregadoHorista) empregado;
+            EmpregadoHorista copiaHorista = new EmpregadoHorista();
+            copiaHorista.setSalarioPorHora(horista.getSalarioPorHora());
+            copiaHorista.copiarCartoes(horista);
+            copia = copiaHorista;
+        } else if (empregado instanceof EmpregadoComissionado) {
+            EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
+            EmpregadoComissionado copiaComissionado = new EmpregadoComissionado();
+            copiaComissionado.setSalarioMensal(comissionado.getSalarioMensal());
+            copiaComissionado.setTaxaDeComissao(comissionado.getTaxaDeComissao());
+            copiaComissionado.copiarVendas(comissionado);
+            copia = copiaComissionado;
+        } else {
+            EmpregadoAssalariado copiaAssalariado = new EmpregadoAssalariado();
+            copiaAssalariado.setSalarioMensal(((EmpregadoAssalariado) empregado).getSalarioMensal());
+            copia = copiaAssalariado;
+        }
+
+        copia.setId(empregado.getId());
+        copia.setNome(empregado.getNome());
+        copia.setEndereco(empregado.getEndereco());
+        copia.setAgendaPagamento(empregado.getAgendaPagamento());
+        copia.setMetodoPagamento(empregado.getMetodoPagamento());
+        MembroSindicato sindicato = empregado.getSindicato();
+        if (sindicato != null) {
+            copia.setSindicato(copiasMembros.computeIfAbsent(sindicato, ImagemSistema::copiar));
+        }
+        return copia;
+    }
+
+    public Map<String, Empregado> getEmpregados() {
+        return empregados;
+    }
+
+    public Map<String, MembroSindicato> getMembrosSindicato() {
+        return membrosSindicato;
+    }
+
+    public Set<String> getAgendas() {
+        return agendas;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+}
@@ -0,0 +1,479 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.Exception.ErroReproducaoJournalException;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Journal de operações (write-ahead log) do sistema WePayU.
+ *
+ * <p>Cada operação que altera o estado do sistema é gravada como um registro
+ * independente ao final do arquivo, em vez de reescrever todo o banco de dados.
+ * Na inicialização, os registros gravados após o último snapshot são reaplicados
+ * sobre ele.</p>
+ *
+ * <p>Formato de cada registro:</p>
+ * <ul>
+ *   <li><strong>int:</strong> tamanho do conteúdo em bytes</li>
+ *   <li><strong>int:</strong> CRC32 do conteúdo</li>
+ *   <li><strong>conteúdo:</strong> sequência (long), quantidade de campos (int)
+ *       e os campos em UTF-8, cada um precedido do seu tamanho (-1 para nulo)</li>
+ * </ul>
+ *
+ * <p>Um registro incompleto ou corrompido ao final do arquivo (queda durante a
+ * escrita) é descartado na leitura e o arquivo é truncado no último registro válido.</p>
+ *
+ * <p>O journal é dividido em segmentos. Os registros novos são gravados no
+ * segmento ativo (o próprio arquivo); {@link #rotacionar()} fecha o segmento
+ * ativo, renomeando-o com a sequência do seu último registro, e os registros
+ * seguintes vão para um novo arquivo. Depois que um snapshot é gravado,
+ * {@link #descartarAte(long)} apaga os segmentos fechados contidos nele, sem
+ * reescrever nenhum registro. A reprodução lê os segmentos fechados em ordem
+ * de sequência e, por último, o segmento ativo.</p>
+ *
+ * <p>Registros gravados sem sincronização só se tornam duráveis na próxima chamada a
+ * {@link #sincronizarAte(long)}. Chamadas concorrentes compartilham a mesma gravação
+ * em disco (group commit): enquanto uma thread força a gravação, as demais aguardam
+ * e retornam sem nova gravação se a sua sequência já tiver sido coberta.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class JournalOperacoes implements Closeable {
+    private static final int TAMANHO_CABECALHO = 8;
+    private static final int TAMANHO_MAXIMO_REGISTRO = 16 * 1024 * 1024;
+
+    private final Path arquivo;
+    private final NavigableMap<Long, Integer> segmentosFechados = new TreeMap<>(); // última sequência -> registros
+    private FileChannel canal;
+    private long ultimaSequencia;
+    private long sequenciaDuravel;
+    private int registrosPendentes;
+    private boolean sincronizando;
+
+    /**
+     * Construtor do journal.
+     *
+     * @param arquivo Caminho do arquivo de journal
+     */
+    public JournalOperacoes(String arquivo) {
+        this.arquivo = Paths.get(arquivo);
+    }
+
+    /**
+     * Grava um registro ao final do journal.
+     *
+     * @param sincronizar Se true, força a gravação em disco (fsync) antes de retornar
+     * @param campos Nome da operação seguido dos seus argumentos
+     * @return Número de sequência atribuído ao registro
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public synchronized long registrar(boolean sincronizar, String... campos) throws IOException {
+        long sequencia = ultimaSequencia + 1;
+        byte[] conteudo = codificar(sequencia, campos);
+
+        CRC32 crc = new CRC32();
+        crc.update(conteudo);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO + conteudo.length);
+        buffer.putInt(conteudo.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(conteudo);
+        buffer.flip();
+
+        FileChannel destino = abrirCanal();
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+        ultimaSequencia = sequencia;
+        registrosPendentes++;
+        if (sincronizar) {
+            sincronizarAte(sequencia);
+        }
+        return sequencia;
+    }
+
+    /**
+     * Força a gravação em disco de todos os registros já escritos.
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void sincronizar() throws IOException {
+        sincronizarAte(getUltimaSequencia());
+    }
+
+    /**
+     * Garante que os registros até a sequência informada estejam gravados em disco.
+     *
+     * <p>Se outra thread já estiver forçando a gravação, aguarda o término dela e só
+     * força uma nova gravação se a sequência ainda não tiver sido coberta. Cada
+     * gravação cobre todos os registros escritos até o seu início.</p>
+     *
+     * @param sequencia Sequência que deve se tornar durável
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void sincronizarAte(long sequencia) throws IOException {
+        FileChannel destino;
+        long alvo;
+        synchronized (this) {
+            while (sincronizando && sequenciaDuravel < sequencia) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Sincronizacao do journal interrompida");
+                }
+            }
+            if (sequenciaDuravel >= sequencia) {
+                return;
+            }
+            if (canal == null) {
+                // Registros reaplicados ou já fechados: não há escrita pendente neste processo
+                sequenciaDuravel = ultimaSequencia;
+                return;
+            }
+            sincronizando = true;
+            destino = canal;
+            alvo = ultimaSequencia;
+        }
+
+        boolean sucesso = false;
+        try {
+            destino.force(false);
+            sucesso = true;
+        } finally {
+            synchronized (this) {
+                sincronizando = false;
+                if (sucesso) {
+                    sequenciaDuravel = Math.max(sequenciaDuravel, alvo);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Reaplica os registros do journal posteriores a uma sequência.
+     *
+     * <p>Os segmentos fechados são lidos em ordem de sequência, seguidos do
+     * segmento ativo. Registros com sequência menor ou igual a {@code aPartirDe}
+     * já estão contidos no snapshot e são ignorados. Somente operações
+     * bem-sucedidas são registradas, então uma falha ao reaplicar um registro
+     * interrompe a reprodução: continuar aplicaria os registros seguintes sobre
+     * um estado diferente do original. O registro que falhou e os seguintes
+     * permanecem nos arquivos. Um registro incompleto ou corrompido ao final de
+     * um segmento não é uma falha: ele e o que vier depois no segmento são
+     * descartados.</p>
+     *
+     * @param aPartirDe Última sequência contida no snapshot
+     * @param reprodutor Responsável por reaplicar cada operação
+     * @return Quantidade de registros reaplicados
+     * @throws ErroReproducaoJournalException Se o journal não puder ser lido ou
+     *         truncado, ou se um registro não puder ser reaplicado (a mensagem
+     *         informa a sequência do registro)
+     */
+    public synchronized int reproduzir(long aPartirDe, ReprodutorOperacao reprodutor) {
+        ultimaSequencia = Math.max(ultimaSequencia, aPartirDe);
+        segmentosFechados.clear();
+        int reaplicados = 0;
+        try {
+            for (long ultimaDoSegmento : listarSegmentosFechados()) {
+                int registrosAntes = registrosPendentes;
+                reaplicados += reproduzirArquivo(segmento(ultimaDoSegmento), aPartirDe, reprodutor);
+                segmentosFechados.put(ultimaDoSegmento, registrosPendentes - registrosAntes);
+            }
+            if (Files.exists(arquivo)) {
+                reaplicados += reproduzirArquivo(arquivo, aPartirDe, reprodutor);
+            }
+        } catch (IOException e) {
+            throw new ErroReproducaoJournalException("Erro ao ler journal: " + e.getMessage(), e);
+        }
+
+        sequenciaDuravel = ultimaSequencia;
+        return reaplicados;
+    }
+
+    private int reproduzirArquivo(Path origem, long aPartirDe, ReprodutorOperacao reprodutor) throws IOException {
+        int reaplicados = 0;
+        long posicaoValida = 0;
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(origem)))) {
+            byte[] conteudo;
+            while ((conteudo = lerRegistro(entrada)) != null) {
+                posicaoValida += TAMANHO_CABECALHO + conteudo.length;
+
+                DataInputStream registro = new DataInputStream(new ByteArrayInputStream(conteudo));
+                long sequencia = registro.readLong();
+                String[] campos = decodificarCampos(registro);
+                registrosPendentes++;
+                if (sequencia <= aPartirDe) {
+                    continue;
+                }
+                try {
+                    reprodutor.reaplicar(campos);
+                } catch (Exception e) {
+                    throw new ErroReproducaoJournalException("Erro ao reaplicar a operacao " + campos[0]
+                            + " de sequencia " + sequencia + " do journal: " + e.getMessage(), e);
+                }
+                ultimaSequencia = Math.max(ultimaSequencia, sequencia);
+                reaplicados++;
+            }
+        }
+
+        try {
+            descartarFinalInvalido(origem, posicaoValida);
+        } catch (IOException e) {
+            throw new ErroReproducaoJournalException("Erro ao truncar journal: " + e.getMessage(), e);
+        }
+        return reaplicados;
+    }
+
+    /**
+     * Descarta todos os registros do journal: apaga os segmentos fechados e
+     * esvazia o segmento ativo.
+     *
+     * <p>Deve ser chamado somente depois que um snapshot contendo todas as
+     * operações registradas tiver sido gravado com sucesso.</p>
+     *
+     * @throws IOException Se ocorrer erro ao truncar o arquivo
+     */
+    public synchronized void truncar() throws IOException {
+        for (long ultimaDoSegmento : segmentosFechados.keySet()) {
+            Files.deleteIfExists(segmento(ultimaDoSegmento));
+        }
+        segmentosFechados.clear();
+        abrirCanal().truncate(0);
+        canal.force(true);
+        registrosPendentes = 0;
+        sequenciaDuravel = ultimaSequencia;
+    }
+
+    /**
+     * Fecha o segmento ativo: os registros gravados até aqui passam a um
+     * segmento fechado, nomeado com a sequência do último registro, e os
+     * próximos registros são gravados em um novo arquivo.
+     *
+     * <p>Usado ao capturar o estado para um snapshot gravado em segundo plano:
+     * o segmento fechado contém exatamente os registros da captura e é apagado
+     * por {@link #descartarAte(long)} quando o snapshot terminar. Os registros
+     * ainda não gravados em disco são sincronizados antes de fechar o segmento;
+     * nenhum registro é copiado.</p>
+     *
+     * @return Última sequência contida nos segmentos fechados
+     * @throws IOException Se ocorrer erro ao sincronizar ou renomear o arquivo
+     */
+    public synchronized long rotacionar() throws IOException {
+        // A gravação em andamento usa o canal que será fechado
+        while (sincronizando) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Rotacao do journal interrompida");
+            }
+        }
+        if (canal != null) {
+            if (sequenciaDuravel < ultimaSequencia) {
+                canal.force(false);
+                sequenciaDuravel = ultimaSequencia;
+            }
+            canal.close();
+            canal = null;
+        }
+        int registrosAtivos = registrosPendentes - registrosEmSegmentosFechados();
+        if (registrosAtivos == 0 || !Files.exists(arquivo) || segmentosFechados.containsKey(ultimaSequencia)) {
+            return ultimaSequencia;
+        }
+        try {
+            Files.move(arquivo, segmento(ultimaSequencia), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(arquivo, segmento(ultimaSequencia));
+        }
+        segmentosFechados.put(ultimaSequencia, registrosAtivos);
+        return ultimaSequencia;
+    }
+
+    /**
+     * Apaga os segmentos fechados cujos registros têm sequência menor ou igual
+     * à informada, mantendo os posteriores e o segmento ativo.
+     *
+     * <p>Usado quando o snapshot é gravado em segundo plano: os registros gravados
+     * depois da captura do estado estão em segmentos posteriores e permanecem no
+     * journal. Os arquivos são apagados fora do monitor do journal, então novos
+     * registros não aguardam. Uma queda antes de apagá-los apenas deixa
+     * registros que a reprodução ignora por já estarem no snapshot.</p>
+     *
+     * @param sequencia Última sequência contida no snapshot gravado
+     * @throws IOException Se ocorrer erro ao apagar um segmento
+     */
+    public void descartarAte(long sequencia) throws IOException {
+        List<Path> descartados = new ArrayList<>();
+        synchronized (this) {
+            Map<Long, Integer> contidos = segmentosFechados.headMap(sequencia, true);
+            for (Map.Entry<Long, Integer> segmento : contidos.entrySet()) {
+                descartados.add(segmento(segmento.getKey()));
+                registrosPendentes -= segmento.getValue();
+            }
+            contidos.clear();
+        }
+        for (Path segmento : descartados) {
+            Files.deleteIfExists(segmento);
+        }
+    }
+
+    /**
+     * Obtém a sequência do último registro gravado ou reaplicado.
+     *
+     * @return Última sequência conhecida
+     */
+    public synchronized long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    /**
+     * Obtém a sequência do último registro gravado em disco (ponto de durabilidade).
+     *
+     * @return Última sequência durável
+     */
+    public synchronized long getSequenciaDuravel() {
+        return sequenciaDuravel;
+    }
+
+    /**
+     * Obtém a quantidade de registros acumulados desde o último truncamento,
+     * somando os segmentos fechados ainda não descartados e o segmento ativo.
+     *
+     * @return Quantidade de registros no journal
+     */
+    public synchronized int getRegistrosPendentes() {
+        return registrosPendentes;
+    }
+
+    /**
+     * Grava em disco os registros pendentes e fecha o arquivo de journal.
+     * Uma nova escrita reabre o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        sincronizar();
+        synchronized (this) {
+            if (canal != null) {
+                canal.close();
+                canal = null;
+            }
+        }
+    }
+
+    private FileChannel abrirCanal() throws IOException {
+        if (canal == null || !canal.isOpen()) {
+            canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return canal;
+    }
+
+    /**
+     * Lê o próximo registro válido.
+     *
+     * @return Conteúdo do registro, ou null ao final do arquivo ou em um registro
+     *         incompleto ou corrompido
+     */
+    private static byte[] lerRegistro(DataInputStream entrada) throws IOException {
+        int tamanho;
+        try {
+            tamanho = entrada.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (tamanho < 0 || tamanho > TAMANHO_MAXIMO_REGISTRO) {
+            return null;
+        }
+        int crcEsperado;
+        byte[] conteudo = new byte[tamanho];
+        try {
+            crcEsperado = entrada.readInt();
+            entrada.readFully(conteudo);
+        } catch (EOFException e) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(conteudo);
+        return (int) crc.getValue() == crcEsperado ? conteudo : null;
+    }
+
+    private Path segmento(long ultimaSequencia) {
+        return arquivo.resolveSibling(arquivo.getFileName() + "." + ultimaSequencia);
+    }
+
+    // Últimas sequências dos segmentos fechados presentes no diretório, em ordem
+    private List<Long> listarSegmentosFechados() throws IOException {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        String prefixo = arquivo.getFileName() + ".";
+        List<Long> segmentos = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, prefixo + "*")) {
+            for (Path candidato : arquivos) {
+                String sufixo = candidato.getFileName().toString().substring(prefixo.length());
+                if (!sufixo.isEmpty() && sufixo.chars().allMatch(Character::isDigit)) {
+                    segmentos.add(Long.parseLong(sufixo));
+                }
+            }
+        }
+        segmentos.sort(null);
+        return segmentos;
+    }
+
+    private int registrosEmSegmentosFechados() {
+        int registros = 0;
+        for (int quantidade : segmentosFechados.values()) {
+            registros += quantidade;
+        }
+        return registros;
+    }
+
+    // Novos registros seriam gravados após o final inválido e não seriam lidos na próxima reprodução
+    private static void descartarFinalInvalido(Path origem, long posicaoValida) throws IOException {
+        if (Files.size(origem) > posicaoValida) {
+            try (FileChannel truncador = FileChannel.open(origem, StandardOpenOption.WRITE)) {
+                truncador.truncate(posicaoValida);
+            }
+        }
+    }
+
+    private static byte[] codificar(long sequencia, String[] campos) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream saida = new DataOutputStream(bytes);
+        saida.writeLong(sequencia);
+        saida.writeInt(campos.length);
+        for (String campo : campos) {
+            if (campo == null) {
+                saida.writeInt(-1);
+            } else {
+                byte[] utf8 = campo.getBytes(StandardCharsets.UTF_8);
+                saida.writeInt(utf8.length);
+                saida.write(utf8);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String[] decodificarCampos(DataInputStream registro) throws IOException {
+        String[] campos = new String[registro.readInt()];
+        for (int i = 0; i < campos.length; i++) {
+            int tamanho = registro.readInt();
+            if (tamanho >= 0) {
+                byte[] utf8 = new byte[tamanho];
+                registro.readFully(utf8);
+                campos[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+        }
+        return campos;
+    }
+}
@@ -0,0 +1,677 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Leitor em fluxo (StAX) dos arquivos XML legados do sistema WePayU.
+ *
+ * <p>Lê {@code empregados.xml}, {@code sindicato.xml} e {@code agendas.xml} no
+ * formato gerado pelo {@link java.beans.XMLEncoder}, mas sem montar o mapa
+ * inteiro em memória: cada empregado ou membro do sindicato é decodificado,
+ * validado e inserido diretamente no mapa do sistema antes do próximo ser lido.
+ * A memória usada pela leitura não depende do tamanho do arquivo.</p>
+ *
+ * <p>Diferente do {@link java.beans.XMLDecoder}, apenas as classes do modelo e as
+ * propriedades que elas expõem são aceitas. Qualquer elemento inesperado, valor
+ * numérico inválido ou entidade incompleta interrompe a leitura com a linha do
+ * erro; as entradas já inseridas a partir do arquivo são então removidas, de modo
+ * que um arquivo inválido não é carregado pela metade.</p>
+ *
+ * <p>Referências ({@code idref}) só são resolvidas para membros do sindicato,
+ * métodos de pagamento e agendas, os únicos objetos compartilhados pelo modelo,
+ * e para os históricos gravados antes de atribuídos.
+ * Apenas os membros do sindicato continuam referenciáveis entre entradas do mapa,
+ * além dos valores iguais ao padrão que o XMLEncoder nomeia sem gravar
+ * ({@code <void id="Integer0" property="dia"/>}) e pode referenciar depois,
+ * por exemplo no contador de IDs ao final do arquivo.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class LeitorXmlLegado {
+    private static final String PACOTE_MODELOS = "br.ufal.ic.p2.wepayu.models.";
+
+    private static final XMLInputFactory FABRICA = criarFabrica();
+
+    private final XMLStreamReader xml;
+    private final Map<String, MembroSindicato> membrosReferenciados = new HashMap<>();
+    private final Map<String, Object> referenciasEntrada = new HashMap<>(); // descartadas a cada entrada do mapa
+    private final Map<String, Object> valoresOmitidos = new HashMap<>(); // valores iguais ao padrão, nomeados pelo XMLEncoder
+
+    private LeitorXmlLegado(XMLStreamReader xml) {
+        this.xml = xml;
+    }
+
+    private static XMLInputFactory criarFabrica() {
+        XMLInputFactory fabrica = XMLInputFactory.newInstance();
+        // Arquivos de dados: sem DTD nem entidades externas
+        fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        fabrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        fabrica.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return fabrica;
+    }
+
+    /**
+     * Lê os empregados de um arquivo {@code empregados.xml} para o mapa informado.
+     *
+     * @param arquivo Caminho do arquivo
+     * @param empregados Mapa que receberá os empregados, um a um
+     * @return Cabeçalho com o contador de IDs e a sequência do journal (0 em arquivos anteriores ao journal)
+     * @throws IOException Se o arquivo for inválido; nenhum empregado do arquivo permanece no mapa
+     */
+    public static CodecSnapshotBinario.Cabecalho lerEmpregados(Path arquivo, Map<String, Empregado> empregados) throws IOException {
+        int inseridos = 0;
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo))) {
+            LeitorXmlLegado leitor = new LeitorXmlLegado(FABRICA.createXMLStreamReader(entrada));
+            try {
+                leitor.abrirMapa();
+                while (leitor.proximaEntrada()) {
+                    String chave = leitor.lerTextoObrigatorio();
+                    Empregado empregado = leitor.lerEmpregado();
+                    if (!chave.equals(empregado.getId())) {
+                        throw leitor.erro("Empregado " + empregado.getId() + " gravado com a chave " + chave);
+                    }
+                    leitor.fecharEntrada();
+                    empregados.put(chave, empregado);
+                    inseridos++;
+                }
+
+                int id = leitor.proximoValor() ? ((Number) leitor.lerValor()).intValue() : 0;
+                long sequencia = leitor.proximoValor() ? ((Number) leitor.lerValor()).longValue() : 0L;
+                return new CodecSnapshotBinario.Cabecalho(id, sequencia);
+            } finally {
+                leitor.xml.close();
+            }
+        } catch (XMLStreamException | IOException | RuntimeException e) {
+            desfazer(arquivo, inseridos, empregados);
+            throw e instanceof IOException ? (IOException) e : new IOException(mensagem(e), e);
+        }
+    }
+
+    /**
+     * Lê os membros do sindicato de um arquivo {@code sindicato.xml} para o mapa informado.
+     *
+     * @param arquivo Caminho do arquivo
+     * @param membrosSindicato Mapa que receberá os membros, um a um
+     * @throws IOException Se o arquivo for inválido; nenhum membro do arquivo permanece no mapa
+     */
+    public static void lerMembros(Path arquivo, Map<String, MembroSindicato> membrosSindicato) throws IOException {
+        int inseridos = 0;
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo))) {
+            LeitorXmlLegado leitor = new LeitorXmlLegado(FABRICA.createXMLStreamReader(entrada));
+            try {
+                leitor.abrirMapa();
+                while (leitor.proximaEntrada()) {
+                    String chave = leitor.lerTextoObrigatorio();
+                    MembroSindicato membro = leitor.lerObjeto(MembroSindicato.class);
+                    leitor.validarMembro(membro);
+                    leitor.fecharEntrada();
+                    membrosSindicato.put(chave, membro);
+                    inseridos++;
+                }
+            } finally {
+                leitor.xml.close();
+            }
+        } catch (XMLStreamException | IOException | RuntimeException e) {
+            desfazer(arquivo, inseridos, membrosSindicato);
+            throw e instanceof IOException ? (IOException) e : new IOException(mensagem(e), e);
+        }
+    }
+
+    /**
+     * Lê as descrições das agendas customizadas de um arquivo {@code agendas.xml}.
+     *
+     * @param arquivo Caminho do arquivo
+     * @return Descrições na ordem do arquivo
+     * @throws IOException Se o arquivo for inválido
+     */
+    public static List<String> lerAgendas(Path arquivo) throws IOException {
+        List<String> agendas = new ArrayList<>();
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo))) {
+            LeitorXmlLegado leitor = new LeitorXmlLegado(FABRICA.createXMLStreamReader(entrada));
+            try {
+                leitor.abrirRaiz();
+                leitor.exigirInicio("object");
+                leitor.exigirClasse("java.util.HashSet", "java.util.LinkedHashSet", "java.util.TreeSet");
+                while (leitor.proximoFilho()) {
+                    leitor.exigirVoid("method", "add");
+                    agendas.add(leitor.lerTextoObrigatorio());
+                    leitor.fecharFilho();
+                }
+            } finally {
+                leitor.xml.close();
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            throw new IOException(mensagem(e), e);
+        }
+        return agendas;
+    }
+
+    // ========== ESTRUTURA DO ARQUIVO ==========
+
+    private void abrirRaiz() throws XMLStreamException {
+        exigirInicio("java");
+    }
+
+    private void abrirMapa() throws XMLStreamException {
+        abrirRaiz();
+        exigirInicio("object");
+        exigirClasse("java.util.HashMap", "java.util.LinkedHashMap", "java.util.TreeMap");
+    }
+
+    /**
+     * Avança para o próximo {@code <void method="put">} do mapa.
+     *
+     * @return false ao final do mapa
+     */
+    private boolean proximaEntrada() throws XMLStreamException {
+        if (!proximoFilho()) {
+            return false;
+        }
+        exigirVoid("method", "put");
+        referenciasEntrada.clear();
+        return true;
+    }
+
+    private void fecharEntrada() throws XMLStreamException {
+        fecharFilho();
+    }
+
+    /**
+     * Avança até o próximo elemento filho do elemento atual.
+     *
+     * @return true se encontrou um elemento filho; false se chegou ao fim do elemento atual
+     */
+    private boolean proximoFilho() throws XMLStreamException {
+        while (xml.hasNext()) {
+            int evento = xml.next();
+            if (evento == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (evento == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+            if (evento == XMLStreamConstants.CHARACTERS && !xml.isWhiteSpace()) {
+                throw erro("Texto inesperado: " + xml.getText().trim());
+            }
+        }
+        throw erro("Fim inesperado do arquivo");
+    }
+
+    /**
+     * Consome o fim do elemento atual, que não pode ter mais filhos.
+     */
+    private void fecharFilho() throws XMLStreamException {
+        if (proximoFilho()) {
+            throw erro("Elemento inesperado: <" + xml.getLocalName() + ">");
+        }
+    }
+
+    private boolean proximoValor() throws XMLStreamException {
+        return proximoFilho();
+    }
+
+    private void exigirInicio(String elemento) throws XMLStreamException {
+        if (!proximoFilho()) {
+            throw erro("Esperado <" + elemento + ">");
+        }
+        if (!elemento.equals(xml.getLocalName())) {
+            throw erro("Esperado <" + elemento + ">, encontrado <" + xml.getLocalName() + ">");
+        }
+    }
+
+    private void exigirClasse(String... classes) throws XMLStreamException {
+        String classe = xml.getAttributeValue(null, "class");
+        for (String aceita : classes) {
+            if (aceita.equals(classe)) {
+                return;
+            }
+        }
+        throw erro("Classe nao suportada: " + classe);
+    }
+
+    private void exigirVoid(String atributo, String valor) throws XMLStreamException {
+        if (!"void".equals(xml.getLocalName()) || !valor.equals(xml.getAttributeValue(null, atributo))) {
+            throw erro("Esperado <void " + atributo + "=\"" + valor + "\">");
+        }
+    }
+
+    // ========== VALORES ==========
+
+    /**
+     * Lê o elemento de valor atual ({@code string}, {@code int}, {@code double},
+     * {@code object}, {@code null} etc.) até o seu fim.
+     */
+    private Object lerValor() throws XMLStreamException {
+        String elemento = xml.getLocalName();
+        switch (elemento) {
+            case "null":
+                fecharFilho();
+                return null;
+            case "string":
+                return lerConteudoTexto();
+            case "int":
+            case "short":
+            case "byte":
+                return Integer.valueOf(lerNumero(elemento));
+            case "long":
+                return Long.valueOf(lerNumero(elemento));
+            case "double":
+            case "float":
+                return Double.valueOf(lerNumero(elemento));
+            case "boolean":
+                return Boolean.valueOf(lerConteudoTexto());
+            case "object":
+                return lerObjetoAtual();
+            default:
+                throw erro("Elemento inesperado: <" + elemento + ">");
+        }
+    }
+
+    private String lerNumero(String tipo) throws XMLStreamException {
+        String texto = lerConteudoTexto().trim();
+        try {
+            if ("double".equals(tipo) || "float".equals(tipo)) {
+                Double.parseDouble(texto);
+            } else {
+                Long.parseLong(texto);
+            }
+        } catch (NumberFormatException e) {
+            throw erro("Valor " + tipo + " invalido: " + texto);
+        }
+        return texto;
+    }
+
+    /**
+     * Lê o texto de um elemento {@code <string>}, incluindo os caracteres que o
+     * XMLEncoder grava como {@code <char code="#..."/>}.
+     */
+    private String lerConteudoTexto() throws XMLStreamException {
+        StringBuilder texto = new StringBuilder();
+        while (xml.hasNext()) {
+            int evento = xml.next();
+            if (evento == XMLStreamConstants.CHARACTERS || evento == XMLStreamConstants.CDATA) {
+                texto.append(xml.getText());
+            } else if (evento == XMLStreamConstants.START_ELEMENT && "char".equals(xml.getLocalName())) {
+                texto.append(lerCaractere());
+            } else if (evento == XMLStreamConstants.END_ELEMENT) {
+                return texto.toString();
+            } else if (evento == XMLStreamConstants.START_ELEMENT) {
+                throw erro("Elemento inesperado em texto: <" + xml.getLocalName() + ">");
+            }
+        }
+        throw erro("Fim inesperado do arquivo");
+    }
+
+    private char lerCaractere() throws XMLStreamException {
+        String codigo = xml.getAttributeValue(null, "code");
+        char caractere;
+        try {
+            caractere = codigo != null && codigo.startsWith("#")
+                    ? (char) Integer.parseInt(codigo.substring(1), 16)
+                    : lerConteudoTexto().charAt(0);
+        } catch (RuntimeException e) {
+            throw erro("Caractere invalido: " + codigo);
+        }
+        if (codigo != null) {
+            fecharFilho();
+        }
+        return caractere;
+    }
+
+    private String lerTextoObrigatorio() throws XMLStreamException {
+        if (!proximoFilho()) {
+            throw erro("Valor ausente");
+        }
+        Object valor = lerValor();
+        if (!(valor instanceof String)) {
+            throw erro("Esperado texto");
+        }
+        return (String) valor;
+    }
+
+    // ========== OBJETOS DO MODELO ==========
+
+    @SuppressWarnings("unchecked")
+    private <T> T lerObjeto(Class<T> tipo) throws XMLStreamException {
+        if (!proximoFilho()) {
+            throw erro("Valor ausente");
+        }
+        Object objeto = lerValor();
+        if (!tipo.isInstance(objeto)) {
+            throw erro("Esperado " + tipo.getSimpleName());
+        }
+        return (T) objeto;
+    }
+
+    private Empregado lerEmpregado() throws XMLStreamException {
+        Empregado empregado = lerObjeto(Empregado.class);
+        if (empregado.getId() == null || empregado.getId().isBlank()) {
+            throw erro("Empregado sem id");
+        }
+        if (empregado.getNome() == null || empregado.getEndereco() == null) {
+            throw erro("Empregado " + empregado.getId() + " sem nome ou endereco");
+        }
+        if (empregado.getAgendaPagamento() != null
+                && !AgendaPagamento.isAgendaValida(empregado.getAgendaPagamento().getAgenda())) {
+            throw erro("Agenda de pagamento desconhecida: " + empregado.getAgendaPagamento().getAgenda());
+        }
+        if (empregado.getSindicato() != null) {
+            validarMembro(empregado.getSindicato());
+        }
+        return empregado;
+    }
+
+    private void validarMembro(MembroSindicato membro) throws XMLStreamException {
+        if (membro.getIdMembro() == null || membro.getIdMembro().isBlank()) {
+            throw erro("Membro do sindicato sem identificacao");
+        }
+    }
+
+    /**
+     * Lê um {@code <object>} do modelo, aplicando cada {@code <void property>} ao
+     * objeto recém-criado, como o XMLDecoder faria.
+     */
+    private Object lerObjetoAtual() throws XMLStreamException {
+        String idref = xml.getAttributeValue(null, "idref");
+        if (idref != null) {
+            Object referenciado = membrosReferenciados.containsKey(idref)
+                    ? membrosReferenciados.get(idref) : referenciasEntrada.get(idref);
+            if (referenciado == null) {
+                referenciado = valoresOmitidos.get(idref);
+            }
+            if (referenciado == null) {
+                throw erro("Referencia desconhecida: " + idref);
+            }
+            fecharFilho();
+            return referenciado;
+        }
+
+        String classe = xml.getAttributeValue(null, "class");
+        String id = xml.getAttributeValue(null, "id");
+        Object objeto = instanciar(classe);
+        if (id != null && objeto instanceof MembroSindicato) {
+            membrosReferenciados.put(id, (MembroSindicato) objeto);
+        } else if (id != null && (objeto instanceof MetodoPagamento || objeto instanceof AgendaPagamento)) {
+            referenciasEntrada.put(id, objeto);
+        }
+
+        while (proximoFilho()) {
+            if (!"void".equals(xml.getLocalName()) || xml.getAttributeValue(null, "property") == null) {
+                throw erro("Esperado <void property> em " + classe);
+            }
+            aplicarPropriedade(objeto, xml.getAttributeValue(null, "property"));
+        }
+        return objeto;
+    }
+
+    private Object instanciar(String classe) throws XMLStreamException {
+        if (classe == null || !classe.startsWith(PACOTE_MODELOS)) {
+            throw erro("Classe nao suportada: " + classe);
+        }
+        switch (classe.substring(PACOTE_MODELOS.length())) {
+            case "EmpregadoHorista": return new EmpregadoHorista();
+            case "EmpregadoAssalariado": return new EmpregadoAssalariado();
+            case "EmpregadoComissionado": return new EmpregadoComissionado();
+            case "MembroSindicato": return new MembroSindicato();
+            case "CartaoDePonto": return new CartaoDePonto();
+            case "ResultadoDeVenda": return new ResultadoDeVenda();
+            case "TaxaServico": return new TaxaServico();
+            case "AgendaPagamento": return new AgendaPagamento();
+            case "Banco": return new Banco();
+            case "Correios": return new Correios();
+            case "EmMaos": return new EmMaos();
+            default: throw erro("Classe nao suportada: " + classe);
+        }
+    }
+
+    /**
+     * Aplica o conteúdo de um {@code <void property="...">} ao objeto.
+     */
+    private void aplicarPropriedade(Object objeto, String propriedade) throws XMLStreamException {
+        if (objeto instanceof EmpregadoHorista && "cartoes".equals(propriedade)) {
+            // arquivos antigos estão na ordem de lançamento; setCartoes ordena
+            ((EmpregadoHorista) objeto).setCartoes(lerItens(CartaoDePonto.class));
+            return;
+        }
+        if (objeto instanceof EmpregadoComissionado && "resultadoDeVenda".equals(propriedade)) {
+            ((EmpregadoComissionado) objeto).setResultadoDeVenda(lerItens(ResultadoDeVenda.class));
+            return;
+        }
+        if (objeto instanceof MembroSindicato && "taxasDeServicos".equals(propriedade)) {
+            ((MembroSindicato) objeto).setTaxasDeServicos(lerItens(TaxaServico.class));
+            return;
+        }
+
+        String id = xml.getAttributeValue(null, "id");
+        if (!proximoFilho()) {
+            // o XMLEncoder omite o valor igual ao padrão, mas ainda o nomeia quando
+            // ele é referenciado mais adiante (ex.: dia 0 e o contador de IDs 0)
+            if (id == null) {
+                throw erro("Valor ausente para " + propriedade);
+            }
+            valoresOmitidos.put(id, valorAtual(objeto, propriedade));
+            return;
+        }
+        Object valor = lerValor();
+        fecharFilho();
+
+        try {
+            if (objeto instanceof Empregado && aplicarEmpregado((Empregado) objeto, propriedade, valor)) {
+                return;
+            }
+            if (objeto instanceof MembroSindicato && aplicarMembro((MembroSindicato) objeto, propriedade, valor)) {
+                return;
+            }
+            if (objeto instanceof CartaoDePonto) {
+                CartaoDePonto cartao = (CartaoDePonto) objeto;
+                if ("dia".equals(propriedade) || "data".equals(propriedade)) { cartao.setDia(valorDia(valor)); return; }
+                if ("horas".equals(propriedade)) { cartao.setHoras(valorDecimal(valor)); return; }
+            }
+            if (objeto instanceof ResultadoDeVenda) {
+                ResultadoDeVenda venda = (ResultadoDeVenda) objeto;
+                if ("dia".equals(propriedade) || "data".equals(propriedade)) { venda.setDia(valorDia(valor)); return; }
+                if ("valor".equals(propriedade)) { venda.setValor(valorDecimal(valor)); return; }
+            }
+            if (objeto instanceof TaxaServico) {
+                TaxaServico taxa = (TaxaServico) objeto;
+                if ("dia".equals(propriedade) || "data".equals(propriedade)) { taxa.setDia(valorDia(valor)); return; }
+                if ("valor".equals(propriedade)) { taxa.setValor(valorDecimal(valor)); return; }
+            }
+            if (objeto instanceof AgendaPagamento && "agenda".equals(propriedade)) {
+                ((AgendaPagamento) objeto).setAgenda((String) valor);
+                return;
+            }
+            if (objeto instanceof Banco) {
+                Banco banco = (Banco) objeto;
+                if ("banco".equals(propriedade)) { banco.setBanco((String) valor); return; }
+                if ("agencia".equals(propriedade)) { banco.setAgencia((String) valor); return; }
+                if ("contaCorrente".equals(propriedade)) { banco.setContaCorrente((String) valor); return; }
+            }
+        } catch (ClassCastException e) {
+            throw erro("Valor de tipo invalido para " + propriedade);
+        }
+        throw erro("Propriedade desconhecida: " + objeto.getClass().getSimpleName() + "." + propriedade);
+    }
+
+    /**
+     * Valor padrão de uma propriedade que o XMLEncoder gravou sem conteúdo.
+     */
+    private Object valorAtual(Object objeto, String propriedade) throws XMLStreamException {
+        if ("dia".equals(propriedade) || "data".equals(propriedade)) {
+            if (objeto instanceof CartaoDePonto) return ((CartaoDePonto) objeto).getDia();
+            if (objeto instanceof ResultadoDeVenda) return ((ResultadoDeVenda) objeto).getDia();
+            if (objeto instanceof TaxaServico) return ((TaxaServico) objeto).getDia();
+        }
+        throw erro("Valor ausente para " + propriedade);
+    }
+
+    private boolean aplicarEmpregado(Empregado empregado, String propriedade, Object valor) throws XMLStreamException {
+        switch (propriedade) {
+            case "id": empregado.setId((String) valor); return true;
+            case "nome": empregado.setNome((String) valor); return true;
+            case "endereco": empregado.setEndereco((String) valor); return true;
+            case "sindicato": empregado.setSindicato((MembroSindicato) valor); return true;
+            case "metodoPagamento": empregado.setMetodoPagamento((MetodoPagamento) valor); return true;
+            case "agendaPagamento": empregado.setAgendaPagamento((AgendaPagamento) valor); return true;
+            default: break;
+        }
+        if (empregado instanceof EmpregadoHorista && "salarioPorHora".equals(propriedade)) {
+            ((EmpregadoHorista) empregado).setSalarioPorHora(valorNaoNegativo(valor, propriedade));
+            return true;
+        }
+        if (empregado instanceof EmpregadoAssalariado && "salarioMensal".equals(propriedade)) {
+            ((EmpregadoAssalariado) empregado).setSalarioMensal(valorNaoNegativo(valor, propriedade));
+            return true;
+        }
+        if (empregado instanceof EmpregadoComissionado) {
+            EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
+            if ("salarioMensal".equals(propriedade)) {
+                comissionado.setSalarioMensal(valorNaoNegativo(valor, propriedade));
+                return true;
+            }
+            if ("taxaDeComissao".equals(propriedade)) {
+                comissionado.setTaxaDeComissao(valorNaoNegativo(valor, propriedade));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean aplicarMembro(MembroSindicato membro, String propriedade, Object valor) throws XMLStreamException {
+        switch (propriedade) {
+            case "idMembro": membro.setIdMembro((String) valor); return true;
+            case "taxaSindical": membro.setTaxaSindical(valorNaoNegativo(valor, propriedade)); return true;
+            case "dividaSindical": membro.setDividaSindical(valorDecimal(valor)); return true;
+            default: return false;
+        }
+    }
+
+    /**
+     * Lê os {@code <void method="add">} de uma propriedade do tipo lista.
+     * 
+     * <p>Quando o getter devolve uma lista nova a cada chamada (armazenamento
+     * colunar), o XMLEncoder grava a propriedade duas vezes: primeiro os itens,
+     * com um {@code id}, e depois a atribuição da mesma lista por {@code idref}.</p>
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ArrayList<T> lerItens(Class<T> tipo) throws XMLStreamException {
+        String id = xml.getAttributeValue(null, "id");
+        ArrayList<T> itens = new ArrayList<>();
+        while (proximoFilho()) {
+            String idref = xml.getAttributeValue(null, "idref");
+            if (idref != null && referenciasEntrada.get(idref) instanceof ArrayList) {
+                itens = new ArrayList<>((ArrayList<T>) referenciasEntrada.get(idref));
+                fecharFilho();
+                continue;
+            }
+            exigirVoid("method", "add");
+            itens.add(lerObjeto(tipo));
+            fecharFilho();
+        }
+        if (id != null) {
+            referenciasEntrada.put(id, new ArrayList<>(itens));
+        }
+        return itens;
+    }
+
+    /**
+     * Obtém o dia epoch de um lançamento. Arquivos anteriores guardam a data
+     * como texto no formato "d/M/yyyy".
+     */
+    private int valorDia(Object valor) throws XMLStreamException {
+        if (valor instanceof Integer) {
+            return (Integer) valor;
+        }
+        if (valor instanceof String) {
+            try {
+                return DataUtils.converterDia((String) valor);
+            } catch (DateTimeException e) {
+                throw erro("Data invalida: " + valor);
+            }
+        }
+        throw erro("Esperada data do lancamento");
+    }
+
+    private Double valorDecimal(Object valor) throws XMLStreamException {
+        if (valor == null) {
+            return null;
+        }
+        if (!(valor instanceof Number)) {
+            throw erro("Esperado valor numerico");
+        }
+        return ((Number) valor).doubleValue();
+    }
+
+    private double valorNaoNegativo(Object valor, String propriedade) throws XMLStreamException {
+        Double numero = valorDecimal(valor);
+        if (numero == null || numero < 0) {
+            throw erro("Valor invalido para " + propriedade + ": " + numero);
+        }
+        return numero;
+    }
+
+    // ========== ERROS ==========
+
+    private XMLStreamException erro(String mensagem) {
+        return new XMLStreamException("Linha " + xml.getLocation().getLineNumber() + ": " + mensagem);
+    }
+
+    private static String mensagem(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.toString();
+    }
+
+    /**
+     * Remove do mapa as entradas já inseridas a partir de um arquivo cuja leitura
+     * falhou. Relê apenas as chaves das primeiras entradas, sem decodificar os objetos.
+     */
+    private static void desfazer(Path arquivo, int inseridos, Map<String, ?> mapa) {
+        if (inseridos == 0) {
+            return;
+        }
+        try (InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo))) {
+            LeitorXmlLegado leitor = new LeitorXmlLegado(FABRICA.createXMLStreamReader(entrada));
+            try {
+                leitor.abrirMapa();
+                for (int i = 0; i < inseridos && leitor.proximaEntrada(); i++) {
+                    mapa.remove(leitor.lerTextoObrigatorio());
+                    leitor.pularElemento(); // valor da entrada
+                    leitor.fecharEntrada();
+                }
+            } finally {
+                leitor.xml.close();
+            }
+        } catch (XMLStreamException | IOException e) {
+            System.err.println("Erro ao desfazer carregamento de " + arquivo + ": " + e.getMessage());
+        }
+    }
+
+    private void pularElemento() throws XMLStreamException {
+        if (!proximoFilho()) {
+            throw erro("Valor ausente");
+        }
+        int profundidade = 1;
+        while (profundidade > 0) {
+            int evento = xml.next();
+            if (evento == XMLStreamConstants.START_ELEMENT) {
+                profundidade++;
+            } else if (evento == XMLStreamConstants.END_ELEMENT) {
+                profundidade--;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import br.ufal.ic.p2.wepayu.models.Empregado;
+import br.ufal.ic.p2.wepayu.models.MembroSindicato;
+import br.ufal.ic.p2.wepayu.services.impl.PersistenciaBinariaServiceImpl;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Migrador único dos arquivos XML do WePayU para o snapshot binário.
+ *
+ * <p>Deve ser executado no diretório que contém {@code empregados.xml},
+ * {@code sindicato.xml} e {@code agendas.xml}. Gera {@code wepayu.snapshot}
+ * no mesmo diretório, mantendo os arquivos originais.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class MigradorXmlParaBinario {
+
+    public static void main(String[] args) {
+        Map<String, Empregado> empregados = new HashMap<>();
+        Map<String, MembroSindicato> membrosSindicato = new HashMap<>();
+        PersistenciaBinariaServiceImpl persistencia = new PersistenciaBinariaServiceImpl(empregados, membrosSindicato, 0);
+
+        if (!persistencia.migrarDeXml()) {
+            System.err.println("Erro ao migrar sistema: arquivos XML ausentes ou invalidos.");
+            System.exit(1);
+        }
+        System.out.println("Migrados " + empregados.size() + " empregados e "
+                + membrosSindicato.size() + " membros do sindicato.");
+    }
+}
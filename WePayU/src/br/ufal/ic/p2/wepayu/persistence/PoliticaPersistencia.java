@@ -0,0 +1,139 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+/**
+ * Política que define quando as operações registradas no journal se tornam duráveis.
+ *
+ * <p>Descrições aceitas por {@link #interpretar(String)}:</p>
+ * <ul>
+ *   <li><strong>comando:</strong> força a gravação em disco a cada operação (padrão)</li>
+ *   <li><strong>operacoes N:</strong> força a gravação a cada N operações</li>
+ *   <li><strong>intervalo MS:</strong> força a gravação no máximo MS milissegundos após a primeira operação pendente</li>
+ *   <li><strong>encerrar:</strong> só grava de forma durável no encerramento do sistema</li>
+ *   <li><strong>grupo [MS]:</strong> agrupa as operações de uma janela de MS milissegundos (padrão 5)
+ *       em uma única gravação, informando o ponto de durabilidade alcançado</li>
+ * </ul>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class PoliticaPersistencia {
+
+    /**
+     * Modos de persistência suportados.
+     */
+    public enum Modo {
+        POR_COMANDO,
+        A_CADA_OPERACOES,
+        INTERVALO,
+        AO_ENCERRAR,
+        GRUPO
+    }
+
+    public static final long JANELA_GRUPO_PADRAO = 5;
+
+    private final Modo modo;
+    private final long parametro; // operações ou milissegundos, conforme o modo
+    private final String descricao;
+
+    private PoliticaPersistencia(Modo modo, long parametro, String descricao) {
+        this.modo = modo;
+        this.parametro = parametro;
+        this.descricao = descricao;
+    }
+
+    /**
+     * Cria a política a partir da sua descrição.
+     *
+     * @param descricao Descrição no formato "modo [parametro]"
+     * @return Política correspondente
+     * @throws IllegalArgumentException Se a descrição for inválida
+     */
+    public static PoliticaPersistencia interpretar(String descricao) {
+        if (descricao == null || descricao.trim().isEmpty()) {
+            throw new IllegalArgumentException("Politica de persistencia invalida");
+        }
+        String[] partes = descricao.trim().split("\\s+");
+        if (partes.length > 2) {
+            throw new IllegalArgumentException("Politica de persistencia invalida: " + descricao);
+        }
+
+        switch (partes[0]) {
+            case "comando":
+                exigirSemParametro(partes, descricao);
+                return new PoliticaPersistencia(Modo.POR_COMANDO, 0, "comando");
+            case "encerrar":
+                exigirSemParametro(partes, descricao);
+                return new PoliticaPersistencia(Modo.AO_ENCERRAR, 0, "encerrar");
+            case "operacoes":
+                return comParametro(Modo.A_CADA_OPERACOES, partes, descricao);
+            case "intervalo":
+                return comParametro(Modo.INTERVALO, partes, descricao);
+            case "grupo":
+                if (partes.length == 1) {
+                    return new PoliticaPersistencia(Modo.GRUPO, JANELA_GRUPO_PADRAO, "grupo " + JANELA_GRUPO_PADRAO);
+                }
+                return comParametro(Modo.GRUPO, partes, descricao);
+            default:
+                throw new IllegalArgumentException("Politica de persistencia invalida: " + descricao);
+        }
+    }
+
+    /**
+     * Obtém a política padrão, que força a gravação a cada operação.
+     *
+     * @return Política por comando
+     */
+    public static PoliticaPersistencia porComando() {
+        return new PoliticaPersistencia(Modo.POR_COMANDO, 0, "comando");
+    }
+
+    private static void exigirSemParametro(String[] partes, String descricao) {
+        if (partes.length != 1) {
+            throw new IllegalArgumentException("Politica de persistencia invalida: " + descricao);
+        }
+    }
+
+    private static PoliticaPersistencia comParametro(Modo modo, String[] partes, String descricao) {
+        if (partes.length != 2) {
+            throw new IllegalArgumentException("Politica de persistencia invalida: " + descricao);
+        }
+        long parametro;
+        try {
+            parametro = Long.parseLong(partes[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Politica de persistencia invalida: " + descricao);
+        }
+        if (parametro < 1 || (modo == Modo.A_CADA_OPERACOES && parametro > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Politica de persistencia invalida: " + descricao);
+        }
+        return new PoliticaPersistencia(modo, parametro, partes[0] + " " + parametro);
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    /**
+     * Obtém a quantidade de operações entre gravações (modo {@link Modo#A_CADA_OPERACOES}).
+     *
+     * @return Quantidade de operações
+     */
+    public int getOperacoes() {
+        return (int) parametro;
+    }
+
+    /**
+     * Obtém a espera máxima até a gravação (modos {@link Modo#INTERVALO} e {@link Modo#GRUPO}).
+     *
+     * @return Espera em milissegundos
+     */
+    public long getEsperaMillis() {
+        return parametro;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,23 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+/**
+ * Interface para reaplicação de operações registradas no journal.
+ *
+ * <p>Implementada por quem conhece o significado de cada operação
+ * (normalmente a Facade), permitindo que a camada de persistência
+ * reconstrua o estado do sistema sem depender dos serviços.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+@FunctionalInterface
+public interface ReprodutorOperacao {
+    /**
+     * Reaplica uma operação registrada.
+     *
+     * @param campos Nome da operação seguido dos seus argumentos
+     * @throws Exception Se a operação não puder ser reaplicada
+     */
+    void reaplicar(String[] campos) throws Exception;
+}
@@ -0,0 +1,118 @@
+package br.ufal.ic.p2.wepayu.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Thread de fundo que torna duráveis, em uma única gravação, as operações
+ * acumuladas no journal.
+ *
+ * <p>Ao ser notificada de uma operação pendente, a thread aguarda o tempo de
+ * espera configurado para acumular as operações seguintes e então força a
+ * gravação do journal uma única vez. Assim, nenhuma operação fica mais do que
+ * o tempo de espera (mais o tempo da gravação) sem se tornar durável.</p>
+ *
+ * <p>Uma falha da gravação em segundo plano não avança o ponto de durabilidade
+ * do journal e é guardada para ser lançada na thread dos comandos, na próxima
+ * chamada a {@link #notificar()} ou em {@link #close()}.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class SincronizadorJournal implements Closeable {
+    private final JournalOperacoes journal;
+    private final long esperaMillis;
+    private final Thread thread;
+    private boolean ativo = true;
+    private boolean pendente;
+    private IOException falha; // falha da última gravação, ainda não entregue
+
+    /**
+     * Construtor do sincronizador. A thread é iniciada imediatamente.
+     *
+     * @param journal Journal a ser sincronizado
+     * @param esperaMillis Tempo de acumulação antes de cada gravação
+     */
+    public SincronizadorJournal(JournalOperacoes journal, long esperaMillis) {
+        this.journal = journal;
+        this.esperaMillis = esperaMillis;
+        this.thread = new Thread(this::executar, "wepayu-sincronizador-journal");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Informa que há operações gravadas ainda não duráveis.
+     *
+     * @throws IOException Se uma gravação anterior em segundo plano falhou; as
+     *         operações registradas desde então ainda não são duráveis
+     */
+    public synchronized void notificar() throws IOException {
+        if (falha != null) {
+            IOException erro = falha;
+            falha = null;
+            throw erro;
+        }
+        if (!pendente) {
+            pendente = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Encerra a thread e força a gravação das operações pendentes. Uma falha
+     * anterior em segundo plano é superada se a gravação final tiver sucesso.
+     *
+     * @throws IOException Se a gravação final falhar
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            ativo = false;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.sincronizar();
+    }
+
+    // A thread nunca é interrompida: interromper uma gravação fecharia o canal do journal
+    private void executar() {
+        while (true) {
+            synchronized (this) {
+                while (ativo && !pendente) {
+                    aguardar(0);
+                }
+                long limite = System.currentTimeMillis() + esperaMillis;
+                long restante = esperaMillis;
+                while (ativo && restante > 0) {
+                    aguardar(restante);
+                    restante = limite - System.currentTimeMillis();
+                }
+                if (!ativo) {
+                    return; // close() faz a gravação final
+                }
+                pendente = false;
+            }
+            try {
+                journal.sincronizar();
+            } catch (IOException e) {
+                synchronized (this) {
+                    falha = e;
+                }
+            }
+        }
+    }
+
+    private void aguardar(long millis) {
+        try {
+            wait(millis);
+        } catch (InterruptedException e) {
+            // Ignorada: o encerramento é sinalizado por ativo
+        }
+    }
+}
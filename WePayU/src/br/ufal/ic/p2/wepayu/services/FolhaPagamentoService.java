@@ -1,6 +1,7 @@
 package br.ufal.ic.p2.wepayu.services;
 
 import br.ufal.ic.p2.wepayu.Exception.*;
+import java.util.List;
 
 /**
  * Interface para operações de folha de pagamento no sistema WePayU.
@@ -13,6 +14,7 @@ import br.ufal.ic.p2.wepayu.Exception.*;
  * <ul>
  *   <li>Cálculo do total da folha de pagamento</li>
  *   <li>Processamento e geração de folha de pagamento</li>
+ *   <li>Processamento das folhas de todos os dias de pagamento de um período</li>
  * </ul>
  * 
  * @author John Wallex
@@ -23,4 +25,8 @@ public interface FolhaPagamentoService {
     String totalFolha(String data) throws DataInvalidaException;
     
     void rodaFolha(String data, String arquivo) throws DataInvalidaException;
+
+    void rodaFolhaPeriodo(String dataInicial, String dataFinal, String prefixoArquivo) throws DataInvalidaException;
+
+    List<String> getMembrosAlteradosPelaFolha();
 }
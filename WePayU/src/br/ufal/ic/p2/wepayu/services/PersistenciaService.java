@@ -1,5 +1,9 @@
 package br.ufal.ic.p2.wepayu.services;
 
+import br.ufal.ic.p2.wepayu.commands.ObservadorAlteracoes;
+import br.ufal.ic.p2.wepayu.persistence.PoliticaPersistencia;
+import br.ufal.ic.p2.wepayu.persistence.ReprodutorOperacao;
+
 /**
  * Interface para operações de persistência no sistema WePayU.
  * 
@@ -13,13 +17,16 @@ package br.ufal.ic.p2.wepayu.services;
  *   <li>Carregamento de dados do sistema</li>
  *   <li>Limpeza de dados do sistema</li>
  *   <li>Encerramento do sistema</li>
+ *   <li>Registro de operações em journal e reaplicação na inicialização</li>
+ *   <li>Política configurável de durabilidade das operações</li>
+ *   <li>Acompanhamento das entidades alteradas pelos comandos, para salvamentos incrementais</li>
  * </ul>
  * 
  * @author John Wallex
  * @version 1.0
  * @since 2025
  */
-public interface PersistenciaService {
+public interface PersistenciaService extends ObservadorAlteracoes {
     void salvarSistema();
     
     void carregarSistema();
@@ -27,4 +34,61 @@ public interface PersistenciaService {
     void zerarSistema();
 
     void encerrarSistema();
+
+    /**
+     * Registra uma operação que alterou o estado do sistema. A operação se torna
+     * durável conforme a {@link PoliticaPersistencia} em vigor.
+     *
+     * @param campos Nome da operação seguido dos seus argumentos
+     * @return Sequência atribuída à operação
+     */
+    long registrarOperacao(String... campos);
+
+    /**
+     * Informa uma alteração de estado que não pode ser registrada no journal
+     * (desfazer, refazer, folha de pagamento, limpeza do sistema) e exige um
+     * novo snapshot, gravado conforme a política em vigor.
+     */
+    void registrarCheckpoint();
+
+    /**
+     * Define quando as operações registradas se tornam duráveis.
+     *
+     * @param politica Nova política de persistência
+     */
+    void definirPolitica(PoliticaPersistencia politica);
+
+    PoliticaPersistencia getPolitica();
+
+    /**
+     * Define a quantidade de registros no journal que dispara a compactação em
+     * um novo snapshot.
+     *
+     * @param registros Quantidade de registros, maior que zero
+     * @throws IllegalArgumentException Se a quantidade não for positiva
+     */
+    void definirLimiteCompactacao(int registros);
+
+    /**
+     * Obtém a sequência da última operação já gravada em disco.
+     *
+     * @return Ponto de durabilidade atual
+     */
+    long getSequenciaDuravel();
+
+    /**
+     * Torna duráveis todas as operações registradas até o momento, compartilhando
+     * a gravação com outras chamadas concorrentes. Uma compactação em andamento
+     * termina antes do retorno, então os arquivos não mudam mais sem um novo comando.
+     *
+     * @return Ponto de durabilidade alcançado
+     */
+    long aguardarDurabilidade();
+
+    /**
+     * Reaplica sobre o estado carregado as operações registradas após o último snapshot.
+     *
+     * @param reprodutor Responsável por reaplicar cada operação
+     */
+    void reproduzirOperacoes(ReprodutorOperacao reprodutor);
 }
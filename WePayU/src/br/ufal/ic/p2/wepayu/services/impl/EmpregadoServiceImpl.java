@@ -7,7 +7,6 @@ import br.ufal.ic.p2.wepayu.commands.*;
 import br.ufal.ic.p2.wepayu.commands.CommandManagerInterface;
 import br.ufal.ic.p2.wepayu.Exception.*;
 
-import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -37,6 +36,7 @@ public class EmpregadoServiceImpl implements EmpregadoService {
     private Map<String, MembroSindicato> membrosSindicato;
     private int id;
     private CommandManagerInterface commandManager;
+    private final IndiceEmpregadosPorNome indicePorNome;
     
     public EmpregadoServiceImpl(Map<String, Empregado> empregados, 
                                Map<String, MembroSindicato> membrosSindicato,
@@ -46,6 +46,8 @@ public class EmpregadoServiceImpl implements EmpregadoService {
         this.membrosSindicato = membrosSindicato;
         this.id = id;
         this.commandManager = commandManager;
+        this.indicePorNome = new IndiceEmpregadosPorNome(empregados);
+        commandManager.adicionarObservador(indicePorNome);
     }
     
     @Override
@@ -58,7 +60,7 @@ public class EmpregadoServiceImpl implements EmpregadoService {
         if(tipo == null || tipo.isBlank()) throw new TipoNaoPodeSerNuloException("Tipo nao pode ser nulo.");
 
         Empregado empregado = EmpregadoFactory.criarEmpregado(tipo, nome, endereco, salario);
-        String idEmpregado = String.valueOf(id++);
+        String idEmpregado = proximoId();
         empregado.setId(idEmpregado);
 
         CriarEmpregadoCommand command = new CriarEmpregadoCommand(empregado, empregados);
@@ -79,7 +81,7 @@ public class EmpregadoServiceImpl implements EmpregadoService {
         if(tipo == null || tipo.isBlank()) throw new TipoNaoPodeSerNuloException("Tipo nao pode ser nulo.");
 
         Empregado empregado = EmpregadoFactory.criarEmpregado(tipo, nome, endereco, salario, comissao);
-        String idEmpregado = String.valueOf(id++);
+        String idEmpregado = proximoId();
         empregado.setId(idEmpregado);
 
         CriarEmpregadoCommand command = new CriarEmpregadoCommand(empregado, empregados);
@@ -201,23 +203,12 @@ public class EmpregadoServiceImpl implements EmpregadoService {
             throw new IndiceNaoPodeSerNuloException("Indice deve ser numerico.");
         }
 
-        // Filtra todos os empregados que têm esse nome
-        List<Empregado> encontrados = empregados.values().stream()
-                .filter(empregado -> empregado.getNome().equals(emp))
-                .toList();
-
-        // Se não encontrou nenhum
-        if (encontrados.isEmpty())
+        // Pelo índice de nomes, em ordem de ID
+        String escolhido = indicePorNome.buscar(emp, indiceInt);
+        if (escolhido == null)
             throw new EmpregadoNaoExisteException("Nao ha empregado com esse nome.");
 
-        // Se pediu um índice maior do que existe
-        if (indiceInt < 1 || indiceInt > encontrados.size())
-            throw new EmpregadoNaoExisteException("Nao ha empregado com esse nome.");
-
-        // Pega o empregado correspondente
-        Empregado escolhido = encontrados.get(indiceInt - 1);
-
-        return escolhido.getId();
+        return escolhido;
     }
     
     @Override
@@ -252,7 +243,7 @@ public class EmpregadoServiceImpl implements EmpregadoService {
                 if (empregado.getSindicato() == null) {
                     throw new br.ufal.ic.p2.wepayu.Exception.EmpregadoNaoEhSindicalizadoException("Empregado nao eh sindicalizado.");
                 }
-                return br.ufal.ic.p2.wepayu.utils.ValorMonetarioUtils.formatarValorMonetario(empregado.getSindicato().getTaxaSindical());
+                return br.ufal.ic.p2.wepayu.utils.Centavos.formatar(empregado.getSindicato().taxaSindicalEmCentavos());
             case "metodoPagamento":
                 return empregado.getMetodoPagamento().getMetodoPagamento();
             case "banco":
@@ -281,4 +272,21 @@ public class EmpregadoServiceImpl implements EmpregadoService {
                 throw new AtributoNaoExisteException("Atributo nao existe.");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gera o próximo ID de empregado, pulando os IDs já em uso.
+     *
+     * <p>O contador recomeça do zero a cada inicialização, mas os empregados
+     * carregados da persistência mantêm os seus IDs; sem o salto, um novo
+     * empregado substituiria um dos carregados.</p>
+     *
+     * @return ID ainda não usado por nenhum empregado
+     */
+    private String proximoId() {
+        String idEmpregado = String.valueOf(id++);
+        while (empregados.containsKey(idEmpregado)) {
+            idEmpregado = String.valueOf(id++);
+        }
+        return idEmpregado;
+    }
+}
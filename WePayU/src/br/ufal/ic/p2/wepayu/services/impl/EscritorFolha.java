@@ -0,0 +1,222 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Escritor do arquivo da folha de pagamento em colunas de largura fixa.
+ *
+ * <p>Cada linha de uma seção segue um {@link Layout}: a primeira coluna (nome ou
+ * rótulo do total) alinhada à esquerda e as colunas seguintes, separadas por um
+ * espaço, alinhadas à direita. Os números são formatados diretamente em um buffer
+ * de caracteres reutilizado, e as linhas vão para um {@link BufferedWriter} grande,
+ * sem criar strings intermediárias. O resultado é o mesmo de
+ * {@code String.format("%-36s %5d %13s ...")}: valores maiores que a coluna não
+ * são cortados.</p>
+ *
+ * <p>Exemplo de uso:</p>
+ * <pre>
+ * escritor.iniciarLinha(layout, nome);
+ * escritor.inteiro(horas);
+ * escritor.milesimos(salarioBruto);
+ * escritor.terminarLinha(metodoPagamento);
+ * </pre>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class EscritorFolha implements Closeable {
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    /**
+     * Larguras das colunas de uma seção da folha.
+     */
+    public static final class Layout {
+        private final int[] larguras;
+
+        /**
+         * Construtor do layout.
+         *
+         * @param larguras Larguras das colunas: a primeira alinhada à esquerda, as demais à direita
+         */
+        public Layout(int... larguras) {
+            this.larguras = larguras.clone();
+        }
+    }
+
+    private final BufferedWriter saida;
+    private final char[] numero = new char[24];
+    private char[] linha = new char[256];
+    private int tamanho;
+    private Layout layout;
+    private int coluna;
+
+    /**
+     * Construtor do escritor. Cria ou substitui o arquivo.
+     *
+     * @param arquivo Caminho do arquivo da folha
+     * @throws IOException Se o arquivo não puder ser criado
+     */
+    public EscritorFolha(String arquivo) throws IOException {
+        this.saida = new BufferedWriter(new FileWriter(arquivo), TAMANHO_BUFFER);
+    }
+
+    /**
+     * Escreve um texto fixo, como títulos e separadores.
+     *
+     * @param texto Texto a escrever
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void texto(String texto) throws IOException {
+        saida.write(texto);
+    }
+
+    /**
+     * Inicia uma linha com a primeira coluna do layout, alinhada à esquerda.
+     *
+     * @param layout Layout da seção
+     * @param nome Nome do empregado ou rótulo do total
+     */
+    public void iniciarLinha(Layout layout, String nome) {
+        this.layout = layout;
+        this.coluna = 0;
+        this.tamanho = 0;
+        int comprimento = nome.length();
+        garantir(Math.max(comprimento, layout.larguras[0]));
+        nome.getChars(0, comprimento, linha, 0);
+        tamanho = comprimento;
+        preencher(layout.larguras[0] - comprimento);
+    }
+
+    /**
+     * Escreve um inteiro na próxima coluna.
+     *
+     * @param valor Valor a escrever
+     */
+    public void inteiro(long valor) {
+        int inicio = numero.length;
+        long absoluto = Math.abs(valor);
+        do {
+            numero[--inicio] = (char) ('0' + absoluto % 10);
+            absoluto /= 10;
+        } while (absoluto > 0);
+        if (valor < 0) {
+            numero[--inicio] = '-';
+        }
+        alinharDireita(inicio);
+    }
+
+    /**
+     * Escreve um valor em centavos na próxima coluna, no formato de
+     * {@link br.ufal.ic.p2.wepayu.utils.Centavos#formatar(long)} ("1234,56").
+     *
+     * @param centavos Valor em centavos
+     */
+    public void centavos(long centavos) {
+        alinharDireita(formatarCentavos(centavos));
+    }
+
+    /**
+     * Escreve um valor em milésimos de centavo na próxima coluna, truncado em
+     * centavos. Os valores da folha são calculados nessa unidade e só são
+     * truncados aqui, na escrita.
+     *
+     * @param milesimos Valor em milésimos de centavo
+     */
+    public void milesimos(long milesimos) {
+        centavos(milesimos / 1000);
+    }
+
+    /**
+     * Escreve uma linha com um rótulo seguido de um valor em milésimos de
+     * centavo, truncado em centavos (ex: "TOTAL FOLHA: 1234,56").
+     *
+     * @param rotulo Rótulo que precede o valor
+     * @param milesimos Valor em milésimos de centavo
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void linhaValor(String rotulo, long milesimos) throws IOException {
+        saida.write(rotulo);
+        int inicio = formatarCentavos(milesimos / 1000);
+        saida.write(numero, inicio, numero.length - inicio);
+        saida.write('\n');
+    }
+
+    /**
+     * Termina a linha com um texto livre após as colunas (ex: método de pagamento).
+     *
+     * @param texto Texto final da linha
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void terminarLinha(String texto) throws IOException {
+        int comprimento = texto.length();
+        garantir(comprimento + 2);
+        linha[tamanho++] = ' ';
+        texto.getChars(0, comprimento, linha, tamanho);
+        tamanho += comprimento;
+        terminarLinha();
+    }
+
+    /**
+     * Termina a linha após a última coluna.
+     *
+     * @throws IOException Se ocorrer erro de escrita
+     */
+    public void terminarLinha() throws IOException {
+        garantir(1);
+        linha[tamanho++] = '\n';
+        saida.write(linha, 0, tamanho);
+        tamanho = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        saida.close();
+    }
+
+    // Formata centavos no final de numero e retorna a posição inicial
+    private int formatarCentavos(long centavos) {
+        int inicio = numero.length;
+        long absoluto = Math.abs(centavos);
+        long resto = absoluto % 100;
+        numero[--inicio] = (char) ('0' + resto % 10);
+        numero[--inicio] = (char) ('0' + resto / 10);
+        numero[--inicio] = ',';
+        long inteiros = absoluto / 100;
+        do {
+            numero[--inicio] = (char) ('0' + inteiros % 10);
+            inteiros /= 10;
+        } while (inteiros > 0);
+        if (centavos < 0) {
+            numero[--inicio] = '-';
+        }
+        return inicio;
+    }
+
+    // Copia o número formatado em numero[inicio..] para a próxima coluna
+    private void alinharDireita(int inicio) {
+        int largura = layout.larguras[++coluna];
+        int comprimento = numero.length - inicio;
+        garantir(1 + Math.max(largura, comprimento));
+        linha[tamanho++] = ' ';
+        preencher(largura - comprimento);
+        System.arraycopy(numero, inicio, linha, tamanho, comprimento);
+        tamanho += comprimento;
+    }
+
+    private void preencher(int espacos) {
+        for (int i = 0; i < espacos; i++) {
+            linha[tamanho++] = ' ';
+        }
+    }
+
+    private void garantir(int adicionais) {
+        if (tamanho + adicionais > linha.length) {
+            linha = Arrays.copyOf(linha, Math.max(linha.length * 2, tamanho + adicionais));
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package br.ufal.ic.p2.wepayu.services.impl;
 
 import br.ufal.ic.p2.wepayu.services.FolhaPagamentoService;
+import br.ufal.ic.p2.wepayu.commands.CommandManagerInterface;
 import br.ufal.ic.p2.wepayu.models.*;
 import br.ufal.ic.p2.wepayu.Exception.*;
-import br.ufal.ic.p2.wepayu.utils.ValorMonetarioUtils;
+import br.ufal.ic.p2.wepayu.utils.Centavos;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
 import java.util.Map;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.time.DayOfWeek;
-import java.time.temporal.ChronoUnit;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementação do serviço de folha de pagamento no sistema WePayU.
@@ -41,34 +48,61 @@ import java.util.ArrayList;
  *   <li>Se o empregado consegue pagar toda a dívida, ela é zerada</li>
  * </ul>
  * 
+ * <p>Os valores são calculados em inteiros {@code long}. Os dados guardados nos
+ * empregados (salários, vendas, taxas e dívida sindical) estão em centavos
+ * ({@link Centavos}); os valores da folha (salários brutos, que podem ter mais de
+ * 2 casas decimais pelas horas extras a 1,5x, descontos, líquidos e totais), em
+ * milésimos de centavo. Eles são truncados em centavos somente na escrita, pelo
+ * {@link EscritorFolha}, como antes.</p>
+ * 
+ * <p>A folha é gerada em duas fases: o cálculo de cada empregado produz uma linha
+ * imutável ({@code LinhaFolha}), em paralelo nas seções grandes, e depois as linhas
+ * são escritas na ordem das seções, com os totais somados na escrita, pelo
+ * {@link EscritorFolha}, em colunas de largura fixa.</p>
+ * 
+ * <p>O total da folha de uma data vem dos totais brutos de cada agenda
+ * ({@link TotaisFolhaPorAgenda}), atualizados a cada lançamento e alteração de
+ * empregado, sem recalcular todos os empregados a cada consulta. As linhas da
+ * folha de cada empregado ficam memorizadas ({@link MemoriaFolha}) e só são
+ * recalculadas se o empregado ou o seu membro do sindicato foram alterados.</p>
+ * 
  * @author John Wallex
  * @version 1.1
  * @since 2025
  */
 public class FolhaPagamentoServiceImpl implements FolhaPagamentoService {
     
+    // Seções menores são calculadas na thread da folha
+    private static final int MINIMO_CALCULO_PARALELO = 2048;
+
+    // Larguras das colunas de cada seção, conforme o arquivo exemplo
+    private static final EscritorFolha.Layout LAYOUT_HORISTAS = new EscritorFolha.Layout(36, 5, 5, 13, 9, 15);
+    private static final EscritorFolha.Layout LAYOUT_ASSALARIADOS = new EscritorFolha.Layout(48, 13, 9, 15);
+    private static final EscritorFolha.Layout LAYOUT_COMISSIONADOS = new EscritorFolha.Layout(21, 8, 8, 8, 13, 9, 15);
+
     private Map<String, Empregado> empregados;
     private Map<String, MembroSindicato> membrosSindicato;
+    private final QuadroEmpregadosPorAgenda quadroPorAgenda;
+    private final TotaisFolhaPorAgenda totaisPorAgenda;
+    private final MemoriaFolha<LinhaFolha> memoriaLinhas = new MemoriaFolha<>();
+    private final Set<String> membrosAlteradosPelaFolha = new LinkedHashSet<>();
     
-    public FolhaPagamentoServiceImpl(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato) {
+    public FolhaPagamentoServiceImpl(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato,
+                                     CommandManagerInterface commandManager) {
         this.empregados = empregados;
         this.membrosSindicato = membrosSindicato;
+        this.quadroPorAgenda = new QuadroEmpregadosPorAgenda(empregados);
+        this.totaisPorAgenda = new TotaisFolhaPorAgenda(empregados, quadroPorAgenda);
+        commandManager.adicionarObservador(quadroPorAgenda);
+        commandManager.adicionarObservador(totaisPorAgenda);
+        commandManager.adicionarObservador(memoriaLinhas);
     }
     
     @Override
     public String totalFolha(String data) throws DataInvalidaException {
         try {
-            LocalDate dataFolha = LocalDate.parse(data, DateTimeFormatter.ofPattern("d/M/yyyy"));
-            BigDecimal total = BigDecimal.ZERO;
-
-            for (Empregado empregado : empregados.values()) {
-                if (deveReceberNaData(empregado, dataFolha)) {
-                    total = total.add(calcularSalario(empregado, dataFolha)); // acumula com máxima precisão
-                }
-            }
-
-            // Usa ValorMonetarioUtils para formatação e truncamento com DOWN
-            return ValorMonetarioUtils.formatarValorMonetario(total);
+            // Soma dos totais das agendas que pagam na data, mantidos a cada alteração
+            return totaisPorAgenda.totalFolha(DataUtils.converterData(data));
         } catch (Exception e) {
             return "0,00";
         }
@@ -76,355 +110,342 @@ public class FolhaPagamentoServiceImpl implements FolhaPagamentoService {
     
     @Override
     public void rodaFolha(String data, String arquivo) throws DataInvalidaException {
+        membrosAlteradosPelaFolha.clear();
         try {
-            LocalDate dataFolha = LocalDate.parse(data, DateTimeFormatter.ofPattern("d/M/yyyy"));
-            
-            // Coleta empregados que devem receber na data
-            List<Empregado> empregadosHoristas = new ArrayList<>();
-            List<Empregado> empregadosAssalariados = new ArrayList<>();
-            List<Empregado> empregadosComissionados = new ArrayList<>();
-            
-            for (Empregado empregado : empregados.values()) {
-                if (deveReceberNaData(empregado, dataFolha)) {
-                    switch (empregado.getTipo()) {
-                        case "horista":
-                            empregadosHoristas.add(empregado);
-                            break;
-                        case "assalariado":
-                            empregadosAssalariados.add(empregado);
-                            break;
-                        case "comissionado":
-                            empregadosComissionados.add(empregado);
-                            break;
-                    }
-                }
-            }
-            
-            // Ordena os empregados por nome
-            empregadosHoristas.sort((e1, e2) -> e1.getNome().compareTo(e2.getNome()));
-            empregadosAssalariados.sort((e1, e2) -> e1.getNome().compareTo(e2.getNome()));
-            empregadosComissionados.sort((e1, e2) -> e1.getNome().compareTo(e2.getNome()));
-            
-            // Gera o arquivo da folha
-            gerarArquivoFolha(dataFolha, arquivo, empregadosHoristas, empregadosAssalariados, empregadosComissionados);
-            
+            rodaFolha(DataUtils.converterData(data), arquivo);
         } catch (Exception e) {
             throw new DataInvalidaException("Data invalida.");
         }
     }
 
-    private boolean deveReceberNaData(Empregado empregado, LocalDate data) {
-        // Usa a agenda de pagamento do empregado
-        String dataString = data.format(DateTimeFormatter.ofPattern("d/M/yyyy"));
-        return empregado.getAgendaPagamento().devePagarNaData(dataString);
-    }
-
-    private boolean deveReceberHorista(EmpregadoHorista empregado, LocalDate data) {
-        // Horistas são pagos toda sexta-feira
-        return data.getDayOfWeek() == DayOfWeek.FRIDAY;
-    }
-
-    private boolean deveReceberAssalariado(LocalDate data) {
-        // Assalariados são pagos no último dia do mês
-        return data.equals(data.withDayOfMonth(data.lengthOfMonth()));
-    }
-
-    private boolean deveReceberComissionado(LocalDate data) {
-        // Comissionados são pagos quinzenalmente a partir de 1/1/2005
-        LocalDate primeiroPagamento = LocalDate.of(2005, 1, 14); // Primeira sexta-feira da segunda semana
-
-        if (data.isBefore(primeiroPagamento)) {
-            return false;
+    /**
+     * Processa as folhas de todos os dias de pagamento de um período, em ordem
+     * cronológica, gerando um arquivo por dia de pagamento.
+     * 
+     * <p>Cada folha parte do estado deixado pela anterior (a dívida sindical dos
+     * horistas é levada adiante), como em execuções sucessivas de
+     * {@link #rodaFolha(String, String)}. Os dias em que nenhuma agenda paga são
+     * pulados sem gerar arquivo. As somas acumuladas dos cartões, vendas e taxas
+     * de cada empregado são montadas uma vez e reaproveitadas por todas as folhas
+     * do período.</p>
+     * 
+     * <p>Os arquivos de todas as folhas são verificados antes da primeira folha:
+     * se algum deles não puder ser gravado (diretório inexistente, sem permissão
+     * de escrita), nenhuma folha é processada. Se a gravação falhar depois disso
+     * (disco cheio, por exemplo), o processamento para no arquivo que falhou: as
+     * folhas anteriores permanecem gravadas e a dívida sindical atualizada por
+     * elas e pela folha que falhou é mantida, com os membros alterados
+     * disponíveis em {@link #getMembrosAlteradosPelaFolha()}.</p>
+     * 
+     * @param dataInicial Primeira data do período (inclusive)
+     * @param dataFinal Última data do período (inclusive)
+     * @param prefixoArquivo Prefixo dos arquivos; cada folha é gravada em
+     *                       "prefixo-aaaa-mm-dd.txt"
+     * @throws DataInvalidaException Se uma das datas for inválida ou a data inicial
+     *                               for posterior à data final
+     * @throws ErroGravacaoFolhaException Se o arquivo de uma folha não puder ser
+     *                                    gravado; a mensagem informa o arquivo e a causa
+     */
+    @Override
+    public void rodaFolhaPeriodo(String dataInicial, String dataFinal, String prefixoArquivo) throws DataInvalidaException {
+        LocalDate inicio = converterData(dataInicial, "Data inicial");
+        LocalDate fim = converterData(dataFinal, "Data final");
+        if (inicio.isAfter(fim)) {
+            throw new DataInvalidaException("Data inicial nao pode ser posterior aa data final.");
         }
 
-        // Verifica se é um dia de pagamento quinzenal
-        long diasEntre = ChronoUnit.DAYS.between(primeiroPagamento, data);
-        return diasEntre % 14 == 0;
-    }
-
-    private BigDecimal calcularSalario(Empregado empregado, LocalDate data) {
-        String tipo = empregado.getTipo();
-        String agenda = empregado.getAgendaPagamento().getAgenda();
-        
-        // Se a agenda é a padrão para o tipo, usa o cálculo original
-        if (agenda.equals(br.ufal.ic.p2.wepayu.models.AgendaPagamento.getAgendaPadrao(tipo))) {
-            switch (tipo) {
-                case "horista":
-                    return calcularSalarioHorista((EmpregadoHorista) empregado, data);
-                case "assalariado":
-                    return calcularSalarioAssalariado((EmpregadoAssalariado) empregado, data);
-                case "comissionado":
-                    return calcularSalarioComissionado((EmpregadoComissionado) empregado, data);
-                default:
-                    return BigDecimal.ZERO;
+        Map<LocalDate, String> folhas = new LinkedHashMap<>(); // dias de pagamento e arquivos, em ordem
+        for (LocalDate data = inicio; !data.isAfter(fim); data = data.plusDays(1)) {
+            if (quadroPorAgenda.haPagamentoNaData(data)) {
+                folhas.put(data, prefixoArquivo + "-" + data.format(DateTimeFormatter.ISO_LOCAL_DATE) + ".txt");
             }
-        } else {
-            // Para agendas não-padrão, usa o novo cálculo
-            String dataString = data.format(DateTimeFormatter.ofPattern("d/M/yyyy"));
-            String dataInicial = calcularDataInicialPeriodo(empregado, data);
-            String dataFinal = dataString;
-            
-            double valorPagamento = empregado.getAgendaPagamento().calcularValorPagamento(empregado, dataInicial, dataFinal);
-            return BigDecimal.valueOf(valorPagamento);
         }
-    }
-    
-    private String calcularDataInicialPeriodo(Empregado empregado, LocalDate data) {
-        String agenda = empregado.getAgendaPagamento().getAgenda();
-        
-        switch (agenda) {
-            case "semanal 5":
-                // Período de 1 semana
-                return data.minusDays(6).format(DateTimeFormatter.ofPattern("d/M/yyyy"));
-            case "semanal 2 5":
-                // Período de 2 semanas
-                return data.minusDays(13).format(DateTimeFormatter.ofPattern("d/M/yyyy"));
-            case "mensal $":
-                // Período de 1 mês
-                return data.withDayOfMonth(1).format(DateTimeFormatter.ofPattern("d/M/yyyy"));
-            default:
-                return data.minusDays(6).format(DateTimeFormatter.ofPattern("d/M/yyyy"));
+        for (String arquivo : folhas.values()) {
+            verificarArquivoFolha(arquivo);
         }
-    }
 
-    private BigDecimal calcularSalarioHorista(EmpregadoHorista empregado, LocalDate data) {
-        LocalDate inicioSemana = data.minusDays(6); // semana de 7 dias
-        BigDecimal horasNormais = BigDecimal.ZERO;
-        BigDecimal horasExtras = BigDecimal.ZERO;
-
-        for (CartaoDePonto cartao : empregado.getCartoes()) {
-            LocalDate dataCartao = LocalDate.parse(cartao.getData(), DateTimeFormatter.ofPattern("d/M/yyyy"));
-            if (!dataCartao.isBefore(inicioSemana) && !dataCartao.isAfter(data)) {
-                BigDecimal horas = BigDecimal.valueOf(cartao.getHoras());
-                horasNormais = horasNormais.add(horas.min(BigDecimal.valueOf(8.0)));
-                horasExtras = horasExtras.add(horas.subtract(BigDecimal.valueOf(8.0)).max(BigDecimal.ZERO));
+        membrosAlteradosPelaFolha.clear();
+        for (Map.Entry<LocalDate, String> folha : folhas.entrySet()) {
+            try {
+                rodaFolha(folha.getKey(), folha.getValue());
+            } catch (IOException e) {
+                throw new ErroGravacaoFolhaException("Erro ao gravar a folha " + folha.getValue() + ": " + e.getMessage(), e);
             }
         }
-
-        BigDecimal salarioPorHora = BigDecimal.valueOf(empregado.getSalarioPorHora());
-        BigDecimal salarioBruto = horasNormais.multiply(salarioPorHora)
-                .add(horasExtras.multiply(salarioPorHora).multiply(BigDecimal.valueOf(1.5)));
-
-        return salarioBruto; // sem setScale aqui
     }
 
-    private BigDecimal calcularSalarioAssalariado(EmpregadoAssalariado empregado, LocalDate data) {
-        return BigDecimal.valueOf(empregado.getSalarioMensal()); // bruto sem arredondar ainda
+    // Falhas previsíveis de gravação são detectadas antes que alguma folha altere a dívida sindical
+    private static void verificarArquivoFolha(String arquivo) {
+        Path caminho;
+        try {
+            caminho = Paths.get(arquivo).toAbsolutePath();
+        } catch (InvalidPathException e) {
+            throw new ErroGravacaoFolhaException("Nao foi possivel gravar a folha " + arquivo + ": caminho invalido.", e);
+        }
+        Path diretorio = caminho.getParent();
+        if (diretorio == null || !Files.isDirectory(diretorio)) {
+            throw new ErroGravacaoFolhaException("Nao foi possivel gravar a folha " + arquivo + ": diretorio inexistente.");
+        }
+        boolean gravavel = Files.exists(caminho)
+                ? !Files.isDirectory(caminho) && Files.isWritable(caminho)
+                : Files.isWritable(diretorio);
+        if (!gravavel) {
+            throw new ErroGravacaoFolhaException("Nao foi possivel gravar a folha " + arquivo + ": sem permissao de escrita.");
+        }
     }
 
-    private BigDecimal calcularSalarioComissionado(EmpregadoComissionado empregado, LocalDate data) {
-        BigDecimal salarioMensal = BigDecimal.valueOf(empregado.getSalarioMensal());
-        BigDecimal salarioBase = salarioMensal.multiply(BigDecimal.valueOf(12))
-                .divide(BigDecimal.valueOf(26), 10, RoundingMode.DOWN); // 10 casas decimais para precisão
-        // Trunca o salário base para 2 casas decimais
-        salarioBase = salarioBase.setScale(2, RoundingMode.DOWN);
-
-        LocalDate inicioPeriodo = data.minusDays(14);
-        BigDecimal totalVendas = BigDecimal.ZERO;
+    private void rodaFolha(LocalDate dataFolha, String arquivo) throws IOException {
+        // Empregados das agendas que pagam na data, já em ordem de nome pelos quadros de cada tipo
+        List<Empregado> empregadosHoristas = quadroPorAgenda.listar(TipoEmpregado.HORISTA, dataFolha);
+        List<Empregado> empregadosAssalariados = quadroPorAgenda.listar(TipoEmpregado.ASSALARIADO, dataFolha);
+        List<Empregado> empregadosComissionados = quadroPorAgenda.listar(TipoEmpregado.COMISSIONADO, dataFolha);
 
-        for (ResultadoDeVenda venda : empregado.getResultadoDeVenda()) {
-            LocalDate dataVenda = LocalDate.parse(venda.getData(), DateTimeFormatter.ofPattern("d/M/yyyy"));
-            if (!dataVenda.isBefore(inicioPeriodo) && !dataVenda.isAfter(data)) {
-                totalVendas = totalVendas.add(BigDecimal.valueOf(venda.getValor()));
+        // A folha altera a dívida sindical dos horistas sindicalizados
+        for (Empregado horista : empregadosHoristas) {
+            if (horista.getSindicato() != null) {
+                membrosAlteradosPelaFolha.add(horista.getSindicato().getIdMembro());
             }
         }
 
-        BigDecimal comissao = totalVendas.multiply(BigDecimal.valueOf(empregado.getTaxaDeComissao()));
-        // Trunca a comissão para 2 casas decimais antes de somar
-        comissao = comissao.setScale(2, RoundingMode.DOWN);
-        BigDecimal salarioBruto = salarioBase.add(comissao);
+        // Gera o arquivo da folha
+        gerarArquivoFolha(dataFolha, arquivo, empregadosHoristas, empregadosAssalariados, empregadosComissionados);
+    }
+
+    /**
+     * Obtém os IDs dos membros do sindicato cuja dívida sindical foi alterada
+     * pela última execução de {@link #rodaFolha(String, String)} ou
+     * {@link #rodaFolhaPeriodo(String, String, String)}: os horistas sindicalizados pagos.
+     * 
+     * @return Lista com os IDs dos membros alterados
+     */
+    @Override
+    public List<String> getMembrosAlteradosPelaFolha() {
+        return new ArrayList<>(membrosAlteradosPelaFolha);
+    }
 
-        return salarioBruto; // sem arredondar ainda
+    private static LocalDate converterData(String data, String tipoData) throws DataInvalidaException {
+        try {
+            return DataUtils.converterData(data);
+        } catch (Exception e) {
+            throw new DataInvalidaException(tipoData + " invalida.");
+        }
     }
 
     private void gerarArquivoFolha(LocalDate dataFolha, String arquivo,
                                    List<Empregado> horistas, List<Empregado> assalariados,
                                    List<Empregado> comissionados) throws IOException {
 
-        try (FileWriter writer = new FileWriter(arquivo)) {
-            // Cabeçalho idêntico ao do arquivo exemplo
-            writer.write(String.format("FOLHA DE PAGAMENTO DO DIA %s\n", dataFolha.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))));
-            writer.write("====================================\n\n");
+        try (EscritorFolha escritor = new EscritorFolha(arquivo)) {
+            // Fase de cálculo: uma linha imutável por empregado, na ordem das listas
+            // Linhas memorizadas dos empregados não alterados desde a última folha da data são
+            // reaproveitadas; a dos horistas sindicalizados, que altera a dívida, é sempre calculada
+            List<LinhaFolha> linhasHoristas = calcularLinhas(horistas, e -> e.getSindicato() != null
+                    ? calcularLinhaHorista((EmpregadoHorista) e, dataFolha)
+                    : memoriaLinhas.obter(e, dataFolha, h -> calcularLinhaHorista((EmpregadoHorista) h, dataFolha)));
+            List<LinhaFolha> linhasAssalariados = calcularLinhas(assalariados,
+                    e -> memoriaLinhas.obter(e, dataFolha, a -> calcularLinhaAssalariado((EmpregadoAssalariado) a, dataFolha)));
+            List<LinhaFolha> linhasComissionados = calcularLinhas(comissionados,
+                    e -> memoriaLinhas.obter(e, dataFolha, c -> calcularLinhaComissionado((EmpregadoComissionado) c, dataFolha)));
+
+            // Fase de escrita: cabeçalho idêntico ao do arquivo exemplo
+            escritor.texto("FOLHA DE PAGAMENTO DO DIA " + dataFolha.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")) + "\n");
+            escritor.texto("====================================\n\n");
 
             // Seção Horistas (títulos e separadores exatamente iguais ao exemplo)
-            writer.write("===============================================================================================================================\n");
-            writer.write("===================== HORISTAS ================================================================================================\n");
-            writer.write("===============================================================================================================================\n");
-            writer.write("Nome                                 Horas Extra Salario Bruto Descontos Salario Liquido Metodo\n");
-            writer.write("==================================== ===== ===== ============= ========= =============== ======================================\n");
+            escritor.texto("===============================================================================================================================\n");
+            escritor.texto("===================== HORISTAS ================================================================================================\n");
+            escritor.texto("===============================================================================================================================\n");
+            escritor.texto("Nome                                 Horas Extra Salario Bruto Descontos Salario Liquido Metodo\n");
+            escritor.texto("==================================== ===== ===== ============= ========= =============== ======================================\n");
 
             // Totais horistas
-            BigDecimal totalHoristasBruto = BigDecimal.ZERO;
-            BigDecimal totalHoristasDescontos = BigDecimal.ZERO;
-            BigDecimal totalHoristasLiquido = BigDecimal.ZERO;
+            long totalHoristasBruto = 0; // em milésimos de centavo
+            long totalHoristasDescontos = 0;
+            long totalHoristasLiquido = 0;
             int totalHorasNormais = 0;
             int totalHorasExtras = 0;
 
-            // Colunas com larguras fixas conforme modelo:
-            // name: 40, horas: 6, extra: 10, salarioBruto: 11, descontos: 15, salarioLiquido: 7, metodo: resto
-            for (Empregado empregado : horistas) {
-                EmpregadoHorista horista = (EmpregadoHorista) empregado;
-                
-                // Primeiro: acumula taxa sindical semanal (seguindo a lógica do WePayU - o)
-                if (horista.getSindicato() != null) {
-                    MembroSindicato sindicato = horista.getSindicato();
-                    BigDecimal taxaSemanal = new BigDecimal(String.valueOf(sindicato.getTaxaSindical()))
-                            .multiply(BigDecimal.valueOf(7))
-                            .setScale(2, RoundingMode.DOWN);
-                    BigDecimal dividaAtual = new BigDecimal(String.valueOf(sindicato.getDividaSindical()));
-                    BigDecimal novaDivida = dividaAtual.add(taxaSemanal);
-                    sindicato.setDividaSindical(novaDivida.doubleValue());
-                }
-                
-                BigDecimal salarioBruto = calcularSalarioHorista(horista, dataFolha);
-                BigDecimal descontos = BigDecimal.ZERO;
-                BigDecimal salarioLiquido = BigDecimal.ZERO;
-                
-                if (salarioBruto.compareTo(BigDecimal.ZERO) > 0) {
-                    descontos = calcularDescontos(horista, dataFolha);
-                    salarioLiquido = salarioBruto.subtract(descontos);
-                    
-                    // Se o salário líquido for negativo, ajusta os descontos e atualiza a dívida sindical
-                    if (salarioLiquido.compareTo(BigDecimal.ZERO) < 0) {
-                        if (horista.getSindicato() != null) {
-                            MembroSindicato sindicato = horista.getSindicato();
-                            BigDecimal dividaRestante = descontos.subtract(salarioBruto);
-                            sindicato.setDividaSindical(dividaRestante.doubleValue());
-                            descontos = salarioBruto;
-                            salarioLiquido = BigDecimal.ZERO;
-                        }
-                    } else {
-                        // Se conseguiu pagar tudo, zera a dívida sindical
-                        if (horista.getSindicato() != null) {
-                            horista.getSindicato().setDividaSindical(0.0);
-                        }
-                    }
-                }
-
-                int[] horas = calcularHorasHorista(horista, dataFolha);
-                totalHorasNormais += horas[0];
-                totalHorasExtras += horas[1];
-                String metodoPagamento = formatarMetodoPagamento(horista.getMetodoPagamento(), horista.getEndereco());
-
-                writer.write(String.format("%-36s %5d %5d %13s %9s %15s %s\n",
-                    horista.getNome(),
-                    horas[0], // horas normais
-                    horas[1], // horas extras
-                    ValorMonetarioUtils.formatarValorMonetario(salarioBruto),
-                    ValorMonetarioUtils.formatarValorMonetario(descontos),
-                    ValorMonetarioUtils.formatarValorMonetario(salarioLiquido),
-                    metodoPagamento
-                ));
-
-                totalHoristasBruto = totalHoristasBruto.add(salarioBruto);
-                totalHoristasDescontos = totalHoristasDescontos.add(descontos);
-                totalHoristasLiquido = totalHoristasLiquido.add(salarioLiquido);
+            for (LinhaFolha linha : linhasHoristas) {
+                escritor.iniciarLinha(LAYOUT_HORISTAS, linha.nome);
+                escritor.inteiro(linha.horasNormais);
+                escritor.inteiro(linha.horasExtras);
+                escritor.milesimos(linha.salarioBruto);
+                escritor.milesimos(linha.descontos);
+                escritor.milesimos(linha.salarioLiquido);
+                escritor.terminarLinha(linha.metodoPagamento);
+
+                totalHorasNormais += linha.horasNormais;
+                totalHorasExtras += linha.horasExtras;
+                totalHoristasBruto += linha.salarioBruto;
+                totalHoristasDescontos += linha.descontos;
+                totalHoristasLiquido += linha.salarioLiquido;
             }
 
-             writer.write(String.format("\nTOTAL HORISTAS                       %5d %5d %13s %9s %15s\n\n",
-                 totalHorasNormais,
-                 totalHorasExtras,
-                 ValorMonetarioUtils.formatarValorMonetario(totalHoristasBruto),
-                 ValorMonetarioUtils.formatarValorMonetario(totalHoristasDescontos),
-                 ValorMonetarioUtils.formatarValorMonetario(totalHoristasLiquido)
-             ));
+            escritor.texto("\n");
+            escritor.iniciarLinha(LAYOUT_HORISTAS, "TOTAL HORISTAS");
+            escritor.inteiro(totalHorasNormais);
+            escritor.inteiro(totalHorasExtras);
+            escritor.milesimos(totalHoristasBruto);
+            escritor.milesimos(totalHoristasDescontos);
+            escritor.milesimos(totalHoristasLiquido);
+            escritor.terminarLinha();
+            escritor.texto("\n");
 
             // Seção Assalariados (mesmo layout do exemplo)
-            writer.write("===============================================================================================================================\n");
-            writer.write("===================== ASSALARIADOS ============================================================================================\n");
-            writer.write("===============================================================================================================================\n");
-            writer.write("Nome                                             Salario Bruto Descontos Salario Liquido Metodo\n");
-             writer.write("================================================ ============= ========= =============== ======================================\n");
-
-             BigDecimal totalAssalariadosBruto = BigDecimal.ZERO;
-             BigDecimal totalAssalariadosDescontos = BigDecimal.ZERO;
-             BigDecimal totalAssalariadosLiquido = BigDecimal.ZERO;
-
-             for (Empregado empregado : assalariados) {
-                 EmpregadoAssalariado assalariado = (EmpregadoAssalariado) empregado;
-                 BigDecimal salarioBruto = calcularSalarioAssalariado(assalariado, dataFolha);
-                 BigDecimal descontos = calcularDescontos(assalariado, dataFolha);
-                 BigDecimal salarioLiquido = salarioBruto.subtract(descontos).max(BigDecimal.ZERO);
-                 String metodoPagamento = formatarMetodoPagamento(assalariado.getMetodoPagamento(), assalariado.getEndereco());
-
-                 writer.write(String.format("%-48s %13s %9s %15s %s\n",
-                     assalariado.getNome(),
-                     ValorMonetarioUtils.formatarValorMonetario(salarioBruto),
-                     ValorMonetarioUtils.formatarValorMonetario(descontos),
-                     ValorMonetarioUtils.formatarValorMonetario(salarioLiquido),
-                     metodoPagamento
-                 ));
-
-                 totalAssalariadosBruto = totalAssalariadosBruto.add(salarioBruto);
-                 totalAssalariadosDescontos = totalAssalariadosDescontos.add(descontos);
-                 totalAssalariadosLiquido = totalAssalariadosLiquido.add(salarioLiquido);
-             }
-
-             writer.write(String.format("\nTOTAL ASSALARIADOS                               %13s %9s %15s\n\n",
-                 ValorMonetarioUtils.formatarValorMonetario(totalAssalariadosBruto),
-                 ValorMonetarioUtils.formatarValorMonetario(totalAssalariadosDescontos),
-                 ValorMonetarioUtils.formatarValorMonetario(totalAssalariadosLiquido)
-             ));
+            escritor.texto("===============================================================================================================================\n");
+            escritor.texto("===================== ASSALARIADOS ============================================================================================\n");
+            escritor.texto("===============================================================================================================================\n");
+            escritor.texto("Nome                                             Salario Bruto Descontos Salario Liquido Metodo\n");
+            escritor.texto("================================================ ============= ========= =============== ======================================\n");
+
+            long totalAssalariadosBruto = 0; // em milésimos de centavo
+            long totalAssalariadosDescontos = 0;
+            long totalAssalariadosLiquido = 0;
+
+            for (LinhaFolha linha : linhasAssalariados) {
+                escritor.iniciarLinha(LAYOUT_ASSALARIADOS, linha.nome);
+                escritor.milesimos(linha.salarioBruto);
+                escritor.milesimos(linha.descontos);
+                escritor.milesimos(linha.salarioLiquido);
+                escritor.terminarLinha(linha.metodoPagamento);
+
+                totalAssalariadosBruto += linha.salarioBruto;
+                totalAssalariadosDescontos += linha.descontos;
+                totalAssalariadosLiquido += linha.salarioLiquido;
+            }
+
+            escritor.texto("\n");
+            escritor.iniciarLinha(LAYOUT_ASSALARIADOS, "TOTAL ASSALARIADOS");
+            escritor.milesimos(totalAssalariadosBruto);
+            escritor.milesimos(totalAssalariadosDescontos);
+            escritor.milesimos(totalAssalariadosLiquido);
+            escritor.terminarLinha();
+            escritor.texto("\n");
 
             // Seção Comissionados (mesmo layout do exemplo)
-            writer.write("===============================================================================================================================\n");
-            writer.write("===================== COMISSIONADOS ===========================================================================================\n");
-            writer.write("===============================================================================================================================\n");
-            writer.write("Nome                  Fixo     Vendas   Comissao Salario Bruto Descontos Salario Liquido Metodo\n");
-            writer.write("===================== ======== ======== ======== ============= ========= =============== ======================================\n");
-
-            BigDecimal totalComissionadosFixo = BigDecimal.ZERO;
-            BigDecimal totalComissionadosVendas = BigDecimal.ZERO;
-            BigDecimal totalComissionadosComissao = BigDecimal.ZERO;
-            BigDecimal totalComissionadosBruto = BigDecimal.ZERO;
-            BigDecimal totalComissionadosDescontos = BigDecimal.ZERO;
-            BigDecimal totalComissionadosLiquido = BigDecimal.ZERO;
-
-            for (Empregado empregado : comissionados) {
-                EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
-                BigDecimal[] valores = calcularValoresComissionado(comissionado, dataFolha);
-                BigDecimal salarioBruto = valores[0];
-                BigDecimal vendas = valores[1];
-                BigDecimal comissao = valores[2];
-                BigDecimal salarioBase = valores[3];
-                BigDecimal descontos = calcularDescontos(comissionado, dataFolha);
-                BigDecimal salarioLiquido = salarioBruto.subtract(descontos).max(BigDecimal.ZERO);
-                String metodoPagamento = formatarMetodoPagamento(comissionado.getMetodoPagamento(), comissionado.getEndereco());
-
-                writer.write(String.format("%-21s %8s %8s %8s %13s %9s %15s %s\n",
-                    comissionado.getNome(),
-                    ValorMonetarioUtils.formatarValorMonetario(salarioBase),
-                    ValorMonetarioUtils.formatarValorMonetario(vendas),
-                    ValorMonetarioUtils.formatarValorMonetario(comissao),
-                    ValorMonetarioUtils.formatarValorMonetario(salarioBruto),
-                    ValorMonetarioUtils.formatarValorMonetario(descontos),
-                    ValorMonetarioUtils.formatarValorMonetario(salarioLiquido),
-                    metodoPagamento
-                ));
-
-                totalComissionadosFixo = totalComissionadosFixo.add(salarioBase);
-                totalComissionadosVendas = totalComissionadosVendas.add(vendas);
-                totalComissionadosComissao = totalComissionadosComissao.add(comissao);
-                totalComissionadosBruto = totalComissionadosBruto.add(salarioBruto);
-                totalComissionadosDescontos = totalComissionadosDescontos.add(descontos);
-                totalComissionadosLiquido = totalComissionadosLiquido.add(salarioLiquido);
+            escritor.texto("===============================================================================================================================\n");
+            escritor.texto("===================== COMISSIONADOS ===========================================================================================\n");
+            escritor.texto("===============================================================================================================================\n");
+            escritor.texto("Nome                  Fixo     Vendas   Comissao Salario Bruto Descontos Salario Liquido Metodo\n");
+            escritor.texto("===================== ======== ======== ======== ============= ========= =============== ======================================\n");
+
+            long totalComissionadosFixo = 0; // em milésimos de centavo
+            long totalComissionadosVendas = 0;
+            long totalComissionadosComissao = 0;
+            long totalComissionadosBruto = 0;
+            long totalComissionadosDescontos = 0;
+            long totalComissionadosLiquido = 0;
+
+            for (LinhaFolha linha : linhasComissionados) {
+                escritor.iniciarLinha(LAYOUT_COMISSIONADOS, linha.nome);
+                escritor.milesimos(linha.fixo);
+                escritor.milesimos(linha.vendas);
+                escritor.milesimos(linha.comissao);
+                escritor.milesimos(linha.salarioBruto);
+                escritor.milesimos(linha.descontos);
+                escritor.milesimos(linha.salarioLiquido);
+                escritor.terminarLinha(linha.metodoPagamento);
+
+                totalComissionadosFixo += linha.fixo;
+                totalComissionadosVendas += linha.vendas;
+                totalComissionadosComissao += linha.comissao;
+                totalComissionadosBruto += linha.salarioBruto;
+                totalComissionadosDescontos += linha.descontos;
+                totalComissionadosLiquido += linha.salarioLiquido;
             }
 
-            writer.write(String.format("\nTOTAL COMISSIONADOS   %8s %8s %8s %13s %9s %15s\n",
-                ValorMonetarioUtils.formatarValorMonetario(totalComissionadosFixo),
-                ValorMonetarioUtils.formatarValorMonetario(totalComissionadosVendas),
-                ValorMonetarioUtils.formatarValorMonetario(totalComissionadosComissao),
-                ValorMonetarioUtils.formatarValorMonetario(totalComissionadosBruto),
-                ValorMonetarioUtils.formatarValorMonetario(totalComissionadosDescontos),
-                ValorMonetarioUtils.formatarValorMonetario(totalComissionadosLiquido)
-            ));
+            escritor.texto("\n");
+            escritor.iniciarLinha(LAYOUT_COMISSIONADOS, "TOTAL COMISSIONADOS");
+            escritor.milesimos(totalComissionadosFixo);
+            escritor.milesimos(totalComissionadosVendas);
+            escritor.milesimos(totalComissionadosComissao);
+            escritor.milesimos(totalComissionadosBruto);
+            escritor.milesimos(totalComissionadosDescontos);
+            escritor.milesimos(totalComissionadosLiquido);
+            escritor.terminarLinha();
 
             // Total da folha
-            BigDecimal totalFolha = totalHoristasBruto.add(totalAssalariadosBruto).add(totalComissionadosBruto);
-            writer.write(String.format("\nTOTAL FOLHA: %s\n", ValorMonetarioUtils.formatarValorMonetario(totalFolha)));
+            escritor.texto("\n");
+            escritor.linhaValor("TOTAL FOLHA: ", totalHoristasBruto + totalAssalariadosBruto + totalComissionadosBruto);
         }
     }
 
+    /**
+     * Calcula as linhas da folha de uma seção, em paralelo quando a seção é grande.
+     * 
+     * <p>Cada empregado é calculado por uma única tarefa, e as tarefas só alteram o
+     * próprio empregado (a dívida sindical dos horistas), então a ordem das linhas e
+     * os valores não dependem da quantidade de threads.</p>
+     * 
+     * @param empregados Empregados da seção, na ordem da folha
+     * @param calculo Cálculo da linha de um empregado
+     * @return Linhas na mesma ordem dos empregados
+     */
+    private static List<LinhaFolha> calcularLinhas(List<Empregado> empregados, Function<Empregado, LinhaFolha> calculo) {
+        Stream<Empregado> fluxo = empregados.size() >= MINIMO_CALCULO_PARALELO
+                ? empregados.parallelStream()
+                : empregados.stream();
+        return fluxo.map(calculo).collect(Collectors.toList());
+    }
+
+    private LinhaFolha calcularLinhaHorista(EmpregadoHorista horista, LocalDate dataFolha) {
+        // Primeiro: acumula taxa sindical semanal (seguindo a lógica do WePayU - o)
+        if (horista.getSindicato() != null) {
+            MembroSindicato sindicato = horista.getSindicato();
+            long taxaSemanal = sindicato.taxaSindicalEmCentavos() * 7;
+            sindicato.definirDividaSindicalEmCentavos(sindicato.dividaSindicalEmCentavos() + taxaSemanal);
+        }
+
+        long salarioBruto = horista.calcularSalarioBruto(dataFolha);
+        long descontos = 0;
+        long salarioLiquido = 0;
+
+        if (salarioBruto > 0) {
+            descontos = calcularDescontos(horista, dataFolha);
+            salarioLiquido = salarioBruto - descontos;
+
+            // Se o salário líquido for negativo, ajusta os descontos e atualiza a dívida sindical
+            if (salarioLiquido < 0) {
+                if (horista.getSindicato() != null) {
+                    MembroSindicato sindicato = horista.getSindicato();
+                    // A dívida é truncada em centavos: os próximos descontos também são truncados
+                    sindicato.definirDividaSindicalEmCentavos((descontos - salarioBruto) / 1000);
+                    descontos = salarioBruto;
+                    salarioLiquido = 0;
+                }
+            } else {
+                // Se conseguiu pagar tudo, zera a dívida sindical
+                if (horista.getSindicato() != null) {
+                    horista.getSindicato().definirDividaSindicalEmCentavos(0);
+                }
+            }
+        }
+
+        int[] horas = calcularHorasHorista(horista, dataFolha);
+        String metodoPagamento = formatarMetodoPagamento(horista.getMetodoPagamento(), horista.getEndereco());
+        return new LinhaFolha(horista.getNome(), horas[0], horas[1], 0, 0, 0,
+                salarioBruto, descontos, salarioLiquido, metodoPagamento);
+    }
+
+    private LinhaFolha calcularLinhaAssalariado(EmpregadoAssalariado assalariado, LocalDate dataFolha) {
+        long salarioBruto = assalariado.calcularSalarioBruto(dataFolha);
+        long descontos = calcularDescontos(assalariado, dataFolha);
+        long salarioLiquido = Math.max(salarioBruto - descontos, 0);
+        String metodoPagamento = formatarMetodoPagamento(assalariado.getMetodoPagamento(), assalariado.getEndereco());
+        return new LinhaFolha(assalariado.getNome(), 0, 0, 0, 0, 0,
+                salarioBruto, descontos, salarioLiquido, metodoPagamento);
+    }
+
+    private LinhaFolha calcularLinhaComissionado(EmpregadoComissionado comissionado, LocalDate dataFolha) {
+        long[] valores = comissionado.calcularValoresQuinzena(dataFolha); // em milésimos de centavo
+        long salarioBruto = valores[0];
+        long descontos = calcularDescontos(comissionado, dataFolha);
+        long salarioLiquido = Math.max(salarioBruto - descontos, 0);
+        String metodoPagamento = formatarMetodoPagamento(comissionado.getMetodoPagamento(), comissionado.getEndereco());
+        return new LinhaFolha(comissionado.getNome(), 0, 0, valores[3], valores[1], valores[2],
+                salarioBruto, descontos, salarioLiquido, metodoPagamento);
+    }
+
     /**
      * Calcula os descontos para um empregado baseado em seu tipo.
      * 
@@ -438,40 +459,25 @@ public class FolhaPagamentoServiceImpl implements FolhaPagamentoService {
      * 
      * @param empregado O empregado para calcular os descontos
      * @param data A data do pagamento
-     * @return O valor total dos descontos para o empregado
+     * @return O valor total dos descontos para o empregado, em milésimos de centavo
      */
-    private BigDecimal calcularDescontos(Empregado empregado, LocalDate data) {
+    private long calcularDescontos(Empregado empregado, LocalDate data) {
         if (empregado.getSindicato() == null) {
-            return BigDecimal.ZERO.setScale(2, RoundingMode.DOWN);
+            return 0;
         }
 
         MembroSindicato sindicato = empregado.getSindicato();
-        BigDecimal descontos = BigDecimal.ZERO;
 
         // Para horistas, usa a lógica de dívida sindical acumulada
-        if (empregado.getTipo().equals("horista")) {
+        if (empregado.getTipoEmpregado() == TipoEmpregado.HORISTA) {
             return calcularDescontosHorista(empregado, sindicato, data);
         }
 
         // Para outros tipos, usa a lógica original
         int diasPeriodo = calcularDiasPeriodo(empregado, data);
-        BigDecimal taxaDiaria = new BigDecimal(String.valueOf(sindicato.getTaxaSindical()));
-        BigDecimal taxaSindicalTotal = taxaDiaria.multiply(BigDecimal.valueOf(diasPeriodo))
-                .setScale(2, RoundingMode.DOWN);
-        descontos = descontos.add(taxaSindicalTotal);
-
-        LocalDate inicioPeriodo = data.minusDays(diasPeriodo);
-
-        for (TaxaServico taxa : sindicato.getTaxasDeServicos()) {
-            LocalDate dataTaxa = LocalDate.parse(taxa.getData(), DateTimeFormatter.ofPattern("d/M/yyyy"));
-            if (!dataTaxa.isBefore(inicioPeriodo) && !dataTaxa.isAfter(data)) {
-                BigDecimal valorTaxa = new BigDecimal(String.valueOf(taxa.getValor()))
-                        .setScale(2, RoundingMode.DOWN);
-                descontos = descontos.add(valorTaxa);
-            }
-        }
+        long taxaSindicalTotal = sindicato.taxaSindicalEmCentavos() * diasPeriodo;
 
-        return descontos.setScale(2, RoundingMode.DOWN);
+        return (taxaSindicalTotal + sindicato.somarTaxasDeServicos(data.minusDays(diasPeriodo), data.plusDays(1))) * 1000;
     }
 
     /**
@@ -486,122 +492,37 @@ public class FolhaPagamentoServiceImpl implements FolhaPagamentoService {
      * @param empregado O empregado horista
      * @param sindicato O membro do sindicato associado
      * @param data A data do pagamento
-     * @return O valor total dos descontos para o horista
+     * @return O valor total dos descontos para o horista, em milésimos de centavo
      */
-    private BigDecimal calcularDescontosHorista(Empregado empregado, MembroSindicato sindicato, LocalDate data) {
+    private long calcularDescontosHorista(Empregado empregado, MembroSindicato sindicato, LocalDate data) {
         // Calcula taxas de serviço do período (última semana)
-        LocalDate inicioSemana = data.minusDays(6);
-        BigDecimal taxasServico = BigDecimal.ZERO;
-        
-        for (TaxaServico taxa : sindicato.getTaxasDeServicos()) {
-            LocalDate dataTaxa = LocalDate.parse(taxa.getData(), DateTimeFormatter.ofPattern("d/M/yyyy"));
-            if (!dataTaxa.isBefore(inicioSemana) && !dataTaxa.isAfter(data)) {
-                BigDecimal valorTaxa = new BigDecimal(String.valueOf(taxa.getValor()))
-                        .setScale(2, RoundingMode.DOWN);
-                taxasServico = taxasServico.add(valorTaxa);
-            }
-        }
+        long taxasServico = sindicato.somarTaxasDeServicos(data.minusDays(6), data.plusDays(1));
         
         // Total de descontos = dívida sindical atual + taxas de serviço
-        BigDecimal dividaAtual = new BigDecimal(String.valueOf(sindicato.getDividaSindical()));
-        BigDecimal totalDescontos = dividaAtual.add(taxasServico);
-        
-        return totalDescontos.setScale(2, RoundingMode.DOWN);
+        return (sindicato.dividaSindicalEmCentavos() + taxasServico) * 1000;
     }
 
 
+    // Horistas não passam por aqui: os seus descontos vêm da dívida sindical acumulada
     private int calcularDiasPeriodo(Empregado empregado, LocalDate data) {
-        switch (empregado.getTipo()) {
-            case "horista":
-                return calcularDiasPeriodoHorista(empregado, data);
-            case "assalariado":
+        switch (empregado.getTipoEmpregado()) {
+            case ASSALARIADO:
                 return data.lengthOfMonth(); // mês completo
-            case "comissionado":
+            case COMISSIONADO:
                 return 14; // quinzena
             default:
                 return 1;
         }
     }
 
-    private int calcularDiasPeriodoHorista(Empregado empregado, LocalDate data) {
-        // Horistas são pagos toda sexta-feira
-        // Calcula quantas semanas se passaram desde o último pagamento
-        
-        // Primeiro pagamento dos horistas é em 7/1/2005
-        LocalDate primeiroPagamento = LocalDate.of(2005, 1, 7);
-        
-        if (data.isBefore(primeiroPagamento)) {
-            return 0;
-        }
-        
-        // Calcula o último pagamento (última sexta-feira antes da data atual)
-        LocalDate ultimoPagamento = calcularUltimoPagamentoHorista(data);
-        
-        // Calcula quantas semanas se passaram desde o último pagamento
-        long diasEntre = ChronoUnit.DAYS.between(ultimoPagamento, data);
-        
-        // Para horistas, cada semana corresponde a 7 dias de taxa sindical
-        // Calcula quantas semanas completas se passaram
-        int semanas = (int) (diasEntre / 7);
-        
-        return semanas * 7;
-    }
-    
-    private LocalDate calcularUltimoPagamentoHorista(LocalDate data) {
-        // Primeiro pagamento dos horistas é em 7/1/2005
-        LocalDate primeiroPagamento = LocalDate.of(2005, 1, 7);
-        
-        if (data.isBefore(primeiroPagamento)) {
-            return primeiroPagamento;
-        }
-        
-        // Calcula quantas semanas se passaram desde o primeiro pagamento
-        long diasEntre = ChronoUnit.DAYS.between(primeiroPagamento, data);
-        int semanas = (int) (diasEntre / 7);
-        
-        // Retorna a data do último pagamento (semanas * 7 dias após o primeiro pagamento)
-        return primeiroPagamento.plusDays(semanas * 7);
-    }
     private int[] calcularHorasHorista(EmpregadoHorista empregado, LocalDate data) {
         LocalDate inicioSemana = data.minusDays(6);
-        int horasNormais = 0;
-        int horasExtras = 0;
-
-        for (CartaoDePonto cartao : empregado.getCartoes()) {
-            LocalDate dataCartao = LocalDate.parse(cartao.getData(), DateTimeFormatter.ofPattern("d/M/yyyy"));
-            if (!dataCartao.isBefore(inicioSemana) && !dataCartao.isAfter(data)) {
-                int horas = cartao.getHoras().intValue();
-                horasNormais += Math.min(horas, 8);
-                horasExtras += Math.max(horas - 8, 0);
-            }
-        }
+        int horasNormais = empregado.somarHorasNormaisInteiras(inicioSemana, data.plusDays(1));
+        int horasExtras = empregado.somarHorasExtrasInteiras(inicioSemana, data.plusDays(1));
 
         return new int[]{horasNormais, horasExtras};
     }
 
-    private BigDecimal[] calcularValoresComissionado(EmpregadoComissionado empregado, LocalDate data) {
-        BigDecimal salarioMensal = BigDecimal.valueOf(empregado.getSalarioMensal());
-        BigDecimal salarioBase = salarioMensal.multiply(BigDecimal.valueOf(12))
-                .divide(BigDecimal.valueOf(26), 10, RoundingMode.DOWN)
-                .setScale(2, RoundingMode.DOWN);
-
-        LocalDate inicioPeriodo = data.minusDays(14);
-        BigDecimal totalVendas = BigDecimal.ZERO;
-
-        for (ResultadoDeVenda venda : empregado.getResultadoDeVenda()) {
-            LocalDate dataVenda = LocalDate.parse(venda.getData(), DateTimeFormatter.ofPattern("d/M/yyyy"));
-            if (!dataVenda.isBefore(inicioPeriodo) && !dataVenda.isAfter(data)) {
-                totalVendas = totalVendas.add(BigDecimal.valueOf(venda.getValor()));
-            }
-        }
-
-        BigDecimal comissao = totalVendas.multiply(BigDecimal.valueOf(empregado.getTaxaDeComissao()))
-                .setScale(2, RoundingMode.DOWN);
-        BigDecimal salarioBruto = salarioBase.add(comissao);
-
-        return new BigDecimal[]{salarioBruto, totalVendas, comissao, salarioBase};
-    }
-
     private String formatarMetodoPagamento(MetodoPagamento metodo, String endereco) {
         if (metodo == null) {
             return "Em maos";
@@ -611,11 +532,44 @@ public class FolhaPagamentoServiceImpl implements FolhaPagamentoService {
             return "Em maos";
         } else if (metodo instanceof Banco) {
             Banco banco = (Banco) metodo;
-            return String.format("Banco do Brasil, Ag. %s CC %s", banco.getAgencia(), banco.getContaCorrente());
+            return "Banco do Brasil, Ag. " + banco.getAgencia() + " CC " + banco.getContaCorrente();
         } else if (metodo instanceof Correios) {
-            return String.format("Correios, %s", endereco);
+            return "Correios, " + endereco;
         }
 
         return "Em maos";
     }
-}
\ No newline at end of file
+
+    /**
+     * Linha da folha de um empregado, calculada antes da escrita do arquivo.
+     * 
+     * <p>Todos os valores estão em milésimos de centavo e são truncados em
+     * centavos somente pelo {@link EscritorFolha}.</p>
+     */
+    private static final class LinhaFolha {
+        private final String nome;
+        private final int horasNormais;
+        private final int horasExtras;
+        private final long fixo;
+        private final long vendas;
+        private final long comissao;
+        private final long salarioBruto;
+        private final long descontos;
+        private final long salarioLiquido;
+        private final String metodoPagamento;
+
+        private LinhaFolha(String nome, int horasNormais, int horasExtras, long fixo, long vendas, long comissao,
+                           long salarioBruto, long descontos, long salarioLiquido, String metodoPagamento) {
+            this.nome = nome;
+            this.horasNormais = horasNormais;
+            this.horasExtras = horasExtras;
+            this.fixo = fixo;
+            this.vendas = vendas;
+            this.comissao = comissao;
+            this.salarioBruto = salarioBruto;
+            this.descontos = descontos;
+            this.salarioLiquido = salarioLiquido;
+            this.metodoPagamento = metodoPagamento;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.commands.ObservadorAlteracoes;
+import br.ufal.ic.p2.wepayu.models.Empregado;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice secundário dos empregados por nome.
+ *
+ * <p>Para cada nome, guarda os IDs dos empregados com esse nome em ordem de ID
+ * (IDs numéricos em ordem numérica, ou seja, a ordem de criação). A busca do
+ * n-ésimo empregado com um nome é uma consulta ao mapa seguida de um acesso à
+ * lista, sem percorrer todos os empregados, e a ordem não depende da ordem de
+ * iteração do mapa de empregados.</p>
+ *
+ * <p>O índice é mantido como observador dos comandos ({@link ObservadorAlteracoes}):
+ * cada empregado criado, alterado ou removido, inclusive ao desfazer e refazer, é
+ * reindexado pelo seu ID. Alterações que podem ter afetado todo o sistema (carga
+ * dos dados, zerar o sistema) invalidam o índice, que é reconstruído na próxima
+ * consulta.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class IndiceEmpregadosPorNome implements ObservadorAlteracoes {
+    // IDs numéricos em ordem numérica; os demais depois, em ordem alfabética
+    static final Comparator<String> ORDEM_IDS = Comparator
+            .comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    private final Map<String, Empregado> empregados;
+    private final Map<String, List<String>> idsPorNome = new HashMap<>();
+    private final Map<String, String> nomesPorId = new HashMap<>();
+    private boolean valido;
+
+    /**
+     * Construtor do índice. O índice é construído na primeira consulta.
+     *
+     * @param empregados Mapa de empregados indexado
+     */
+    public IndiceEmpregadosPorNome(Map<String, Empregado> empregados) {
+        this.empregados = empregados;
+    }
+
+    /**
+     * Obtém o ID do n-ésimo empregado com o nome informado.
+     *
+     * @param nome Nome do empregado
+     * @param indice Posição do empregado entre os de mesmo nome, a partir de 1
+     * @return ID do empregado ou null se não houver empregado nessa posição
+     */
+    public String buscar(String nome, int indice) {
+        if (!valido) {
+            reconstruir();
+        }
+        List<String> ids = idsPorNome.get(nome);
+        if (ids == null || indice < 1 || indice > ids.size()) {
+            return null;
+        }
+        return ids.get(indice - 1);
+    }
+
+    @Override
+    public void empregadoAlterado(String id) {
+        if (!valido) {
+            return; // será reconstruído na próxima consulta
+        }
+        Empregado empregado = empregados.get(id);
+        String nomeAtual = empregado == null ? null : empregado.getNome();
+        String nomeIndexado = nomesPorId.get(id);
+        if (nomeAtual != null && nomeAtual.equals(nomeIndexado)) {
+            return;
+        }
+        if (nomeIndexado != null) {
+            remover(nomeIndexado, id);
+        }
+        if (nomeAtual != null) {
+            incluir(nomeAtual, id);
+        }
+    }
+
+    @Override
+    public void membroAlterado(String idMembro) {
+        // Membros do sindicato não afetam os nomes dos empregados
+    }
+
+    @Override
+    public void sistemaAlterado() {
+        invalidar();
+    }
+
+    /**
+     * Descarta o índice, que será reconstruído na próxima consulta.
+     */
+    public void invalidar() {
+        valido = false;
+    }
+
+    private void reconstruir() {
+        idsPorNome.clear();
+        nomesPorId.clear();
+        List<String> ids = new ArrayList<>(empregados.keySet());
+        ids.sort(ORDEM_IDS);
+        for (String id : ids) {
+            String nome = empregados.get(id).getNome();
+            if (nome != null) {
+                idsPorNome.computeIfAbsent(nome, n -> new ArrayList<>(1)).add(id);
+                nomesPorId.put(id, nome);
+            }
+        }
+        valido = true;
+    }
+
+    private void incluir(String nome, String id) {
+        List<String> ids = idsPorNome.computeIfAbsent(nome, n -> new ArrayList<>(1));
+        int posicao = Collections.binarySearch(ids, id, ORDEM_IDS);
+        if (posicao < 0) {
+            ids.add(-posicao - 1, id);
+        }
+        nomesPorId.put(id, nome);
+    }
+
+    private void remover(String nome, String id) {
+        List<String> ids = idsPorNome.get(nome);
+        if (ids != null) {
+            int posicao = Collections.binarySearch(ids, id, ORDEM_IDS);
+            if (posicao >= 0) {
+                ids.remove(posicao);
+            }
+            if (ids.isEmpty()) {
+                idsPorNome.remove(nome);
+            }
+        }
+        nomesPorId.remove(id);
+    }
+}
@@ -4,13 +4,11 @@ import br.ufal.ic.p2.wepayu.services.LancamentoService;
 import br.ufal.ic.p2.wepayu.models.*;
 import br.ufal.ic.p2.wepayu.commands.*;
 import br.ufal.ic.p2.wepayu.Exception.*;
-import br.ufal.ic.p2.wepayu.utils.ValorMonetarioUtils;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import br.ufal.ic.p2.wepayu.utils.Centavos;
 
-import java.util.ArrayList;
 import java.util.Map;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.ResolverStyle;
 
 /**
  * Implementação do serviço de lançamento de atividades no sistema WePayU.
@@ -52,8 +50,9 @@ public class LancamentoServiceImpl implements LancamentoService {
         if(horas == null || horas.isBlank()) throw new HorasNaoPodemSerNulasException("Horas nao podem ser nulas.");
         if(!empregados.containsKey(emp)) throw new EmpregadoNaoExisteException("Empregado nao existe.");
 
+        int dia;
         try {
-            LocalDate.parse(data, DateTimeFormatter.ofPattern("d/M/yyyy"));
+            dia = DataUtils.converterDia(data);
         } catch (Exception e) {
             throw new DataInvalidaException("Data invalida.");
         }
@@ -66,7 +65,7 @@ public class LancamentoServiceImpl implements LancamentoService {
             throw new DataInvalidaException("Horas devem ser numericas.");
         }
 
-        LancarCartaoCommand command = new LancarCartaoCommand(emp, data, horas, empregados);
+        LancarCartaoCommand command = new LancarCartaoCommand(emp, dia, horas, empregados);
         commandManager.executar(command);
     }
     
@@ -81,8 +80,9 @@ public class LancamentoServiceImpl implements LancamentoService {
         if(valor == null || valor.isBlank()) throw new ValorNaoPodeSerNuloException("Valor nao pode ser nulo.");
         if(!empregados.containsKey(emp)) throw new EmpregadoNaoExisteException("Empregado nao existe.");
 
+        int dia;
         try {
-            LocalDate.parse(data, DateTimeFormatter.ofPattern("d/M/yyyy"));
+            dia = DataUtils.converterDia(data);
         } catch (Exception e) {
             throw new DataInvalidaException("Data invalida.");
         }
@@ -95,7 +95,7 @@ public class LancamentoServiceImpl implements LancamentoService {
             throw new ValorMonetarioInvalidoException("Valor deve ser numerico.");
         }
 
-        LancarVendaCommand command = new LancarVendaCommand(emp, data, valor, empregados);
+        LancarVendaCommand command = new LancarVendaCommand(emp, dia, valor, empregados);
         commandManager.executar(command);
     }
     
@@ -109,7 +109,7 @@ public class LancamentoServiceImpl implements LancamentoService {
         Empregado empregado = empregados.get(emp);
 
         // Verificar se o empregado é horista
-        if (!empregado.getTipo().equals("horista")) throw new EmpregadoNaoEhHoristaException("Empregado nao eh horista.");
+        if (empregado.getTipoEmpregado() != TipoEmpregado.HORISTA) throw new EmpregadoNaoEhHoristaException("Empregado nao eh horista.");
 
         // Validar datas com modo STRICT
         LocalDate dtInicial = validarDataStrict(dataInicial, "Data inicial");
@@ -120,23 +120,9 @@ public class LancamentoServiceImpl implements LancamentoService {
             throw new DataInvalidaException("Data inicial nao pode ser posterior aa data final.");
         }
 
-        ArrayList<CartaoDePonto> cartoes = empregado.getCartoes();
-        DateTimeFormatter formatador = DateTimeFormatter.ofPattern("d/M/yyyy");
-
-        double horas = cartoes.stream()
-                // 1. FILTRAR: Mantém apenas os cartões dentro do período (inclusive)
-                .filter(cartao -> {
-                    LocalDate dataDoCartao = LocalDate.parse(cartao.getData(), formatador);
-                    // A data deve ser igual ou posterior à data inicial
-                    boolean aposOuIgualInicio = !dataDoCartao.isBefore(dtInicial);
-                    // A data deve ser igual ou anterior à data final
-                    boolean antesOuIgualFim = dataDoCartao.isBefore(dtFinal);
-                    return aposOuIgualInicio && antesOuIgualFim;
-                })
-                // 2. MAPEAR: Transforma cada cartão na quantidade de horas a serem pagas (máximo 8)
-                .mapToDouble(cartao -> Math.min(cartao.getHoras(), 8.0))
-                // 3. SOMAR: Soma todos os valores mapeados
-                .sum();
+        // Horas normais do período (data inicial inclusive, data final exclusive),
+        // pelas somas acumuladas dos cartões
+        double horas = ((EmpregadoHorista) empregado).somarHorasNormais(dtInicial, dtFinal) / 100.0;
 
         if (horas % 1 == 0) {
             return String.format("%.0f", horas);
@@ -155,7 +141,7 @@ public class LancamentoServiceImpl implements LancamentoService {
         Empregado empregado = empregados.get(emp);
 
         // Verificar se o empregado é horista
-        if (!empregado.getTipo().equals("horista")) throw new EmpregadoNaoEhHoristaException("Empregado nao eh horista.");
+        if (empregado.getTipoEmpregado() != TipoEmpregado.HORISTA) throw new EmpregadoNaoEhHoristaException("Empregado nao eh horista.");
 
         // Validar datas com modo STRICT
         LocalDate dtInicial = validarDataStrict(dataInicial, "Data inicial");
@@ -166,23 +152,9 @@ public class LancamentoServiceImpl implements LancamentoService {
             throw new DataInvalidaException("Data inicial nao pode ser posterior aa data final.");
         }
 
-        ArrayList<CartaoDePonto> cartoes = empregado.getCartoes();
-        DateTimeFormatter formatador = DateTimeFormatter.ofPattern("d/M/yyyy");
-
-        double horas = cartoes.stream()
-                // 1. FILTRAR: Mantém apenas os cartões dentro do período (inclusive)
-                .filter(cartao -> {
-                    LocalDate dataDoCartao = LocalDate.parse(cartao.getData(), formatador);
-                    // A data deve ser igual ou posterior à data inicial
-                    boolean aposOuIgualInicio = !dataDoCartao.isBefore(dtInicial);
-                    // A data deve ser igual ou anterior à data final
-                    boolean antesOuIgualFim = dataDoCartao.isBefore(dtFinal);
-                    return aposOuIgualInicio && antesOuIgualFim;
-                })
-                // 2. MAPEAR: Transforma cada cartão na quantidade de horas extras (acima de 8)
-                .mapToDouble(cartao -> Math.max(0.0, cartao.getHoras() - 8.0))
-                // 3. SOMAR: Soma todos os valores mapeados
-                .sum();
+        // Horas extras do período (data inicial inclusive, data final exclusive),
+        // pelas somas acumuladas dos cartões
+        double horas = ((EmpregadoHorista) empregado).somarHorasExtras(dtInicial, dtFinal) / 100.0;
 
         if (horas % 1 == 0) {
             return String.format("%.0f", horas);
@@ -200,7 +172,7 @@ public class LancamentoServiceImpl implements LancamentoService {
 
         Empregado empregado = empregados.get(emp);
 
-        if (!empregado.getTipo().equals("comissionado")) throw new TipoInvalidoException("Empregado nao eh comissionado.");
+        if (empregado.getTipoEmpregado() != TipoEmpregado.COMISSIONADO) throw new TipoInvalidoException("Empregado nao eh comissionado.");
 
         // Validar datas com modo STRICT
         LocalDate dtInicial = validarDataStrict(dataInicial, "Data inicial");
@@ -211,33 +183,17 @@ public class LancamentoServiceImpl implements LancamentoService {
             throw new DataInvalidaException("Data inicial nao pode ser posterior aa data final.");
         }
 
-        DateTimeFormatter formatador = DateTimeFormatter.ofPattern("d/M/yyyy");
-        ArrayList<ResultadoDeVenda> vendas = empregado.getResultadoDeVenda();
-
-        double valorTotalVendas = vendas.stream()
-                // 1. FILTRAR: Mantém apenas os cartões dentro do período (inclusive)
-                .filter(venda -> {
-                    LocalDate dataDaVenda = LocalDate.parse(venda.getData(), formatador);
-                    // A data deve ser igual ou posterior à data inicial
-                    boolean aposOuIgualInicio = !dataDaVenda.isBefore(dtInicial);
-                    // A data deve ser igual ou anterior à data final
-                    boolean antesOuIgualFim = dataDaVenda.isBefore(dtFinal);
-                    return aposOuIgualInicio && antesOuIgualFim;
-                })
-                // 2. MAPEAR: Transforma cada cartão na quantidade de horas a serem pagas (máximo 8)
-                .mapToDouble(ResultadoDeVenda::getValor)
-                // 3. SOMAR: Soma todos os valores mapeados
-                .sum();
-
-        return ValorMonetarioUtils.formatarValorMonetario(valorTotalVendas);
+        // Vendas do período (data inicial inclusive, data final exclusive),
+        // pelas somas acumuladas das vendas
+        long valorTotalVendas = ((EmpregadoComissionado) empregado).somarVendas(dtInicial, dtFinal);
+
+        return Centavos.formatar(valorTotalVendas);
     }
     
     // Método auxiliar para validar data com modo STRICT
     private LocalDate validarDataStrict(String data, String tipoData) throws DataInvalidaException {
         try {
-            DateTimeFormatter formatador = DateTimeFormatter.ofPattern("d/M/uuuu")
-                    .withResolverStyle(ResolverStyle.STRICT);
-            return LocalDate.parse(data, formatador);
+            return LocalDate.parse(data, DataUtils.FORMATO_DATA_ESTRITO);
         } catch (Exception e) {
             throw new DataInvalidaException(tipoData + " invalida.");
         }
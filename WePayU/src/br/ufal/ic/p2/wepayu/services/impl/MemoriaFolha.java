@@ -0,0 +1,105 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.commands.ObservadorAlteracoes;
+import br.ufal.ic.p2.wepayu.models.Empregado;
+import br.ufal.ic.p2.wepayu.models.MembroSindicato;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Memória dos valores calculados de cada empregado na folha de uma data.
+ *
+ * <p>Cada empregado e cada membro do sindicato tem um número de versão, trocado
+ * sempre que um comando o altera (inclusive ao desfazer e refazer). Um valor
+ * memorizado guarda a versão do empregado e do seu membro do sindicato no
+ * momento do cálculo e só é reaproveitado na mesma data e enquanto nenhuma das
+ * duas versões mudar; caso contrário, é recalculado. Assim, folhas repetidas da
+ * mesma data recalculam apenas os empregados alterados desde a anterior.</p>
+ *
+ * <p>Alterações que podem ter afetado todo o sistema (carga dos dados, zerar o
+ * sistema) trocam a versão de todos e descartam os valores memorizados. Cada
+ * empregado tem no máximo um valor memorizado, o da última data calculada.</p>
+ *
+ * <p>Pode ser consultada por várias threads durante o cálculo da folha; as
+ * notificações dos comandos acontecem entre as folhas.</p>
+ *
+ * @param <T> Tipo do valor calculado
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class MemoriaFolha<T> implements ObservadorAlteracoes {
+    private final Map<String, Long> versoesEmpregados = new ConcurrentHashMap<>();
+    private final Map<String, Long> versoesMembros = new ConcurrentHashMap<>();
+    private final Map<String, Memorizado<T>> memorizados = new ConcurrentHashMap<>();
+    private long relogio; // última versão atribuída
+    private long versaoGeral; // versão de todos após uma alteração geral
+
+    /**
+     * Obtém o valor do empregado na data, calculando-o apenas se o empregado ou
+     * o seu membro do sindicato foram alterados desde o último cálculo da data.
+     *
+     * @param empregado Empregado
+     * @param data Data da folha
+     * @param calculo Cálculo do valor; não deve alterar o empregado
+     * @return Valor memorizado ou recém-calculado
+     */
+    public T obter(Empregado empregado, LocalDate data, Function<Empregado, T> calculo) {
+        long versao = versao(empregado);
+        Memorizado<T> memorizado = memorizados.get(empregado.getId());
+        if (memorizado != null && memorizado.empregado == empregado
+                && memorizado.versao == versao && memorizado.data.equals(data)) {
+            return memorizado.valor;
+        }
+        T valor = calculo.apply(empregado);
+        memorizados.put(empregado.getId(), new Memorizado<>(empregado, data, versao, valor));
+        return valor;
+    }
+
+    @Override
+    public void empregadoAlterado(String id) {
+        versoesEmpregados.put(id, ++relogio);
+        memorizados.remove(id);
+    }
+
+    @Override
+    public void membroAlterado(String idMembro) {
+        versoesMembros.put(idMembro, ++relogio);
+    }
+
+    @Override
+    public void sistemaAlterado() {
+        versaoGeral = ++relogio;
+        versoesEmpregados.clear();
+        versoesMembros.clear();
+        memorizados.clear();
+    }
+
+    // A versão mais recente entre a geral, a do empregado e a do seu membro do sindicato
+    private long versao(Empregado empregado) {
+        long versao = Math.max(versaoGeral, versoesEmpregados.getOrDefault(empregado.getId(), 0L));
+        MembroSindicato sindicato = empregado.getSindicato();
+        if (sindicato != null && sindicato.getIdMembro() != null) {
+            versao = Math.max(versao, versoesMembros.getOrDefault(sindicato.getIdMembro(), 0L));
+        }
+        return versao;
+    }
+
+    // Valor calculado de um empregado, com a data e a versão do cálculo
+    private static final class Memorizado<T> {
+        private final Empregado empregado;
+        private final LocalDate data;
+        private final long versao;
+        private final T valor;
+
+        private Memorizado(Empregado empregado, LocalDate data, long versao, T valor) {
+            this.empregado = empregado;
+            this.data = data;
+            this.versao = versao;
+            this.valor = valor;
+        }
+    }
+}
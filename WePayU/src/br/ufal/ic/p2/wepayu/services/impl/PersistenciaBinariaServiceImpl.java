@@ -0,0 +1,93 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import br.ufal.ic.p2.wepayu.persistence.CodecSnapshotBinario;
+import br.ufal.ic.p2.wepayu.persistence.ImagemSistema;
+import java.io.*;
+import java.nio.file.*;
+import java.util.Map;
+
+/**
+ * Implementação do serviço de persistência com snapshot binário no sistema WePayU.
+ *
+ * <p>Mantém o mesmo journal de operações de {@link PersistenciaServiceImpl}, mas
+ * grava o snapshot em um único arquivo binário ({@code wepayu.snapshot}) através
+ * do {@link CodecSnapshotBinario}, sem o custo de reflexão do XMLEncoder.</p>
+ *
+ * <p>Funcionalidades implementadas:</p>
+ * <ul>
+ *   <li>Salvamento do snapshot em formato binário versionado</li>
+ *   <li>Carregamento do snapshot binário mapeado em memória, com históricos sob demanda</li>
+ *   <li>Migração dos arquivos XML existentes quando ainda não há snapshot binário</li>
+ * </ul>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class PersistenciaBinariaServiceImpl extends PersistenciaServiceImpl {
+
+    private static final String FILE_SNAPSHOT = "wepayu.snapshot";
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    public PersistenciaBinariaServiceImpl(Map<String, Empregado> empregados,
+                                          Map<String, MembroSindicato> membrosSindicato,
+                                          int id) {
+        super(empregados, membrosSindicato, id);
+    }
+
+    @Override
+    protected boolean gravarSnapshot(ImagemSistema imagem) {
+        Path temporario = Paths.get(FILE_SNAPSHOT + ".tmp");
+        try (OutputStream saida = new BufferedOutputStream(Files.newOutputStream(temporario), TAMANHO_BUFFER)) {
+            CodecSnapshotBinario.escrever(saida, imagem.getEmpregados(), imagem.getMembrosSindicato(), imagem.getAgendas(),
+                    imagem.getId(), imagem.getSequencia());
+        } catch (Exception e) {
+            System.err.println("Erro ao salvar sistema: " + e.getMessage());
+            return false;
+        }
+
+        try {
+            substituirArquivo(temporario, Paths.get(FILE_SNAPSHOT));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar sistema: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    protected long lerSnapshot() {
+        Path snapshot = Paths.get(FILE_SNAPSHOT);
+        if (!Files.exists(snapshot)) {
+            // Instalações antigas: carrega os arquivos XML; o próximo salvamento já grava o binário
+            return existeSnapshotXml() ? super.lerSnapshot() : 0L;
+        }
+
+        try {
+            CodecSnapshotBinario.Cabecalho cabecalho = CodecSnapshotBinario.ler(snapshot, empregados, membrosSindicato);
+            id = cabecalho.getId();
+            return cabecalho.getSequencia();
+        } catch (Exception e) {
+            System.err.println("Erro ao carregar sistema: " + e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Converte os arquivos XML do diretório atual em um snapshot binário.
+     *
+     * <p>Os dados são carregados nos mapas deste serviço e gravados imediatamente
+     * no formato binário, preservando a sequência do journal. Os arquivos XML não
+     * são removidos.</p>
+     *
+     * @return true se a migração foi concluída
+     */
+    public boolean migrarDeXml() {
+        if (!existeSnapshotXml()) {
+            return false;
+        }
+        long sequencia = super.lerSnapshot();
+        return gravarSnapshot(ImagemSistema.atual(empregados, membrosSindicato, descricoesAgendasCustomizadas(), id, sequencia));
+    }
+}
@@ -0,0 +1,135 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import br.ufal.ic.p2.wepayu.persistence.ArmazemJdbc;
+import br.ufal.ic.p2.wepayu.persistence.CodecSnapshotBinario;
+import br.ufal.ic.p2.wepayu.persistence.ImagemSistema;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementação do serviço de persistência em banco de dados SQL embutido no sistema WePayU.
+ *
+ * <p>O snapshot fica em tabelas de um banco acessado por JDBC ({@link ArmazemJdbc}):
+ * empregados e membros do sindicato são carregados sem os seus históricos, que são
+ * consultados pelo índice (dono, dia) quando necessários. Os comandos informam as
+ * entidades alteradas (ver {@link br.ufal.ic.p2.wepayu.commands.ObservadorAlteracoes})
+ * e cada salvamento grava apenas as suas linhas. O journal de operações continua
+ * sendo gerenciado por {@link PersistenciaServiceImpl}.</p>
+ *
+ * <p>Funcionalidades implementadas:</p>
+ * <ul>
+ *   <li>Salvamento transacional com inserções em lote</li>
+ *   <li>Consultas por período servidas pelo banco enquanto o histórico não foi carregado</li>
+ *   <li>Regravação completa após alterações sem entidades identificadas
+ *       (folha de pagamento, limpeza do sistema)</li>
+ *   <li>Migração dos arquivos XML existentes no primeiro salvamento</li>
+ * </ul>
+ *
+ * <p>O driver JDBC do banco configurado (por padrão, H2 em arquivo) deve estar no classpath.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class PersistenciaJdbcServiceImpl extends PersistenciaServiceImpl {
+
+    private final ArmazemJdbc armazem;
+    private final Set<String> empregadosAlterados = new HashSet<>();
+    private final Set<String> membrosAlterados = new HashSet<>();
+    private boolean regravarTudo = true; // o banco ainda não reflete os mapas
+
+    /**
+     * Construtor do serviço.
+     *
+     * @param empregados Mapa de empregados do sistema
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param id Contador de IDs de empregados
+     * @param url URL JDBC do banco de dados
+     */
+    public PersistenciaJdbcServiceImpl(Map<String, Empregado> empregados,
+                                       Map<String, MembroSindicato> membrosSindicato,
+                                       int id, String url) {
+        super(empregados, membrosSindicato, id);
+        this.armazem = new ArmazemJdbc(url);
+    }
+
+    @Override
+    protected boolean compactaEmSegundoPlano() {
+        return false; // o salvamento já grava apenas as entidades alteradas
+    }
+
+    @Override
+    protected boolean gravarSnapshot(ImagemSistema imagem) {
+        // Sempre chamado na thread dos comandos: a imagem referencia os mapas do sistema
+        try {
+            if (regravarTudo) {
+                armazem.gravarTudo(imagem.getEmpregados(), imagem.getMembrosSindicato(), imagem.getAgendas(),
+                        imagem.getId(), imagem.getSequencia());
+            } else {
+                armazem.gravarAlteracoes(imagem.getEmpregados(), imagem.getMembrosSindicato(), empregadosAlterados,
+                        membrosAlterados, imagem.getAgendas(), imagem.getId(), imagem.getSequencia());
+            }
+        } catch (Exception e) {
+            // As alterações continuam pendentes para o próximo salvamento
+            System.err.println("Erro ao salvar sistema: " + e.getMessage());
+            return false;
+        }
+        empregadosAlterados.clear();
+        membrosAlterados.clear();
+        regravarTudo = false;
+        return true;
+    }
+
+    @Override
+    protected long lerSnapshot() {
+        try {
+            if (!armazem.existe()) {
+                // Instalações anteriores: arquivos XML, gravados por completo no próximo salvamento
+                regravarTudo = true;
+                return super.lerSnapshot();
+            }
+            CodecSnapshotBinario.Cabecalho cabecalho = armazem.carregar(empregados, membrosSindicato);
+            id = cabecalho.getId();
+            regravarTudo = false;
+            return cabecalho.getSequencia();
+        } catch (Exception e) {
+            System.err.println("Erro ao carregar sistema: " + e.getMessage());
+            regravarTudo = true;
+            return 0L;
+        }
+    }
+
+    @Override
+    public void zerarSistema() {
+        super.zerarSistema();
+        regravarTudo = true;
+    }
+
+    @Override
+    public void encerrarSistema() {
+        super.encerrarSistema();
+        try {
+            armazem.close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar banco de dados: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void empregadoAlterado(String id) {
+        empregadosAlterados.add(id);
+    }
+
+    @Override
+    public void membroAlterado(String idMembro) {
+        membrosAlterados.add(idMembro);
+    }
+
+    @Override
+    public void sistemaAlterado() {
+        regravarTudo = true;
+    }
+}
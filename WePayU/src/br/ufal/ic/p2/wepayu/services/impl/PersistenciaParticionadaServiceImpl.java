@@ -0,0 +1,77 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import br.ufal.ic.p2.wepayu.persistence.ArmazemParticionado;
+import br.ufal.ic.p2.wepayu.persistence.CodecSnapshotBinario;
+import br.ufal.ic.p2.wepayu.persistence.ImagemSistema;
+import java.util.Map;
+
+/**
+ * Implementação do serviço de persistência particionada no sistema WePayU.
+ *
+ * <p>O estado é dividido em partições pelo hash do ID dos empregados e dos
+ * membros do sindicato ({@code wepayu.particoes}), gravadas e carregadas em
+ * paralelo por {@link ArmazemParticionado}. O journal de operações continua
+ * sendo gerenciado por {@link PersistenciaServiceImpl}.</p>
+ *
+ * <p>Funcionalidades implementadas:</p>
+ * <ul>
+ *   <li>Salvamento e carregamento das partições em um pool de threads</li>
+ *   <li>Quantidade de partições configurável, lida do manifesto no carregamento</li>
+ *   <li>Migração do snapshot binário ou dos arquivos XML existentes no primeiro salvamento</li>
+ * </ul>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class PersistenciaParticionadaServiceImpl extends PersistenciaBinariaServiceImpl {
+
+    private static final String DIR_PARTICOES = "wepayu.particoes";
+
+    private final ArmazemParticionado armazem;
+
+    /**
+     * Construtor do serviço.
+     *
+     * @param empregados Mapa de empregados do sistema
+     * @param membrosSindicato Mapa de membros do sindicato
+     * @param id Contador de IDs de empregados
+     * @param particoes Quantidade de partições usada nos salvamentos
+     */
+    public PersistenciaParticionadaServiceImpl(Map<String, Empregado> empregados,
+                                               Map<String, MembroSindicato> membrosSindicato,
+                                               int id, int particoes) {
+        super(empregados, membrosSindicato, id);
+        this.armazem = new ArmazemParticionado(DIR_PARTICOES, particoes);
+    }
+
+    @Override
+    protected boolean gravarSnapshot(ImagemSistema imagem) {
+        try {
+            armazem.gravar(imagem.getEmpregados(), imagem.getMembrosSindicato(), imagem.getAgendas(),
+                    imagem.getId(), imagem.getSequencia());
+            return true;
+        } catch (Exception e) {
+            System.err.println("Erro ao salvar sistema: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    protected long lerSnapshot() {
+        if (!armazem.existe()) {
+            // Instalações anteriores: snapshot binário ou XML, particionados no próximo salvamento
+            return super.lerSnapshot();
+        }
+
+        try {
+            CodecSnapshotBinario.Cabecalho cabecalho = armazem.carregar(empregados, membrosSindicato);
+            id = cabecalho.getId();
+            return cabecalho.getSequencia();
+        } catch (Exception e) {
+            System.err.println("Erro ao carregar sistema: " + e.getMessage());
+            return 0L;
+        }
+    }
+}
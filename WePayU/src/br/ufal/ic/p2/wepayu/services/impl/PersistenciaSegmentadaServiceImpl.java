@@ -0,0 +1,115 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.models.*;
+import br.ufal.ic.p2.wepayu.persistence.ArmazemSegmentos;
+import br.ufal.ic.p2.wepayu.persistence.CodecSnapshotBinario;
+import br.ufal.ic.p2.wepayu.persistence.ImagemSistema;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementação do serviço de persistência incremental no sistema WePayU.
+ *
+ * <p>Os comandos informam quais empregados e membros do sindicato alteraram
+ * (ver {@link br.ufal.ic.p2.wepayu.commands.ObservadorAlteracoes}) e cada
+ * salvamento grava apenas esses registros em um novo segmento do
+ * {@link ArmazemSegmentos} ({@code wepayu.segmentos}). O journal de operações
+ * continua sendo gerenciado por {@link PersistenciaServiceImpl}.</p>
+ *
+ * <p>Funcionalidades implementadas:</p>
+ * <ul>
+ *   <li>Rastreamento das entidades alteradas desde o último salvamento</li>
+ *   <li>Salvamento proporcional à quantidade de alterações</li>
+ *   <li>Regravação completa após alterações sem entidades identificadas
+ *       (folha de pagamento, limpeza do sistema)</li>
+ *   <li>Migração do snapshot binário ou dos arquivos XML existentes no primeiro salvamento</li>
+ * </ul>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class PersistenciaSegmentadaServiceImpl extends PersistenciaBinariaServiceImpl {
+
+    private static final String DIR_SEGMENTOS = "wepayu.segmentos";
+
+    private final ArmazemSegmentos armazem = new ArmazemSegmentos(DIR_SEGMENTOS);
+    private final Set<String> empregadosAlterados = new HashSet<>();
+    private final Set<String> membrosAlterados = new HashSet<>();
+    private boolean regravarTudo = true; // o armazém ainda não reflete os mapas
+
+    public PersistenciaSegmentadaServiceImpl(Map<String, Empregado> empregados,
+                                             Map<String, MembroSindicato> membrosSindicato,
+                                             int id) {
+        super(empregados, membrosSindicato, id);
+    }
+
+    @Override
+    protected boolean compactaEmSegundoPlano() {
+        return false; // o salvamento já grava apenas as entidades alteradas
+    }
+
+    @Override
+    protected boolean gravarSnapshot(ImagemSistema imagem) {
+        // Sempre chamado na thread dos comandos: a imagem referencia os mapas do sistema
+        try {
+            if (regravarTudo) {
+                armazem.compactar(imagem.getEmpregados(), imagem.getMembrosSindicato(), imagem.getAgendas(),
+                        imagem.getId(), imagem.getSequencia());
+            } else {
+                armazem.gravarAlteracoes(imagem.getEmpregados(), imagem.getMembrosSindicato(), empregadosAlterados,
+                        membrosAlterados, imagem.getAgendas(), imagem.getId(), imagem.getSequencia());
+            }
+        } catch (Exception e) {
+            // As alterações continuam pendentes para o próximo salvamento
+            System.err.println("Erro ao salvar sistema: " + e.getMessage());
+            return false;
+        }
+        empregadosAlterados.clear();
+        membrosAlterados.clear();
+        regravarTudo = false;
+        return true;
+    }
+
+    @Override
+    protected long lerSnapshot() {
+        if (!armazem.existe()) {
+            // Instalações anteriores: snapshot binário ou XML, regravados por completo no próximo salvamento
+            regravarTudo = true;
+            return super.lerSnapshot();
+        }
+
+        try {
+            CodecSnapshotBinario.Cabecalho cabecalho = armazem.carregar(empregados, membrosSindicato);
+            id = cabecalho.getId();
+            regravarTudo = false;
+            return cabecalho.getSequencia();
+        } catch (Exception e) {
+            System.err.println("Erro ao carregar sistema: " + e.getMessage());
+            regravarTudo = true;
+            return 0L;
+        }
+    }
+
+    @Override
+    public void zerarSistema() {
+        super.zerarSistema();
+        regravarTudo = true;
+    }
+
+    @Override
+    public void empregadoAlterado(String id) {
+        empregadosAlterados.add(id);
+    }
+
+    @Override
+    public void membroAlterado(String idMembro) {
+        membrosAlterados.add(idMembro);
+    }
+
+    @Override
+    public void sistemaAlterado() {
+        regravarTudo = true;
+    }
+}
@@ -1,87 +1,173 @@
 package br.ufal.ic.p2.wepayu.services.impl;
 
 import br.ufal.ic.p2.wepayu.services.PersistenciaService;
+import br.ufal.ic.p2.wepayu.persistence.CodecSnapshotBinario;
+import br.ufal.ic.p2.wepayu.persistence.ImagemSistema;
+import br.ufal.ic.p2.wepayu.persistence.JournalOperacoes;
+import br.ufal.ic.p2.wepayu.persistence.LeitorXmlLegado;
+import br.ufal.ic.p2.wepayu.persistence.PoliticaPersistencia;
+import br.ufal.ic.p2.wepayu.persistence.ReprodutorOperacao;
+import br.ufal.ic.p2.wepayu.persistence.SincronizadorJournal;
 import br.ufal.ic.p2.wepayu.models.*;
 import java.util.Map;
 import java.beans.XMLEncoder;
-import java.beans.XMLDecoder;
 import java.io.*;
+import java.nio.file.*;
 
 /**
  * Implementação do serviço de persistência no sistema WePayU.
- * 
+ *
  * <p>Esta classe implementa todas as operações relacionadas à persistência
  * de dados do sistema, incluindo salvamento, carregamento e gerenciamento
  * do estado do sistema usando arquivos XML.</p>
- * 
+ *
  * <p>Funcionalidades implementadas:</p>
  * <ul>
  *   <li>Salvamento de dados do sistema em arquivos XML</li>
- *   <li>Carregamento de dados do sistema a partir de arquivos XML</li>
+ *   <li>Carregamento em fluxo dos arquivos XML, uma entidade por vez</li>
  *   <li>Limpeza de dados do sistema</li>
  *   <li>Encerramento do sistema com salvamento final</li>
+ *   <li>Journal de operações, compactado em um novo snapshot XML periodicamente</li>
  * </ul>
- * 
+ *
+ * <p>Cada operação registra apenas um registro no journal. O snapshot XML completo
+ * só é regravado quando o journal atinge o limite de registros (por padrão
+ * {@link #LIMITE_REGISTROS_JOURNAL}, ajustável em {@link #definirLimiteCompactacao(int)}),
+ * quando {@link #salvarSistema()} é chamado explicitamente ou no encerramento.</p>
+ *
+ * <p>A compactação disparada pelo limite do journal não bloqueia os comandos: na
+ * thread dos comandos, o segmento ativo do journal é fechado e uma cópia do
+ * estado ({@link ImagemSistema}), que compartilha os históricos em cópia na
+ * escrita, é capturada na mesma sequência. Uma thread de fundo grava o snapshot
+ * e em seguida apaga os segmentos contidos nele. Os registros gravados durante a
+ * compactação vão para o novo segmento e permanecem no journal.</p>
+ *
+ * <p>O momento em que cada registro se torna durável segue a {@link PoliticaPersistencia}:</p>
+ * <ul>
+ *   <li><strong>comando:</strong> gravação em disco a cada registro</li>
+ *   <li><strong>operacoes N:</strong> gravação em disco a cada N registros</li>
+ *   <li><strong>intervalo</strong> e <strong>grupo:</strong> gravação única em uma thread de fundo
+ *       para todos os registros acumulados no período</li>
+ *   <li><strong>encerrar:</strong> gravação apenas no encerramento; checkpoints também são adiados,
+ *       suspendendo o journal até o próximo snapshot</li>
+ * </ul>
+ *
  * @author John Wallex
  * @version 1.0
  * @since 2025
  */
 public class PersistenciaServiceImpl implements PersistenciaService {
-    
-    private Map<String, Empregado> empregados;
-    private Map<String, MembroSindicato> membrosSindicato;
-    private int id;
-    
+
+    protected Map<String, Empregado> empregados;
+    protected Map<String, MembroSindicato> membrosSindicato;
+    protected int id;
+    private final JournalOperacoes journal;
+    private long sequenciaSnapshot; // última sequência do journal contida no snapshot carregado
+    private PoliticaPersistencia politica = PoliticaPersistencia.porComando();
+    private SincronizadorJournal sincronizador;
+    private int registrosNaoSincronizados;
+    private boolean snapshotPendente; // checkpoint adiado: o journal não representa mais o estado
+    private Thread compactacao; // compactação em segundo plano em andamento
+    private long sequenciaUltimaCompactacao;
+    private int limiteRegistrosJournal = LIMITE_REGISTROS_JOURNAL;
+
     private static final String FILE_EMPREGADOS = "empregados.xml";
     private static final String FILE_SINDICATO = "sindicato.xml";
     private static final String FILE_AGENDAS = "agendas.xml";
-    
-    public PersistenciaServiceImpl(Map<String, Empregado> empregados, 
-                                   Map<String, MembroSindicato> membrosSindicato, 
+    private static final String FILE_JOURNAL = "wepayu.journal";
+
+    /**
+     * Quantidade padrão de registros no journal que dispara a compactação em um novo snapshot.
+     */
+    public static final int LIMITE_REGISTROS_JOURNAL = 10_000;
+
+    public PersistenciaServiceImpl(Map<String, Empregado> empregados,
+                                   Map<String, MembroSindicato> membrosSindicato,
                                    int id) {
         this.empregados = empregados;
         this.membrosSindicato = membrosSindicato;
         this.id = id;
+        this.journal = new JournalOperacoes(FILE_JOURNAL);
     }
-    
+
     @Override
     public void salvarSistema() {
-        try (XMLEncoder encoder = new XMLEncoder(new BufferedOutputStream(new FileOutputStream(FILE_EMPREGADOS)))) {
-            encoder.writeObject(empregados);
-            encoder.writeObject(id);
-        } catch (Exception e) {
-            System.err.println("Erro ao salvar sistema: " + e.getMessage());
+        aguardarCompactacao();
+        long sequencia = journal.getUltimaSequencia();
+        if (gravarSnapshot(ImagemSistema.atual(empregados, membrosSindicato, descricoesAgendasCustomizadas(), id, sequencia))) {
+            snapshotPendente = false;
+            registrosNaoSincronizados = 0;
+            try {
+                journal.truncar();
+            } catch (IOException e) {
+                System.err.println("Erro ao truncar journal: " + e.getMessage());
+            }
         }
+    }
+
+    @Override
+    public void carregarSistema() {
+        sequenciaSnapshot = lerSnapshot();
+    }
 
-        try (XMLEncoder encoder = new XMLEncoder(new BufferedOutputStream(new FileOutputStream(FILE_SINDICATO)))) {
-            encoder.writeObject(membrosSindicato);
+    /**
+     * Grava o snapshot completo do sistema nos arquivos XML.
+     *
+     * <p>Subclasses que usam outro formato de snapshot sobrescrevem este método
+     * e {@link #lerSnapshot()}; o journal continua sendo gerenciado por esta classe.
+     * Quando {@link #compactaEmSegundoPlano()} retorna true, este método pode ser
+     * chamado em uma thread de fundo com uma cópia do estado e deve gravar
+     * somente a partir da imagem recebida.</p>
+     *
+     * @param imagem Estado a ser gravado, com a última sequência do journal contida nele
+     * @return true se todos os arquivos foram gravados com sucesso
+     */
+    protected boolean gravarSnapshot(ImagemSistema imagem) {
+        boolean sucesso = true;
+
+        try {
+            gravarXml(FILE_SINDICATO, imagem.getMembrosSindicato());
         } catch (Exception e) {
+            sucesso = false;
             System.err.println("Erro ao salvar membros do sindicato: " + e.getMessage());
         }
 
-        try (XMLEncoder encoder = new XMLEncoder(new BufferedOutputStream(new FileOutputStream(FILE_AGENDAS)))) {
+        try {
             // Salva apenas as descrições das agendas customizadas
-            java.util.Set<String> descricoesAgendas = new java.util.HashSet<>();
-            for (br.ufal.ic.p2.wepayu.models.AgendaDePagamentos agenda : br.ufal.ic.p2.wepayu.models.AgendaDePagamentos.getAgendasCustomizadas().values()) {
-                descricoesAgendas.add(agenda.getDescricao());
-            }
-            encoder.writeObject(descricoesAgendas);
+            gravarXml(FILE_AGENDAS, new java.util.HashSet<>(imagem.getAgendas()));
         } catch (Exception e) {
+            sucesso = false;
             System.err.println("Erro ao salvar agendas customizadas: " + e.getMessage());
         }
+
+        // Gravado por último: a sequência do journal só avança depois dos demais arquivos
+        try {
+            gravarXml(FILE_EMPREGADOS, imagem.getEmpregados(), imagem.getId(), imagem.getSequencia());
+        } catch (Exception e) {
+            sucesso = false;
+            System.err.println("Erro ao salvar sistema: " + e.getMessage());
+        }
+        return sucesso;
     }
-    
-    @Override
-    public void carregarSistema() {
+
+    /**
+     * Carrega o snapshot a partir dos arquivos XML.
+     *
+     * <p>Os arquivos são lidos em fluxo pelo {@link LeitorXmlLegado}: cada empregado
+     * e membro do sindicato é validado e inserido nos mapas assim que é lido, sem
+     * montar o mapa completo em memória. Um arquivo inválido não é carregado.</p>
+     *
+     * @return Última sequência do journal contida no snapshot (0 se não houver)
+     */
+    protected long lerSnapshot() {
+        long sequencia = 0L;
+
         // PRIMEIRO: Carrega as agendas customizadas
-        File agendas = new File(FILE_AGENDAS);
-        if (agendas.exists()) {
-            try (XMLDecoder decoder = new XMLDecoder(new BufferedInputStream(new FileInputStream(FILE_AGENDAS)))) {
-                @SuppressWarnings("unchecked")
-                java.util.Set<String> descricoesAgendas = (java.util.Set<String>) decoder.readObject();
-                
+        Path agendas = Paths.get(FILE_AGENDAS);
+        if (Files.exists(agendas)) {
+            try {
                 // Restaura as agendas customizadas
-                for (String descricao : descricoesAgendas) {
+                for (String descricao : LeitorXmlLegado.lerAgendas(agendas)) {
                     try {
                         br.ufal.ic.p2.wepayu.models.AgendaDePagamentos.criarAgenda(descricao);
                     } catch (Exception e) {
@@ -94,27 +180,57 @@ public class PersistenciaServiceImpl implements PersistenciaService {
         }
 
         // SEGUNDO: Carrega os empregados
-        File emps = new File(FILE_EMPREGADOS);
-        if (!emps.exists()) return; // primeira execução, nada salvo
+        Path emps = Paths.get(FILE_EMPREGADOS);
+        if (!Files.exists(emps)) return sequencia; // primeira execução, nada salvo
 
-        try (XMLDecoder decoder = new XMLDecoder(new BufferedInputStream(new FileInputStream(FILE_EMPREGADOS)))) {
-            empregados.putAll((Map<String, Empregado>) decoder.readObject());
-            id = (Integer) decoder.readObject();
+        try {
+            CodecSnapshotBinario.Cabecalho cabecalho = LeitorXmlLegado.lerEmpregados(emps, empregados);
+            id = cabecalho.getId();
+            sequencia = cabecalho.getSequencia();
         } catch (Exception e) {
             System.err.println("Erro ao carregar sistema: " + e.getMessage());
         }
 
         // TERCEIRO: Carrega os membros do sindicato
-        File sin = new File(FILE_SINDICATO);
-        if (!sin.exists()) return;
+        Path sin = Paths.get(FILE_SINDICATO);
+        if (!Files.exists(sin)) return sequencia;
 
-        try (XMLDecoder decoder = new XMLDecoder(new BufferedInputStream(new FileInputStream(FILE_SINDICATO)))) {
-            membrosSindicato.putAll((Map<String, MembroSindicato>) decoder.readObject());
+        try {
+            LeitorXmlLegado.lerMembros(sin, membrosSindicato);
         } catch (Exception e) {
             System.err.println("Erro ao carregar membros do sindicato: " + e.getMessage());
         }
+        vincularMembros();
+        return sequencia;
+    }
+
+    /**
+     * Faz cada empregado sindicalizado apontar para o membro lido de
+     * {@code sindicato.xml}, como no snapshot binário.
+     *
+     * <p>Os dois arquivos são decodificados separadamente, então o membro do
+     * empregado seria uma segunda cópia: as taxas de serviço lançadas depois
+     * (inclusive as reaplicadas do journal) iriam para o membro do mapa e não
+     * seriam vistas pelo empregado.</p>
+     */
+    private void vincularMembros() {
+        for (Empregado empregado : empregados.values()) {
+            MembroSindicato sindicato = empregado.getSindicato();
+            if (sindicato != null && membrosSindicato.containsKey(sindicato.getIdMembro())) {
+                empregado.setSindicato(membrosSindicato.get(sindicato.getIdMembro()));
+            }
+        }
+    }
+
+    /**
+     * Verifica se existe um snapshot XML gravado no diretório atual.
+     *
+     * @return true se o arquivo de empregados existir
+     */
+    public static boolean existeSnapshotXml() {
+        return new File(FILE_EMPREGADOS).exists();
     }
-    
+
     @Override
     public void zerarSistema() {
         empregados.clear();
@@ -125,6 +241,271 @@ public class PersistenciaServiceImpl implements PersistenciaService {
 
     @Override
     public void encerrarSistema() {
+        pararSincronizador();
         salvarSistema();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar journal: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long registrarOperacao(String... campos) {
+        if (snapshotPendente) {
+            // A operação será gravada junto com o snapshot adiado
+            return journal.getUltimaSequencia();
+        }
+
+        long sequencia;
+        try {
+            sequencia = journal.registrar(politica.getModo() == PoliticaPersistencia.Modo.POR_COMANDO, campos);
+        } catch (IOException e) {
+            // Sem journal a operação só fica durável com o snapshot completo
+            System.err.println("Erro ao registrar operacao: " + e.getMessage());
+            salvarSistema();
+            return journal.getUltimaSequencia();
+        }
+
+        if (journal.getRegistrosPendentes() >= limiteRegistrosJournal
+                && sequencia - sequenciaUltimaCompactacao >= limiteRegistrosJournal) {
+            if (compactaEmSegundoPlano()) {
+                iniciarCompactacao(sequencia);
+            } else {
+                salvarSistema();
+                return sequencia;
+            }
+        }
+
+        switch (politica.getModo()) {
+            case A_CADA_OPERACOES:
+                if (++registrosNaoSincronizados >= politica.getOperacoes()) {
+                    sincronizarJournal();
+                }
+                break;
+            case INTERVALO:
+            case GRUPO:
+                try {
+                    iniciarSincronizador().notificar();
+                } catch (IOException e) {
+                    // A gravação em segundo plano falhou: o snapshot completo torna as operações duráveis
+                    salvarSistema();
+                }
+                break;
+            default:
+                break;
+        }
+        return sequencia;
+    }
+
+    @Override
+    public void registrarCheckpoint() {
+        if (politica.getModo() == PoliticaPersistencia.Modo.AO_ENCERRAR) {
+            snapshotPendente = true;
+        } else {
+            salvarSistema();
+        }
+    }
+
+    @Override
+    public void definirPolitica(PoliticaPersistencia politica) {
+        // Torna durável o que foi registrado sob a política anterior
+        pararSincronizador();
+        if (snapshotPendente) {
+            salvarSistema();
+        } else {
+            sincronizarJournal();
+        }
+        this.politica = politica;
+    }
+
+    @Override
+    public void definirLimiteCompactacao(int registros) {
+        if (registros < 1) {
+            throw new IllegalArgumentException("Limite de compactacao invalido: " + registros);
+        }
+        this.limiteRegistrosJournal = registros;
+    }
+
+    @Override
+    public PoliticaPersistencia getPolitica() {
+        return politica;
+    }
+
+    @Override
+    public long getSequenciaDuravel() {
+        return journal.getSequenciaDuravel();
+    }
+
+    @Override
+    public long aguardarDurabilidade() {
+        // a compactação em andamento ainda apagaria segmentos do journal depois do retorno
+        aguardarCompactacao();
+        if (snapshotPendente) {
+            salvarSistema();
+        } else {
+            sincronizarJournal();
+        }
+        return journal.getSequenciaDuravel();
+    }
+
+    /**
+     * Indica se a compactação disparada pelo limite do journal pode gravar o
+     * snapshot em segundo plano, a partir de uma cópia do estado.
+     *
+     * <p>Implementações cujo salvamento é proporcional às alterações, e não ao
+     * tamanho do banco de dados, retornam false e gravam na thread dos comandos.</p>
+     *
+     * @return true se {@link #gravarSnapshot(ImagemSistema)} grava somente a partir da imagem
+     */
+    protected boolean compactaEmSegundoPlano() {
+        return true;
+    }
+
+    /**
+     * Fecha o segmento ativo do journal, captura o estado atual e inicia a sua
+     * gravação em uma thread de fundo, se não houver outra compactação em andamento.
+     */
+    private void iniciarCompactacao(long sequencia) {
+        if (compactacao != null && compactacao.isAlive()) {
+            return;
+        }
+        sequenciaUltimaCompactacao = sequencia;
+        try {
+            journal.rotacionar();
+        } catch (IOException e) {
+            System.err.println("Erro ao rotacionar journal: " + e.getMessage());
+            return; // nova tentativa após outros limiteRegistrosJournal registros
+        }
+        ImagemSistema imagem = ImagemSistema.capturar(empregados, membrosSindicato, descricoesAgendasCustomizadas(), id, sequencia);
+        compactacao = new Thread(() -> compactar(imagem), "wepayu-compactador-snapshot");
+        compactacao.setDaemon(true);
+        compactacao.start();
+    }
+
+    private void compactar(ImagemSistema imagem) {
+        if (!gravarSnapshot(imagem)) {
+            return; // o journal continua completo; nova tentativa após outros limiteRegistrosJournal registros
+        }
+        try {
+            journal.descartarAte(imagem.getSequencia());
+        } catch (IOException e) {
+            System.err.println("Erro ao truncar journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aguarda o término da compactação em segundo plano, antes de um salvamento
+     * que grava os mesmos arquivos.
+     */
+    private void aguardarCompactacao() {
+        if (compactacao == null) {
+            return;
+        }
+        boolean interrompida = false;
+        while (compactacao.isAlive()) {
+            try {
+                compactacao.join();
+            } catch (InterruptedException e) {
+                interrompida = true;
+            }
+        }
+        compactacao = null;
+        if (interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sincronizarJournal() {
+        try {
+            journal.sincronizar();
+            registrosNaoSincronizados = 0;
+        } catch (IOException e) {
+            System.err.println("Erro ao sincronizar journal: " + e.getMessage());
+        }
+    }
+
+    private SincronizadorJournal iniciarSincronizador() {
+        if (sincronizador == null) {
+            sincronizador = new SincronizadorJournal(journal, politica.getEsperaMillis());
+        }
+        return sincronizador;
+    }
+
+    private void pararSincronizador() {
+        if (sincronizador != null) {
+            try {
+                sincronizador.close();
+            } catch (IOException e) {
+                System.err.println("Erro ao sincronizar journal: " + e.getMessage());
+            }
+            sincronizador = null;
+        }
+    }
+
+    @Override
+    public void reproduzirOperacoes(ReprodutorOperacao reprodutor) {
+        journal.reproduzir(sequenciaSnapshot, reprodutor);
+    }
+
+    // O snapshot completo já contém todas as alterações; subclasses incrementais as acompanham
+
+    @Override
+    public void empregadoAlterado(String id) {
+    }
+
+    @Override
+    public void membroAlterado(String idMembro) {
+    }
+
+    @Override
+    public void sistemaAlterado() {
+    }
+
+    // Os dados carregados são os que estão gravados: não há o que regravar
+    @Override
+    public void sistemaCarregado() {
+    }
+
+    /**
+     * Grava objetos em um arquivo XML temporário e o move sobre o arquivo definitivo.
+     */
+    private void gravarXml(String arquivo, Object... objetos) throws IOException {
+        Path temporario = Paths.get(arquivo + ".tmp");
+        try (XMLEncoder encoder = new XMLEncoder(new BufferedOutputStream(new FileOutputStream(temporario.toFile())))) {
+            for (Object objeto : objetos) {
+                encoder.writeObject(objeto);
+            }
+        }
+        substituirArquivo(temporario, Paths.get(arquivo));
+    }
+
+    /**
+     * Move um arquivo temporário já gravado sobre o arquivo definitivo, para que
+     * uma queda durante a escrita não deixe o snapshot pela metade.
+     *
+     * @param temporario Arquivo recém-gravado
+     * @param destino Arquivo definitivo
+     * @throws IOException Se a movimentação falhar
+     */
+    protected static void substituirArquivo(Path temporario, Path destino) throws IOException {
+        try {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Obtém as descrições das agendas customizadas registradas no sistema.
+     *
+     * @return Conjunto de descrições
+     */
+    protected static java.util.Set<String> descricoesAgendasCustomizadas() {
+        java.util.Set<String> descricoesAgendas = new java.util.HashSet<>();
+        for (br.ufal.ic.p2.wepayu.models.AgendaDePagamentos agenda : br.ufal.ic.p2.wepayu.models.AgendaDePagamentos.getAgendasCustomizadas().values()) {
+            descricoesAgendas.add(agenda.getDescricao());
+        }
+        return descricoesAgendas;
     }
 }
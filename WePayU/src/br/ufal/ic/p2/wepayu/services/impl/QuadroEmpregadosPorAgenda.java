@@ -0,0 +1,259 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.commands.ObservadorAlteracoes;
+import br.ufal.ic.p2.wepayu.models.AgendaPagamento;
+import br.ufal.ic.p2.wepayu.models.Empregado;
+import br.ufal.ic.p2.wepayu.models.TipoEmpregado;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Quadro de empregados agrupados por agenda de pagamento e tipo, em ordem de nome.
+ *
+ * <p>Os empregados são agrupados pela descrição da sua agenda de pagamento e,
+ * em cada agenda, ficam ordenados por tipo e nome (e, entre nomes iguais, por ID,
+ * ou seja, na ordem de criação). A folha de pagamento verifica uma única vez por
+ * agenda se a data é dia de pagamento e percorre apenas os grupos das agendas
+ * que pagam na data, já ordenados, sem consultar a agenda de cada empregado nem
+ * ordenar os empregados a cada execução.</p>
+ *
+ * <p>O desempate por ID é intencional: antes do quadro, empregados com o mesmo
+ * nome saíam na folha na ordem de iteração do mapa de empregados, que não é
+ * definida e muda com a capacidade do mapa. Com o ID, as linhas de nomes
+ * iguais saem sempre na ordem de criação.</p>
+ *
+ * <p>O quadro é mantido como observador dos comandos ({@link ObservadorAlteracoes}):
+ * cada empregado criado, alterado (inclusive a agenda de pagamento) ou removido,
+ * também ao desfazer e refazer, é reposicionado pelo seu ID. Após alterações que
+ * podem ter afetado todo o sistema (carga dos dados, zerar o sistema, folha de
+ * pagamento), o quadro é conferido com o mapa de empregados na próxima consulta:
+ * só os empregados que mudaram de nome, tipo ou agenda são reposicionados, e o
+ * quadro é montado por completo apenas na primeira consulta.</p>
+ *
+ * @author John Wallex
+ * @version 1.1
+ * @since 2025
+ */
+public final class QuadroEmpregadosPorAgenda implements ObservadorAlteracoes {
+    private static final Comparator<Posicao> ORDEM_NOMES = Comparator
+            .comparing((Posicao posicao) -> posicao.nome)
+            .thenComparing(posicao -> posicao.id, IndiceEmpregadosPorNome.ORDEM_IDS);
+
+    private final Map<String, Empregado> empregados;
+    private final Map<String, Grupo> grupos = new HashMap<>(); // por descrição da agenda
+    private final Map<String, Posicao> posicoesPorId = new HashMap<>();
+    private boolean conferido;
+
+    /**
+     * Construtor do quadro. O quadro é montado na primeira consulta.
+     *
+     * @param empregados Mapa de empregados do sistema
+     */
+    public QuadroEmpregadosPorAgenda(Map<String, Empregado> empregados) {
+        this.empregados = empregados;
+    }
+
+    /**
+     * Obtém os empregados de um tipo que recebem na data, em ordem de nome.
+     *
+     * @param tipo Tipo dos empregados
+     * @param data Data do pagamento
+     * @return Nova lista com os empregados do tipo pagos na data, ordenados por nome
+     */
+    public List<Empregado> listar(TipoEmpregado tipo, LocalDate data) {
+        List<Posicao> posicoes = new ArrayList<>();
+        int gruposPagos = 0;
+        for (Grupo grupo : gruposPagos(data)) {
+            TreeSet<Posicao> quadro = grupo.quadros.get(tipo);
+            if (!quadro.isEmpty()) {
+                posicoes.addAll(quadro);
+                gruposPagos++;
+            }
+        }
+        if (gruposPagos > 1) {
+            // Concatenação de sequências já ordenadas: a ordenação apenas as intercala
+            posicoes.sort(ORDEM_NOMES);
+        }
+        return empregadosDe(posicoes);
+    }
+
+    /**
+     * Obtém as descrições das agendas com empregados que pagam na data.
+     *
+     * @param data Data do pagamento
+     * @return Nova lista com as descrições das agendas pagas na data
+     */
+    public List<String> agendasPagas(LocalDate data) {
+        List<String> agendas = new ArrayList<>();
+        for (Grupo grupo : gruposPagos(data)) {
+            agendas.add(grupo.agenda.getAgenda());
+        }
+        return agendas;
+    }
+
+    /**
+     * Obtém todos os empregados de uma agenda, sem ordem definida.
+     *
+     * @param agenda Descrição da agenda de pagamento
+     * @return Nova lista com os empregados da agenda (vazia se não houver)
+     */
+    public List<Empregado> listarAgenda(String agenda) {
+        if (!conferido) {
+            conferir();
+        }
+        List<Posicao> posicoes = new ArrayList<>();
+        Grupo grupo = grupos.get(agenda);
+        if (grupo != null) {
+            for (TreeSet<Posicao> quadro : grupo.quadros.values()) {
+                posicoes.addAll(quadro);
+            }
+        }
+        return empregadosDe(posicoes);
+    }
+
+    /**
+     * Verifica se alguma agenda com empregados paga na data.
+     *
+     * @param data Data do pagamento
+     * @return true se houver empregados a pagar na data
+     */
+    public boolean haPagamentoNaData(LocalDate data) {
+        return !gruposPagos(data).isEmpty();
+    }
+
+    @Override
+    public void empregadoAlterado(String id) {
+        if (conferido) {
+            reposicionar(id, empregados.get(id));
+        }
+    }
+
+    @Override
+    public void membroAlterado(String idMembro) {
+        // Membros do sindicato não afetam o nome, o tipo nem a agenda dos empregados
+    }
+
+    @Override
+    public void sistemaAlterado() {
+        conferido = false;
+    }
+
+    // Grupos das agendas que pagam na data; cada agenda é verificada uma vez
+    private List<Grupo> gruposPagos(LocalDate data) {
+        if (!conferido) {
+            conferir();
+        }
+        List<Grupo> pagos = new ArrayList<>();
+        for (Grupo grupo : grupos.values()) {
+            if (grupo.agenda.devePagarNaData(data)) {
+                pagos.add(grupo);
+            }
+        }
+        return pagos;
+    }
+
+    private List<Empregado> empregadosDe(List<Posicao> posicoes) {
+        List<Empregado> lista = new ArrayList<>(posicoes.size());
+        for (Posicao posicao : posicoes) {
+            lista.add(empregados.get(posicao.id));
+        }
+        return lista;
+    }
+
+    // Reposiciona os empregados que mudaram de nome, tipo ou agenda e retira os removidos
+    private void conferir() {
+        Iterator<Map.Entry<String, Posicao>> iterador = posicoesPorId.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<String, Posicao> entrada = iterador.next();
+            if (!empregados.containsKey(entrada.getKey())) {
+                retirar(entrada.getValue());
+                iterador.remove();
+            }
+        }
+        for (Map.Entry<String, Empregado> entrada : empregados.entrySet()) {
+            reposicionar(entrada.getKey(), entrada.getValue());
+        }
+        conferido = true;
+    }
+
+    private void reposicionar(String id, Empregado empregado) {
+        Posicao atual = posicoesPorId.get(id);
+        String agenda = empregado == null ? null : descricaoAgenda(empregado);
+        if (empregado != null && atual != null && atual.tipo == empregado.getTipoEmpregado()
+                && atual.nome.equals(empregado.getNome()) && atual.agenda.equals(agenda)) {
+            return;
+        }
+        if (atual != null) {
+            retirar(atual);
+            posicoesPorId.remove(id);
+        }
+        // Empregados sem agenda não recebem em nenhuma data
+        if (empregado != null && empregado.getNome() != null && agenda != null) {
+            Posicao nova = new Posicao(agenda, empregado.getTipoEmpregado(), empregado.getNome(), id);
+            grupos.computeIfAbsent(agenda, Grupo::new).incluir(nova);
+            posicoesPorId.put(id, nova);
+        }
+    }
+
+    private void retirar(Posicao posicao) {
+        Grupo grupo = grupos.get(posicao.agenda);
+        if (grupo != null && grupo.retirar(posicao)) {
+            grupos.remove(posicao.agenda);
+        }
+    }
+
+    private static String descricaoAgenda(Empregado empregado) {
+        AgendaPagamento agenda = empregado.getAgendaPagamento();
+        return agenda == null ? null : agenda.getAgenda();
+    }
+
+    // Empregados de uma agenda, um quadro ordenado por tipo
+    private static final class Grupo {
+        private final AgendaPagamento agenda;
+        private final Map<TipoEmpregado, TreeSet<Posicao>> quadros = new EnumMap<>(TipoEmpregado.class);
+        private int tamanho;
+
+        private Grupo(String descricao) {
+            this.agenda = new AgendaPagamento(descricao);
+            for (TipoEmpregado tipo : TipoEmpregado.values()) {
+                quadros.put(tipo, new TreeSet<>(ORDEM_NOMES));
+            }
+        }
+
+        private void incluir(Posicao posicao) {
+            if (quadros.get(posicao.tipo).add(posicao)) {
+                tamanho++;
+            }
+        }
+
+        // Retorna true se o grupo ficou vazio
+        private boolean retirar(Posicao posicao) {
+            if (quadros.get(posicao.tipo).remove(posicao)) {
+                tamanho--;
+            }
+            return tamanho == 0;
+        }
+    }
+
+    // Posição de um empregado no quadro da sua agenda e do seu tipo
+    private static final class Posicao {
+        private final String agenda;
+        private final TipoEmpregado tipo;
+        private final String nome;
+        private final String id;
+
+        private Posicao(String agenda, TipoEmpregado tipo, String nome, String id) {
+            this.agenda = agenda;
+            this.tipo = tipo;
+            this.nome = nome;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.Exception.AgendaPagamentoInvalidaException;
+import br.ufal.ic.p2.wepayu.Exception.DataInvalidaException;
+import br.ufal.ic.p2.wepayu.Exception.ValorDeveSerNaoNegativoException;
+import br.ufal.ic.p2.wepayu.Exception.ValorDeveSerNumericoException;
+import br.ufal.ic.p2.wepayu.commands.CommandManager;
+import br.ufal.ic.p2.wepayu.models.AgendaPagamento;
+import br.ufal.ic.p2.wepayu.models.Empregado;
+import br.ufal.ic.p2.wepayu.models.EmpregadoAssalariado;
+import br.ufal.ic.p2.wepayu.models.EmpregadoComissionado;
+import br.ufal.ic.p2.wepayu.models.EmpregadoHorista;
+import br.ufal.ic.p2.wepayu.models.MembroSindicato;
+import br.ufal.ic.p2.wepayu.persistence.ImagemSistema;
+import br.ufal.ic.p2.wepayu.utils.Centavos;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Simulação da folha de pagamento, sem efeitos sobre os dados do sistema.
+ *
+ * <p>A simulação trabalha sobre uma cópia dos empregados e dos membros do
+ * sindicato, capturada como a de um snapshot ({@link ImagemSistema}): são
+ * duplicados os empregados e os membros, e as listas dos históricos são
+ * compartilhadas com o sistema em cópia na escrita. Os históricos que o sistema
+ * ainda não carregou são decodificados na captura, na cópia: a simulação não
+ * usa os carregadores do sistema, que leem o snapshot mapeado em memória ou o
+ * banco de dados em uso pelos comandos. A folha simulada é gerada por um
+ * serviço de folha próprio, no mesmo formato de
+ * {@link FolhaPagamentoServiceImpl#rodaFolha(String, String)}, e a dívida
+ * sindical dos horistas é atualizada apenas na cópia.</p>
+ *
+ * <p>Antes de rodar, a cópia pode receber alterações de cenário: um reajuste
+ * percentual dos salários ou uma agenda de pagamento para todos os empregados.
+ * Folhas sucessivas da mesma simulação partem do estado deixado pela anterior,
+ * como no sistema.</p>
+ *
+ * <p>A captura deve ser feita na thread dos comandos; depois disso, a simulação
+ * pode rodar em outra thread, ao mesmo tempo que os comandos e que outras
+ * simulações.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class SimulacaoFolha {
+    private final Map<String, Empregado> empregados;
+    private final Map<String, MembroSindicato> membrosSindicato;
+    private FolhaPagamentoServiceImpl folhaPagamentoService; // criado na primeira folha após as alterações
+
+    private SimulacaoFolha(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato) {
+        this.empregados = empregados;
+        this.membrosSindicato = membrosSindicato;
+    }
+
+    /**
+     * Captura uma cópia dos empregados e dos membros do sindicato para simulação.
+     *
+     * @param empregados Mapa de empregados do sistema
+     * @param membrosSindicato Mapa de membros do sindicato do sistema
+     * @return Simulação sobre a cópia do estado atual
+     */
+    public static SimulacaoFolha capturar(Map<String, Empregado> empregados, Map<String, MembroSindicato> membrosSindicato) {
+        ImagemSistema copia = ImagemSistema.capturar(empregados, membrosSindicato, Collections.emptySet(), 0, 0);
+        carregarHistoricosPendentes(copia);
+        return new SimulacaoFolha(copia.getEmpregados(), copia.getMembrosSindicato());
+    }
+
+    // Os carregadores continuam pendentes nos objetos do sistema, que não são alterados
+    private static void carregarHistoricosPendentes(ImagemSistema copia) {
+        for (Empregado empregado : copia.getEmpregados().values()) {
+            if (empregado instanceof EmpregadoHorista) {
+                EmpregadoHorista horista = (EmpregadoHorista) empregado;
+                if (horista.carregadorCartoesPendente() != null) {
+                    horista.setCartoes(horista.carregadorCartoesPendente().carregar());
+                }
+            } else if (empregado instanceof EmpregadoComissionado) {
+                EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
+                if (comissionado.carregadorVendasPendente() != null) {
+                    comissionado.setResultadoDeVenda(comissionado.carregadorVendasPendente().carregar());
+                }
+            }
+            if (empregado.getSindicato() != null) {
+                carregarTaxasPendentes(empregado.getSindicato());
+            }
+        }
+        for (MembroSindicato membro : copia.getMembrosSindicato().values()) {
+            carregarTaxasPendentes(membro);
+        }
+    }
+
+    private static void carregarTaxasPendentes(MembroSindicato membro) {
+        if (membro.carregadorTaxasPendente() != null) {
+            membro.setTaxasDeServicos(membro.carregadorTaxasPendente().carregar());
+        }
+    }
+
+    /**
+     * Reajusta os salários de todos os empregados da simulação: salário por hora
+     * dos horistas e salário mensal dos assalariados e comissionados. Os novos
+     * salários são truncados em centavos.
+     *
+     * @param percentual Percentual do reajuste (ex: "5" ou "2,5"; negativo para redução)
+     * @throws ValorDeveSerNumericoException Se o percentual não for numérico
+     * @throws ValorDeveSerNaoNegativoException Se a redução for maior que 100%
+     */
+    public synchronized void reajustarSalarios(String percentual) {
+        long centesimos; // em centésimos de ponto percentual
+        try {
+            centesimos = Centavos.ler(percentual);
+        } catch (NumberFormatException e) {
+            throw new ValorDeveSerNumericoException("Reajuste deve ser numerico.");
+        }
+        if (centesimos < -10000) {
+            throw new ValorDeveSerNaoNegativoException("Reajuste nao pode reduzir o salario abaixo de zero.");
+        }
+
+        long fator = 10000 + centesimos;
+        for (Empregado empregado : empregados.values()) {
+            if (empregado instanceof EmpregadoHorista) {
+                EmpregadoHorista horista = (EmpregadoHorista) empregado;
+                horista.setSalarioPorHora(Centavos.paraDouble(horista.salarioPorHoraEmCentavos() * fator / 10000));
+            } else if (empregado instanceof EmpregadoComissionado) {
+                EmpregadoComissionado comissionado = (EmpregadoComissionado) empregado;
+                comissionado.setSalarioMensal(Centavos.paraDouble(comissionado.salarioMensalEmCentavos() * fator / 10000));
+            } else if (empregado instanceof EmpregadoAssalariado) {
+                EmpregadoAssalariado assalariado = (EmpregadoAssalariado) empregado;
+                assalariado.setSalarioMensal(Centavos.paraDouble(assalariado.salarioMensalEmCentavos() * fator / 10000));
+            }
+        }
+        folhaPagamentoService = null;
+    }
+
+    /**
+     * Define a mesma agenda de pagamento para todos os empregados da simulação.
+     *
+     * @param agenda Descrição da agenda (padrão ou customizada já criada)
+     * @throws AgendaPagamentoInvalidaException Se a agenda não estiver disponível
+     */
+    public synchronized void definirAgenda(String agenda) throws AgendaPagamentoInvalidaException {
+        if (agenda == null || !AgendaPagamento.isAgendaValida(agenda)) {
+            throw new AgendaPagamentoInvalidaException("Agenda de pagamento nao esta disponivel");
+        }
+        for (Empregado empregado : empregados.values()) {
+            empregado.setAgendaPagamento(agenda);
+        }
+        folhaPagamentoService = null;
+    }
+
+    /**
+     * Calcula o total bruto da folha simulada de uma data.
+     *
+     * @param data Data da folha no formato "dd/MM/yyyy"
+     * @return Total da folha em formato monetário
+     * @throws DataInvalidaException Se a data for inválida
+     */
+    public synchronized String totalFolha(String data) throws DataInvalidaException {
+        return folhaPagamento().totalFolha(data);
+    }
+
+    /**
+     * Gera o arquivo da folha simulada de uma data.
+     *
+     * @param data Data da folha no formato "dd/MM/yyyy"
+     * @param arquivo Nome do arquivo da folha simulada
+     * @throws DataInvalidaException Se a data for inválida
+     */
+    public synchronized void rodaFolha(String data, String arquivo) throws DataInvalidaException {
+        folhaPagamento().rodaFolha(data, arquivo);
+    }
+
+    // As alterações de cenário não passam por comandos: os quadros, totais e linhas
+    // memorizadas do serviço da simulação são descartados e montados de novo
+    private FolhaPagamentoServiceImpl folhaPagamento() {
+        if (folhaPagamentoService == null) {
+            // Gerenciador próprio: os observadores da simulação não recebem os comandos do sistema
+            folhaPagamentoService = new FolhaPagamentoServiceImpl(empregados, membrosSindicato, new CommandManager());
+        }
+        return folhaPagamentoService;
+    }
+}
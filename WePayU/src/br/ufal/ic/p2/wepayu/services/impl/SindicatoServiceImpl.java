@@ -5,13 +5,11 @@ import br.ufal.ic.p2.wepayu.models.*;
 import br.ufal.ic.p2.wepayu.commands.*;
 import br.ufal.ic.p2.wepayu.Exception.*;
 import br.ufal.ic.p2.wepayu.factories.MembroSindicatoFactory;
-import br.ufal.ic.p2.wepayu.utils.ValorMonetarioUtils;
+import br.ufal.ic.p2.wepayu.utils.DataUtils;
+import br.ufal.ic.p2.wepayu.utils.Centavos;
 
-import java.time.format.ResolverStyle;
 import java.util.Map;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 
 /**
  * Implementação do serviço de sindicato no sistema WePayU.
@@ -68,8 +66,9 @@ public class SindicatoServiceImpl implements SindicatoService {
         if(data == null || data.isBlank()) throw new DataNaoPodeSerNulaException("Data nao pode ser nula.");
         if(valor == null || valor.isBlank()) throw new ValorNaoPodeSerNuloException("Valor nao pode ser nulo.");
 
+        int dia;
         try {
-            validarDataStrict(data, "Data");
+            dia = (int) validarDataStrict(data, "Data").toEpochDay();
         } catch (DataInvalidaException e) {
             throw e;
         }
@@ -82,7 +81,7 @@ public class SindicatoServiceImpl implements SindicatoService {
             throw new ValorMonetarioInvalidoException("Valor deve ser numerico.");
         }
 
-        LancarTaxaServicoCommand command = new LancarTaxaServicoCommand(membro, data, valor, membrosSindicato);
+        LancarTaxaServicoCommand command = new LancarTaxaServicoCommand(membro, dia, valor, membrosSindicato);
         commandManager.executar(command);
     }
     
@@ -146,33 +145,17 @@ public class SindicatoServiceImpl implements SindicatoService {
 
         if(dtInicial.isAfter(dtFinal)) throw new DataInvalidaException("Data inicial nao pode ser posterior aa data final.");
 
-        ArrayList<TaxaServico> taxas = empregado.getSindicato().getTaxasDeServicos();
-        DateTimeFormatter formatador = DateTimeFormatter.ofPattern("d/M/yyyy");
+        // Taxas do período (data inicial inclusive, data final exclusive),
+        // pelas somas acumuladas das taxas
+        long valorTotalTaxas = empregado.getSindicato().somarTaxasDeServicos(dtInicial, dtFinal);
 
-        double valorTotalTaxas = taxas.stream()
-                // 1. FILTRAR: Mantém apenas as taxas dentro do período (inclusive)
-                .filter(taxa -> {
-                    LocalDate dataDaTaxa = LocalDate.parse(taxa.getData(), formatador);
-                    // A data deve ser igual ou posterior à data inicial
-                    boolean aposOuIgualInicio = !dataDaTaxa.isBefore(dtInicial);
-                    // A data deve ser igual ou anterior à data final
-                    boolean antesOuIgualFim = dataDaTaxa.isBefore(dtFinal);
-                    return aposOuIgualInicio && antesOuIgualFim;
-                })
-                // 2. MAPEAR: Transforma cada taxa no valor
-                .mapToDouble(TaxaServico::getValor)
-                // 3. SOMAR: Soma todos os valores mapeados
-                .sum();
-
-        return ValorMonetarioUtils.formatarValorMonetario(valorTotalTaxas);
+        return Centavos.formatar(valorTotalTaxas);
     }
 
     // Método auxiliar para validar data com modo STRICT
     private LocalDate validarDataStrict(String data, String tipoData) throws DataInvalidaException {
         try {
-            DateTimeFormatter formatador = DateTimeFormatter.ofPattern("d/M/uuuu")
-                    .withResolverStyle(ResolverStyle.STRICT);
-            return LocalDate.parse(data, formatador);
+            return LocalDate.parse(data, DataUtils.FORMATO_DATA_ESTRITO);
         } catch (Exception e) {
             throw new DataInvalidaException(tipoData + " invalida.");
         }
@@ -0,0 +1,168 @@
+package br.ufal.ic.p2.wepayu.services.impl;
+
+import br.ufal.ic.p2.wepayu.commands.ObservadorAlteracoes;
+import br.ufal.ic.p2.wepayu.models.AgendaPagamento;
+import br.ufal.ic.p2.wepayu.models.Empregado;
+import br.ufal.ic.p2.wepayu.utils.Centavos;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Totais brutos da folha de pagamento por agenda, mantidos a cada alteração.
+ *
+ * <p>Para cada agenda de pagamento, guarda o total bruto do período aberto, ou
+ * seja, do período que termina no último dia de pagamento consultado, junto com
+ * a parcela de cada empregado nesse total. O total de uma agenda é montado na
+ * primeira consulta da data; a partir daí, cada comando que altera um empregado
+ * (cartão de ponto, venda, salário, agenda, criação ou remoção, também ao
+ * desfazer e refazer) recalcula apenas a parcela desse empregado e a substitui
+ * no total da sua agenda. O total da folha de uma data é a soma dos totais das
+ * agendas que pagam na data, sem recalcular os empregados.</p>
+ *
+ * <p>Alterações que podem ter afetado todo o sistema (carga dos dados, zerar o
+ * sistema, folha de pagamento) descartam os totais, que são montados novamente
+ * na próxima consulta.</p>
+ *
+ * <p>Cada agenda guarda o total de um único período, o da última data
+ * consultada: consultas alternadas de datas diferentes da mesma agenda montam
+ * o total de novo a cada troca. O uso esperado é consultar e rodar a folha de
+ * um dia de pagamento por vez, em ordem.</p>
+ *
+ * <p>Os empregados das agendas padrão do seu tipo somam o salário bruto; os das
+ * demais agendas, o valor calculado pela agenda. O valor das agendas que dividem
+ * o salário anual (semanais) é uma fração exata, então todas as parcelas são
+ * somadas em 1/{@link Centavos#DIVISOR_AGENDAS} de milésimo de centavo, sem
+ * truncar, e o total é truncado em centavos uma única vez, no resultado.</p>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class TotaisFolhaPorAgenda implements ObservadorAlteracoes {
+    private final Map<String, Empregado> empregados;
+    private final QuadroEmpregadosPorAgenda quadroPorAgenda;
+    private final Map<String, TotalAgenda> totais = new HashMap<>(); // por descrição da agenda
+    private final Map<String, TotalAgenda> totaisPorId = new HashMap<>();
+
+    /**
+     * Construtor dos totais. Os totais são montados na primeira consulta de cada data.
+     *
+     * @param empregados Mapa de empregados do sistema
+     * @param quadroPorAgenda Quadro dos empregados por agenda de pagamento
+     */
+    public TotaisFolhaPorAgenda(Map<String, Empregado> empregados, QuadroEmpregadosPorAgenda quadroPorAgenda) {
+        this.empregados = empregados;
+        this.quadroPorAgenda = quadroPorAgenda;
+    }
+
+    /**
+     * Calcula o total bruto da folha de pagamento da data.
+     *
+     * @param data Data do pagamento
+     * @return Total bruto formatado ("1234,56"), truncado em centavos
+     */
+    public String totalFolha(LocalDate data) {
+        long total = 0; // em 1/52 de milésimo de centavo, sem truncar
+        for (String agenda : quadroPorAgenda.agendasPagas(data)) {
+            TotalAgenda totalAgenda = totais.get(agenda);
+            if (totalAgenda == null || !totalAgenda.data.equals(data)) {
+                totalAgenda = montar(agenda, data);
+            }
+            total += totalAgenda.valor;
+        }
+        return Centavos.formatar(total, 1000 * Centavos.DIVISOR_AGENDAS);
+    }
+
+    @Override
+    public void empregadoAlterado(String id) {
+        TotalAgenda anterior = totaisPorId.remove(id);
+        if (anterior != null) {
+            anterior.retirar(id);
+        }
+        // Empregados sem nome ou sem agenda ficam fora do quadro e não recebem
+        Empregado empregado = empregados.get(id);
+        if (empregado == null || empregado.getNome() == null || empregado.getAgendaPagamento() == null) {
+            return;
+        }
+        TotalAgenda total = totais.get(empregado.getAgendaPagamento().getAgenda());
+        if (total == null) {
+            return; // período ainda não consultado: a parcela entra quando o total for montado
+        }
+        try {
+            total.incluir(id, calcularParcela(empregado, total.data));
+            totaisPorId.put(id, total);
+        } catch (RuntimeException e) {
+            // O total da agenda será montado (e o erro, reportado) na próxima consulta
+            descartar(total);
+        }
+    }
+
+    @Override
+    public void membroAlterado(String idMembro) {
+        // Os descontos do sindicato não fazem parte do salário bruto
+    }
+
+    @Override
+    public void sistemaAlterado() {
+        totais.clear();
+        totaisPorId.clear();
+    }
+
+    // Calcula as parcelas de todos os empregados da agenda no período que termina na data
+    private TotalAgenda montar(String agenda, LocalDate data) {
+        TotalAgenda total = new TotalAgenda(agenda, data);
+        for (Empregado empregado : quadroPorAgenda.listarAgenda(agenda)) {
+            total.incluir(empregado.getId(), calcularParcela(empregado, data));
+        }
+        TotalAgenda anterior = totais.put(agenda, total);
+        if (anterior != null) {
+            anterior.parcelas.keySet().forEach(totaisPorId::remove);
+        }
+        for (String id : total.parcelas.keySet()) {
+            totaisPorId.put(id, total);
+        }
+        return total;
+    }
+
+    private void descartar(TotalAgenda total) {
+        totais.remove(total.agenda);
+        total.parcelas.keySet().forEach(totaisPorId::remove);
+    }
+
+    // Parcela de um empregado no total da agenda, em 1/52 de milésimo de centavo: o
+    // salário bruto na agenda padrão do seu tipo, o valor calculado pela agenda nas demais
+    private static long calcularParcela(Empregado empregado, LocalDate data) {
+        AgendaPagamento agenda = empregado.getAgendaPagamento();
+        if (agenda.isAgendaPadrao(empregado.getTipoEmpregado())) {
+            return empregado.calcularSalarioBruto(data) * Centavos.DIVISOR_AGENDAS;
+        }
+        return agenda.calcularValorPagamento(empregado, data);
+    }
+
+    // Total bruto de uma agenda no período que termina na data
+    private static final class TotalAgenda {
+        private final String agenda;
+        private final LocalDate data;
+        private final Map<String, Long> parcelas = new HashMap<>(); // em 1/52 de milésimo de centavo
+        private long valor;
+
+        private TotalAgenda(String agenda, LocalDate data) {
+            this.agenda = agenda;
+            this.data = data;
+        }
+
+        private void incluir(String id, long parcela) {
+            retirar(id);
+            parcelas.put(id, parcela);
+            valor += parcela;
+        }
+
+        private void retirar(String id) {
+            Long parcela = parcelas.remove(id);
+            if (parcela != null) {
+                valor -= parcela;
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package br.ufal.ic.p2.wepayu.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores monetários em centavos, representados por {@code long}.
+ *
+ * <p>Os valores do sistema têm 2 casas decimais e são truncados (RoundingMode.DOWN),
+ * nunca arredondados. Em centavos, somas, diferenças e multiplicações por inteiros
+ * são exatas e não criam objetos, ao contrário de {@link BigDecimal}. Os métodos
+ * desta classe fazem as conversões de e para texto e {@code double} com as mesmas
+ * regras de truncamento de {@link ValorMonetarioUtils}.</p>
+ *
+ * <p>Exemplo de uso:</p>
+ * <pre>
+ * long salario = Centavos.ler("1.234,567");  // 123456
+ * String texto = Centavos.formatar(salario); // "1234,56"
+ * </pre>
+ *
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public final class Centavos {
+
+    /**
+     * Divisor comum dos valores das agendas de pagamento: as agendas dividem o
+     * salário anual pelas 52 semanas do ano (multiplicado pelas semanas do
+     * período) ou pelas 26 quinzenas, então cada valor é um múltiplo exato de
+     * 1/52 de milésimo de centavo.
+     */
+    public static final long DIVISOR_AGENDAS = 52;
+
+    private static final int MAXIMO_DIGITOS_INTEIROS = 15;
+    private static final long ESCALA_TAXA = 10_000; // taxas com até 4 casas decimais
+
+    private Centavos() { }
+
+    /**
+     * Trunca um valor para centavos.
+     *
+     * <p>Equivale a {@code BigDecimal.valueOf(valor).setScale(2, RoundingMode.DOWN)}.
+     * Valores que já têm no máximo 2 casas decimais são convertidos sem criar objetos.</p>
+     *
+     * @param valor Valor a converter
+     * @return Valor truncado, em centavos
+     */
+    public static long truncar(double valor) {
+        long centavos = Math.round(valor * 100);
+        if (centavos / 100.0 == valor) {
+            return centavos; // o double é o mais próximo de centavos/100: não há o que truncar
+        }
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.DOWN).unscaledValue().longValue();
+    }
+
+    /**
+     * Converte centavos para {@code double}.
+     *
+     * @param centavos Valor em centavos
+     * @return Valor com 2 casas decimais
+     */
+    public static double paraDouble(long centavos) {
+        return centavos / 100.0;
+    }
+
+    /**
+     * Lê um valor monetário em texto, truncando para centavos.
+     *
+     * <p>Aceita o formato brasileiro, com vírgula decimal e pontos separando os
+     * milhares ("1.234,56"), e também o ponto como separador decimal quando não
+     * há vírgula ("1234.56"). Casas decimais além da segunda são descartadas.
+     * Textos fora desses formatos (notação científica, por exemplo) são lidos
+     * por {@link Double#parseDouble(String)}, como antes.</p>
+     *
+     * @param texto Valor em texto
+     * @return Valor truncado, em centavos
+     * @throws NumberFormatException Se o texto não for numérico
+     */
+    public static long ler(String texto) {
+        String valor = texto.trim();
+        int tamanho = valor.length();
+        int i = 0;
+        boolean negativo = false;
+        if (tamanho > 0 && (valor.charAt(0) == '-' || valor.charAt(0) == '+')) {
+            negativo = valor.charAt(0) == '-';
+            i++;
+        }
+        boolean comMilhares = valor.indexOf(',') >= 0;
+
+        long inteiro = 0;
+        int digitos = 0;
+        int digitosDoGrupo = -1; // dígitos desde o último separador de milhares
+        for (; i < tamanho; i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                inteiro = inteiro * 10 + (c - '0');
+                digitos++;
+                if (digitosDoGrupo >= 0) {
+                    digitosDoGrupo++;
+                }
+            } else if (c == '.' && comMilhares && digitos > 0 && digitosDoGrupo != 0
+                    && (digitosDoGrupo < 0 || digitosDoGrupo == 3)) {
+                digitosDoGrupo = 0;
+            } else {
+                break;
+            }
+        }
+        if (digitos > MAXIMO_DIGITOS_INTEIROS || (digitosDoGrupo >= 0 && digitosDoGrupo != 3)) {
+            return lerDouble(valor);
+        }
+
+        long fracao = 0;
+        int casas = 0;
+        if (i < tamanho && valor.charAt(i) == (comMilhares ? ',' : '.')) {
+            for (i++; i < tamanho; i++) {
+                char c = valor.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (casas < 2) {
+                    fracao = fracao * 10 + (c - '0');
+                }
+                casas++;
+            }
+        }
+        if (i < tamanho || digitos + casas == 0) {
+            return lerDouble(valor);
+        }
+        for (int c = casas; c < 2; c++) {
+            fracao *= 10;
+        }
+        long centavos = inteiro * 100 + fracao;
+        return negativo ? -centavos : centavos;
+    }
+
+    private static long lerDouble(String valor) {
+        return truncar(Double.parseDouble(valor.replace(',', '.')));
+    }
+
+    /**
+     * Formata centavos com 2 casas decimais e vírgula como separador decimal,
+     * sem separador de milhares, como exibido pelo sistema (ex: "1234,56").
+     *
+     * @param centavos Valor em centavos
+     * @return Valor formatado
+     */
+    public static String formatar(long centavos) {
+        long absoluto = Math.abs(centavos);
+        long resto = absoluto % 100;
+        StringBuilder texto = new StringBuilder(24);
+        if (centavos < 0) {
+            texto.append('-');
+        }
+        texto.append(absoluto / 100).append(',');
+        if (resto < 10) {
+            texto.append('0');
+        }
+        return texto.append(resto).toString();
+    }
+
+    /**
+     * Formata a fração {@code numerador / denominador} de centavos, truncando
+     * uma única vez, no resultado.
+     *
+     * <p>Usado para somar frações sem truncar cada parcela: os valores das
+     * agendas são somados em 1/{@link #DIVISOR_AGENDAS} de milésimo de centavo
+     * e formatados com denominador {@code 1000 * DIVISOR_AGENDAS}.</p>
+     *
+     * @param numerador Valor multiplicado pelo denominador
+     * @param denominador Denominador positivo da fração
+     * @return Valor truncado em centavos e formatado
+     */
+    public static String formatar(long numerador, long denominador) {
+        return formatar(numerador / denominador);
+    }
+
+    /**
+     * Multiplica um valor em centavos por uma taxa, truncando o resultado para
+     * milésimos de centavo, a unidade dos salários brutos da folha.
+     *
+     * @param centavos Valor em centavos
+     * @param taxa Taxa multiplicadora (ex: 0.1 para 10%)
+     * @return Produto truncado, em milésimos de centavo
+     */
+    public static long multiplicarEmMilesimos(long centavos, double taxa) {
+        long taxaEscalada = Math.round(taxa * ESCALA_TAXA);
+        if (taxaEscalada / (double) ESCALA_TAXA == taxa
+                && Math.abs(centavos) < Long.MAX_VALUE / (Math.abs(taxaEscalada) + 1)) {
+            return centavos * taxaEscalada / (ESCALA_TAXA / 1000);
+        }
+        return BigDecimal.valueOf(centavos, 2).multiply(BigDecimal.valueOf(taxa))
+                .setScale(5, RoundingMode.DOWN).unscaledValue().longValue();
+    }
+
+    /**
+     * Multiplica um valor em centavos por uma taxa, truncando o resultado para centavos.
+     *
+     * <p>Equivale a multiplicar os {@link BigDecimal} correspondentes e truncar para
+     * 2 casas decimais. Taxas com até 4 casas decimais são multiplicadas sem criar
+     * objetos.</p>
+     *
+     * @param centavos Valor em centavos
+     * @param taxa Taxa multiplicadora (ex: 0.1 para 10%)
+     * @return Produto truncado, em centavos
+     */
+    public static long multiplicar(long centavos, double taxa) {
+        long taxaEscalada = Math.round(taxa * ESCALA_TAXA);
+        if (taxaEscalada / (double) ESCALA_TAXA == taxa
+                && Math.abs(centavos) < Long.MAX_VALUE / (Math.abs(taxaEscalada) + 1)) {
+            return centavos * taxaEscalada / ESCALA_TAXA;
+        }
+        return BigDecimal.valueOf(centavos, 2).multiply(BigDecimal.valueOf(taxa))
+                .setScale(2, RoundingMode.DOWN).unscaledValue().longValue();
+    }
+}
@@ -0,0 +1,197 @@
+package br.ufal.ic.p2.wepayu.utils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Classe utilitária para operações com datas de lançamentos no sistema WePayU.
+ * 
+ * <p>As datas dos cartões de ponto, vendas e taxas de serviço chegam no formato
+ * "d/M/yyyy" e são convertidas uma única vez, no lançamento, para o dia epoch
+ * (dias desde 1/1/1970). Os cálculos da folha e as consultas por período comparam
+ * apenas esses inteiros. Esta classe centraliza a conversão dessas datas e a
+ * seleção dos lançamentos de um período.</p>
+ * 
+ * @author John Wallex
+ * @version 1.0
+ * @since 2025
+ */
+public class DataUtils {
+
+    /**
+     * Formatador das datas dos lançamentos.
+     */
+    public static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("d/M/yyyy");
+
+    /**
+     * Formatador estrito das datas informadas nas consultas, que rejeita dias
+     * inexistentes no mês em vez de ajustá-los.
+     */
+    public static final DateTimeFormatter FORMATO_DATA_ESTRITO = DateTimeFormatter.ofPattern("d/M/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    /**
+     * Converte a data de um lançamento.
+     * 
+     * @param data Data no formato "d/M/yyyy"
+     * @return Data convertida
+     */
+    public static LocalDate converterData(String data) {
+        return LocalDate.parse(data, FORMATO_DATA);
+    }
+
+    /**
+     * Converte a data de um lançamento para o dia epoch.
+     * 
+     * @param data Data no formato "d/M/yyyy"
+     * @return Dias desde 1/1/1970
+     */
+    public static int converterDia(String data) {
+        return (int) converterData(data).toEpochDay();
+    }
+
+    /**
+     * Formata um dia epoch no formato "d/M/yyyy".
+     * 
+     * @param dia Dias desde 1/1/1970
+     * @return Data formatada
+     */
+    public static String formatarDia(int dia) {
+        return LocalDate.ofEpochDay(dia).format(FORMATO_DATA);
+    }
+
+    /**
+     * Seleciona os lançamentos com data no período, mantendo a ordem do histórico.
+     * 
+     * @param <T> Tipo do lançamento
+     * @param lancamentos Histórico completo
+     * @param dia Função que obtém o dia epoch do lançamento
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Lançamentos do período
+     */
+    public static <T> ArrayList<T> filtrarPeriodo(List<T> lancamentos, ToIntFunction<T> dia,
+                                                  LocalDate inicio, LocalDate fim) {
+        long diaInicial = inicio.toEpochDay();
+        long diaFinal = fim.toEpochDay();
+        ArrayList<T> periodo = new ArrayList<>();
+        for (T lancamento : lancamentos) {
+            int diaLancamento = dia.applyAsInt(lancamento);
+            if (diaLancamento >= diaInicial && diaLancamento < diaFinal) {
+                periodo.add(lancamento);
+            }
+        }
+        return periodo;
+    }
+
+    /**
+     * Obtém a posição do primeiro lançamento com dia igual ou posterior ao informado,
+     * em um histórico ordenado por data.
+     * 
+     * @param <T> Tipo do lançamento
+     * @param lancamentos Histórico ordenado por data
+     * @param dia Função que obtém o dia epoch do lançamento
+     * @param alvo Dia epoch procurado
+     * @return Posição do primeiro lançamento a partir do dia, ou o tamanho do histórico
+     */
+    public static <T> int buscarDia(List<T> lancamentos, ToIntFunction<T> dia, int alvo) {
+        int inicio = 0;
+        int fim = lancamentos.size();
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (dia.applyAsInt(lancamentos.get(meio)) < alvo) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Seleciona os lançamentos do período em um histórico ordenado por data,
+     * percorrendo apenas os lançamentos dentro dele.
+     * 
+     * @param <T> Tipo do lançamento
+     * @param lancamentos Histórico ordenado por data
+     * @param dia Função que obtém o dia epoch do lançamento
+     * @param inicio Data inicial (inclusive)
+     * @param fim Data final (exclusive)
+     * @return Lançamentos do período
+     */
+    public static <T> ArrayList<T> periodoOrdenado(List<T> lancamentos, ToIntFunction<T> dia,
+                                                   LocalDate inicio, LocalDate fim) {
+        int primeiro = buscarDia(lancamentos, dia, (int) inicio.toEpochDay());
+        int ultimo = buscarDia(lancamentos, dia, (int) fim.toEpochDay());
+        return new ArrayList<>(lancamentos.subList(primeiro, Math.max(primeiro, ultimo)));
+    }
+
+    /**
+     * Inclui um lançamento na posição da sua data, depois dos lançamentos do mesmo dia.
+     * 
+     * @param <T> Tipo do lançamento
+     * @param lancamentos Histórico ordenado por data
+     * @param lancamento Lançamento a incluir
+     * @param dia Função que obtém o dia epoch do lançamento
+     * @return true se o lançamento foi incluído ao final do histórico
+     */
+    public static <T> boolean inserirPorData(ArrayList<T> lancamentos, T lancamento, ToIntFunction<T> dia) {
+        int tamanho = lancamentos.size();
+        int diaLancamento = dia.applyAsInt(lancamento);
+        if (tamanho == 0 || dia.applyAsInt(lancamentos.get(tamanho - 1)) <= diaLancamento) {
+            lancamentos.add(lancamento); // caso comum: lançamentos em ordem cronológica
+            return true;
+        }
+        lancamentos.add(buscarDia(lancamentos, dia, diaLancamento + 1), lancamento);
+        return false;
+    }
+
+    /**
+     * Remove o último lançamento de um dia que atenda ao critério informado. Como
+     * os lançamentos do mesmo dia ficam na ordem de lançamento, remove o mais
+     * recente deles, desfazendo o seu lançamento.
+     * 
+     * @param <T> Tipo do lançamento
+     * @param lancamentos Histórico ordenado por data
+     * @param dia Função que obtém o dia epoch do lançamento
+     * @param diaLancamento Dia epoch do lançamento a remover
+     * @param criterio Critério que identifica o lançamento
+     * @return true se um lançamento foi removido
+     */
+    public static <T> boolean removerUltimoDoDia(ArrayList<T> lancamentos, ToIntFunction<T> dia,
+                                                 int diaLancamento, Predicate<T> criterio) {
+        for (int i = buscarDia(lancamentos, dia, diaLancamento + 1) - 1;
+             i >= 0 && dia.applyAsInt(lancamentos.get(i)) == diaLancamento; i--) {
+            if (criterio.test(lancamentos.get(i))) {
+                lancamentos.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ordena um histórico por data, mantendo a ordem de lançamento dentro do mesmo dia.
+     * Históricos gravados antes da ordenação podem estar na ordem de lançamento.
+     * 
+     * @param <T> Tipo do lançamento
+     * @param lancamentos Histórico a ordenar
+     * @param dia Função que obtém o dia epoch do lançamento
+     * @return O próprio histórico, ordenado
+     */
+    public static <T> ArrayList<T> ordenarPorData(ArrayList<T> lancamentos, ToIntFunction<T> dia) {
+        for (int i = 1; i < lancamentos.size(); i++) {
+            if (dia.applyAsInt(lancamentos.get(i - 1)) > dia.applyAsInt(lancamentos.get(i))) {
+                lancamentos.sort(Comparator.comparingInt(dia)); // estável
+                break;
+            }
+        }
+        return lancamentos;
+    }
+}
@@ -11,6 +11,9 @@ import java.math.RoundingMode;
  * Todos os valores monetários são tratados com 2 casas decimais e vírgula
  * como separador decimal, seguindo o padrão brasileiro.</p>
  * 
+ * <p>As conversões são feitas em centavos por {@link Centavos}, sem criar
+ * {@link BigDecimal} para valores que já têm 2 casas decimais.</p>
+ * 
  * <p>Funcionalidades principais:</p>
  * <ul>
  *   <li>Truncamento de valores para 2 casas decimais (sem arredondamento)</li>
@@ -39,25 +42,22 @@ public class ValorMonetarioUtils {
     /**
      * Trunca um valor monetário para 2 casas decimais sem arredondamento.
      * 
-     * <p>Este método converte um valor double para BigDecimal, aplica
-     * truncamento para 2 casas decimais usando RoundingMode.DOWN,
-     * e retorna o resultado como double.</p>
+     * <p>O truncamento equivale a RoundingMode.DOWN sobre
+     * {@code BigDecimal.valueOf(valor)}.</p>
      * 
      * @param valor O valor a ser truncado
      * @return O valor truncado para 2 casas decimais
      */
     public static double truncarValorMonetario(double valor) {
-        BigDecimal bd = BigDecimal.valueOf(valor);
-        bd = bd.setScale(2, RoundingMode.DOWN);
-        return bd.doubleValue();
+        return Centavos.paraDouble(Centavos.truncar(valor));
     }
     
     /**
      * Trunca um valor monetário para 2 casas decimais a partir de uma String.
      * 
      * <p>Este método aceita valores monetários em formato String, que podem
-     * conter vírgula como separador decimal. Valores nulos ou inválidos
-     * retornam 0.0.</p>
+     * conter vírgula como separador decimal e pontos separando os milhares
+     * (ex: "1.234,56"). Valores nulos ou inválidos retornam 0.0.</p>
      * 
      * @param valorStr O valor como String (pode conter vírgula como separador decimal)
      * @return O valor truncado para 2 casas decimais
@@ -67,12 +67,8 @@ public class ValorMonetarioUtils {
             return 0.0;
         }
         
-        // Substitui vírgula por ponto para parsing
-        String valorNormalizado = valorStr.replace(",", ".");
-        
         try {
-            double valor = Double.parseDouble(valorNormalizado);
-            return truncarValorMonetario(valor);
+            return Centavos.paraDouble(Centavos.ler(valorStr));
         } catch (NumberFormatException e) {
             return 0.0;
         }
@@ -88,10 +84,7 @@ public class ValorMonetarioUtils {
      * @return O valor formatado como String (ex: "123,45")
      */
     public static String formatarValorMonetario(double valor) {
-        double valorTruncado = truncarValorMonetario(valor);
-        
-        // Sempre mostra 2 casas decimais para valores monetários
-        return String.format("%.2f", valorTruncado).replace(".", ",");
+        return Centavos.formatar(Centavos.truncar(valor));
     }
     
     /**
@@ -104,8 +97,14 @@ public class ValorMonetarioUtils {
      * @return O valor formatado como String (ex: "123,45")
      */
     public static String formatarValorMonetario(String valorStr) {
-        double valor = truncarValorMonetario(valorStr);
-        return formatarValorMonetario(valor);
+        if (valorStr == null || valorStr.isBlank()) {
+            return "0,00";
+        }
+        try {
+            return Centavos.formatar(Centavos.ler(valorStr));
+        } catch (NumberFormatException e) {
+            return "0,00";
+        }
     }
     
     /**
@@ -139,10 +138,7 @@ public class ValorMonetarioUtils {
             return "0,00";
         }
         
-        BigDecimal valorTruncado = truncarValorMonetario(valor);
-        
-        // Sempre mostra 2 casas decimais para valores monetários
-        return String.format("%.2f", valorTruncado).replace(".", ",");
+        return Centavos.formatar(truncarValorMonetario(valor).unscaledValue().longValueExact());
     }
     
     /**